@@ -1,9 +1,28 @@
 package edu.ntnu.idi.idatt;
 
+import edu.ntnu.idi.idatt.controller.CommandRunner;
 import edu.ntnu.idi.idatt.controller.DiaryController;
+import edu.ntnu.idi.idatt.model.entity.Author;
 import edu.ntnu.idi.idatt.model.register.AuthorRegister;
 import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.model.storage.DurabilityMode;
+import edu.ntnu.idi.idatt.model.storage.MappedEntryStore;
+import edu.ntnu.idi.idatt.model.storage.SegmentPartitioning;
+import edu.ntnu.idi.idatt.server.DiaryServer;
+import edu.ntnu.idi.idatt.view.EntryFormat;
 import edu.ntnu.idi.idatt.view.UserInterface;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Application entry point that wires together MVC components and starts the UI.
@@ -15,18 +34,206 @@ import edu.ntnu.idi.idatt.view.UserInterface;
  * </p>
  */
 public class App {
+  private static final String DATA_OPTION = "--data";
+  private static final String DURABILITY_OPTION = "--durability";
+  private static final String SERVE_OPTION = "--serve";
+  private static final String COMPACTION_THRESHOLD_OPTION = "--compaction-threshold";
+  private static final String COMPACT_FLAG = "--compact";
+  private static final String COMPRESS_FLAG = "--compress";
+  private static final AtomicReference<DiaryServer> SERVER = new AtomicReference<>();
+
   /**
    * Program entry point. Constructs model, view and controller components and
    * starts the controller to begin the user interaction loop.
    *
-   * @param args command line arguments (not used)
+   * <p>By default all data is kept in memory. With {@code --data <directory>}
+   * entries are stored in memory-mapped segment files in that directory and
+   * loaded again on the next start. {@code --durability async|batched|sync}
+   * selects how the store's journal writer persists changes, and
+   * {@code --compress} compresses the text of sealed segments.
+   * {@code --compaction-threshold <share>} sets the share of dead records at
+   * which the store compacts its segments in the background. If the JVM is
+   * terminated without using the exit menu, a shutdown hook stops the server,
+   * waiting for requests in flight, and only then closes the store.
+   * </p>
+   *
+   * <p>With {@code --serve <port>} the console menu is replaced by an HTTP API
+   * (see {@link DiaryServer}) which runs until the process is terminated.
+   * Any other arguments are run as a single headless command (see
+   * {@link CommandRunner}), for example {@code --data diary stats}; the
+   * process exits with status 1 if the command failed. {@code --compact}
+   * lists entries in the console menu one line each.
+   * </p>
+   *
+   * @param args command line arguments; optionally {@code --data <directory>},
+   *             {@code --durability <mode>}, {@code --compaction-threshold <share>},
+   *             {@code --serve <port>},
+   *             {@code --compact}, {@code --compress} and a command
    */
   public static void main(String[] args) {
     UserInterface ui = new UserInterface();
-    DiaryRegister diaryRegister = new DiaryRegister();
     AuthorRegister authorRegister = new AuthorRegister();
+    String dataOption = findOption(args, DATA_OPTION);
+    String durabilityOption = findOption(args, DURABILITY_OPTION);
+    String serveOption = findOption(args, SERVE_OPTION);
+    List<String> command = commandArguments(args);
+    if (List.of(args).contains(COMPACT_FLAG)) {
+      ui.setEntryFormat(EntryFormat.COMPACT);
+    }
+
+    if (dataOption == null) {
+      Runtime.getRuntime().addShutdownHook(new Thread(App::stopServer));
+      exit(run(new DiaryRegister(), authorRegister, null, ui, serveOption, command));
+      return;
+    }
+
+    Path dataDirectory = Path.of(dataOption);
+    DurabilityMode durability;
+    try {
+      durability = durabilityOption == null
+              ? DurabilityMode.BATCHED
+              : DurabilityMode.valueOf(durabilityOption.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      ui.printError("Unknown durability mode " + durabilityOption
+              + ", use async, batched or sync.");
+      exit(1);
+      return;
+    }
+
+    int status;
+    try (MappedEntryStore store = MappedEntryStore.open(
+            dataDirectory, SegmentPartitioning.MONTH, durability)) {
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        stopServer();
+        closeQuietly(store);
+      }));
+      if (!configure(store, args, ui)) {
+        status = 1;
+      } else {
+        for (Author author : store.getAuthors()) {
+          authorRegister.addAuthor(author);
+        }
+        status = run(new DiaryRegister(store), authorRegister, store, ui, serveOption, command);
+      }
+    } catch (IOException e) {
+      ui.printError("Could not use data directory " + dataDirectory + ": " + e.getMessage());
+      status = 1;
+    }
+    exit(status);
+  }
+
+  /**
+   * Applies the compression and compaction options to {@code store}, returning
+   * {@code false} after reporting an invalid compaction threshold.
+   */
+  private static boolean configure(MappedEntryStore store, String[] args, UserInterface ui) {
+    store.setCompressSealedSegments(List.of(args).contains(COMPRESS_FLAG));
+    String compactionOption = findOption(args, COMPACTION_THRESHOLD_OPTION);
+    if (compactionOption == null) {
+      return true;
+    }
+    try {
+      store.setCompactionThreshold(Double.parseDouble(compactionOption));
+      return true;
+    } catch (IllegalArgumentException e) {
+      ui.printError("Invalid compaction threshold " + compactionOption
+              + ", use a share above 0 and at most 1.");
+      return false;
+    }
+  }
+
+  private static int run(DiaryRegister diaryRegister, AuthorRegister authorRegister,
+                         MappedEntryStore store, UserInterface ui, String serveOption,
+                         List<String> command) {
+    if (!command.isEmpty()) {
+      Writer out = new BufferedWriter(
+              new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+      BufferedReader in = new BufferedReader(
+              new InputStreamReader(System.in, StandardCharsets.UTF_8));
+      try {
+        CommandRunner runner = new CommandRunner(diaryRegister, authorRegister, in, out);
+        runner.setStore(store);
+        int status = runner.run(command);
+        out.flush();
+        return status;
+      } catch (IOException e) {
+        System.err.println("Could not write output: " + e.getMessage());
+        return 1;
+      }
+    }
+
+    if (serveOption == null) {
+      DiaryController controller = new DiaryController(diaryRegister, authorRegister, ui);
+      controller.setSampleData(store == null);
+      controller.start();
+      return 0;
+    }
+
+    int port;
+    try {
+      port = Integer.parseInt(serveOption);
+    } catch (NumberFormatException e) {
+      ui.printError("Invalid port " + serveOption);
+      return 1;
+    }
+    try (DiaryServer server = DiaryServer.start(
+            new InetSocketAddress(port), diaryRegister, authorRegister)) {
+      SERVER.set(server);
+      ui.printMessage("Serving diary on http://localhost:" + server.getPort() + "/entries");
+      server.awaitTermination();
+    } catch (IOException e) {
+      ui.printError("Could not start server on port " + port + ": " + e.getMessage());
+      return 1;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return 0;
+  }
+
+  private static String findOption(String[] args, String option) {
+    for (int i = 0; i < args.length - 1; i++) {
+      if (option.equals(args[i])) {
+        return args[i + 1];
+      }
+    }
+    return null;
+  }
+
+  private static List<String> commandArguments(String[] args) {
+    List<String> command = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      if (isGlobalOption(args[i])) {
+        i++;
+      } else if (!COMPACT_FLAG.equals(args[i]) && !COMPRESS_FLAG.equals(args[i])) {
+        command.add(args[i]);
+      }
+    }
+    return command;
+  }
+
+  private static boolean isGlobalOption(String arg) {
+    return DATA_OPTION.equals(arg) || DURABILITY_OPTION.equals(arg) || SERVE_OPTION.equals(arg)
+            || COMPACTION_THRESHOLD_OPTION.equals(arg);
+  }
+
+  private static void exit(int status) {
+    if (status != 0) {
+      System.exit(status);
+    }
+  }
+
+  private static void stopServer() {
+    DiaryServer server = SERVER.get();
+    if (server != null) {
+      server.close();
+    }
+  }
 
-    DiaryController controller = new DiaryController(diaryRegister, authorRegister, ui);
-    controller.start();
+  private static void closeQuietly(MappedEntryStore store) {
+    try {
+      store.close();
+    } catch (IOException | IllegalStateException e) {
+      System.err.println("Failed to close data directory: " + e.getMessage());
+    }
   }
-}
\ No newline at end of file
+}
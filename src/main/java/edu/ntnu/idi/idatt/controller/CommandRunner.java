@@ -0,0 +1,367 @@
+package edu.ntnu.idi.idatt.controller;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.io.DiaryExporter;
+import edu.ntnu.idi.idatt.model.io.DiaryImporter;
+import edu.ntnu.idi.idatt.model.io.DiaryJson;
+import edu.ntnu.idi.idatt.model.io.ImportReport;
+import edu.ntnu.idi.idatt.model.io.TransferFormat;
+import edu.ntnu.idi.idatt.model.register.AuthorRegister;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.model.storage.MappedEntryStore;
+import edu.ntnu.idi.idatt.util.Json;
+import edu.ntnu.idi.idatt.util.Validators;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Runs diary commands without menus or prompts, for use from scripts.
+ *
+ * <p>Every command writes machine-readable output: entries as one JSON object
+ * per line (see {@link DiaryJson}), other results and errors as a single JSON
+ * object. Output is written to the given {@link Writer}, which the caller
+ * should buffer and flush once at the end.
+ * </p>
+ *
+ * <p>Commands:
+ * <ul>
+ *   <li>{@code add --title T --description D --email E [--first-name F
+ *   --last-name L] [--time 2025-01-31T12:00]}</li>
+ *   <li>{@code get <id>} and {@code delete <id>}</li>
+ *   <li>{@code list}</li>
+ *   <li>{@code search --keyword K | --phrase P | --author E | --date D | --from D
+ *   --to D}</li>
+ *   <li>{@code stats}, which includes the segment store's figures when one is
+ *   set with {@link #setStore(MappedEntryStore)}</li>
+ *   <li>{@code import <file> [--format csv|jsonl]} and
+ *   {@code export <file> [--format csv|jsonl]}</li>
+ *   <li>{@code run [<file>|-]} reads one command per line from a file or from
+ *   standard input. Blank lines and lines starting with {@code #} are skipped;
+ *   arguments containing spaces are written in double quotes.</li>
+ * </ul>
+ * </p>
+ */
+public class CommandRunner {
+  private final DiaryRegister diaryRegister;
+  private final AuthorRegister authorRegister;
+  private final BufferedReader in;
+  private final Writer out;
+  private final StringBuilder line;
+  private MappedEntryStore store;
+
+  /**
+   * Constructs a runner on the given registers.
+   *
+   * @param diaryRegister the register the commands operate on
+   * @param authorRegister the register used to resolve authors
+   * @param in the source of commands for {@code run -}
+   * @param out where results are written
+   * @throws IllegalArgumentException if any argument is null
+   */
+  public CommandRunner(DiaryRegister diaryRegister, AuthorRegister authorRegister,
+                       BufferedReader in, Writer out) {
+    Validators.validateNotNull(diaryRegister, "Diary register");
+    Validators.validateNotNull(authorRegister, "Author register");
+    Validators.validateNotNull(in, "Input");
+    Validators.validateNotNull(out, "Output");
+    this.diaryRegister = diaryRegister;
+    this.authorRegister = authorRegister;
+    this.in = in;
+    this.out = out;
+    this.line = new StringBuilder(512);
+  }
+
+  /**
+   * Sets the store behind the diary register, whose figures are then added to
+   * the output of {@code stats}.
+   *
+   * @param store the segment store, or {@code null} for an in-memory register
+   */
+  public void setStore(MappedEntryStore store) {
+    this.store = store;
+  }
+
+  /**
+   * Runs one command.
+   *
+   * @param args the command name followed by its arguments
+   * @return {@code 0} if the command succeeded, {@code 1} if it failed; the
+   *         reason is written as {@code {"error":...}}
+   * @throws IOException if the output cannot be written
+   */
+  public int run(List<String> args) throws IOException {
+    try {
+      if (!args.isEmpty() && "run".equals(args.get(0))) {
+        return runScript(args.size() > 1 ? args.get(1) : "-");
+      }
+      execute(args);
+      return 0;
+    } catch (IllegalArgumentException | DateTimeException | IOException e) {
+      writeError(0, e.getMessage());
+      return 1;
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private int runScript(String source) throws IOException {
+    if ("-".equals(source)) {
+      return runScript(in);
+    }
+    try (BufferedReader reader = Files.newBufferedReader(Path.of(source),
+            StandardCharsets.UTF_8)) {
+      return runScript(reader);
+    }
+  }
+
+  private int runScript(BufferedReader reader) throws IOException {
+    int status = 0;
+    int lineNumber = 0;
+    String command;
+    while ((command = reader.readLine()) != null) {
+      lineNumber++;
+      if (command.isBlank() || command.stripLeading().startsWith("#")) {
+        continue;
+      }
+      try {
+        List<String> args = tokenize(command);
+        if ("run".equals(args.get(0))) {
+          throw new IllegalArgumentException("Scripts cannot run other scripts");
+        }
+        execute(args);
+      } catch (IllegalArgumentException | DateTimeException | IOException e) {
+        writeError(lineNumber, e.getMessage());
+        status = 1;
+      }
+    }
+    return status;
+  }
+
+  private void execute(List<String> args) throws IOException {
+    if (args.isEmpty()) {
+      throw new IllegalArgumentException("Missing command");
+    }
+    Arguments arguments = Arguments.parse(args.subList(1, args.size()));
+    switch (args.get(0)) {
+      case "add" -> add(arguments);
+      case "get" -> get(arguments);
+      case "delete" -> delete(arguments);
+      case "list" -> diaryRegister.forEachEntry(this::writeEntry);
+      case "search" -> search(arguments);
+      case "stats" -> stats();
+      case "import" -> importFile(arguments);
+      case "export" -> exportFile(arguments);
+      default -> throw new IllegalArgumentException("Unknown command " + args.get(0)
+              + "; use add, get, delete, list, search, stats, import, export or run");
+    }
+  }
+
+  private void add(Arguments arguments) {
+    Author author = authorRegister.resolveAuthor(arguments.option("first-name"),
+            arguments.option("last-name"), arguments.option("email"));
+    String time = arguments.option("time");
+    DiaryEntry entry = time == null
+            ? new DiaryEntry(arguments.option("title"), arguments.option("description"), author)
+            : new DiaryEntry(arguments.option("title"), arguments.option("description"), author,
+                    LocalDateTime.parse(time));
+    diaryRegister.addEntry(entry);
+    writeEntry(entry);
+  }
+
+  private void get(Arguments arguments) {
+    writeEntry(requireEntry(arguments));
+  }
+
+  private void delete(Arguments arguments) throws IOException {
+    DiaryEntry entry = requireEntry(arguments);
+    diaryRegister.removeEntry(entry);
+    line.setLength(0);
+    line.append("{\"deleted\":").append(entry.getEntryId()).append('}');
+    writeLine();
+  }
+
+  private void search(Arguments arguments) {
+    Consumer<DiaryEntry> action = this::writeEntry;
+    if (arguments.option("keyword") != null) {
+      diaryRegister.forEachKeywordMatch(arguments.option("keyword"), action);
+    } else if (arguments.option("phrase") != null) {
+      diaryRegister.searchPhrase(arguments.option("phrase")).forEach(action);
+    } else if (arguments.option("author") != null) {
+      diaryRegister.forEachEntryByAuthor(arguments.option("author"), action);
+    } else if (arguments.option("date") != null) {
+      LocalDate date = LocalDate.parse(arguments.option("date"));
+      diaryRegister.forEachEntryBetweenDates(date, date, action);
+    } else if (arguments.option("from") != null && arguments.option("to") != null) {
+      diaryRegister.forEachEntryBetweenDates(LocalDate.parse(arguments.option("from")),
+              LocalDate.parse(arguments.option("to")), action);
+    } else {
+      throw new IllegalArgumentException(
+              "search needs --keyword, --phrase, --author, --date or --from and --to");
+    }
+  }
+
+  private void stats() throws IOException {
+    line.setLength(0);
+    DiaryJson.appendStatistics(line, diaryRegister.getEntryCount(),
+            diaryRegister.getAuthorStatistics(), store == null ? null : store.getStatistics());
+    writeLine();
+  }
+
+  private void importFile(Arguments arguments) throws IOException {
+    Path file = Path.of(arguments.positional(0, "file"));
+    DiaryImporter importer = new DiaryImporter(diaryRegister, authorRegister);
+    ImportReport report = importer.importFile(file, formatOf(arguments, file), null);
+    line.setLength(0);
+    line.append("{\"imported\":").append(report.imported())
+            .append(",\"rejected\":").append(report.rejected())
+            .append(",\"elapsedMillis\":").append(report.elapsedNanos() / 1_000_000)
+            .append('}');
+    writeLine();
+  }
+
+  private void exportFile(Arguments arguments) throws IOException {
+    Path file = Path.of(arguments.positional(0, "file"));
+    DiaryExporter exporter = new DiaryExporter(diaryRegister);
+    long written = exporter.exportFile(file, formatOf(arguments, file), null);
+    line.setLength(0);
+    line.append("{\"exported\":").append(written).append('}');
+    writeLine();
+  }
+
+  private DiaryEntry requireEntry(Arguments arguments) {
+    String id = arguments.positional(0, "id");
+    DiaryEntry entry = diaryRegister.getEntryById(Integer.parseInt(id));
+    if (entry == null) {
+      throw new IllegalArgumentException("No entry with id " + id);
+    }
+    return entry;
+  }
+
+  private static TransferFormat formatOf(Arguments arguments, Path file) {
+    String format = arguments.option("format");
+    if (format == null) {
+      return file.toString().endsWith(".jsonl") ? TransferFormat.JSON_LINES : TransferFormat.CSV;
+    }
+    return switch (format) {
+      case "csv" -> TransferFormat.CSV;
+      case "jsonl" -> TransferFormat.JSON_LINES;
+      default -> throw new IllegalArgumentException("Unknown format " + format
+              + ", use csv or jsonl");
+    };
+  }
+
+  private void writeEntry(DiaryEntry entry) {
+    line.setLength(0);
+    DiaryJson.appendEntry(line, entry);
+    try {
+      writeLine();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void writeError(int lineNumber, String message) throws IOException {
+    line.setLength(0);
+    line.append('{');
+    if (lineNumber > 0) {
+      line.append("\"line\":").append(lineNumber).append(',');
+    }
+    line.append("\"error\":");
+    Json.appendQuoted(line, message == null ? "Unknown error" : message);
+    line.append('}');
+    writeLine();
+  }
+
+  private void writeLine() throws IOException {
+    out.append(line).append('\n');
+  }
+
+  /**
+   * Splits a script line into arguments at whitespace. Double quotes group
+   * words into one argument, and a backslash inside quotes escapes the next
+   * character.
+   */
+  static List<String> tokenize(String command) {
+    List<String> args = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+    boolean quoted = false;
+    boolean inArgument = false;
+    for (int i = 0; i < command.length(); i++) {
+      char c = command.charAt(i);
+      if (quoted) {
+        if (c == '"') {
+          quoted = false;
+        } else if (c == '\\' && i + 1 < command.length()) {
+          current.append(command.charAt(++i));
+        } else {
+          current.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+        inArgument = true;
+      } else if (Character.isWhitespace(c)) {
+        if (inArgument) {
+          args.add(current.toString());
+          current.setLength(0);
+          inArgument = false;
+        }
+      } else {
+        current.append(c);
+        inArgument = true;
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Unterminated quote");
+    }
+    if (inArgument) {
+      args.add(current.toString());
+    }
+    return args;
+  }
+
+  /**
+   * The positional arguments and {@code --name value} options of a command.
+   */
+  private record Arguments(List<String> positional, Map<String, String> options) {
+    static Arguments parse(List<String> args) {
+      List<String> positional = new ArrayList<>();
+      Map<String, String> options = new HashMap<>();
+      for (int i = 0; i < args.size(); i++) {
+        String arg = args.get(i);
+        if (!arg.startsWith("--")) {
+          positional.add(arg);
+        } else if (i + 1 < args.size()) {
+          options.put(arg.substring(2), args.get(++i));
+        } else {
+          throw new IllegalArgumentException("Missing value for " + arg);
+        }
+      }
+      return new Arguments(positional, options);
+    }
+
+    String option(String name) {
+      return options.get(name);
+    }
+
+    String positional(int index, String name) {
+      if (index >= positional.size()) {
+        throw new IllegalArgumentException("Missing " + name);
+      }
+      return positional.get(index);
+    }
+  }
+}
@@ -1,13 +1,31 @@
 package edu.ntnu.idi.idatt.controller;
 
+import edu.ntnu.idi.idatt.model.analytics.TermStatistics;
 import edu.ntnu.idi.idatt.model.entity.Author;
 import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.io.DiaryExporter;
+import edu.ntnu.idi.idatt.model.io.DiaryImporter;
+import edu.ntnu.idi.idatt.model.io.ImportReport;
+import edu.ntnu.idi.idatt.model.io.TransferFormat;
 import edu.ntnu.idi.idatt.model.register.AuthorRegister;
 import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.model.register.PageCursor;
+import edu.ntnu.idi.idatt.model.register.TimeBucket;
+import edu.ntnu.idi.idatt.model.search.SearchHit;
 import edu.ntnu.idi.idatt.view.UserInterface;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Controller class for managing diary entries and authors.
@@ -22,10 +40,18 @@ public class DiaryController {
   private static final String INVALID_CHOICE_MESSAGE = "Invalid choice, please try again.";
   private static final String NO_ENTRIES_MESSAGE = "No entries found.";
   private static final String LIST_SEPARATOR = "------------------------------";
+  private static final int PAGE_SIZE = 10;
+  private static final int HEATMAP_WEEKS = 26;
+  private static final int RANKED_RESULTS = 50;
+  private static final int SHORT_WORD_LENGTH = 4;
+  private static final int SIMILAR_ENTRIES = 5;
+  private static final Pattern NEAR_QUERY =
+          Pattern.compile("\\s*(\\S+)\\s+NEAR/(\\d{1,4})\\s+(\\S+)\\s*");
 
   private final DiaryRegister diaryRegister;
   private final AuthorRegister authorRegister;
   private final UserInterface ui;
+  private boolean sampleData;
 
   /**
    * Constructs a controller that coordinates the diary and author registers
@@ -42,17 +68,30 @@ public class DiaryController {
     this.ui = ui;
   }
 
+  /**
+   * Sets whether {@link #start()} fills an empty register with sample entries.
+   * Only enable this for an in-memory register, so sample data never ends up
+   * in a persistent store.
+   *
+   * @param sampleData {@code true} to add sample entries to an empty register
+   */
+  public void setSampleData(boolean sampleData) {
+    this.sampleData = sampleData;
+  }
+
   /**
    * Starts the main interaction loop for the diary application.
    *
-   * <p>This method initializes the user interface, adds hellosdfsdf data,
-   * and enters a loop to handle user commands for managing diary entries
-   * and authors.</p>
+   * <p>This method initializes the user interface, adds sample data if enabled
+   * and the register is empty, and enters a loop to handle user commands for
+   * managing diary entries and authors.</p>
    */
   public void start() {
     ui.init();
 
-    addTestData();
+    if (sampleData && diaryRegister.getEntryCount() == 0) {
+      addTestData();
+    }
 
     boolean running = true;
     while (running) {
@@ -65,8 +104,12 @@ public class DiaryController {
         case "3" -> showAllEntries();
         case "4" -> searchMenu();
         case "5" -> showAuthorStatistics();
+        case "6" -> transferMenu();
+        case "7" -> showActivityHeatmap();
+        case "8" -> viewEntry();
         case "0" -> {
           ui.printMessage("Shutting down... Goodbye!");
+          saveChanges();
           running = false;
         }
         default -> ui.printError(INVALID_CHOICE_MESSAGE);
@@ -74,13 +117,30 @@ public class DiaryController {
     }
   }
 
+  /**
+   * Writes any changes still buffered by the diary register before the
+   * application exits.
+   *
+   * <p>Mutations are persisted in the background while the application runs,
+   * so this is the only place the user waits for disk I/O.</p>
+   */
+  private void saveChanges() {
+    try {
+      diaryRegister.flush();
+    } catch (IOException | IllegalStateException e) {
+      ui.printError("Failed to save changes: " + e.getMessage());
+    }
+  }
+
   /**
    * Creates a new diary entry by prompting the user for details.
    *
    * <p>This method guides the user through selecting or creating an author,
    * and then collects the title and description for the new diary entry.
    * It handles validation and displays appropriate messages based on the
-   * success or failure of the operation.</p>
+   * success or failure of the operation. If stored entries have nearly the
+   * same description, they are shown and the user decides whether to save
+   * the entry anyway.</p>
    */
   private void createNewEntry() {
     ui.printMessage("Creating entry...");
@@ -99,6 +159,14 @@ public class DiaryController {
 
     try {
       DiaryEntry diaryEntry = new DiaryEntry(title, description, author);
+      List<DiaryEntry> duplicates = diaryRegister.findDuplicates(diaryEntry);
+      if (!duplicates.isEmpty()) {
+        ui.printDuplicateWarning(duplicates);
+        if (!"y".equalsIgnoreCase(ui.readInput("Save anyway? (y/n)"))) {
+          ui.printMessage("Entry not saved.");
+          return;
+        }
+      }
       diaryRegister.addEntry(diaryEntry);
       ui.printSuccess("Entry created! Got ID: " +  diaryEntry.getEntryId());
     } catch (IllegalArgumentException | IllegalStateException e) {
@@ -244,12 +312,12 @@ public class DiaryController {
    * provides feedback on the success or failure of the operation.</p>
    */
   private void deleteEntry() {
-    if (diaryRegister.getAllEntries().isEmpty()) {
+    if (diaryRegister.getEntryCount() == 0) {
       ui.printMessage(NO_ENTRIES_MESSAGE);
       return;
     }
 
-    ui.printDiaryEntryList(diaryRegister.getAllEntries());
+    pageEntries();
     ui.printDeleteEntryTitle();
     String entryId = ui.readInput("Enter ID to delete");
 
@@ -263,16 +331,120 @@ public class DiaryController {
     }
   }
 
+  /**
+   * Shows one entry chosen by id, followed by the entries most similar to it.
+   */
+  private void viewEntry() {
+    String entryId = ui.readInput("Enter ID to view");
+    if (entryId.isBlank()) {
+      return;
+    }
+    try {
+      DiaryEntry entry = diaryRegister.getEntryById(Integer.parseInt(entryId.trim()));
+      if (entry == null) {
+        ui.printError("No entry with ID " + entryId.trim());
+        return;
+      }
+      ui.printSingleEntry(entry);
+      ui.printSimilarEntries(diaryRegister.findSimilarEntries(entry, SIMILAR_ENTRIES));
+    } catch (IllegalArgumentException e) {
+      ui.printError(e.getMessage());
+    }
+  }
+
   /**
    * Displays all diary entries to the user.
    *
-   * <p>This method retrieves all diary entries from the diary register
-   * and uses the user interface to print the list of entries. If no entries
-   * are found, an appropriate message is displayed.</p>
+   * <p>This method pages through the entries of the diary register, newest
+   * first. If no entries are found, an appropriate message is displayed.</p>
    */
   private void showAllEntries() {
-    ui.printDiaryEntryList(diaryRegister.getAllEntries());
-    ui.readInput("press enter to exit");
+    if (diaryRegister.getEntryCount() == 0) {
+      ui.printMessage(NO_ENTRIES_MESSAGE);
+      return;
+    }
+    pageEntries();
+  }
+
+  /**
+   * Shows the register one screen at a time, newest first.
+   *
+   * <p>Each page is fetched from the register only when the user moves to it,
+   * using the last entry shown as the cursor. The cursors of earlier pages are
+   * kept so the user can go back, and a date can be entered to jump to the
+   * newest entry on or before that date.</p>
+   */
+  private void pageEntries() {
+    Deque<PageCursor> earlierPages = new ArrayDeque<>();
+    PageCursor cursor = PageCursor.FIRST;
+    while (true) {
+      List<DiaryEntry> page = diaryRegister.getEntriesPage(cursor, PAGE_SIZE + 1);
+      boolean hasNext = page.size() > PAGE_SIZE;
+      if (hasNext) {
+        page = page.subList(0, PAGE_SIZE);
+      }
+      ui.printEntryPage("ENTRIES", page, earlierPages.size() + 1);
+
+      switch (ui.readPagerCommand(!earlierPages.isEmpty(), hasNext, true)) {
+        case "n", "" -> {
+          if (!hasNext) {
+            return;
+          }
+          earlierPages.push(cursor);
+          cursor = PageCursor.after(page.get(page.size() - 1));
+        }
+        case "p" -> {
+          if (!earlierPages.isEmpty()) {
+            cursor = earlierPages.pop();
+          }
+        }
+        case "d" -> {
+          try {
+            LocalDate date = LocalDate.parse(ui.readInput("Jump to date (yyyy-mm-dd)"));
+            earlierPages.clear();
+            cursor = PageCursor.onOrBefore(date);
+          } catch (DateTimeParseException e) {
+            ui.printError(e.getMessage());
+          }
+        }
+        case "q" -> {
+          return;
+        }
+        default -> ui.printError(INVALID_CHOICE_MESSAGE);
+      }
+    }
+  }
+
+  /**
+   * Shows search results one screen at a time.
+   *
+   * @param results the results to show
+   */
+  private void pageResults(List<DiaryEntry> results) {
+    if (results.isEmpty()) {
+      ui.printMessage(NO_ENTRIES_MESSAGE);
+      return;
+    }
+    int start = 0;
+    while (true) {
+      int end = Math.min(start + PAGE_SIZE, results.size());
+      boolean hasNext = end < results.size();
+      ui.printEntryPage("SEARCH RESULTS", results.subList(start, end), start / PAGE_SIZE + 1);
+
+      switch (ui.readPagerCommand(start > 0, hasNext, false)) {
+        case "n", "" -> {
+          if (!hasNext) {
+            return;
+          }
+          start = end;
+        }
+        case "p" -> start = Math.max(0, start - PAGE_SIZE);
+        case "q" -> {
+          return;
+        }
+        default -> ui.printError(INVALID_CHOICE_MESSAGE);
+      }
+    }
   }
 
   private void searchMenu() {
@@ -286,6 +458,10 @@ public class DiaryController {
         case "2" -> searchByDate();
         case "3" -> searchBetweenDate();
         case "4" -> searchByAuthor();
+        case "5" -> searchRanked();
+        case "6" -> searchFuzzy();
+        case "7" -> searchPhrase();
+        case "8" -> ui.printDuplicateClusters(diaryRegister.findDuplicateClusters());
         case "0", "" -> searching = false;
         default -> ui.printError(INVALID_CHOICE_MESSAGE);
       }
@@ -302,7 +478,60 @@ public class DiaryController {
   private void searchByKeyword() {
     String keyword = ui.readInput("Enter keyword");
     List<DiaryEntry> searchResults = diaryRegister.searchByKeyword(keyword);
-    ui.printSearchResults(searchResults);
+    pageResults(searchResults);
+  }
+
+  /**
+   * Searches diary entries for the words entered by the user and shows the
+   * best matches first.
+   */
+  private void searchRanked() {
+    String query = ui.readInput("Enter search words");
+    if (query.isBlank()) {
+      return;
+    }
+    List<DiaryEntry> searchResults = diaryRegister.searchRanked(query, RANKED_RESULTS).stream()
+            .map(SearchHit::entry)
+            .toList();
+    pageResults(searchResults);
+  }
+
+  /**
+   * Searches diary entries for the words entered by the user, allowing for
+   * typos.
+   *
+   * <p>Queries with only short words allow one edit per word, since two
+   * edits would match most short words; longer queries allow two.</p>
+   */
+  private void searchFuzzy() {
+    String query = ui.readInput("Enter search words");
+    if (query.isBlank()) {
+      return;
+    }
+    int longestWord = 0;
+    for (String word : query.trim().split("\\s+")) {
+      longestWord = Math.max(longestWord, word.length());
+    }
+    int maxDistance = longestWord <= SHORT_WORD_LENGTH ? 1 : 2;
+    pageResults(diaryRegister.searchFuzzy(query, maxDistance));
+  }
+
+  /**
+   * Searches entry descriptions for a phrase, or for two words close to each
+   * other when the query has the form {@code word NEAR/n word}.
+   */
+  private void searchPhrase() {
+    String query = ui.readInput("Enter a phrase, or two words as 'word NEAR/3 word'");
+    if (query.isBlank()) {
+      return;
+    }
+    Matcher near = NEAR_QUERY.matcher(query);
+    if (near.matches()) {
+      pageResults(diaryRegister.searchNear(near.group(1), near.group(3),
+              Integer.parseInt(near.group(2))));
+    } else {
+      pageResults(diaryRegister.searchPhrase(query));
+    }
   }
 
   /**
@@ -320,7 +549,7 @@ public class DiaryController {
     try {
       LocalDate date = LocalDate.parse(dateString);
       List<DiaryEntry> searchResults = diaryRegister.getEntriesByDate(date);
-      ui.printSearchResults(searchResults);
+      pageResults(searchResults);
     } catch (DateTimeParseException | IllegalArgumentException e) {
       ui.printError(e.getMessage());
     }
@@ -344,7 +573,7 @@ public class DiaryController {
       LocalDate from = LocalDate.parse(fromString);
       LocalDate to = LocalDate.parse(toString);
       List<DiaryEntry> searchResults = diaryRegister.searchEntriesBetweenDates(from, to);
-      ui.printSearchResults(searchResults);
+      pageResults(searchResults);
     } catch (DateTimeParseException | IllegalArgumentException e) {
       ui.printError(e.getMessage());
     }
@@ -369,18 +598,116 @@ public class DiaryController {
       return;
     }
     List<DiaryEntry> searchResults = diaryRegister.getEntriesByAuthor(selectedAuthor.getEmail());
-    ui.printSearchResults(searchResults);
+    pageResults(searchResults);
   }
 
   /**
    * Displays statistics of diary entries per author.
    *
    * <p>This method retrieves the author statistics from the diary register,
-   * which includes the count of entries per author email, and uses the
+   * which includes the count of entries per author email, together with the
+   * approximate distinct terms and top keywords of each author, and uses the
    * user interface to print these statistics to the user.</p>
    */
   private void showAuthorStatistics() {
-    ui.printAuthorStatistics(diaryRegister.getAuthorStatistics());
+    Map<String, Long> authorStatistics = diaryRegister.getAuthorStatistics();
+    Map<String, TermStatistics> termsByAuthor = new HashMap<>();
+    for (String email : authorStatistics.keySet()) {
+      termsByAuthor.put(email, diaryRegister.getTermStatisticsByAuthor(email));
+    }
+    ui.printAuthorStatistics(authorStatistics, diaryRegister.getTermStatistics(),
+            termsByAuthor);
+  }
+
+  /**
+   * Shows a heatmap of the entries written in the last weeks, for all authors
+   * or for one author.
+   *
+   * <p>The counts come from the register's activity rollups, so this does not
+   * scan the entries.</p>
+   */
+  private void showActivityHeatmap() {
+    String email = ui.readInput("Author email (press Enter for all authors)").trim();
+    LocalDate to = LocalDate.now();
+    LocalDate from = to.minusWeeks(HEATMAP_WEEKS - 1L).with(DayOfWeek.MONDAY);
+    try {
+      if (email.isEmpty()) {
+        ui.printActivityHeatmap("Activity of all authors",
+                diaryRegister.getActivity(TimeBucket.DAY, from, to),
+                diaryRegister.getActivity(TimeBucket.MONTH, from, to));
+      } else {
+        ui.printActivityHeatmap("Activity of " + email,
+                diaryRegister.getActivityByAuthor(email, TimeBucket.DAY, from, to),
+                diaryRegister.getActivityByAuthor(email, TimeBucket.MONTH, from, to));
+      }
+    } catch (IllegalArgumentException e) {
+      ui.printError(e.getMessage());
+    }
+  }
+
+  /**
+   * Shows the import/export menu and runs the selected transfer.
+   */
+  private void transferMenu() {
+    boolean transferring = true;
+    while (transferring) {
+      ui.printTransferMenu();
+      String choice = ui.readInput("");
+
+      switch (choice) {
+        case "1" -> importEntries(TransferFormat.CSV);
+        case "2" -> importEntries(TransferFormat.JSON_LINES);
+        case "3" -> exportEntries(TransferFormat.CSV);
+        case "4" -> exportEntries(TransferFormat.JSON_LINES);
+        case "0", "" -> transferring = false;
+        default -> ui.printError(INVALID_CHOICE_MESSAGE);
+      }
+    }
+  }
+
+  /**
+   * Imports entries from a file chosen by the user.
+   *
+   * <p>Progress is shown while the file is read. Rejected records are listed
+   * with their line numbers once the import has finished.</p>
+   *
+   * @param format the format of the file
+   */
+  private void importEntries(TransferFormat format) {
+    String path = ui.readInput("File to import");
+    if (path.isBlank()) {
+      return;
+    }
+
+    try {
+      DiaryImporter importer = new DiaryImporter(diaryRegister, authorRegister);
+      ImportReport report = importer.importFile(Path.of(path), format,
+              ui::printTransferProgress);
+      ui.printImportReport(report);
+    } catch (IOException | InvalidPathException e) {
+      ui.printError("Import failed: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Exports all entries to a file chosen by the user.
+   *
+   * @param format the format to write
+   */
+  private void exportEntries(TransferFormat format) {
+    String path = ui.readInput("File to export to");
+    if (path.isBlank()) {
+      return;
+    }
+
+    try {
+      DiaryExporter exporter = new DiaryExporter(diaryRegister);
+      long written = exporter.exportFile(Path.of(path), format, ui::printTransferProgress);
+      ui.printMessage("");
+      ui.printSuccess("Exported " + written + " entries to " + path);
+    } catch (IOException | InvalidPathException e) {
+      ui.printError("Export failed: " + e.getMessage());
+    }
   }
 
   private void addTestData() {
@@ -0,0 +1,160 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.util.Validators;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes exact term frequencies, average entry length and entries per author
+ * in parallel.
+ *
+ * <p>The entries are split recursively on a fork/join pool. Every worker
+ * thread accumulates into its own tables of primitive counters, so workers
+ * never share a map or box a count, and the per-thread tables are merged once
+ * at the end. Terms are split like {@link Terms}, and
+ * lower-cased one character at a time.
+ * </p>
+ */
+public final class CorpusAnalyzer {
+  private static final int MIN_SPLIT_SIZE = 1024;
+  private static final int SPLITS_PER_THREAD = 8;
+
+  private final int parallelism;
+
+  /**
+   * Creates an analyzer using all available processors.
+   */
+  public CorpusAnalyzer() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates an analyzer using {@code parallelism} worker threads.
+   *
+   * @param parallelism the number of worker threads; must be positive
+   * @throws IllegalArgumentException if {@code parallelism} is not positive
+   */
+  public CorpusAnalyzer(int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be positive");
+    }
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Analyzes {@code entries}. The list must not change during the analysis,
+   * and should support fast random access.
+   *
+   * @param entries the entries to analyze; must be non-null
+   * @return the statistics of the entries
+   * @throws IllegalArgumentException if {@code entries} is null
+   */
+  public CorpusStatistics analyze(List<DiaryEntry> entries) {
+    Validators.validateNotNull(entries, "Entries");
+    Map<Thread, Accumulator> accumulators = new ConcurrentHashMap<>();
+    int splitSize = Math.max(MIN_SPLIT_SIZE,
+            entries.size() / (parallelism * SPLITS_PER_THREAD) + 1);
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.invoke(new Split(entries, 0, entries.size(), splitSize, accumulators));
+    } finally {
+      pool.shutdown();
+    }
+
+    Accumulator total = new Accumulator();
+    for (Accumulator accumulator : accumulators.values()) {
+      total.addAll(accumulator);
+    }
+    double averageLength = total.entries == 0 ? 0 : (double) total.length / total.entries;
+    return new CorpusStatistics(total.entries, total.terms, averageLength,
+            Collections.unmodifiableMap(total.termCounts.toMap()),
+            Collections.unmodifiableMap(total.authorCounts.toMap()));
+  }
+
+  /**
+   * Analyzes entries {@code [from, to)}, splitting the range until it is
+   * small enough to scan.
+   */
+  private static final class Split extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<DiaryEntry> entries;
+    private final int from;
+    private final int to;
+    private final int splitSize;
+    private final Map<Thread, Accumulator> accumulators;
+
+    Split(List<DiaryEntry> entries, int from, int to, int splitSize,
+          Map<Thread, Accumulator> accumulators) {
+      this.entries = entries;
+      this.from = from;
+      this.to = to;
+      this.splitSize = splitSize;
+      this.accumulators = accumulators;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= splitSize) {
+        Accumulator accumulator = accumulators.computeIfAbsent(Thread.currentThread(),
+                thread -> new Accumulator());
+        for (int i = from; i < to; i++) {
+          accumulator.add(entries.get(i));
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new Split(entries, from, middle, splitSize, accumulators),
+              new Split(entries, middle, to, splitSize, accumulators));
+    }
+  }
+
+  /**
+   * The counts of one worker thread.
+   */
+  private static final class Accumulator {
+    private final TermCounter termCounts = new TermCounter();
+    private final TermCounter authorCounts = new TermCounter();
+    private long entries;
+    private long terms;
+    private long length;
+
+    void add(DiaryEntry entry) {
+      String title = entry.getTitle();
+      String description = entry.getDescription();
+      entries++;
+      length += title.length() + description.length();
+      addTerms(title);
+      addTerms(description);
+      authorCounts.add(entry.getAuthor().getEmail(), 1);
+    }
+
+    void addAll(Accumulator other) {
+      termCounts.addAll(other.termCounts);
+      authorCounts.addAll(other.authorCounts);
+      entries += other.entries;
+      terms += other.terms;
+      length += other.length;
+    }
+
+    private void addTerms(String text) {
+      int start = -1;
+      for (int i = 0; i <= text.length(); i++) {
+        boolean inTerm = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+        if (inTerm && start < 0) {
+          start = i;
+        } else if (!inTerm && start >= 0) {
+          termCounts.add(text, start, i, 1);
+          terms++;
+          start = -1;
+        }
+      }
+    }
+  }
+}
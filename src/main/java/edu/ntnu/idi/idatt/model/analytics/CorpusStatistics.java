@@ -0,0 +1,33 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exact statistics over a set of entries, computed by {@link CorpusAnalyzer}.
+ *
+ * @param entryCount the number of entries
+ * @param termCount the number of terms in all titles and descriptions
+ * @param averageLength the average number of characters in title and description
+ * @param termFrequencies the number of occurrences of each lower-cased term
+ * @param entriesPerAuthor the number of entries per author email
+ */
+public record CorpusStatistics(long entryCount, long termCount, double averageLength,
+                               Map<String, Long> termFrequencies,
+                               Map<String, Long> entriesPerAuthor) {
+  /**
+   * Returns the {@code limit} most frequent terms, most frequent first.
+   *
+   * @param limit the maximum number of terms; must not be negative
+   * @return the most frequent terms with their counts
+   */
+  public List<TermCount> topTerms(int limit) {
+    return termFrequencies.entrySet().stream()
+            .map(term -> new TermCount(term.getKey(), term.getValue()))
+            .sorted(Comparator.comparingLong(TermCount::count).reversed()
+                    .thenComparing(TermCount::term))
+            .limit(limit)
+            .toList();
+  }
+}
@@ -0,0 +1,97 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+/**
+ * Estimates how often values occur, in constant memory.
+ *
+ * <p>The sketch has {@code depth} rows of {@code width} counters. An estimate
+ * is never below the true count, and with probability {@code confidence} it
+ * is at most {@code epsilon * total} above it, where {@code total} is the sum
+ * of all counts, {@code width = ceil(e / epsilon)} and
+ * {@code depth = ceil(ln(1 / (1 - confidence)))}.
+ * </p>
+ *
+ * <p>Counts may be decremented to undo an earlier increment; the bounds hold
+ * as long as no count goes below zero.
+ * </p>
+ */
+public final class CountMinSketch {
+  private final int width;
+  private final int depth;
+  private final long[] counts;
+  private long total;
+
+  /**
+   * Creates a sketch with the error bounds described above.
+   *
+   * @param epsilon the error as a share of the total count, for example 0.001
+   * @param confidence the probability that an estimate is within the bound,
+   *                   for example 0.99
+   * @throws IllegalArgumentException if {@code epsilon} is not in (0, 1) or
+   *         {@code confidence} is not in (0, 1)
+   */
+  public CountMinSketch(double epsilon, double confidence) {
+    if (!(epsilon > 0 && epsilon < 1)) {
+      throw new IllegalArgumentException("Epsilon must be between 0 and 1");
+    }
+    if (!(confidence > 0 && confidence < 1)) {
+      throw new IllegalArgumentException("Confidence must be between 0 and 1");
+    }
+    this.width = (int) Math.ceil(Math.E / epsilon);
+    this.depth = Math.max(1, (int) Math.ceil(Math.log(1 / (1 - confidence))));
+    this.counts = new long[width * depth];
+  }
+
+  /**
+   * Adds {@code count} to the value with the given hash.
+   *
+   * @param hash a well-mixed hash of the value
+   * @param count the amount to add; negative to undo an earlier add
+   * @return the new estimate for the value
+   */
+  public long add(long hash, long count) {
+    long estimate = Long.MAX_VALUE;
+    long step = Hashing.mix(hash) | 1;
+    for (int row = 0; row < depth; row++) {
+      int cell = row * width + (int) Math.floorMod(hash + row * step, (long) width);
+      counts[cell] += count;
+      estimate = Math.min(estimate, counts[cell]);
+    }
+    total += count;
+    return estimate;
+  }
+
+  /**
+   * Returns the estimated count of the value with the given hash.
+   *
+   * @param hash a well-mixed hash of the value
+   * @return the estimate, never below the true count
+   */
+  public long estimate(long hash) {
+    long estimate = Long.MAX_VALUE;
+    long step = Hashing.mix(hash) | 1;
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate,
+              counts[row * width + (int) Math.floorMod(hash + row * step, (long) width)]);
+    }
+    return estimate;
+  }
+
+  /**
+   * Returns how much an estimate may exceed the true count at the configured
+   * confidence.
+   *
+   * @return {@code epsilon * total}, rounded up
+   */
+  public long errorBound() {
+    return (long) Math.ceil(Math.E / width * total);
+  }
+
+  /**
+   * Returns the sum of all counts.
+   *
+   * @return the total count
+   */
+  public long total() {
+    return total;
+  }
+}
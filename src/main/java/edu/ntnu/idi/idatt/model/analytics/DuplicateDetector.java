@@ -0,0 +1,264 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Finds entries with nearly the same description using MinHash signatures and
+ * locality-sensitive hashing.
+ *
+ * <p>A description is lower-cased, split into terms as by {@link Terms} and
+ * cut into overlapping shingles of {@value #SHINGLE_LENGTH} characters. Its
+ * signature holds, for each of {@value #SIGNATURE_LENGTH} hash functions, the
+ * smallest hash of any shingle. Two signatures agree in a position with
+ * probability equal to the Jaccard similarity of the shingle sets, so the
+ * fraction of agreeing positions estimates the similarity.
+ * </p>
+ *
+ * <p>The signature is cut into {@value #BANDS} bands of {@value #ROWS} values,
+ * and every entry is put in one bucket per band, keyed by the band's values.
+ * Only entries sharing a bucket are compared, so finding the duplicates of one
+ * entry costs about the size of its buckets instead of a scan of all entries.
+ * Pairs with a similarity of 0.8 share a bucket with a probability above 99%,
+ * pairs with a similarity of 0.3 with a probability below 13%.
+ * </p>
+ *
+ * <p>Not thread-safe; callers must synchronize access.</p>
+ */
+public final class DuplicateDetector {
+  /** The estimated similarity above which entries are reported by default. */
+  public static final double DEFAULT_THRESHOLD = 0.8;
+
+  static final int SHINGLE_LENGTH = 5;
+  static final int BANDS = 16;
+  static final int ROWS = 4;
+  static final int SIGNATURE_LENGTH = BANDS * ROWS;
+  private static final long[] SEEDS = new long[SIGNATURE_LENGTH];
+
+  static {
+    for (int i = 0; i < SEEDS.length; i++) {
+      SEEDS[i] = Hashing.mix(0x9e3779b97f4a7c15L * (i + 1));
+    }
+  }
+
+  private final double threshold;
+  private final Map<Integer, int[]> signatures;
+  private final List<Map<Long, Set<Integer>>> buckets;
+
+  /**
+   * Creates a detector reporting entries at the default similarity.
+   */
+  public DuplicateDetector() {
+    this(DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Creates a detector reporting entries whose estimated similarity is at
+   * least {@code threshold}.
+   *
+   * @param threshold the smallest reported similarity, above 0 and at most 1
+   * @throws IllegalArgumentException if {@code threshold} is out of range
+   */
+  public DuplicateDetector(double threshold) {
+    if (!(threshold > 0 && threshold <= 1)) {
+      throw new IllegalArgumentException("Threshold must be above 0 and at most 1");
+    }
+    this.threshold = threshold;
+    this.signatures = new HashMap<>();
+    this.buckets = new ArrayList<>(BANDS);
+    for (int band = 0; band < BANDS; band++) {
+      buckets.add(new HashMap<>());
+    }
+  }
+
+  /**
+   * Adds or replaces the description of entry {@code id}.
+   *
+   * @param id the entry id
+   * @param description the entry's description
+   */
+  public void add(int id, String description) {
+    remove(id);
+    int[] signature = signature(description);
+    signatures.put(id, signature);
+    for (int band = 0; band < BANDS; band++) {
+      buckets.get(band).computeIfAbsent(bandKey(signature, band), key -> new HashSet<>(2))
+              .add(id);
+    }
+  }
+
+  /**
+   * Removes entry {@code id}, if present.
+   *
+   * @param id the entry id
+   */
+  public void remove(int id) {
+    int[] signature = signatures.remove(id);
+    if (signature == null) {
+      return;
+    }
+    for (int band = 0; band < BANDS; band++) {
+      Map<Long, Set<Integer>> bandBuckets = buckets.get(band);
+      long key = bandKey(signature, band);
+      Set<Integer> bucket = bandBuckets.get(key);
+      bucket.remove(id);
+      if (bucket.isEmpty()) {
+        bandBuckets.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Returns the ids of the entries whose description is similar to
+   * {@code description}, in increasing order.
+   *
+   * @param description the text to compare with
+   * @param excludedId an id to leave out of the result, such as the id of the
+   *                   entry the text belongs to
+   * @return the ids of the similar entries
+   */
+  public List<Integer> findSimilar(String description, int excludedId) {
+    int[] signature = signature(description);
+    List<Integer> similar = new ArrayList<>();
+    Set<Integer> compared = new HashSet<>();
+    for (int band = 0; band < BANDS; band++) {
+      Set<Integer> bucket = buckets.get(band).get(bandKey(signature, band));
+      if (bucket == null) {
+        continue;
+      }
+      for (int id : bucket) {
+        if (id != excludedId && compared.add(id)
+                && similarity(signature, signatures.get(id)) >= threshold) {
+          similar.add(id);
+        }
+      }
+    }
+    similar.sort(null);
+    return similar;
+  }
+
+  /**
+   * Groups the entries into clusters of near-duplicates.
+   *
+   * <p>Each entry in a bucket is compared with the first entry of that bucket
+   * and joined to it when they are similar, so a bucket costs one comparison
+   * per entry. Clusters are closed under this relation across all bands, so
+   * two entries in a cluster may be linked through others.
+   * </p>
+   *
+   * @return the clusters with at least two entries, each in increasing id
+   *         order, ordered by their smallest id
+   */
+  public List<List<Integer>> clusters() {
+    Map<Integer, Integer> parents = new HashMap<>();
+    for (Map<Long, Set<Integer>> bandBuckets : buckets) {
+      for (Set<Integer> bucket : bandBuckets.values()) {
+        if (bucket.size() < 2) {
+          continue;
+        }
+        Iterator<Integer> members = bucket.iterator();
+        int first = members.next();
+        int[] firstSignature = signatures.get(first);
+        while (members.hasNext()) {
+          int id = members.next();
+          int root = find(parents, id);
+          int firstRoot = find(parents, first);
+          if (root != firstRoot
+                  && similarity(signatures.get(id), firstSignature) >= threshold) {
+            parents.put(root, firstRoot);
+          }
+        }
+      }
+    }
+    Map<Integer, List<Integer>> clusters = new HashMap<>();
+    for (int id : parents.keySet()) {
+      clusters.computeIfAbsent(find(parents, id), key -> new ArrayList<>()).add(id);
+    }
+    TreeMap<Integer, List<Integer>> ordered = new TreeMap<>();
+    for (List<Integer> cluster : clusters.values()) {
+      if (cluster.size() > 1) {
+        cluster.sort(null);
+        ordered.put(cluster.get(0), cluster);
+      }
+    }
+    return new ArrayList<>(ordered.values());
+  }
+
+  /**
+   * Returns the number of entries in the detector.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return signatures.size();
+  }
+
+  /**
+   * Returns the fraction of positions in which two signatures agree, an
+   * estimate of the Jaccard similarity of the shingle sets.
+   */
+  static double similarity(int[] first, int[] second) {
+    int equal = 0;
+    for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+      if (first[i] == second[i]) {
+        equal++;
+      }
+    }
+    return (double) equal / SIGNATURE_LENGTH;
+  }
+
+  static int[] signature(String description) {
+    StringBuilder normalized = new StringBuilder(description.length());
+    Terms.forEach(description, term -> {
+      if (normalized.length() > 0) {
+        normalized.append(' ');
+      }
+      normalized.append(term);
+    });
+    String text = normalized.toString();
+    int[] signature = new int[SIGNATURE_LENGTH];
+    Arrays.fill(signature, Integer.MAX_VALUE);
+    int shingles = Math.max(1, text.length() - SHINGLE_LENGTH + 1);
+    for (int start = 0; start < shingles; start++) {
+      long shingle = Hashing.hash(text, start,
+              Math.min(text.length(), start + SHINGLE_LENGTH), 0);
+      for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+        int hash = (int) (Hashing.mix(shingle ^ SEEDS[i]) >>> 32);
+        if (hash < signature[i]) {
+          signature[i] = hash;
+        }
+      }
+    }
+    return signature;
+  }
+
+  private static long bandKey(int[] signature, int band) {
+    long key = band;
+    for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+      key = Hashing.mix(key * 31 + signature[row]);
+    }
+    return key;
+  }
+
+  private static int find(Map<Integer, Integer> parents, int id) {
+    int root = id;
+    Integer parent;
+    while ((parent = parents.putIfAbsent(root, root)) != null && parent != root) {
+      root = parent;
+    }
+    int current = id;
+    while (current != root) {
+      int next = parents.get(current);
+      parents.put(current, root);
+      current = next;
+    }
+    return root;
+  }
+}
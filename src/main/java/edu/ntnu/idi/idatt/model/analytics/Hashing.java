@@ -0,0 +1,47 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+/**
+ * 64-bit string hashing for the sketches.
+ *
+ * <p>{@link String#hashCode()} has only 32 bits and poorly mixed low bits, so
+ * the sketches use FNV-1a over the characters followed by the MurmurHash3
+ * finalizer.
+ * </p>
+ */
+final class Hashing {
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private Hashing() {
+  }
+
+  /**
+   * Hashes {@code text}; different seeds give independent hashes of the same text.
+   */
+  static long hash(String text, long seed) {
+    return hash(text, 0, text.length(), seed);
+  }
+
+  /**
+   * Hashes the characters of {@code text} from {@code start} up to {@code end}
+   * without copying them.
+   */
+  static long hash(String text, int start, int end, long seed) {
+    long hash = FNV_OFFSET ^ mix(seed);
+    for (int i = start; i < end; i++) {
+      hash ^= text.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  static long mix(long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,111 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+/**
+ * Estimates the number of distinct values added, in constant memory.
+ *
+ * <p>With precision {@code p} the sketch keeps {@code m = 2^p} one-byte
+ * registers, and the standard error of the estimate is about
+ * {@code 1.04 / sqrt(m)}: 1.6% at the default precision of 12 (4 KiB).
+ * Small cardinalities are counted with linear counting, which is close to
+ * exact. Values cannot be removed.
+ * </p>
+ */
+public final class HyperLogLog {
+  /** The precision used by default. */
+  public static final int DEFAULT_PRECISION = 12;
+  private static final int MIN_PRECISION = 4;
+  private static final int MAX_PRECISION = 18;
+
+  private final int precision;
+  private final byte[] registers;
+
+  /**
+   * Creates a sketch with {@code 2^precision} registers.
+   *
+   * @param precision the number of index bits, from 4 to 18
+   * @throws IllegalArgumentException if {@code precision} is out of range
+   */
+  public HyperLogLog(int precision) {
+    if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION
+              + " and " + MAX_PRECISION);
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Returns the smallest precision whose standard error is at most
+   * {@code relativeError}.
+   *
+   * @param relativeError the wanted standard error, for example 0.02 for 2%
+   * @return the precision to pass to {@link #HyperLogLog(int)}
+   * @throws IllegalArgumentException if no supported precision reaches the error
+   */
+  public static int precisionFor(double relativeError) {
+    if (!(relativeError > 0)) {
+      throw new IllegalArgumentException("Relative error must be positive");
+    }
+    double registersNeeded = Math.pow(1.04 / relativeError, 2);
+    int precision = Math.max(MIN_PRECISION,
+            64 - Long.numberOfLeadingZeros((long) Math.ceil(registersNeeded) - 1));
+    if (precision > MAX_PRECISION) {
+      throw new IllegalArgumentException("Relative error " + relativeError
+              + " needs more than 2^" + MAX_PRECISION + " registers");
+    }
+    return precision;
+  }
+
+  /**
+   * Adds a value by its 64-bit hash.
+   *
+   * @param hash a well-mixed hash of the value
+   */
+  public void add(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+    if (rank > registers[index]) {
+      registers[index] = (byte) rank;
+    }
+  }
+
+  /**
+   * Returns the estimated number of distinct values added.
+   *
+   * @return the estimate
+   */
+  public long estimate() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double estimate = alpha(m) * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  /**
+   * Returns the standard error of {@link #estimate()} relative to the true count.
+   *
+   * @return the relative standard error
+   */
+  public double relativeError() {
+    return 1.04 / Math.sqrt(registers.length);
+  }
+
+  private static double alpha(int m) {
+    return switch (m) {
+      case 16 -> 0.673;
+      case 32 -> 0.697;
+      case 64 -> 0.709;
+      default -> 0.7213 / (1 + 1.079 / m);
+    };
+  }
+}
@@ -0,0 +1,37 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+/**
+ * Error bounds and sizes of the term sketches.
+ *
+ * @param distinctError the relative standard error of distinct term counts;
+ *                      sets the {@link HyperLogLog} precision
+ * @param countEpsilon the error of keyword counts as a share of all counted
+ *                     keywords; sets the {@link CountMinSketch} width
+ * @param countConfidence the probability that a keyword count is within its
+ *                        bound; sets the {@link CountMinSketch} depth
+ * @param topTerms the number of top keywords tracked per author and overall
+ */
+public record SketchSettings(double distinctError, double countEpsilon, double countConfidence,
+                             int topTerms) {
+  /** 1.6% distinct error, counts within 0.05% of the total with 99% confidence, top 10. */
+  public static final SketchSettings DEFAULT = new SketchSettings(0.0163, 0.0005, 0.99, 10);
+
+  /**
+   * Validates the settings.
+   *
+   * @throws IllegalArgumentException if a bound is out of range or
+   *         {@code topTerms} is not positive
+   */
+  public SketchSettings {
+    HyperLogLog.precisionFor(distinctError);
+    if (!(countEpsilon > 0 && countEpsilon < 1)) {
+      throw new IllegalArgumentException("Count epsilon must be between 0 and 1");
+    }
+    if (!(countConfidence > 0 && countConfidence < 1)) {
+      throw new IllegalArgumentException("Count confidence must be between 0 and 1");
+    }
+    if (topTerms <= 0) {
+      throw new IllegalArgumentException("Number of top terms must be positive");
+    }
+  }
+}
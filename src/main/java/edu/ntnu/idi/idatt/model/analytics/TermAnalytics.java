@@ -0,0 +1,167 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.util.Validators;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streaming term statistics over diary entries, overall and per author.
+ *
+ * <p>Distinct terms are counted with a {@link HyperLogLog} per author and one
+ * overall. Keyword frequencies share one {@link CountMinSketch}, with the
+ * author mixed into each key, and a small heap per author tracks the
+ * candidates for the most frequent keywords. Memory therefore does not grow
+ * with the number of distinct terms. Keywords are terms of at least three
+ * characters that are not common English stop words.
+ * </p>
+ *
+ * <p>Removing an entry subtracts its keywords from the counts, but distinct
+ * term counts cannot forget terms and keep counting them. Because the
+ * frequency sketch is shared, the count error of an author is bounded by the
+ * keyword total of all authors.
+ * </p>
+ *
+ * <p>Not thread-safe; callers must synchronize access.</p>
+ */
+public final class TermAnalytics {
+  private static final int MIN_KEYWORD_LENGTH = 3;
+  private static final int CANDIDATES_PER_TOP_TERM = 2;
+  private static final long ALL_AUTHORS = 0;
+  private static final Set<String> STOP_WORDS = Set.of(
+          "the", "and", "for", "are", "but", "not", "you", "all", "any", "can", "had", "her",
+          "was", "one", "our", "out", "has", "him", "his", "how", "its", "may", "new", "now",
+          "old", "see", "two", "who", "did", "get", "got", "let", "say", "she", "too", "use",
+          "that", "with", "have", "this", "will", "your", "from", "they", "been", "were",
+          "what", "when", "then", "them", "than", "some", "into", "just", "very", "also");
+
+  private final SketchSettings settings;
+  private final int precision;
+  private final HyperLogLog distinct;
+  private final CountMinSketch frequencies;
+  private final TopTerms topTerms;
+  private final Map<String, AuthorSketches> authors;
+
+  /**
+   * Creates empty sketches with the given bounds.
+   *
+   * @param settings the error bounds and sizes; must be non-null
+   * @throws IllegalArgumentException if {@code settings} is null
+   */
+  public TermAnalytics(SketchSettings settings) {
+    Validators.validateNotNull(settings, "Sketch settings");
+    this.settings = settings;
+    this.precision = HyperLogLog.precisionFor(settings.distinctError());
+    this.distinct = new HyperLogLog(precision);
+    this.frequencies = new CountMinSketch(settings.countEpsilon(), settings.countConfidence());
+    this.topTerms = new TopTerms(settings.topTerms() * CANDIDATES_PER_TOP_TERM);
+    this.authors = new HashMap<>();
+  }
+
+  /**
+   * Counts the terms of an added entry.
+   *
+   * @param entry the entry; must be non-null
+   */
+  public void add(DiaryEntry entry) {
+    AuthorSketches author = authors.computeIfAbsent(
+            entry.getAuthor().getEmail().toLowerCase(),
+            email -> new AuthorSketches(authors.size() + 1L));
+    forEachTerm(entry, term -> {
+      long hash = Hashing.hash(term, ALL_AUTHORS);
+      distinct.add(hash);
+      author.distinct.add(hash);
+      if (isKeyword(term)) {
+        topTerms.offer(term, frequencies.add(hash, 1));
+        author.topTerms.offer(term, frequencies.add(Hashing.hash(term, author.ordinal), 1));
+      }
+    });
+  }
+
+  /**
+   * Subtracts the keywords of a removed entry from the counts.
+   *
+   * @param entry the entry, which must have been added before; must be non-null
+   */
+  public void remove(DiaryEntry entry) {
+    AuthorSketches author = authors.get(entry.getAuthor().getEmail().toLowerCase());
+    if (author == null) {
+      return;
+    }
+    forEachTerm(entry, term -> {
+      if (isKeyword(term)) {
+        frequencies.add(Hashing.hash(term, ALL_AUTHORS), -1);
+        frequencies.add(Hashing.hash(term, author.ordinal), -1);
+      }
+    });
+  }
+
+  /**
+   * Returns the statistics over all entries.
+   *
+   * @return the estimated distinct terms and top keywords
+   */
+  public TermStatistics statistics() {
+    return statistics(distinct, topTerms, ALL_AUTHORS);
+  }
+
+  /**
+   * Returns the statistics of one author's entries.
+   *
+   * @param email the author's email; case-insensitive
+   * @return the estimated distinct terms and top keywords, empty if the
+   *         author has no entries
+   */
+  public TermStatistics statistics(String email) {
+    AuthorSketches author = authors.get(email.toLowerCase());
+    if (author == null) {
+      return new TermStatistics(0, distinct.relativeError(), List.of(),
+              frequencies.errorBound());
+    }
+    return statistics(author.distinct, author.topTerms, author.ordinal);
+  }
+
+  private TermStatistics statistics(HyperLogLog distinctTerms, TopTerms candidates, long seed) {
+    List<TermCount> top = new ArrayList<>();
+    for (String term : candidates.terms()) {
+      long count = frequencies.estimate(Hashing.hash(term, seed));
+      if (count > 0) {
+        top.add(new TermCount(term, count));
+      }
+    }
+    top.sort(Comparator.comparingLong(TermCount::count).reversed()
+            .thenComparing(TermCount::term));
+    return new TermStatistics(distinctTerms.estimate(), distinctTerms.relativeError(),
+            List.copyOf(top.subList(0, Math.min(settings.topTerms(), top.size()))),
+            frequencies.errorBound());
+  }
+
+  private static void forEachTerm(DiaryEntry entry, Consumer<String> action) {
+    Terms.forEach(entry.getTitle(), action);
+    Terms.forEach(entry.getDescription(), action);
+  }
+
+  private static boolean isKeyword(String term) {
+    return term.length() >= MIN_KEYWORD_LENGTH && !STOP_WORDS.contains(term);
+  }
+
+  /**
+   * The sketches of one author; the ordinal seeds the author's frequency keys.
+   */
+  private final class AuthorSketches {
+    private final long ordinal;
+    private final HyperLogLog distinct;
+    private final TopTerms topTerms;
+
+    AuthorSketches(long ordinal) {
+      this.ordinal = ordinal;
+      this.distinct = new HyperLogLog(precision);
+      this.topTerms = new TopTerms(settings.topTerms() * CANDIDATES_PER_TOP_TERM);
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+/**
+ * A term and how often it occurs.
+ *
+ * @param term the term
+ * @param count the number of occurrences, exact or estimated
+ */
+public record TermCount(String term, long count) {
+}
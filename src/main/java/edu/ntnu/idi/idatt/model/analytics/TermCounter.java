@@ -0,0 +1,139 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts strings in an open-addressing table of primitive counters.
+ *
+ * <p>Keys are stored once, on their first occurrence; later occurrences are
+ * matched against the text they appear in, without allocating a string.
+ * Terms are matched and stored lower-cased. Not thread-safe.
+ * </p>
+ */
+final class TermCounter {
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private String[] keys;
+  private int[] hashes;
+  private long[] counts;
+  private int size;
+
+  TermCounter() {
+    this.keys = new String[INITIAL_CAPACITY];
+    this.hashes = new int[INITIAL_CAPACITY];
+    this.counts = new long[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Adds {@code count} to the lower-cased term {@code text[start, end)}.
+   */
+  void add(CharSequence text, int start, int end, long count) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+    }
+    int mask = keys.length - 1;
+    int slot = spread(hash) & mask;
+    while (keys[slot] != null) {
+      if (hashes[slot] == hash && matches(keys[slot], text, start, end)) {
+        counts[slot] += count;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    char[] key = new char[end - start];
+    for (int i = start; i < end; i++) {
+      key[i - start] = Character.toLowerCase(text.charAt(i));
+    }
+    insert(slot, new String(key), hash, count);
+  }
+
+  /**
+   * Adds {@code count} to {@code key}, which is used as it is.
+   */
+  void add(String key, long count) {
+    int hash = key.hashCode();
+    int mask = keys.length - 1;
+    int slot = spread(hash) & mask;
+    while (keys[slot] != null) {
+      if (hashes[slot] == hash && keys[slot].equals(key)) {
+        counts[slot] += count;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    insert(slot, key, hash, count);
+  }
+
+  /**
+   * Adds every count of {@code other} to this counter.
+   */
+  void addAll(TermCounter other) {
+    for (int slot = 0; slot < other.keys.length; slot++) {
+      if (other.keys[slot] != null) {
+        add(other.keys[slot], other.counts[slot]);
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  Map<String, Long> toMap() {
+    Map<String, Long> map = new HashMap<>(size * 2);
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != null) {
+        map.put(keys[slot], counts[slot]);
+      }
+    }
+    return map;
+  }
+
+  private void insert(int slot, String key, int hash, long count) {
+    keys[slot] = key;
+    hashes[slot] = hash;
+    counts[slot] = count;
+    if (++size * 2 > keys.length) {
+      resize();
+    }
+  }
+
+  private void resize() {
+    String[] oldKeys = keys;
+    int[] oldHashes = hashes;
+    long[] oldCounts = counts;
+    keys = new String[oldKeys.length * 2];
+    hashes = new int[keys.length];
+    counts = new long[keys.length];
+    int mask = keys.length - 1;
+    for (int old = 0; old < oldKeys.length; old++) {
+      if (oldKeys[old] != null) {
+        int slot = spread(oldHashes[old]) & mask;
+        while (keys[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[old];
+        hashes[slot] = oldHashes[old];
+        counts[slot] = oldCounts[old];
+      }
+    }
+  }
+
+  private static boolean matches(String key, CharSequence text, int start, int end) {
+    if (key.length() != end - start) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (key.charAt(i - start) != Character.toLowerCase(text.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int spread(int hash) {
+    return (hash ^ (hash >>> 16)) * 0x9e3779b9;
+  }
+}
@@ -0,0 +1,15 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+import java.util.List;
+
+/**
+ * Approximate term statistics of all entries or of one author's entries.
+ *
+ * @param distinctTerms the estimated number of distinct terms
+ * @param distinctError the relative standard error of {@code distinctTerms}
+ * @param topTerms the most frequent keywords with estimated counts, most frequent first
+ * @param countError how much each keyword count may exceed the true count
+ */
+public record TermStatistics(long distinctTerms, double distinctError, List<TermCount> topTerms,
+                             long countError) {
+}
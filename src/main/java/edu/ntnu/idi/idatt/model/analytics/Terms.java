@@ -0,0 +1,35 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Splits entry text into terms.
+ *
+ * <p>A term is a maximal run of letters and digits, lower-cased. Everything
+ * else separates terms.
+ * </p>
+ */
+public final class Terms {
+  private Terms() {
+  }
+
+  /**
+   * Performs {@code action} for every term of {@code text}, in order.
+   *
+   * @param text the text to split
+   * @param action receives each term
+   */
+  public static void forEach(String text, Consumer<String> action) {
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean inTerm = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (inTerm && start < 0) {
+        start = i;
+      } else if (!inTerm && start >= 0) {
+        action.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package edu.ntnu.idi.idatt.model.analytics;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The candidates for the most frequent terms, kept in a min-heap by their
+ * estimated count so the least frequent candidate is replaced first.
+ */
+final class TopTerms {
+  private final int capacity;
+  private final Map<String, Long> counts;
+  private final PriorityQueue<String> heap;
+
+  TopTerms(int capacity) {
+    this.capacity = capacity;
+    this.counts = new HashMap<>();
+    this.heap = new PriorityQueue<>(Comparator.comparingLong(counts::get));
+  }
+
+  /**
+   * Offers a term with its current estimated count.
+   */
+  void offer(String term, long count) {
+    if (counts.containsKey(term)) {
+      heap.remove(term);
+      counts.put(term, count);
+      heap.add(term);
+    } else if (counts.size() < capacity) {
+      counts.put(term, count);
+      heap.add(term);
+    } else if (count > counts.get(heap.peek())) {
+      counts.remove(heap.poll());
+      counts.put(term, count);
+      heap.add(term);
+    }
+  }
+
+  Set<String> terms() {
+    return counts.keySet();
+  }
+}
@@ -12,6 +12,11 @@ import java.time.format.DateTimeFormatter;
  * {@link #setEntryId(int)} and an immutable creation time provided at
  * construction. Input values are validated through {@link Validators}.
  * </p>
+ *
+ * <p>The formatted creation time and the {@link #toString()} summary are
+ * rendered once and reused. The summary is rendered again after the id, title
+ * or description changes.
+ * </p>
  */
 public class DiaryEntry {
   private static final DateTimeFormatter FORMATTER =
@@ -21,6 +26,10 @@ public class DiaryEntry {
   private String title;
   private String description;
   private final LocalDateTime creationTime;
+  private EntryContent content;
+  private String formattedCreationTime;
+  private String summary;
+  private EntryEditor editor;
 
   /**
    * Constructs a new diary entry using the current time as the creation time.
@@ -32,7 +41,7 @@ public class DiaryEntry {
    * @throws IllegalArgumentException if {@code author} is null
    */
   public DiaryEntry(String title, String description, Author author) {
-    this(title, description, author, LocalDateTime.now());
+    this(title, description, author, LocalDateTime.now(), false);
   }
 
   /**
@@ -51,8 +60,21 @@ public class DiaryEntry {
    * @throws IllegalArgumentException if {@code author} is null
    */
   public DiaryEntry(String title, String description, Author author, LocalDateTime creationTime) {
+    this(title, description, author, creationTime, true);
+  }
+
+  /**
+   * Constructs a new diary entry, checking the creation time against the
+   * system clock only if {@code checkDate} is set. Used by
+   * {@link EntryFactory}, which checks the time against its own clock.
+   */
+  DiaryEntry(String title, String description, Author author, LocalDateTime creationTime,
+             boolean checkDate) {
     Validators.validateNotNull(author, "Author");
-    Validators.validateDate(creationTime);
+    Validators.validateNotNull(creationTime, "Creation time");
+    if (checkDate) {
+      Validators.validateDate(creationTime);
+    }
 
     entryId = 0;
     setTitle(title);
@@ -61,6 +83,32 @@ public class DiaryEntry {
     this.creationTime = creationTime;
   }
 
+  /**
+   * Constructs a stored diary entry whose title and description are loaded lazily.
+   *
+   * <p>This constructor is used by storage engines that restore entries which were
+   * validated when they were first written. The id is assigned directly and the
+   * text is fetched from {@code content} on first access.
+   * </p>
+   *
+   * @param entryId the stored id of the entry; must be positive
+   * @param author the entry's author; must be non-null
+   * @param creationTime the stored creation timestamp; must be non-null
+   * @param content the source of the title and description; must be non-null
+   * @throws IllegalArgumentException if any parameter is invalid
+   */
+  public DiaryEntry(int entryId, Author author, LocalDateTime creationTime,
+                    EntryContent content) {
+    Validators.validateNotNull(author, "Author");
+    Validators.validateNotNull(creationTime, "Creation time");
+    Validators.validateNotNull(content, "Content");
+
+    setEntryId(entryId);
+    this.author = author;
+    this.creationTime = creationTime;
+    this.content = content;
+  }
+
   /**
    * Returns the numeric identifier of this entry.
    *
@@ -90,6 +138,7 @@ public class DiaryEntry {
     }
 
     this.entryId = id;
+    summary = null;
   }
 
   /**
@@ -104,41 +153,81 @@ public class DiaryEntry {
   /**
    * Returns the entry title as supplied during construction.
    *
+   * <p>For lazily loaded entries the title is read from the backing
+   * {@link EntryContent} on the first call.
+   * </p>
+   *
    * @return the title of the entry
    */
   public String getTitle() {
+    if (title == null) {
+      title = content.loadTitle();
+    }
     return title;
   }
 
   /**
    * Sets the entry title after validating it.
    *
+   * <p>If the entry has an {@link EntryEditor}, the edit is handed to it.</p>
+   *
    * @param title the new title; must be non-null and not blank
    * @throws IllegalArgumentException if {@code title} is invalid
    */
   public void setTitle(String title) {
     Validators.validateString(title, "Title");
+    if (editor != null) {
+      editor.edit(this, title, null);
+      return;
+    }
     this.title = title;
+    summary = null;
   }
 
   /**
    * Returns the entry description as supplied during construction.
    *
+   * <p>For lazily loaded entries the description is read from the backing
+   * {@link EntryContent} on the first call.
+   * </p>
+   *
    * @return the textual description of the entry
    */
   public String getDescription() {
+    if (description == null) {
+      description = content.loadDescription();
+    }
     return description;
   }
 
   /**
    * Sets the entry description after validating it.
    *
+   * <p>If the entry has an {@link EntryEditor}, the edit is handed to it.</p>
+   *
    * @param description the new description; must be non-null and not blank
    * @throws IllegalArgumentException if {@code description} is invalid
    */
   public void setDescription(String description) {
     Validators.validateString(description, "Description");
+    if (editor != null) {
+      editor.edit(this, null, description);
+      return;
+    }
     this.description = description;
+    summary = null;
+  }
+
+  /**
+   * Sets the editor that edits through {@link #setTitle(String)} and
+   * {@link #setDescription(String)} are handed to. The register storing the
+   * entry sets it when the entry is added or read from its store, and clears
+   * it when the entry is removed.
+   *
+   * @param editor the editor, or {@code null} to change only this instance
+   */
+  public void setEditor(EntryEditor editor) {
+    this.editor = editor;
   }
 
   /**
@@ -156,7 +245,10 @@ public class DiaryEntry {
    * @return a formatted creation time string
    */
   public String getFormatedCreationTime() {
-    return creationTime.format(FORMATTER);
+    if (formattedCreationTime == null) {
+      formattedCreationTime = creationTime.format(FORMATTER);
+    }
+    return formattedCreationTime;
   }
 
   /**
@@ -171,12 +263,19 @@ public class DiaryEntry {
    */
   @Override
   public String toString() {
-    return String.format("ID: %d - [%s] %s (%s): %s",
-            entryId,
-            creationTime.format(FORMATTER),
-            title,
-            author.getFullName(),
-            description);
+    if (summary == null) {
+      String title = getTitle();
+      String description = getDescription();
+      String name = author.getFullName();
+      summary = new StringBuilder(32 + title.length() + name.length() + description.length())
+              .append("ID: ").append(entryId)
+              .append(" - [").append(getFormatedCreationTime()).append("] ")
+              .append(title)
+              .append(" (").append(name).append("): ")
+              .append(description)
+              .toString();
+    }
+    return summary;
   }
 }
 
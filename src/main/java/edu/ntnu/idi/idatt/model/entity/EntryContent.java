@@ -0,0 +1,27 @@
+package edu.ntnu.idi.idatt.model.entity;
+
+/**
+ * Supplies the title and description of a {@link DiaryEntry} whose text is
+ * loaded on demand.
+ *
+ * <p>Storage engines that keep only entry metadata in memory hand an
+ * implementation of this interface to the entry. The text is requested the
+ * first time {@link DiaryEntry#getTitle()} or {@link DiaryEntry#getDescription()}
+ * is called and then kept by the entry.
+ * </p>
+ */
+public interface EntryContent {
+  /**
+   * Loads the title of the entry.
+   *
+   * @return the title; never {@code null}
+   */
+  String loadTitle();
+
+  /**
+   * Loads the description of the entry.
+   *
+   * @return the description; never {@code null}
+   */
+  String loadDescription();
+}
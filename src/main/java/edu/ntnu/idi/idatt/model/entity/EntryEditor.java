@@ -0,0 +1,24 @@
+package edu.ntnu.idi.idatt.model.entity;
+
+/**
+ * Receives the edits made through the setters of a stored {@link DiaryEntry}.
+ *
+ * <p>The register holding an entry attaches an editor to it, and to every
+ * copy of it that its store hands out, so that an edit through
+ * {@link DiaryEntry#setTitle(String)} or {@link DiaryEntry#setDescription(String)}
+ * is applied to the stored entry, indexed, persisted and published like one
+ * made through the register. The editor is responsible for changing the text
+ * of the entry it is called for.
+ * </p>
+ */
+@FunctionalInterface
+public interface EntryEditor {
+  /**
+   * Applies an edit made through a setter of {@code entry}.
+   *
+   * @param entry the entry whose setter was called
+   * @param title the new title, or {@code null} to keep the current one
+   * @param description the new description, or {@code null} to keep the current one
+   */
+  void edit(DiaryEntry entry, String title, String description);
+}
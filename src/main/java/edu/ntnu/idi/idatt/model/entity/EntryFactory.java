@@ -0,0 +1,144 @@
+package edu.ntnu.idi.idatt.model.entity;
+
+import edu.ntnu.idi.idatt.util.Validators;
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Creates diary entries with creation times read from an injectable
+ * {@link Clock}.
+ *
+ * <p>With a resolution above zero the factory reads the clock at most once
+ * per resolution interval and hands out the cached time in between. Bulk
+ * ingest uses this to avoid reading the system clock and resolving the time
+ * zone for every entry. A creation time that is after the cached time is
+ * checked against a fresh reading before it is rejected, so a coarse clock
+ * never rejects a valid entry.
+ * </p>
+ *
+ * <p>{@link #restore(String, String, Author, LocalDateTime)} is the trusted
+ * path for historical data that was validated when it was first written, such
+ * as journal replay and imports of the diary's own exports. It does not check
+ * the creation time at all.
+ * </p>
+ */
+public final class EntryFactory {
+  /** A factory reading the system clock on every call. */
+  public static final EntryFactory SYSTEM = new EntryFactory(Clock.systemDefaultZone());
+
+  private final Clock clock;
+  private final long resolutionMillis;
+  private volatile CachedTime cached;
+
+  /**
+   * Creates a factory reading {@code clock} on every call.
+   *
+   * @param clock the source of the current time; must be non-null
+   * @throws IllegalArgumentException if {@code clock} is null
+   */
+  public EntryFactory(Clock clock) {
+    this(clock, 0);
+  }
+
+  /**
+   * Creates a factory that caches the time read from {@code clock} for
+   * {@code resolutionMillis} milliseconds.
+   *
+   * @param clock the source of the current time; must be non-null
+   * @param resolutionMillis how long a reading is reused; 0 reads the clock every time
+   * @throws IllegalArgumentException if {@code clock} is null or
+   *         {@code resolutionMillis} is negative
+   */
+  public EntryFactory(Clock clock, long resolutionMillis) {
+    Validators.validateNotNull(clock, "Clock");
+    if (resolutionMillis < 0) {
+      throw new IllegalArgumentException("Clock resolution cannot be negative");
+    }
+    this.clock = clock;
+    this.resolutionMillis = resolutionMillis;
+  }
+
+  /**
+   * Returns the current time of this factory's clock, possibly up to the
+   * resolution out of date.
+   *
+   * @return the current time
+   */
+  public LocalDateTime now() {
+    if (resolutionMillis == 0) {
+      return LocalDateTime.now(clock);
+    }
+    long millis = clock.millis();
+    CachedTime current = cached;
+    if (current == null || millis >= current.expiresAtMillis || millis < current.readAtMillis) {
+      current = new CachedTime(LocalDateTime.now(clock), millis, millis + resolutionMillis);
+      cached = current;
+    }
+    return current.time;
+  }
+
+  /**
+   * Creates an entry stamped with the current time.
+   *
+   * @param title the title of the entry; must be a non-empty string
+   * @param description the entry's textual content; must be a non-empty string
+   * @param author the entry's author; must be non-null
+   * @return the new entry
+   * @throws IllegalArgumentException if any parameter is invalid
+   */
+  public DiaryEntry create(String title, String description, Author author) {
+    return new DiaryEntry(title, description, author, now(), false);
+  }
+
+  /**
+   * Creates an entry with an explicit creation time, which must not be after
+   * the current time of this factory's clock.
+   *
+   * @param title the title of the entry; must be a non-empty string
+   * @param description the entry's textual content; must be a non-empty string
+   * @param author the entry's author; must be non-null
+   * @param creationTime the timestamp when the entry was created; must be non-null
+   * @return the new entry
+   * @throws IllegalArgumentException if any parameter is invalid or
+   *         {@code creationTime} is in the future
+   */
+  public DiaryEntry create(String title, String description, Author author,
+                           LocalDateTime creationTime) {
+    validateCreationTime(creationTime);
+    return new DiaryEntry(title, description, author, creationTime, false);
+  }
+
+  /**
+   * Recreates an entry from data that was validated when it was first
+   * written. The creation time is not checked against the clock.
+   *
+   * @param title the title of the entry; must be a non-empty string
+   * @param description the entry's textual content; must be a non-empty string
+   * @param author the entry's author; must be non-null
+   * @param creationTime the stored creation timestamp; must be non-null
+   * @return the recreated entry
+   * @throws IllegalArgumentException if a parameter is null or blank
+   */
+  public DiaryEntry restore(String title, String description, Author author,
+                            LocalDateTime creationTime) {
+    return new DiaryEntry(title, description, author, creationTime, false);
+  }
+
+  /**
+   * Validates that {@code creationTime} is not in the future.
+   *
+   * @param creationTime the time to check; must be non-null
+   * @throws IllegalArgumentException if {@code creationTime} is null or in the future
+   */
+  public void validateCreationTime(LocalDateTime creationTime) {
+    Validators.validateNotNull(creationTime, "Creation time");
+    LocalDateTime now = now();
+    if (creationTime.isAfter(now) && resolutionMillis > 0) {
+      now = LocalDateTime.now(clock);
+    }
+    Validators.validateDate(creationTime, now);
+  }
+
+  private record CachedTime(LocalDateTime time, long readAtMillis, long expiresAtMillis) {
+  }
+}
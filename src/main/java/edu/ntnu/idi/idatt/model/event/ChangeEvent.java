@@ -0,0 +1,22 @@
+package edu.ntnu.idi.idatt.model.event;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+
+/**
+ * One change published on a {@link ChangeFeed}.
+ *
+ * <p>Sequence numbers start at 1 and increase by one for every event of a
+ * feed, so a subscriber can tell whether it has seen every event. For entry
+ * events {@code entry} is the changed entry, in its state after the change,
+ * and {@code author} is its author; for author events {@code entry} is
+ * {@code null}.
+ * </p>
+ *
+ * @param sequence the position of the event in its feed
+ * @param type what changed
+ * @param entry the changed entry, or {@code null} for author events
+ * @param author the changed author, or the author of the changed entry
+ */
+public record ChangeEvent(long sequence, ChangeType type, DiaryEntry entry, Author author) {
+}
@@ -0,0 +1,183 @@
+package edu.ntnu.idi.idatt.model.event;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.util.Validators;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the changes made to a register to its subscribers.
+ *
+ * <p>Synchronous subscribers are called on the writing thread before the
+ * change returns to its caller. Asynchronous subscribers get their own bounded
+ * queue drained by a daemon thread. A writer blocks while a queue is full,
+ * so a slow subscriber slows writers down rather than losing events.
+ * </p>
+ *
+ * <p>A register that publishes while holding its own lock would block other
+ * threads on that lock while it waits for a full queue, and a listener
+ * reading the register would then never drain the queue. Registers
+ * therefore {@link #stage stage} events while they hold their lock, which
+ * numbers and queues them without blocking, and
+ * {@link #deliverStaged() deliver} them once the lock is released.
+ * </p>
+ *
+ * <p>The subscribers are kept in a copy-on-write array. Publishing with no
+ * subscribers only reads that array's length, so an unobserved register pays
+ * almost nothing per change. Otherwise events are numbered in the order they
+ * are staged and delivered one delivering thread at a time, so every
+ * subscriber sees them in sequence order. Subscribing and unsubscribing swap
+ * the array without taking either lock, so a listener can unsubscribe while
+ * a writer waits for its queue.
+ * </p>
+ *
+ * <p>A listener that throws is unsubscribed and the exception is kept in its
+ * {@link Subscription}. It never reaches the writer.
+ * </p>
+ */
+public final class ChangeFeed {
+  /** The default queue capacity of asynchronous subscribers. */
+  public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+  private static final Subscription[] NONE = new Subscription[0];
+
+  private final AtomicReference<Subscription[]> subscriptions;
+  private final Queue<ChangeEvent> staged;
+  private final Object deliveryLock;
+  private long sequence;
+
+  /**
+   * Creates a feed without subscribers.
+   */
+  public ChangeFeed() {
+    this.subscriptions = new AtomicReference<>(NONE);
+    this.staged = new ConcurrentLinkedQueue<>();
+    this.deliveryLock = new Object();
+  }
+
+  /**
+   * Subscribes {@code listener} to be called on the writing thread.
+   *
+   * @param listener the listener; must be non-null
+   * @return the subscription, to be closed to unsubscribe
+   * @throws IllegalArgumentException if {@code listener} is null
+   */
+  public Subscription subscribe(ChangeListener listener) {
+    Validators.validateNotNull(listener, "Listener");
+    return add(new Subscription(this, listener, 0));
+  }
+
+  /**
+   * Subscribes {@code listener} to be called on its own thread.
+   *
+   * @param listener the listener; must be non-null
+   * @param queueCapacity the number of events that may wait for the listener
+   * @return the subscription, to be closed to unsubscribe
+   * @throws IllegalArgumentException if {@code listener} is null or
+   *         {@code queueCapacity} is not positive
+   */
+  public Subscription subscribeAsync(ChangeListener listener, int queueCapacity) {
+    Validators.validateNotNull(listener, "Listener");
+    if (queueCapacity <= 0) {
+      throw new IllegalArgumentException("Queue capacity must be positive");
+    }
+    return add(new Subscription(this, listener, queueCapacity));
+  }
+
+  /**
+   * Returns whether anyone is subscribed.
+   *
+   * @return {@code true} if there is at least one subscriber
+   */
+  public boolean hasSubscribers() {
+    return subscriptions.get().length > 0;
+  }
+
+  /**
+   * Publishes a change to every subscriber. Must not be called while holding
+   * a lock that listeners may need; use {@link #stage} then.
+   *
+   * @param type what changed
+   * @param entry the changed entry, or {@code null} for author changes
+   * @param author the changed author, or the author of the changed entry
+   */
+  public void publish(ChangeType type, DiaryEntry entry, Author author) {
+    stage(type, entry, author);
+    deliverStaged();
+  }
+
+  /**
+   * Numbers a change and queues it for the next {@link #deliverStaged()}
+   * without calling any listener, so it never blocks.
+   *
+   * @param type what changed
+   * @param entry the changed entry, or {@code null} for author changes
+   * @param author the changed author, or the author of the changed entry
+   */
+  public void stage(ChangeType type, DiaryEntry entry, Author author) {
+    if (subscriptions.get().length == 0) {
+      return;
+    }
+    synchronized (this) {
+      staged.add(new ChangeEvent(++sequence, type, entry, author));
+    }
+  }
+
+  /**
+   * Delivers the staged changes to every subscriber, in sequence order. Each
+   * event is delivered by whichever thread gets to it first.
+   */
+  public void deliverStaged() {
+    if (staged.isEmpty()) {
+      return;
+    }
+    synchronized (deliveryLock) {
+      ChangeEvent event;
+      while ((event = staged.poll()) != null) {
+        for (Subscription subscription : subscriptions.get()) {
+          subscription.deliver(event);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the sequence number of the last published event, or 0 if there
+   * has been none.
+   *
+   * @return the last sequence number
+   */
+  public synchronized long lastSequence() {
+    return sequence;
+  }
+
+  private Subscription add(Subscription subscription) {
+    subscription.start();
+    subscriptions.updateAndGet(current -> {
+      Subscription[] grown = Arrays.copyOf(current, current.length + 1);
+      grown[current.length] = subscription;
+      return grown;
+    });
+    return subscription;
+  }
+
+  void remove(Subscription subscription) {
+    subscriptions.updateAndGet(current -> {
+      for (int i = 0; i < current.length; i++) {
+        if (current[i] == subscription) {
+          if (current.length == 1) {
+            return NONE;
+          }
+          Subscription[] shrunk = new Subscription[current.length - 1];
+          System.arraycopy(current, 0, shrunk, 0, i);
+          System.arraycopy(current, i + 1, shrunk, i, current.length - i - 1);
+          return shrunk;
+        }
+      }
+      return current;
+    });
+  }
+}
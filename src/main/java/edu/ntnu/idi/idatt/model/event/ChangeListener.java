@@ -0,0 +1,14 @@
+package edu.ntnu.idi.idatt.model.event;
+
+/**
+ * Receives the events of a {@link ChangeFeed}.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+  /**
+   * Called once for every event, in sequence order.
+   *
+   * @param event the change
+   */
+  void onChange(ChangeEvent event);
+}
@@ -0,0 +1,17 @@
+package edu.ntnu.idi.idatt.model.event;
+
+/**
+ * The kinds of change published on a {@link ChangeFeed}.
+ */
+public enum ChangeType {
+  /** An entry was added to a diary register. */
+  ENTRY_ADDED,
+  /** The title or description of an entry changed. */
+  ENTRY_UPDATED,
+  /** An entry was removed from a diary register. */
+  ENTRY_REMOVED,
+  /** An author was added to an author register. */
+  AUTHOR_ADDED,
+  /** An author was removed from an author register. */
+  AUTHOR_REMOVED
+}
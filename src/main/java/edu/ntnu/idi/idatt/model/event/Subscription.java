@@ -0,0 +1,130 @@
+package edu.ntnu.idi.idatt.model.event;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A listener's subscription to a {@link ChangeFeed}.
+ *
+ * <p>Closing an asynchronous subscription delivers the events already queued
+ * before it returns. Closed from its own listener, it drops them instead.
+ * </p>
+ */
+public final class Subscription implements AutoCloseable {
+  private static final ChangeEvent STOP = new ChangeEvent(-1, null, null, null);
+
+  private final ChangeFeed feed;
+  private final ChangeListener listener;
+  private final BlockingQueue<ChangeEvent> queue;
+  private final Thread worker;
+  private volatile boolean closed;
+  private volatile boolean discarding;
+  private volatile RuntimeException failure;
+
+  Subscription(ChangeFeed feed, ChangeListener listener, int queueCapacity) {
+    this.feed = feed;
+    this.listener = listener;
+    if (queueCapacity > 0) {
+      this.queue = new ArrayBlockingQueue<>(queueCapacity);
+      this.worker = new Thread(this::run, "diary-change-listener");
+      this.worker.setDaemon(true);
+    } else {
+      this.queue = null;
+      this.worker = null;
+    }
+  }
+
+  void start() {
+    if (worker != null) {
+      worker.start();
+    }
+  }
+
+  void deliver(ChangeEvent event) {
+    if (closed || failure != null) {
+      return;
+    }
+    if (queue == null) {
+      dispatch(event);
+      return;
+    }
+    try {
+      queue.put(event);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    while (true) {
+      ChangeEvent event;
+      try {
+        event = queue.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (event == STOP || (discarding && queue.isEmpty())) {
+        return;
+      }
+      if (!discarding) {
+        dispatch(event);
+      }
+    }
+  }
+
+  private void dispatch(ChangeEvent event) {
+    try {
+      listener.onChange(event);
+    } catch (RuntimeException e) {
+      failure = e;
+      discarding = true;
+      feed.remove(this);
+    }
+  }
+
+  /**
+   * Returns the exception that ended this subscription, if the listener threw one.
+   *
+   * @return the listener's exception, or {@code null}
+   */
+  public RuntimeException getFailure() {
+    return failure;
+  }
+
+  /**
+   * Returns whether the subscription still receives events.
+   *
+   * @return {@code true} until it is closed or its listener fails
+   */
+  public boolean isActive() {
+    return !closed && failure == null;
+  }
+
+  /**
+   * Unsubscribes the listener. Asynchronous subscriptions first deliver the
+   * events already queued.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    feed.remove(this);
+    if (worker == null) {
+      return;
+    }
+    if (Thread.currentThread() == worker) {
+      // Waiting for our own queue to drain would never end.
+      discarding = true;
+      queue.offer(STOP);
+      return;
+    }
+    try {
+      queue.put(STOP);
+      worker.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
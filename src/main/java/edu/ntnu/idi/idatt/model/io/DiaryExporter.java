@@ -0,0 +1,85 @@
+package edu.ntnu.idi.idatt.model.io;
+
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.util.Validators;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams the entries of a {@link DiaryRegister} to a CSV or JSON Lines file.
+ *
+ * <p>Entries are written one at a time while the register is iterated, through
+ * a buffered writer on top of a {@link FileChannel}, so memory use does not
+ * depend on the number of entries.
+ * </p>
+ */
+public class DiaryExporter {
+  private static final int WRITE_BUFFER_CHARS = 1 << 16;
+  private static final int PROGRESS_INTERVAL = 10_000;
+
+  private final DiaryRegister diaryRegister;
+
+  /**
+   * Creates an exporter for the entries of {@code diaryRegister}.
+   *
+   * @param diaryRegister the register to export
+   * @throws IllegalArgumentException if {@code diaryRegister} is null
+   */
+  public DiaryExporter(DiaryRegister diaryRegister) {
+    Validators.validateNotNull(diaryRegister, "Diary register");
+    this.diaryRegister = diaryRegister;
+  }
+
+  /**
+   * Writes every entry to {@code file}, replacing any existing content.
+   *
+   * @param file the file to write
+   * @param format the format to write
+   * @param progress receives progress updates; may be {@code null}
+   * @return the number of entries written
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if {@code file} or {@code format} is null
+   */
+  public long exportFile(Path file, TransferFormat format, TransferProgress progress)
+          throws IOException {
+    Validators.validateNotNull(file, "File");
+    Validators.validateNotNull(format, "Format");
+    long start = System.nanoTime();
+    long[] written = {0};
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+         BufferedWriter writer = new BufferedWriter(
+                 Channels.newWriter(channel, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS)) {
+      if (format.header() != null) {
+        writer.write(format.header());
+        writer.write('\n');
+      }
+      diaryRegister.forEachEntry(entry -> {
+        try {
+          writer.write(format.format(EntryRecord.of(entry)));
+          writer.write('\n');
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        written[0]++;
+        if (progress != null && written[0] % PROGRESS_INTERVAL == 0) {
+          progress.onProgress(written[0], System.nanoTime() - start);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    if (progress != null) {
+      progress.onProgress(written[0], System.nanoTime() - start);
+    }
+    return written[0];
+  }
+}
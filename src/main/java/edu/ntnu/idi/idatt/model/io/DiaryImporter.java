@@ -0,0 +1,384 @@
+package edu.ntnu.idi.idatt.model.io;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.EntryFactory;
+import edu.ntnu.idi.idatt.model.register.AuthorRegister;
+import edu.ntnu.idi.idatt.model.register.BatchOperation;
+import edu.ntnu.idi.idatt.model.register.BatchResult;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.util.Validators;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams diary entries from a CSV or JSON Lines file into the registers.
+ *
+ * <p>The import runs as a three-stage pipeline connected by bounded queues:
+ * a reader thread splits the file into records, a parser thread parses and
+ * validates them, and the calling thread resolves authors and inserts the
+ * entries in chunks of {@value #INSERT_CHUNK_SIZE} through
+ * {@link DiaryRegister#applyBatch(List)}, so a durable store commits each chunk
+ * at once. The bounded queues apply backpressure, so memory use stays constant
+ * regardless of file size. Records that fail to parse or validate are reported
+ * with their line number and skipped instead of aborting the run.
+ * </p>
+ *
+ * <p>Creation times are checked against a coarse clock that is read at most
+ * once every few milliseconds. A trusted import, for files the diary exported
+ * itself, skips the clock and email format checks.
+ * </p>
+ */
+public class DiaryImporter {
+  /** Maximum number of rejected records kept in an {@link ImportReport}. */
+  public static final int MAX_REPORTED_ERRORS = 100;
+
+  private static final int QUEUE_CAPACITY = 4096;
+  private static final int READ_BUFFER_CHARS = 1 << 16;
+  private static final int MAX_RECORD_CHARS = 1 << 20;
+  private static final int PROGRESS_INTERVAL = 10_000;
+  private static final int INSERT_CHUNK_SIZE = 1024;
+  private static final long CLOCK_RESOLUTION_MILLIS = 5;
+  private static final Item END = new Item(0, null, null, null, null);
+
+  private final DiaryRegister diaryRegister;
+  private final AuthorRegister authorRegister;
+  private final EntryFactory entryFactory;
+  private boolean trusted;
+
+  /**
+   * Creates an importer that adds entries to {@code diaryRegister} and new
+   * authors to {@code authorRegister}.
+   *
+   * @param diaryRegister the register receiving imported entries
+   * @param authorRegister the register used to resolve and store authors
+   * @throws IllegalArgumentException if either register is null
+   */
+  public DiaryImporter(DiaryRegister diaryRegister, AuthorRegister authorRegister) {
+    this(diaryRegister, authorRegister,
+            new EntryFactory(Clock.systemDefaultZone(), CLOCK_RESOLUTION_MILLIS));
+  }
+
+  /**
+   * Creates an importer that creates entries through {@code entryFactory}.
+   *
+   * @param diaryRegister the register receiving imported entries
+   * @param authorRegister the register used to resolve and store authors
+   * @param entryFactory the factory whose clock creation times are checked against
+   * @throws IllegalArgumentException if any argument is null
+   */
+  public DiaryImporter(DiaryRegister diaryRegister, AuthorRegister authorRegister,
+                       EntryFactory entryFactory) {
+    Validators.validateNotNull(diaryRegister, "Diary register");
+    Validators.validateNotNull(authorRegister, "Author register");
+    Validators.validateNotNull(entryFactory, "Entry factory");
+    this.diaryRegister = diaryRegister;
+    this.authorRegister = authorRegister;
+    this.entryFactory = entryFactory;
+  }
+
+  /**
+   * Sets whether imported records are trusted.
+   *
+   * <p>Fields of trusted records are only checked for being present: creation
+   * times are not compared with the clock and emails of known authors are not
+   * checked against the email format. Use this only for files written by
+   * {@link DiaryExporter}.
+   * </p>
+   *
+   * @param trusted {@code true} to skip validation of imported records
+   */
+  public void setTrusted(boolean trusted) {
+    this.trusted = trusted;
+  }
+
+  /**
+   * Imports every record of {@code file}.
+   *
+   * <p>Authors are matched by email; unknown authors are added to the author
+   * register. Imported entries keep the creation time from the file and get
+   * new ids from the diary register.
+   * </p>
+   *
+   * @param file the file to read
+   * @param format the format of the file
+   * @param progress receives progress updates; may be {@code null}
+   * @return a report with counts, rejected records and timing
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if {@code file} or {@code format} is null
+   */
+  public ImportReport importFile(Path file, TransferFormat format, TransferProgress progress)
+          throws IOException {
+    Validators.validateNotNull(file, "File");
+    Validators.validateNotNull(format, "Format");
+
+    BlockingQueue<Item> records = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    BlockingQueue<Item> parsed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    AtomicReference<IOException> readFailure = new AtomicReference<>();
+    AtomicReference<Throwable> parseFailure = new AtomicReference<>();
+    long start = System.nanoTime();
+
+    Thread reader = new Thread(() -> readRecords(file, format, records, readFailure),
+            "diary-import-reader");
+    Thread parser = new Thread(() -> parseRecords(format, records, parsed, parseFailure),
+            "diary-import-parser");
+    reader.setDaemon(true);
+    parser.setDaemon(true);
+    reader.start();
+    parser.start();
+
+    Tally tally = new Tally(progress, start);
+    List<Item> chunk = new ArrayList<>(INSERT_CHUNK_SIZE);
+    try {
+      for (Item item = parsed.take(); item != END; item = parsed.take()) {
+        chunk.add(item);
+        if (chunk.size() == INSERT_CHUNK_SIZE) {
+          insert(chunk, tally);
+          chunk.clear();
+        }
+      }
+      insert(chunk, tally);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Import was interrupted", e);
+    } finally {
+      reader.interrupt();
+      parser.interrupt();
+    }
+
+    if (readFailure.get() != null) {
+      throw readFailure.get();
+    }
+    if (parseFailure.get() instanceof RuntimeException e) {
+      throw e;
+    } else if (parseFailure.get() instanceof Error e) {
+      throw e;
+    }
+    long elapsed = System.nanoTime() - start;
+    if (progress != null) {
+      progress.onProgress(tally.imported + tally.rejected, elapsed);
+    }
+    return new ImportReport(tally.imported, tally.rejected, List.copyOf(tally.errors), elapsed);
+  }
+
+  /**
+   * Reader stage: splits the file into complete records, tracking the line
+   * each record starts on.
+   */
+  private void readRecords(Path file, TransferFormat format, BlockingQueue<Item> out,
+                           AtomicReference<IOException> failure) {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+         BufferedReader reader = new BufferedReader(
+                 Channels.newReader(channel, StandardCharsets.UTF_8), READ_BUFFER_CHARS)) {
+      long lineNumber = 0;
+      if (format.header() != null && reader.readLine() != null) {
+        lineNumber++;
+      }
+
+      StringBuilder record = new StringBuilder();
+      long recordStart = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (record.length() == 0) {
+          if (line.isBlank()) {
+            continue;
+          }
+          recordStart = lineNumber;
+        } else {
+          record.append('\n');
+        }
+        record.append(line);
+
+        if (format.isComplete(record)) {
+          out.put(new Item(recordStart, record.toString(), null, null, null));
+          record.setLength(0);
+        } else if (record.length() > MAX_RECORD_CHARS) {
+          out.put(new Item(recordStart, null, null, null,
+                  "Record is too long or has an unclosed quote"));
+          record.setLength(0);
+        }
+      }
+      if (record.length() > 0) {
+        out.put(new Item(recordStart, null, null, null,
+                "Unexpected end of file inside a record"));
+      }
+    } catch (IOException e) {
+      failure.set(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    putQuietly(out, END);
+  }
+
+  /**
+   * Parser stage: parses each record and validates its fields.
+   *
+   * <p>An unexpected exception ends the stage and is handed to the caller
+   * through {@code failure}. The end marker is always sent, so the insert
+   * stage never waits for records that will not come.
+   * </p>
+   */
+  private void parseRecords(TransferFormat format, BlockingQueue<Item> in,
+                            BlockingQueue<Item> out, AtomicReference<Throwable> failure) {
+    try {
+      for (Item item = in.take(); item != END; item = in.take()) {
+        if (item.error != null) {
+          out.put(item);
+          continue;
+        }
+        try {
+          EntryRecord record = format.parse(item.text);
+          out.put(new Item(item.lineNumber, null, record, validate(record), null));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+          out.put(new Item(item.lineNumber, null, null, null, e.getMessage()));
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (RuntimeException | Error e) {
+      failure.set(e);
+    } finally {
+      if (!Thread.currentThread().isInterrupted()) {
+        putQuietly(out, END);
+      }
+    }
+  }
+
+  /**
+   * Validates the fields of {@code record} and returns its parsed creation time.
+   */
+  private LocalDateTime validate(EntryRecord record) {
+    Validators.validateString(record.creationTime(), "Creation time");
+    LocalDateTime creationTime = LocalDateTime.parse(record.creationTime());
+    if (!trusted) {
+      entryFactory.validateCreationTime(creationTime);
+    }
+    Validators.validateString(record.firstName(), "First Name");
+    Validators.validateString(record.lastName(), "Last Name");
+    if (trusted) {
+      Validators.validateString(record.email(), "Email");
+    } else {
+      Validators.validateEmail(record.email());
+    }
+    Validators.validateString(record.title(), "Title");
+    Validators.validateString(record.description(), "Description");
+    return creationTime;
+  }
+
+  /**
+   * Insert stage: resolves the authors of a chunk of records, adds their
+   * entries in one batch and counts the outcome of every record in order.
+   */
+  private void insert(List<Item> chunk, Tally tally) {
+    String[] errors = new String[chunk.size()];
+    List<BatchOperation> operations = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      Item item = chunk.get(i);
+      if (item.error != null) {
+        errors[i] = item.error;
+        continue;
+      }
+      try {
+        EntryRecord record = item.record;
+        Author author = authorRegister.getAuthorByEmail(record.email());
+        if (author == null) {
+          author = new Author(record.firstName(), record.lastName(), record.email());
+          authorRegister.addAuthor(author);
+        }
+        operations.add(BatchOperation.create(entryFactory.restore(record.title(),
+                record.description(), author, item.creationTime)));
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        errors[i] = reason(e);
+      }
+    }
+
+    List<BatchResult> results;
+    try {
+      results = operations.isEmpty() ? List.of() : diaryRegister.applyBatch(operations);
+    } catch (IllegalStateException e) {
+      results = null;
+      for (int i = 0; i < errors.length; i++) {
+        if (errors[i] == null) {
+          errors[i] = reason(e);
+        }
+      }
+    }
+
+    int next = 0;
+    for (int i = 0; i < chunk.size(); i++) {
+      String error = errors[i];
+      if (error == null) {
+        BatchResult result = results.get(next++);
+        error = result.applied() ? null : result.error();
+      }
+      tally.count(chunk.get(i).lineNumber, error);
+    }
+  }
+
+  private static String reason(RuntimeException e) {
+    return e.getMessage() == null ? e.toString() : e.getMessage();
+  }
+
+  private static void putQuietly(BlockingQueue<Item> queue, Item item) {
+    try {
+      queue.put(item);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * A unit of work passed between pipeline stages: either raw record text,
+   * a parsed record with its validated creation time or an error, tagged with
+   * the record's first line number.
+   */
+  private record Item(long lineNumber, String text, EntryRecord record,
+                      LocalDateTime creationTime, String error) {
+  }
+
+  /**
+   * The running counts of an import, reporting progress every
+   * {@value #PROGRESS_INTERVAL} records.
+   */
+  private static final class Tally {
+    private final TransferProgress progress;
+    private final long start;
+    private final List<ImportError> errors = new ArrayList<>();
+    private long imported;
+    private long rejected;
+
+    Tally(TransferProgress progress, long start) {
+      this.progress = progress;
+      this.start = start;
+    }
+
+    void count(long lineNumber, String error) {
+      if (error == null) {
+        imported++;
+      } else {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+          errors.add(new ImportError(lineNumber, error));
+        }
+      }
+      if (progress != null && (imported + rejected) % PROGRESS_INTERVAL == 0) {
+        progress.onProgress(imported + rejected, System.nanoTime() - start);
+      }
+    }
+  }
+}
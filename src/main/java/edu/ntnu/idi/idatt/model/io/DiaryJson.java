@@ -0,0 +1,111 @@
+package edu.ntnu.idi.idatt.model.io;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.storage.CompactionReport;
+import edu.ntnu.idi.idatt.model.storage.StorageStatistics;
+import edu.ntnu.idi.idatt.util.Json;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * JSON representations of entries and statistics, shared by the HTTP API and
+ * the command-line mode so both produce the same documents.
+ */
+public final class DiaryJson {
+  private DiaryJson() {
+  }
+
+  /**
+   * Appends {@code entry} to {@code json} as a flat object with the fields
+   * {@code id}, {@code creationTime}, {@code firstName}, {@code lastName},
+   * {@code email}, {@code title} and {@code description}.
+   *
+   * @param json the builder to append to
+   * @param entry the entry to describe
+   */
+  public static void appendEntry(StringBuilder json, DiaryEntry entry) {
+    json.append("{\"id\":").append(entry.getEntryId());
+    appendField(json, "creationTime", entry.getCreationTime().toString());
+    appendField(json, "firstName", entry.getAuthor().getFirstName());
+    appendField(json, "lastName", entry.getAuthor().getLastName());
+    appendField(json, "email", entry.getAuthor().getEmail());
+    appendField(json, "title", entry.getTitle());
+    appendField(json, "description", entry.getDescription());
+    json.append('}');
+  }
+
+  /**
+   * Appends the entry count and the entries per author as
+   * {@code {"entries":n,"authors":{"email":count,...}}}.
+   *
+   * @param json the builder to append to
+   * @param entryCount the total number of entries
+   * @param authorStatistics the number of entries per author email
+   */
+  public static void appendStatistics(StringBuilder json, int entryCount,
+                                      Map<String, Long> authorStatistics) {
+    appendStatistics(json, entryCount, authorStatistics, null);
+  }
+
+  /**
+   * Appends the entry count, the entries per author and, if {@code storage} is
+   * not null, the figures of the segment store as a {@code storage} object
+   * with {@code segments}, {@code compressedSegments}, {@code compressionRatio},
+   * {@code cacheHits}, {@code cacheMisses}, {@code lastCompaction} and
+   * {@code lastCompactionFailure}; the last two are {@code null} if there was
+   * no compaction or it succeeded.
+   *
+   * @param json the builder to append to
+   * @param entryCount the total number of entries
+   * @param authorStatistics the number of entries per author email
+   * @param storage the store's statistics, or {@code null} for an in-memory register
+   */
+  public static void appendStatistics(StringBuilder json, int entryCount,
+                                      Map<String, Long> authorStatistics,
+                                      StorageStatistics storage) {
+    json.append("{\"entries\":").append(entryCount).append(",\"authors\":{");
+    boolean first = true;
+    for (Map.Entry<String, Long> author : authorStatistics.entrySet()) {
+      if (!first) {
+        json.append(',');
+      }
+      first = false;
+      Json.appendQuoted(json, author.getKey());
+      json.append(':').append(author.getValue());
+    }
+    json.append('}');
+    if (storage != null) {
+      json.append(",\"storage\":{\"segments\":").append(storage.segments())
+              .append(",\"compressedSegments\":").append(storage.compressedSegments())
+              .append(",\"compressionRatio\":")
+              .append(String.format(Locale.ROOT, "%.2f", storage.compressionRatio()))
+              .append(",\"cacheHits\":").append(storage.cacheHits())
+              .append(",\"cacheMisses\":").append(storage.cacheMisses())
+              .append(",\"lastCompaction\":");
+      CompactionReport compaction = storage.lastCompaction();
+      if (compaction == null) {
+        json.append("null");
+      } else {
+        json.append("{\"segmentsCompacted\":").append(compaction.segmentsCompacted())
+                .append(",\"recordsDropped\":").append(compaction.recordsDropped())
+                .append(",\"reclaimedBytes\":").append(compaction.reclaimedBytes())
+                .append('}');
+      }
+      json.append(",\"lastCompactionFailure\":");
+      if (storage.lastCompactionFailure() == null) {
+        json.append("null");
+      } else {
+        Json.appendQuoted(json, storage.lastCompactionFailure());
+      }
+      json.append('}');
+    }
+    json.append('}');
+  }
+
+  private static void appendField(StringBuilder json, String name, String value) {
+    json.append(',');
+    Json.appendQuoted(json, name);
+    json.append(':');
+    Json.appendQuoted(json, value);
+  }
+}
@@ -0,0 +1,29 @@
+package edu.ntnu.idi.idatt.model.io;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+
+/**
+ * The textual fields of one diary entry and its author as they appear in an
+ * import or export file.
+ *
+ * @param creationTime the creation time in ISO-8601 format
+ * @param firstName the author's first name
+ * @param lastName the author's last name
+ * @param email the author's email
+ * @param title the entry title
+ * @param description the entry description
+ */
+public record EntryRecord(String creationTime, String firstName, String lastName,
+                          String email, String title, String description) {
+  /**
+   * Creates the record describing {@code entry}.
+   *
+   * @param entry the entry to describe
+   * @return the record holding the entry's fields
+   */
+  public static EntryRecord of(DiaryEntry entry) {
+    return new EntryRecord(entry.getCreationTime().toString(),
+            entry.getAuthor().getFirstName(), entry.getAuthor().getLastName(),
+            entry.getAuthor().getEmail(), entry.getTitle(), entry.getDescription());
+  }
+}
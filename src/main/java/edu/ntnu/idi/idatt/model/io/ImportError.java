@@ -0,0 +1,14 @@
+package edu.ntnu.idi.idatt.model.io;
+
+/**
+ * A record that was rejected during an import.
+ *
+ * @param lineNumber the line on which the record starts, counting from 1
+ * @param message the reason the record was rejected
+ */
+public record ImportError(long lineNumber, String message) {
+  @Override
+  public String toString() {
+    return "line " + lineNumber + ": " + message;
+  }
+}
@@ -0,0 +1,28 @@
+package edu.ntnu.idi.idatt.model.io;
+
+import java.util.List;
+
+/**
+ * The outcome of an import run.
+ *
+ * <p>Only the first {@link DiaryImporter#MAX_REPORTED_ERRORS} errors are kept
+ * so a badly broken file cannot exhaust memory; {@link #rejected()} still
+ * counts every rejected record.
+ * </p>
+ *
+ * @param imported the number of entries added to the register
+ * @param rejected the number of records that were rejected
+ * @param errors the first rejected records with their line numbers
+ * @param elapsedNanos the wall-clock duration of the import
+ */
+public record ImportReport(long imported, long rejected, List<ImportError> errors,
+                           long elapsedNanos) {
+  /**
+   * Returns the number of records processed per second.
+   *
+   * @return the import throughput, or {@code 0.0} if no time elapsed
+   */
+  public double recordsPerSecond() {
+    return elapsedNanos == 0 ? 0.0 : (imported + rejected) / (elapsedNanos / 1e9);
+  }
+}
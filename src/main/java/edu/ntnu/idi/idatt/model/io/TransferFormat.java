@@ -0,0 +1,181 @@
+package edu.ntnu.idi.idatt.model.io;
+
+import edu.ntnu.idi.idatt.util.Json;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * File formats supported by {@link DiaryImporter} and {@link DiaryExporter}.
+ *
+ * <p>Both formats hold one entry per record, with the author's name and email
+ * inlined next to the entry fields:
+ * <ul>
+ *   <li>{@link #CSV}: RFC 4180 style with a header row. Fields containing
+ *   commas, quotes or line breaks are quoted, so a record may span lines.</li>
+ *   <li>{@link #JSON_LINES}: one flat JSON object per line.</li>
+ * </ul>
+ * </p>
+ */
+public enum TransferFormat {
+  CSV {
+    @Override
+    public String header() {
+      return String.join(",", COLUMNS);
+    }
+
+    @Override
+    public String format(EntryRecord entry) {
+      StringBuilder builder = new StringBuilder(128);
+      String[] fields = fieldsOf(entry);
+      for (int i = 0; i < fields.length; i++) {
+        if (i > 0) {
+          builder.append(',');
+        }
+        appendCsvField(builder, fields[i]);
+      }
+      return builder.toString();
+    }
+
+    @Override
+    public boolean isComplete(CharSequence record) {
+      int quotes = 0;
+      for (int i = 0; i < record.length(); i++) {
+        if (record.charAt(i) == '"') {
+          quotes++;
+        }
+      }
+      return quotes % 2 == 0;
+    }
+
+    @Override
+    public EntryRecord parse(String record) {
+      List<String> fields = new ArrayList<>(COLUMNS.length);
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      for (int i = 0; i < record.length(); i++) {
+        char c = record.charAt(i);
+        if (quoted) {
+          if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+            field.append('"');
+            i++;
+          } else if (c == '"') {
+            quoted = false;
+          } else {
+            field.append(c);
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',') {
+          fields.add(field.toString());
+          field.setLength(0);
+        } else {
+          field.append(c);
+        }
+      }
+      fields.add(field.toString());
+
+      if (fields.size() != COLUMNS.length) {
+        throw new IllegalArgumentException("Expected " + COLUMNS.length
+                + " columns but found " + fields.size());
+      }
+      return new EntryRecord(fields.get(0), fields.get(1), fields.get(2),
+              fields.get(3), fields.get(4), fields.get(5));
+    }
+  },
+
+  JSON_LINES {
+    @Override
+    public String header() {
+      return null;
+    }
+
+    @Override
+    public String format(EntryRecord entry) {
+      StringBuilder builder = new StringBuilder(160).append('{');
+      String[] fields = fieldsOf(entry);
+      for (int i = 0; i < fields.length; i++) {
+        if (i > 0) {
+          builder.append(',');
+        }
+        Json.appendQuoted(builder, COLUMNS[i]);
+        builder.append(':');
+        Json.appendQuoted(builder, fields[i]);
+      }
+      return builder.append('}').toString();
+    }
+
+    @Override
+    public boolean isComplete(CharSequence record) {
+      return true;
+    }
+
+    @Override
+    public EntryRecord parse(String record) {
+      Map<String, String> values = Json.parseObject(record);
+      return new EntryRecord(values.get(COLUMNS[0]), values.get(COLUMNS[1]),
+              values.get(COLUMNS[2]), values.get(COLUMNS[3]),
+              values.get(COLUMNS[4]), values.get(COLUMNS[5]));
+    }
+  };
+
+  private static final String[] COLUMNS = {
+    "creationTime", "firstName", "lastName", "email", "title", "description"
+  };
+
+  /**
+   * Returns the header line written before the first record.
+   *
+   * @return the header line, or {@code null} if the format has none
+   */
+  public abstract String header();
+
+  /**
+   * Formats one entry as a record, without a trailing line break.
+   *
+   * @param entry the entry to format
+   * @return the formatted record
+   */
+  public abstract String format(EntryRecord entry);
+
+  /**
+   * Tells whether {@code record} is a complete record or continues on the
+   * next line, which happens for CSV fields with embedded line breaks.
+   *
+   * @param record the text read so far
+   * @return {@code true} if the record is complete
+   */
+  public abstract boolean isComplete(CharSequence record);
+
+  /**
+   * Parses one complete record.
+   *
+   * @param record the record text
+   * @return the parsed fields
+   * @throws IllegalArgumentException if the record is malformed
+   */
+  public abstract EntryRecord parse(String record);
+
+  private static String[] fieldsOf(EntryRecord entry) {
+    return new String[] {entry.creationTime(), entry.firstName(), entry.lastName(),
+        entry.email(), entry.title(), entry.description()};
+  }
+
+  private static void appendCsvField(StringBuilder builder, String value) {
+    boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+    if (!needsQuotes) {
+      builder.append(value);
+      return;
+    }
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        builder.append('"');
+      }
+      builder.append(c);
+    }
+    builder.append('"');
+  }
+}
@@ -0,0 +1,15 @@
+package edu.ntnu.idi.idatt.model.io;
+
+/**
+ * Receives progress updates from long-running imports and exports.
+ */
+@FunctionalInterface
+public interface TransferProgress {
+  /**
+   * Called periodically with the number of records handled so far.
+   *
+   * @param records the number of records processed
+   * @param elapsedNanos the time since the transfer started
+   */
+  void onProgress(long records, long elapsedNanos);
+}
@@ -0,0 +1,86 @@
+package edu.ntnu.idi.idatt.model.register;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Entry counts per day, week and month, overall and per author, kept up to
+ * date as entries are added and removed.
+ *
+ * <p>Authors are numbered by email in the order they are first seen, and
+ * ordinal 0 holds the totals over all authors. Every change updates one
+ * counter per bucket width for the author and one for the total, so a query
+ * costs one lookup per bucket in its range, however many entries fall in it.
+ * </p>
+ *
+ * <p>Not thread-safe; {@link DiaryRegister} guards it with its lock.</p>
+ */
+final class ActivityRollup {
+  private static final int ALL_AUTHORS = 0;
+
+  private final Map<String, Integer> authorOrdinals;
+  private final Map<TimeBucket, Map<BucketKey, Long>> counts;
+
+  ActivityRollup() {
+    this.authorOrdinals = new HashMap<>();
+    this.counts = new EnumMap<>(TimeBucket.class);
+    for (TimeBucket bucket : TimeBucket.values()) {
+      counts.put(bucket, new HashMap<>());
+    }
+  }
+
+  void add(DiaryEntry entry) {
+    change(entry, 1);
+  }
+
+  void remove(DiaryEntry entry) {
+    change(entry, -1);
+  }
+
+  /**
+   * Returns the count of every bucket from the one containing {@code from} to
+   * the one containing {@code to}, keyed by the first day of the bucket.
+   * Buckets without entries are included with a count of 0.
+   *
+   * @param email the author to count, or {@code null} for all authors
+   */
+  SortedMap<LocalDate, Long> counts(TimeBucket bucket, LocalDate from, LocalDate to,
+                                    String email) {
+    SortedMap<LocalDate, Long> result = new TreeMap<>();
+    Integer author = email == null ? Integer.valueOf(ALL_AUTHORS)
+            : authorOrdinals.get(email.toLowerCase());
+    Map<BucketKey, Long> bucketCounts = counts.get(bucket);
+    for (long index = bucket.indexOf(from); index <= bucket.indexOf(to); index++) {
+      long count = author == null ? 0
+              : bucketCounts.getOrDefault(new BucketKey(author, index), 0L);
+      result.put(bucket.startOf(index), count);
+    }
+    return result;
+  }
+
+  private void change(DiaryEntry entry, long delta) {
+    LocalDate date = entry.getCreationTime().toLocalDate();
+    int author = authorOrdinals.computeIfAbsent(entry.getAuthor().getEmail().toLowerCase(),
+            email -> authorOrdinals.size() + 1);
+    for (Map.Entry<TimeBucket, Map<BucketKey, Long>> bucket : counts.entrySet()) {
+      long index = bucket.getKey().indexOf(date);
+      increment(bucket.getValue(), new BucketKey(ALL_AUTHORS, index), delta);
+      increment(bucket.getValue(), new BucketKey(author, index), delta);
+    }
+  }
+
+  private static void increment(Map<BucketKey, Long> bucketCounts, BucketKey key, long delta) {
+    bucketCounts.merge(key, delta, (current, change) -> {
+      long updated = current + change;
+      return updated == 0 ? null : updated;
+    });
+  }
+
+  private record BucketKey(int author, long index) {
+  }
+}
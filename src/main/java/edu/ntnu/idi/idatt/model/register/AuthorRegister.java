@@ -1,31 +1,40 @@
 package edu.ntnu.idi.idatt.model.register;
 
 import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.event.ChangeFeed;
+import edu.ntnu.idi.idatt.model.event.ChangeType;
 import edu.ntnu.idi.idatt.util.Validators;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Maintains a registry of {@link Author} instances keyed by their email addresses.
  *
  * <p>The register enforces unique authors per email and validates inputs via
- * {@link Validators}. Authors are stored in-memory using a {@link HashMap}
+ * {@link Validators}. Authors are stored in-memory using a
+ * {@link ConcurrentHashMap}, so the register can be shared between threads,
  * and can be retrieved in a sorted order by full name.
  * </p>
+ *
+ * <p>Added and removed authors are published on the register's
+ * {@link ChangeFeed}.
+ * </p>
  */
 public class AuthorRegister {
   private final Map<String, Author> authors;
+  private final ChangeFeed changes;
 
   /**
    * Constructs an empty {@code AuthorRegister}.
    *
-   * <p>The underlying storage is initialized as an empty {@link HashMap}.
+   * <p>The underlying storage is initialized as an empty {@link ConcurrentHashMap}.
    * </p>
    */
   public AuthorRegister() {
-    this.authors = new HashMap<>();
+    this.authors = new ConcurrentHashMap<>();
+    this.changes = new ChangeFeed();
   }
 
   /**
@@ -47,6 +56,7 @@ public class AuthorRegister {
       throw new IllegalArgumentException(
               "An author already exists with email " + author.getEmail());
     }
+    changes.publish(ChangeType.AUTHOR_ADDED, null, author);
   }
 
   /**
@@ -61,7 +71,63 @@ public class AuthorRegister {
    */
   public void removeAuthor(Author author) {
     Validators.validateNotNull(author, "Author");
-    authors.remove(author.getEmail());
+    Author removed = authors.remove(author.getEmail());
+    if (removed != null) {
+      changes.publish(ChangeType.AUTHOR_REMOVED, null, removed);
+    }
+  }
+
+  /**
+   * Returns the author registered with the given email.
+   *
+   * @param email the email to look up; must be a non-empty string
+   * @return the matching {@link Author}, or {@code null} if none is registered
+   * @throws IllegalArgumentException if {@code email} is invalid
+   */
+  public Author getAuthorByEmail(String email) {
+    Validators.validateString(email, "Email");
+    return authors.get(email);
+  }
+
+  /**
+   * Returns the author registered with {@code email}, registering a new author
+   * with the given names first if there is none.
+   *
+   * <p>The lookup and insertion happen atomically, so concurrent callers
+   * resolving the same email receive the same instance.
+   * </p>
+   *
+   * @param firstName the first name used if the author is new
+   * @param lastName the last name used if the author is new
+   * @param email the email identifying the author; must be a non-empty string
+   * @return the existing or newly registered author
+   * @throws IllegalArgumentException if {@code email} is invalid, or if the
+   *         author is new and the names are invalid
+   */
+  public Author resolveAuthor(String firstName, String lastName, String email) {
+    Validators.validateString(email, "Email");
+    Author existing = authors.get(email);
+    if (existing != null) {
+      return existing;
+    }
+    Author[] created = new Author[1];
+    Author author = authors.computeIfAbsent(email, key -> {
+      created[0] = new Author(firstName, lastName, key);
+      return created[0];
+    });
+    if (created[0] != null) {
+      changes.publish(ChangeType.AUTHOR_ADDED, null, author);
+    }
+    return author;
+  }
+
+  /**
+   * Returns the feed on which the register publishes added and removed authors.
+   *
+   * @return the change feed
+   */
+  public ChangeFeed getChangeFeed() {
+    return changes;
   }
 
   /**
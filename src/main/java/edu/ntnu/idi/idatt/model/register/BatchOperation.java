@@ -0,0 +1,66 @@
+package edu.ntnu.idi.idatt.model.register;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.util.Validators;
+
+/**
+ * One change in a batch applied by {@link DiaryRegister#applyBatch(java.util.List)}.
+ *
+ * @param type whether the operation creates or deletes an entry
+ * @param entry the entry to create; {@code null} for deletions
+ * @param entryId the id of the entry to delete; {@code 0} for creations
+ */
+public record BatchOperation(Type type, DiaryEntry entry, int entryId) {
+  /**
+   * The kind of change.
+   */
+  public enum Type {
+    CREATE,
+    DELETE
+  }
+
+  /**
+   * Checks that the fields describe a single create or delete.
+   *
+   * @throws IllegalArgumentException if {@code type} is null, a create has no
+   *         entry or an id, or a delete has an entry or a non-positive id
+   */
+  public BatchOperation {
+    Validators.validateNotNull(type, "Type");
+    if (type == Type.CREATE) {
+      Validators.validateNotNull(entry, "Diary entry");
+      if (entryId != 0) {
+        throw new IllegalArgumentException("A create cannot name an id");
+      }
+    } else {
+      if (entry != null) {
+        throw new IllegalArgumentException("A delete cannot carry an entry");
+      }
+      if (entryId <= 0) {
+        throw new IllegalArgumentException("id must be positive");
+      }
+    }
+  }
+
+  /**
+   * Returns an operation that adds {@code entry} with a newly assigned id.
+   *
+   * @param entry the entry to add; must be non-null
+   * @return the create operation
+   * @throws IllegalArgumentException if {@code entry} is null
+   */
+  public static BatchOperation create(DiaryEntry entry) {
+    return new BatchOperation(Type.CREATE, entry, 0);
+  }
+
+  /**
+   * Returns an operation that removes the entry with {@code entryId}.
+   *
+   * @param entryId the id of the entry to remove; must be positive
+   * @return the delete operation
+   * @throws IllegalArgumentException if {@code entryId} is not positive
+   */
+  public static BatchOperation delete(int entryId) {
+    return new BatchOperation(Type.DELETE, null, entryId);
+  }
+}
@@ -0,0 +1,31 @@
+package edu.ntnu.idi.idatt.model.register;
+
+/**
+ * The outcome of one {@link BatchOperation}.
+ *
+ * @param applied whether the operation changed the register
+ * @param entryId the id of the created or deleted entry
+ * @param error why the operation was not applied; {@code null} if it was
+ */
+public record BatchResult(boolean applied, int entryId, String error) {
+  /**
+   * Returns the result of an applied operation.
+   *
+   * @param entryId the id of the affected entry
+   * @return the successful result
+   */
+  public static BatchResult applied(int entryId) {
+    return new BatchResult(true, entryId, null);
+  }
+
+  /**
+   * Returns the result of an operation that was rejected.
+   *
+   * @param entryId the id the operation referred to, or {@code 0}
+   * @param error the reason
+   * @return the failed result
+   */
+  public static BatchResult rejected(int entryId, String error) {
+    return new BatchResult(false, entryId, error);
+  }
+}
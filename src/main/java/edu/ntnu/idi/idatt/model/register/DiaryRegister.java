@@ -1,29 +1,139 @@
 package edu.ntnu.idi.idatt.model.register;
 
+import edu.ntnu.idi.idatt.model.analytics.CorpusAnalyzer;
+import edu.ntnu.idi.idatt.model.analytics.CorpusStatistics;
+import edu.ntnu.idi.idatt.model.analytics.DuplicateDetector;
+import edu.ntnu.idi.idatt.model.analytics.SketchSettings;
+import edu.ntnu.idi.idatt.model.analytics.TermAnalytics;
+import edu.ntnu.idi.idatt.model.analytics.TermStatistics;
 import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.entity.EntryEditor;
+import edu.ntnu.idi.idatt.model.event.ChangeFeed;
+import edu.ntnu.idi.idatt.model.event.ChangeType;
+import edu.ntnu.idi.idatt.model.search.InvertedIndex;
+import edu.ntnu.idi.idatt.model.search.ScoredDocument;
+import edu.ntnu.idi.idatt.model.search.SearchHit;
+import edu.ntnu.idi.idatt.model.storage.EntryStore;
+import edu.ntnu.idi.idatt.model.storage.InMemoryEntryStore;
 import edu.ntnu.idi.idatt.util.Validators;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Maintains an in-memory collection of {@link DiaryEntry} instances and
  * provides CRUD-style operations, search and statistics over the entries.
  *
- * <p>Entries are stored in insertion order and a monotonically increasing id is
+ * <p>Entries are kept in an {@link EntryStore} and a monotonically increasing id is
  * assigned when an entry is added via {@link #addEntry(DiaryEntry)}.
  * Validation of input parameters is delegated to {@link Validators}.
  * </p>
+ *
+ * <p>The register is safe for use from several threads. Queries share a read
+ * lock and mutations take the write lock, so the underlying store only ever
+ * sees one writer at a time.
+ * </p>
+ *
+ * <p>Results of the list and statistics queries are kept in a small LRU cache
+ * keyed by query and parameters. Every change made through the register bumps
+ * a version number, and cached results of an older version are recomputed.
+ * Edits through the setters of stored entries are handed to the register
+ * (see {@link EntryEditor}), so they bump the version and update the
+ * indexes like {@link #updateEntry(DiaryEntry, String, String)}.
+ * </p>
+ *
+ * <p>Activity counts per day, week and month are kept in rollup counters that
+ * are built from the store on the first activity query and then updated on
+ * every add and remove. Approximate term statistics (see {@link TermAnalytics}),
+ * the full-text search index (see {@link InvertedIndex}) and the near-duplicate
+ * detector (see {@link DuplicateDetector}) are built and maintained the same
+ * way.
+ * </p>
+ *
+ * <p>Every add, remove and update is published on the register's
+ * {@link ChangeFeed}, as are edits through the setters of stored entries.
+ * Events are staged while the write lock is held and delivered after it is
+ * released, so listeners may query the register, and a full asynchronous
+ * queue holds up only the writer that waits for it.
+ * </p>
  */
 public class DiaryRegister {
-  private final List<DiaryEntry> entries;
+  /** The number of query results cached by default. */
+  public static final int DEFAULT_QUERY_CACHE_SIZE = 128;
+  private static final int MAX_CACHED_RESULT_SIZE = 10_000;
+  private static final int MAX_ACTIVITY_BUCKETS = 100_000;
+
+  private final EntryStore entries;
+  private final ReadWriteLock lock;
+  private final QueryCache queryCache;
+  private final ActivityRollup activity;
+  private volatile boolean activityBuilt;
+  private SketchSettings sketchSettings;
+  private TermAnalytics terms;
+  private volatile boolean termsBuilt;
+  private final InvertedIndex searchIndex;
+  private volatile boolean searchIndexBuilt;
+  private final DuplicateDetector duplicates;
+  private volatile boolean duplicatesBuilt;
+  private final ChangeFeed changes;
+  private final EntryEditor editor;
   private int nextId;
+  private long version;
 
   /**
    * Creates an empty {@code DiaryRegister} with the initial next id set to 1.
+   *
+   * <p>Entries are kept on the heap using an {@link InMemoryEntryStore}.</p>
    */
   public DiaryRegister() {
-    this.entries = new ArrayList<>();
-    nextId = 1;
+    this(new InMemoryEntryStore());
+  }
+
+  /**
+   * Creates a {@code DiaryRegister} on top of the given store.
+   *
+   * <p>Id assignment continues after the highest id already in the store.</p>
+   *
+   * @param store the store holding the entries; must be non-null
+   * @throws IllegalArgumentException if {@code store} is null
+   */
+  public DiaryRegister(EntryStore store) {
+    this(store, DEFAULT_QUERY_CACHE_SIZE);
+  }
+
+  /**
+   * Creates a {@code DiaryRegister} on top of the given store with a query
+   * result cache of the given size.
+   *
+   * @param store the store holding the entries; must be non-null
+   * @param queryCacheSize the number of query results to cache; 0 disables caching
+   * @throws IllegalArgumentException if {@code store} is null or
+   *         {@code queryCacheSize} is negative
+   */
+  public DiaryRegister(EntryStore store, int queryCacheSize) {
+    Validators.validateNotNull(store, "Entry store");
+    if (queryCacheSize < 0) {
+      throw new IllegalArgumentException("Query cache size cannot be negative");
+    }
+    this.entries = store;
+    this.lock = new ReentrantReadWriteLock();
+    this.queryCache = new QueryCache(queryCacheSize);
+    this.activity = new ActivityRollup();
+    this.sketchSettings = SketchSettings.DEFAULT;
+    this.searchIndex = new InvertedIndex();
+    this.duplicates = new DuplicateDetector();
+    this.changes = new ChangeFeed();
+    this.editor = this::edit;
+    store.setEntryEditor(editor);
+    nextId = store.maxEntryId() + 1;
+    version = 0;
   }
 
   /**
@@ -39,8 +149,16 @@ public class DiaryRegister {
    */
   public void addEntry(DiaryEntry entry) {
     Validators.validateNotNull(entry, "Diary entry");
-    entry.setEntryId(nextId++);
-    entries.add(entry);
+    lock.writeLock().lock();
+    try {
+      entry.setEntryId(nextId++);
+      entries.add(entry);
+      addToIndexes(entry);
+      version++;
+    } finally {
+      lock.writeLock().unlock();
+      changes.deliverStaged();
+    }
   }
 
   /**
@@ -55,7 +173,230 @@ public class DiaryRegister {
    */
   public void removeEntry(DiaryEntry entry) {
     Validators.validateNotNull(entry, "Diary entry");
+    lock.writeLock().lock();
+    try {
+      removeStored(entry);
+      version++;
+    } finally {
+      lock.writeLock().unlock();
+      changes.deliverStaged();
+    }
+  }
+
+  /**
+   * Applies many creates and deletes with a single lock acquisition.
+   *
+   * <p>Operations are applied in order and are independent: one that cannot be
+   * applied, such as a delete of an unknown id, is reported in its result and
+   * does not stop the others. The store is asked to commit the whole batch as
+   * one group (see {@link EntryStore#batch(Runnable)}).
+   * </p>
+   *
+   * @param operations the operations to apply; must be non-null
+   * @return one result per operation, in the same order
+   * @throws IllegalArgumentException if {@code operations} or one of its
+   *         elements is null
+   */
+  public List<BatchResult> applyBatch(List<BatchOperation> operations) {
+    Validators.validateNotNull(operations, "Operations");
+    for (BatchOperation operation : operations) {
+      Validators.validateNotNull(operation, "Operation");
+    }
+
+    List<BatchResult> results = new ArrayList<>(operations.size());
+    lock.writeLock().lock();
+    try {
+      entries.batch(() -> {
+        for (BatchOperation operation : operations) {
+          results.add(apply(operation));
+        }
+      });
+    } finally {
+      // Operations applied before a failure stay applied, so cached queries
+      // must not outlive them either.
+      version++;
+      lock.writeLock().unlock();
+      changes.deliverStaged();
+    }
+    return results;
+  }
+
+  private BatchResult apply(BatchOperation operation) {
+    if (operation.type() == BatchOperation.Type.CREATE) {
+      DiaryEntry entry = operation.entry();
+      if (entry.getEntryId() != 0) {
+        return BatchResult.rejected(entry.getEntryId(), "The entry already has an ID");
+      }
+      entry.setEntryId(nextId++);
+      entries.add(entry);
+      addToIndexes(entry);
+      return BatchResult.applied(entry.getEntryId());
+    }
+    DiaryEntry entry = entries.get(operation.entryId());
+    if (entry == null) {
+      return BatchResult.rejected(operation.entryId(), "No entry with id " + operation.entryId());
+    }
+    removeStored(entry);
+    return BatchResult.applied(entry.getEntryId());
+  }
+
+  private void removeStored(DiaryEntry entry) {
+    if (!activityBuilt && !termsBuilt && !searchIndexBuilt && !duplicatesBuilt
+            && !changes.hasSubscribers()) {
+      entries.remove(entry);
+      entry.setEditor(null);
+      return;
+    }
+    int size = entries.size();
     entries.remove(entry);
+    if (entries.size() < size) {
+      if (activityBuilt) {
+        activity.remove(entry);
+      }
+      if (termsBuilt) {
+        terms.remove(entry);
+      }
+      if (searchIndexBuilt) {
+        searchIndex.remove(entry);
+      }
+      if (duplicatesBuilt) {
+        duplicates.remove(entry.getEntryId());
+      }
+      entry.setEditor(null);
+      publish(ChangeType.ENTRY_REMOVED, entry);
+    }
+  }
+
+  private void addToIndexes(DiaryEntry entry) {
+    if (activityBuilt) {
+      activity.add(entry);
+    }
+    if (termsBuilt) {
+      terms.add(entry);
+    }
+    if (searchIndexBuilt) {
+      searchIndex.add(entry);
+    }
+    if (duplicatesBuilt) {
+      duplicates.add(entry.getEntryId(), entry.getDescription());
+    }
+    entry.setEditor(editor);
+    publish(ChangeType.ENTRY_ADDED, entry);
+  }
+
+  /**
+   * Stages a change for delivery once the write lock is released, first
+   * bumping the version so that listeners querying the register do not get
+   * cached results from before the change.
+   */
+  private void publish(ChangeType type, DiaryEntry entry) {
+    if (changes.hasSubscribers()) {
+      version++;
+      changes.stage(type, entry, entry.getAuthor());
+    }
+  }
+
+  /**
+   * Returns the feed on which the register publishes its changes.
+   *
+   * @return the change feed
+   */
+  public ChangeFeed getChangeFeed() {
+    return changes;
+  }
+
+  /**
+   * Replaces the title and description of a stored entry.
+   *
+   * <p>The edit is applied to the entry the store holds under the id of
+   * {@code entry}, and to {@code entry} itself if that is a different
+   * instance. Both values are validated before anything is changed, so an
+   * invalid argument leaves the entry untouched. The store is told about the
+   * edit so that it can persist the new version. Calling the setters of an
+   * entry read from the register has the same effect.
+   * </p>
+   *
+   * @param entry the entry to edit; must be non-null and stored in this register
+   * @param title the new title; must be non-blank
+   * @param description the new description; must be non-blank
+   * @throws IllegalArgumentException if any argument is invalid (validated by {@link Validators})
+   *         or no entry with the id of {@code entry} is stored
+   */
+  public void updateEntry(DiaryEntry entry, String title, String description) {
+    Validators.validateNotNull(entry, "Diary entry");
+    Validators.validateString(title, "Title");
+    Validators.validateString(description, "Description");
+    lock.writeLock().lock();
+    try {
+      DiaryEntry stored = entries.get(entry.getEntryId());
+      if (stored == null) {
+        throw new IllegalArgumentException("No entry with id " + entry.getEntryId());
+      }
+      applyUpdate(stored, entry, title, description);
+    } finally {
+      lock.writeLock().unlock();
+      changes.deliverStaged();
+    }
+  }
+
+  /**
+   * Applies an edit made through a setter of {@code entry}. A {@code null}
+   * title or description keeps the stored one. If the entry has been removed
+   * since it was read, only that instance is changed.
+   */
+  private void edit(DiaryEntry entry, String title, String description) {
+    lock.writeLock().lock();
+    try {
+      DiaryEntry stored = entries.get(entry.getEntryId());
+      if (stored == null) {
+        setText(entry, null, title != null ? title : entry.getTitle(),
+                description != null ? description : entry.getDescription());
+        return;
+      }
+      applyUpdate(stored, entry, title != null ? title : stored.getTitle(),
+              description != null ? description : stored.getDescription());
+    } finally {
+      lock.writeLock().unlock();
+      changes.deliverStaged();
+    }
+  }
+
+  private void applyUpdate(DiaryEntry stored, DiaryEntry entry, String title,
+                           String description) {
+    if (termsBuilt) {
+      terms.remove(stored);
+    }
+    if (searchIndexBuilt) {
+      searchIndex.remove(stored);
+    }
+    setText(stored, editor, title, description);
+    if (entry != stored) {
+      setText(entry, editor, title, description);
+    }
+    entries.update(stored);
+    if (termsBuilt) {
+      terms.add(stored);
+    }
+    if (searchIndexBuilt) {
+      searchIndex.add(stored);
+    }
+    if (duplicatesBuilt) {
+      duplicates.add(stored.getEntryId(), description);
+    }
+    version++;
+    publish(ChangeType.ENTRY_UPDATED, stored);
+  }
+
+  /**
+   * Sets the text of one instance, detached from the editor so that its
+   * setters change only the instance, then attaches {@code editor}.
+   */
+  private static void setText(DiaryEntry entry, EntryEditor editor, String title,
+                              String description) {
+    entry.setEditor(null);
+    entry.setTitle(title);
+    entry.setDescription(description);
+    entry.setEditor(editor);
   }
 
   /**
@@ -68,9 +409,90 @@ public class DiaryRegister {
    * @return a list of all diary entries sorted by creation time (descending)
    */
   public List<DiaryEntry> getAllEntries() {
-    return entries.stream()
-            .sorted(Comparator.comparing(DiaryEntry::getCreationTime).reversed())
-            .toList();
+    lock.readLock().lock();
+    try {
+      return cached(List.of("all"), () -> entries.stream()
+              .sorted(Comparator.comparing(DiaryEntry::getCreationTime).reversed())
+              .toList());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns one page of entries in newest-first order, starting after
+   * {@code cursor}.
+   *
+   * <p>Entries are ordered by creation time and then id, both descending.
+   * Only the requested page is fetched from the store, so the first page
+   * costs the same regardless of how many entries the register holds.
+   * </p>
+   *
+   * @param cursor where the page starts; {@link PageCursor#FIRST} for the newest entries
+   * @param pageSize the maximum number of entries; must be positive
+   * @return the entries of the page, possibly fewer than {@code pageSize} at the end
+   * @throws IllegalArgumentException if {@code cursor} is null or {@code pageSize} is
+   *         not positive
+   */
+  public List<DiaryEntry> getEntriesPage(PageCursor cursor, int pageSize) {
+    Validators.validateNotNull(cursor, "Cursor");
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Page size must be positive");
+    }
+
+    lock.readLock().lock();
+    try {
+      return entries.newestBefore(cursor.time(), cursor.entryId(), pageSize);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Performs {@code action} for every entry in storage order without building
+   * an intermediate list.
+   *
+   * <p>This is intended for bulk operations such as exports, where the number
+   * of entries may be too large to copy. The action runs under the read lock,
+   * so it must not change the register, which includes editing entries
+   * through their setters.
+   * </p>
+   *
+   * @param action the action to perform; must be non-null
+   * @throws IllegalArgumentException if {@code action} is null
+   */
+  public void forEachEntry(Consumer<DiaryEntry> action) {
+    Validators.validateNotNull(action, "Action");
+    lock.readLock().lock();
+    try {
+      entries.stream().forEach(action);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Computes exact corpus statistics of all entries with {@code analyzer}.
+   *
+   * <p>The entries are collected into a list and analyzed in parallel while
+   * the read lock is held, so the analysis sees one consistent state and
+   * writers wait until it is done.
+   * </p>
+   *
+   * @param analyzer the analyzer to run; must be non-null
+   * @return the statistics of all entries
+   * @throws IllegalArgumentException if {@code analyzer} is null
+   */
+  public CorpusStatistics analyzeEntries(CorpusAnalyzer analyzer) {
+    Validators.validateNotNull(analyzer, "Analyzer");
+    lock.readLock().lock();
+    try {
+      List<DiaryEntry> snapshot = new ArrayList<>(entries.size());
+      entries.stream().forEach(snapshot::add);
+      return analyzer.analyze(snapshot);
+    } finally {
+      lock.readLock().unlock();
+    }
   }
 
   /**
@@ -85,10 +507,40 @@ public class DiaryRegister {
       throw new IllegalArgumentException("id must be positive");
     }
 
-    return entries.stream()
-            .filter(entry -> entry.getEntryId() == entryId)
-            .findFirst()
-            .orElse(null);
+    lock.readLock().lock();
+    try {
+      return entries.get(entryId);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of entries in the register.
+   *
+   * @return the entry count
+   */
+  public int getEntryCount() {
+    lock.readLock().lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Writes buffered changes to the underlying store.
+   *
+   * @throws IOException if the store fails to persist the changes
+   */
+  public void flush() throws IOException {
+    lock.writeLock().lock();
+    try {
+      entries.flush();
+    } finally {
+      lock.writeLock().unlock();
+    }
   }
 
   /**
@@ -105,9 +557,14 @@ public class DiaryRegister {
   public List<DiaryEntry> getEntriesByAuthor(String email) {
     Validators.validateString(email, "Email");
 
-    return entries.stream()
-            .filter(entry -> entry.getAuthor().getEmail().equalsIgnoreCase(email))
-            .toList();
+    lock.readLock().lock();
+    try {
+      return cached(List.of("author", email.toLowerCase()), () -> entries.stream()
+              .filter(authorFilter(email))
+              .toList());
+    } finally {
+      lock.readLock().unlock();
+    }
   }
 
   /**
@@ -120,13 +577,21 @@ public class DiaryRegister {
    * @return a map of author emails to their respective entry counts
    */
   public Map<String, Long> getAuthorStatistics() {
-    Map<String, Long> statistics = new HashMap<>();
-
-    entries.forEach(entry -> {
-      String email = entry.getAuthor().getEmail();
-      statistics.put(email, statistics.getOrDefault(email, 0L) + 1);
-    });
-    return statistics;
+    Map<String, Long> statistics;
+    lock.readLock().lock();
+    try {
+      statistics = queryCache.get(List.of("statistics"), version, () -> {
+        Map<String, Long> counts = new HashMap<>();
+        entries.stream().forEach(entry -> {
+          String email = entry.getAuthor().getEmail();
+          counts.put(email, counts.getOrDefault(email, 0L) + 1);
+        });
+        return counts;
+      }, counts -> counts.size() <= MAX_CACHED_RESULT_SIZE);
+    } finally {
+      lock.readLock().unlock();
+    }
+    return new HashMap<>(statistics);
   }
 
   /**
@@ -139,9 +604,14 @@ public class DiaryRegister {
   public List<DiaryEntry> getEntriesByDate(LocalDate date) {
     Validators.validateNotNull(date, "Date");
 
-    return entries.stream()
-            .filter(entry -> entry.getCreationTime().toLocalDate().equals(date))
-            .toList();
+    lock.readLock().lock();
+    try {
+      return cached(List.of("date", date), () -> entries
+              .streamBetween(date.atStartOfDay(), date.atTime(LocalTime.MAX))
+              .toList());
+    } finally {
+      lock.readLock().unlock();
+    }
   }
 
   /**
@@ -164,13 +634,15 @@ public class DiaryRegister {
       throw new IllegalArgumentException("From must be before to");
     }
 
-    return entries.stream()
-            .filter(entry -> {
-              LocalDate date = entry.getCreationTime().toLocalDate();
-              return !date.isBefore(from) && !date.isAfter(to);
-            })
-            .sorted(Comparator.comparing(DiaryEntry::getCreationTime))
-            .toList();
+    lock.readLock().lock();
+    try {
+      return cached(List.of("between", from, to), () -> entries
+              .streamBetween(from.atStartOfDay(), to.atTime(LocalTime.MAX))
+              .sorted(Comparator.comparing(DiaryEntry::getCreationTime))
+              .toList());
+    } finally {
+      lock.readLock().unlock();
+    }
   }
 
   /**
@@ -184,11 +656,500 @@ public class DiaryRegister {
    * @return a list of entries whose title or description contains the keyword
    */
   public List<DiaryEntry> searchByKeyword(String keyword) {
-    return entries.stream()
-            .filter(entry ->
-                    entry.getDescription().toLowerCase().contains(keyword.toLowerCase())
-                            || entry.getTitle().toLowerCase().contains(keyword.toLowerCase()))
-            .toList();
+    lock.readLock().lock();
+    try {
+      return cached(List.of("keyword", keyword.toLowerCase()), () -> entries.stream()
+              .filter(keywordFilter(keyword))
+              .toList());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Performs {@code action} for every entry authored by {@code email}, in
+   * storage order, without building an intermediate list.
+   *
+   * @param email the author's email to match; case-insensitive
+   * @param action the action to perform; must be non-null
+   * @throws IllegalArgumentException if an argument is invalid
+   */
+  public void forEachEntryByAuthor(String email, Consumer<DiaryEntry> action) {
+    Validators.validateString(email, "Email");
+    Validators.validateNotNull(action, "Action");
+
+    lock.readLock().lock();
+    try {
+      entries.stream().filter(authorFilter(email)).forEach(action);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Performs {@code action} for every entry created between {@code from} and
+   * {@code to}, inclusive, in storage order, without building an intermediate
+   * list.
+   *
+   * @param from the start date (inclusive); must be non-null
+   * @param to the end date (inclusive); must be non-null
+   * @param action the action to perform; must be non-null
+   * @throws IllegalArgumentException if an argument is null or if from is after to
+   */
+  public void forEachEntryBetweenDates(LocalDate from, LocalDate to,
+                                       Consumer<DiaryEntry> action) {
+    Validators.validateNotNull(from, "From");
+    Validators.validateNotNull(to, "To");
+    Validators.validateNotNull(action, "Action");
+
+    if (from.isAfter(to)) {
+      throw new IllegalArgumentException("From must be before to");
+    }
+
+    lock.readLock().lock();
+    try {
+      entries.streamBetween(from.atStartOfDay(), to.atTime(LocalTime.MAX)).forEach(action);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Performs {@code action} for every entry whose title or description
+   * contains {@code keyword}, in storage order, without building an
+   * intermediate list.
+   *
+   * @param keyword the search keyword; case-insensitive
+   * @param action the action to perform; must be non-null
+   * @throws IllegalArgumentException if {@code action} is null
+   */
+  public void forEachKeywordMatch(String keyword, Consumer<DiaryEntry> action) {
+    Validators.validateNotNull(action, "Action");
+
+    lock.readLock().lock();
+    try {
+      entries.stream().filter(keywordFilter(keyword)).forEach(action);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of entries per bucket from the bucket containing
+   * {@code from} to the bucket containing {@code to}.
+   *
+   * <p>The counts are read from rollup counters, so the cost depends on the
+   * number of buckets in the range and not on the number of entries. Buckets
+   * are keyed by their first day, and buckets without entries are included
+   * with a count of 0.
+   * </p>
+   *
+   * @param bucket the width of each bucket; must be non-null
+   * @param from the first day of the range; must be non-null
+   * @param to the last day of the range; must not be before {@code from}
+   * @return the count of each bucket, in date order
+   * @throws IllegalArgumentException if any argument is null, {@code to} is
+   *         before {@code from} or the range spans too many buckets
+   */
+  public SortedMap<LocalDate, Long> getActivity(TimeBucket bucket, LocalDate from,
+                                                LocalDate to) {
+    return activityCounts(bucket, from, to, null);
+  }
+
+  /**
+   * Returns the number of entries by one author per bucket, like
+   * {@link #getActivity(TimeBucket, LocalDate, LocalDate)}.
+   *
+   * @param email the author's email; case-insensitive
+   * @param bucket the width of each bucket; must be non-null
+   * @param from the first day of the range; must be non-null
+   * @param to the last day of the range; must not be before {@code from}
+   * @return the author's count in each bucket, in date order
+   * @throws IllegalArgumentException if any argument is invalid
+   */
+  public SortedMap<LocalDate, Long> getActivityByAuthor(String email, TimeBucket bucket,
+                                                        LocalDate from, LocalDate to) {
+    Validators.validateString(email, "Email");
+    return activityCounts(bucket, from, to, email);
+  }
+
+  private SortedMap<LocalDate, Long> activityCounts(TimeBucket bucket, LocalDate from,
+                                                    LocalDate to, String email) {
+    Validators.validateNotNull(bucket, "Bucket");
+    Validators.validateNotNull(from, "From date");
+    Validators.validateNotNull(to, "To date");
+    if (to.isBefore(from)) {
+      throw new IllegalArgumentException("To date cannot be before from date");
+    }
+    if (bucket.indexOf(to) - bucket.indexOf(from) >= MAX_ACTIVITY_BUCKETS) {
+      throw new IllegalArgumentException("The range spans more than "
+              + MAX_ACTIVITY_BUCKETS + " buckets");
+    }
+
+    if (!activityBuilt) {
+      buildActivity();
+    }
+    lock.readLock().lock();
+    try {
+      return activity.counts(bucket, from, to, email);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void buildActivity() {
+    lock.writeLock().lock();
+    try {
+      if (!activityBuilt) {
+        entries.stream().forEach(activity::add);
+        activityBuilt = true;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the entries that best match {@code query}, ranked by BM25 over
+   * title and description.
+   *
+   * <p>Unlike {@link #searchByKeyword(String)}, the query is split into
+   * terms, whole terms are matched, and an entry matches if it contains any of
+   * them. Entries containing more of the query terms, rarer terms, or the
+   * terms in their title rank higher. Only the best {@code limit} entries are
+   * collected, and postings that cannot change them are skipped.
+   * </p>
+   *
+   * @param query the search terms; must be non-blank
+   * @param limit the maximum number of results; must be positive
+   * @return the best matches, best first
+   * @throws IllegalArgumentException if {@code query} is blank or {@code limit}
+   *         is not positive
+   */
+  public List<SearchHit> searchRanked(String query, int limit) {
+    Validators.validateString(query, "Query");
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive");
+    }
+    if (!searchIndexBuilt) {
+      buildSearchIndex();
+    }
+    lock.readLock().lock();
+    try {
+      List<SearchHit> hits = new ArrayList<>();
+      for (ScoredDocument document : searchIndex.search(query, limit)) {
+        hits.add(new SearchHit(entries.get(document.entryId()), document.score()));
+      }
+      return hits;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the entries matching {@code query} when every term may be
+   * misspelled by up to {@code maxDistance} edits.
+   *
+   * <p>Each query term is matched against the dictionary of indexed terms by
+   * edit distance, counting inserted, deleted and replaced characters, so
+   * "dinning" finds "dining" at distance 1 and "stake" finds "steak" at
+   * distance 2. An entry matches if it contains a close term for every query
+   * term. The lookup walks a BK-tree over the dictionary, so its cost depends
+   * on the number of distinct terms rather than on the number of entries.
+   * </p>
+   *
+   * @param query the search terms; must be non-blank
+   * @param maxDistance the number of edits allowed per term, from 0 to
+   *                    {@value InvertedIndex#MAX_FUZZY_DISTANCE}
+   * @return the matching entries in id order
+   * @throws IllegalArgumentException if {@code query} is blank or
+   *         {@code maxDistance} is out of range
+   */
+  public List<DiaryEntry> searchFuzzy(String query, int maxDistance) {
+    Validators.validateString(query, "Query");
+    if (maxDistance < 0 || maxDistance > InvertedIndex.MAX_FUZZY_DISTANCE) {
+      throw new IllegalArgumentException("Edit distance must be between 0 and "
+              + InvertedIndex.MAX_FUZZY_DISTANCE);
+    }
+    return searchIndexed(index -> index.searchFuzzy(query, maxDistance));
+  }
+
+  /**
+   * Returns the entries whose description contains {@code phrase}, matched
+   * as consecutive whole words.
+   *
+   * <p>Case and punctuation are ignored, so "great restaurant" matches
+   * "A great, Restaurant". Only entries containing every word of the phrase
+   * have their word positions checked.
+   * </p>
+   *
+   * @param phrase the words to find; must contain at least one word
+   * @return the matching entries in id order
+   * @throws IllegalArgumentException if {@code phrase} is blank
+   */
+  public List<DiaryEntry> searchPhrase(String phrase) {
+    Validators.validateString(phrase, "Phrase");
+    return searchIndexed(index -> index.searchPhrase(phrase));
+  }
+
+  /**
+   * Returns the entries whose description contains the words {@code first}
+   * and {@code second} at most {@code maxDistance} words apart, in either
+   * order, as in the query {@code first NEAR/maxDistance second}.
+   *
+   * @param first a single word
+   * @param second a single word
+   * @param maxDistance the largest distance in words; adjacent words are 1 apart
+   * @return the matching entries in id order
+   * @throws IllegalArgumentException if a word is blank or not a single word,
+   *         or {@code maxDistance} is not positive
+   */
+  public List<DiaryEntry> searchNear(String first, String second, int maxDistance) {
+    Validators.validateString(first, "First word");
+    Validators.validateString(second, "Second word");
+    return searchIndexed(index -> index.searchNear(first, second, maxDistance));
+  }
+
+  private List<DiaryEntry> searchIndexed(Function<InvertedIndex, List<Integer>> query) {
+    if (!searchIndexBuilt) {
+      buildSearchIndex();
+    }
+    lock.readLock().lock();
+    try {
+      List<DiaryEntry> matches = new ArrayList<>();
+      for (int entryId : query.apply(searchIndex)) {
+        matches.add(entries.get(entryId));
+      }
+      return matches;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the {@code limit} entries most similar to {@code entry} by the
+   * words they use, most similar first.
+   *
+   * <p>Entries are compared as TF-IDF vectors: words that are frequent in an
+   * entry but rare across the diary count the most. Only entries sharing a
+   * word with {@code entry} are scored. The score of each hit is the cosine
+   * similarity, between 0 and 1.
+   * </p>
+   *
+   * @param entry the entry to find similar entries for; must be non-null
+   * @param limit the maximum number of results; must be positive
+   * @return the most similar entries other than {@code entry}
+   * @throws IllegalArgumentException if {@code entry} is null or {@code limit}
+   *         is not positive
+   */
+  public List<SearchHit> findSimilarEntries(DiaryEntry entry, int limit) {
+    Validators.validateNotNull(entry, "Diary entry");
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive");
+    }
+    if (!searchIndexBuilt) {
+      buildSearchIndex();
+    }
+    lock.readLock().lock();
+    try {
+      List<SearchHit> hits = new ArrayList<>();
+      for (ScoredDocument document : searchIndex.similarTo(entry, limit)) {
+        hits.add(new SearchHit(entries.get(document.entryId()), document.score()));
+      }
+      return hits;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void buildSearchIndex() {
+    lock.writeLock().lock();
+    try {
+      if (!searchIndexBuilt) {
+        entries.stream().forEach(searchIndex::add);
+        searchIndexBuilt = true;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the stored entries whose description is nearly the same as the
+   * description of {@code entry}.
+   *
+   * <p>Descriptions are compared by their overlapping five-letter pieces,
+   * ignoring case and punctuation, and entries sharing about 80% of them are
+   * reported. The comparison uses MinHash signatures bucketed by
+   * locality-sensitive hashing, so only a few likely candidates are compared
+   * and the similarity is an estimate. The entry need not be stored yet, so
+   * this can warn about a duplicate before it is added.
+   * </p>
+   *
+   * @param entry the entry to find duplicates of; must be non-null
+   * @return the similar entries other than {@code entry}, in id order
+   * @throws IllegalArgumentException if {@code entry} is null
+   */
+  public List<DiaryEntry> findDuplicates(DiaryEntry entry) {
+    Validators.validateNotNull(entry, "Diary entry");
+    return searchDuplicates(() -> duplicates.findSimilar(entry.getDescription(),
+            entry.getEntryId()));
+  }
+
+  /**
+   * Groups the stored entries into clusters of near-duplicates, as found by
+   * {@link #findDuplicates(DiaryEntry)}.
+   *
+   * @return the clusters of two or more entries, each in id order, ordered by
+   *         their first entry
+   */
+  public List<List<DiaryEntry>> findDuplicateClusters() {
+    if (!duplicatesBuilt) {
+      buildDuplicates();
+    }
+    lock.readLock().lock();
+    try {
+      List<List<DiaryEntry>> clusters = new ArrayList<>();
+      for (List<Integer> cluster : duplicates.clusters()) {
+        clusters.add(cluster.stream().map(entries::get).toList());
+      }
+      return clusters;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private List<DiaryEntry> searchDuplicates(Supplier<List<Integer>> query) {
+    if (!duplicatesBuilt) {
+      buildDuplicates();
+    }
+    lock.readLock().lock();
+    try {
+      List<DiaryEntry> matches = new ArrayList<>();
+      for (int entryId : query.get()) {
+        matches.add(entries.get(entryId));
+      }
+      return matches;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void buildDuplicates() {
+    lock.writeLock().lock();
+    try {
+      if (!duplicatesBuilt) {
+        entries.stream().forEach(entry -> duplicates.add(entry.getEntryId(),
+                entry.getDescription()));
+        duplicatesBuilt = true;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns approximate term statistics over all entries: the number of
+   * distinct terms and the most frequent keywords.
+   *
+   * <p>The statistics come from sketches that are updated on every change, so
+   * the cost does not depend on the number of entries. The error bounds are
+   * set with {@link #setSketchSettings(SketchSettings)} and reported with the
+   * result.
+   * </p>
+   *
+   * @return the estimated term statistics
+   */
+  public TermStatistics getTermStatistics() {
+    return readTerms(TermAnalytics::statistics);
+  }
+
+  /**
+   * Returns approximate term statistics of one author's entries, like
+   * {@link #getTermStatistics()}.
+   *
+   * @param email the author's email; case-insensitive
+   * @return the estimated term statistics of the author
+   * @throws IllegalArgumentException if {@code email} is null or blank
+   */
+  public TermStatistics getTermStatisticsByAuthor(String email) {
+    Validators.validateString(email, "Email");
+    return readTerms(analytics -> analytics.statistics(email));
+  }
+
+  /**
+   * Sets the error bounds of the term statistics sketches. The sketches are
+   * rebuilt from the entries on the next term statistics query.
+   *
+   * @param settings the bounds to use; must be non-null
+   * @throws IllegalArgumentException if {@code settings} is null
+   */
+  public void setSketchSettings(SketchSettings settings) {
+    Validators.validateNotNull(settings, "Sketch settings");
+    lock.writeLock().lock();
+    try {
+      sketchSettings = settings;
+      terms = null;
+      termsBuilt = false;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Runs {@code query} on the term sketches under the read lock, building
+   * them first if needed. Retries if the settings change in between.
+   */
+  private <T> T readTerms(Function<TermAnalytics, T> query) {
+    while (true) {
+      if (!termsBuilt) {
+        buildTerms();
+      }
+      lock.readLock().lock();
+      try {
+        if (termsBuilt) {
+          return query.apply(terms);
+        }
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  private void buildTerms() {
+    lock.writeLock().lock();
+    try {
+      if (!termsBuilt) {
+        terms = new TermAnalytics(sketchSettings);
+        entries.stream().forEach(terms::add);
+        termsBuilt = true;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the hit and miss counts of the query result cache.
+   *
+   * @return the cache statistics
+   */
+  public QueryCacheStatistics getQueryCacheStatistics() {
+    return queryCache.statistics();
+  }
+
+  private List<DiaryEntry> cached(List<Object> key, Supplier<List<DiaryEntry>> query) {
+    return queryCache.get(key, version, query,
+            result -> result.size() <= MAX_CACHED_RESULT_SIZE);
+  }
+
+  private static Predicate<DiaryEntry> authorFilter(String email) {
+    return entry -> entry.getAuthor().getEmail().equalsIgnoreCase(email);
+  }
 
+  private static Predicate<DiaryEntry> keywordFilter(String keyword) {
+    String lowerKeyword = keyword.toLowerCase();
+    return entry -> entry.getDescription().toLowerCase().contains(lowerKeyword)
+            || entry.getTitle().toLowerCase().contains(lowerKeyword);
   }
 }
@@ -0,0 +1,48 @@
+package edu.ntnu.idi.idatt.model.register;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.util.Validators;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A position in the newest-first order used by
+ * {@link DiaryRegister#getEntriesPage(PageCursor, int)}.
+ *
+ * <p>A page holds the entries that come after the cursor, so the cursor of the
+ * next page is {@link #after(DiaryEntry)} the last entry of the current one.
+ * </p>
+ *
+ * @param time the creation time of the position
+ * @param entryId the id of the position, which breaks ties between entries
+ *                created at the same time
+ */
+public record PageCursor(LocalDateTime time, int entryId) {
+  /** The cursor of the first page, before the newest entry. */
+  public static final PageCursor FIRST = new PageCursor(LocalDateTime.MAX, Integer.MAX_VALUE);
+
+  /**
+   * Returns the cursor of the page following {@code entry}.
+   *
+   * @param entry the last entry of the current page; must be non-null
+   * @return the cursor after {@code entry}
+   * @throws IllegalArgumentException if {@code entry} is null
+   */
+  public static PageCursor after(DiaryEntry entry) {
+    Validators.validateNotNull(entry, "Diary entry");
+    return new PageCursor(entry.getCreationTime(), entry.getEntryId());
+  }
+
+  /**
+   * Returns the cursor of a page that starts with the newest entry written on
+   * or before {@code date}.
+   *
+   * @param date the date to jump to; must be non-null
+   * @return the cursor at the end of {@code date}
+   * @throws IllegalArgumentException if {@code date} is null
+   */
+  public static PageCursor onOrBefore(LocalDate date) {
+    Validators.validateNotNull(date, "Date");
+    return new PageCursor(date.plusDays(1).atStartOfDay(), 0);
+  }
+}
@@ -0,0 +1,75 @@
+package edu.ntnu.idi.idatt.model.register;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU cache of query results, validated against the register
+ * version.
+ *
+ * <p>Each result is stored with the version of the register it was computed
+ * from. A lookup at a different version counts as a miss and recomputes the
+ * result, so the register only has to bump its version on every change.
+ * </p>
+ */
+final class QueryCache {
+  private final int capacity;
+  private final Map<List<Object>, Cached> results;
+  private long hits;
+  private long misses;
+
+  QueryCache(int capacity) {
+    this.capacity = capacity;
+    this.results = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<List<Object>, Cached> eldest) {
+        return size() > QueryCache.this.capacity;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached result of {@code key} at {@code version}, computing
+   * and caching it with {@code query} if it is missing or stale. Results are
+   * computed outside the cache lock, so concurrent readers do not wait for
+   * each other's queries.
+   *
+   * @param key the query type followed by its parameters
+   * @param version the current register version
+   * @param query computes the result
+   * @param cacheable whether a computed result may be stored
+   * @return the result
+   */
+  @SuppressWarnings("unchecked")
+  <T> T get(List<Object> key, long version, Supplier<T> query,
+            Predicate<T> cacheable) {
+    if (capacity == 0) {
+      return query.get();
+    }
+    synchronized (this) {
+      Cached cached = results.get(key);
+      if (cached != null && cached.version == version) {
+        hits++;
+        return (T) cached.value;
+      }
+      misses++;
+    }
+    T value = query.get();
+    if (cacheable.test(value)) {
+      synchronized (this) {
+        results.put(key, new Cached(version, value));
+      }
+    }
+    return value;
+  }
+
+  synchronized QueryCacheStatistics statistics() {
+    return new QueryCacheStatistics(hits, misses, results.size(), capacity);
+  }
+
+  private record Cached(long version, Object value) {
+  }
+}
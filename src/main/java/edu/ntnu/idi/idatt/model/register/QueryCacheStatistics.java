@@ -0,0 +1,21 @@
+package edu.ntnu.idi.idatt.model.register;
+
+/**
+ * Counters of the query result cache of a {@link DiaryRegister}.
+ *
+ * @param hits lookups answered from the cache
+ * @param misses lookups that ran the query
+ * @param size the number of cached results
+ * @param capacity the maximum number of cached results
+ */
+public record QueryCacheStatistics(long hits, long misses, int size, int capacity) {
+  /**
+   * Returns the share of lookups answered from the cache.
+   *
+   * @return hits divided by all lookups, or 0 if there were none
+   */
+  public double hitRatio() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0.0 : (double) hits / lookups;
+  }
+}
@@ -0,0 +1,59 @@
+package edu.ntnu.idi.idatt.model.register;
+
+import java.time.LocalDate;
+
+/**
+ * The width of the time buckets that activity counts are grouped into.
+ *
+ * <p>Each bucket has a numeric index; consecutive buckets have consecutive
+ * indexes. Weeks start on Monday and months on the first day of the month.
+ * </p>
+ */
+public enum TimeBucket {
+  DAY {
+    @Override
+    long indexOf(LocalDate date) {
+      return date.toEpochDay();
+    }
+
+    @Override
+    LocalDate startOf(long index) {
+      return LocalDate.ofEpochDay(index);
+    }
+  },
+  WEEK {
+    @Override
+    long indexOf(LocalDate date) {
+      return Math.floorDiv(date.toEpochDay() + EPOCH_DAY_OFFSET_TO_MONDAY, 7);
+    }
+
+    @Override
+    LocalDate startOf(long index) {
+      return LocalDate.ofEpochDay(index * 7 - EPOCH_DAY_OFFSET_TO_MONDAY);
+    }
+  },
+  MONTH {
+    @Override
+    long indexOf(LocalDate date) {
+      return date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+
+    @Override
+    LocalDate startOf(long index) {
+      return LocalDate.of((int) Math.floorDiv(index, 12), Math.floorMod(index, 12) + 1, 1);
+    }
+  };
+
+  /** 1970-01-01 was a Thursday; the Monday before it is epoch day -3. */
+  private static final long EPOCH_DAY_OFFSET_TO_MONDAY = 3;
+
+  /**
+   * Returns the index of the bucket containing {@code date}.
+   */
+  abstract long indexOf(LocalDate date);
+
+  /**
+   * Returns the first day of the bucket with the given index.
+   */
+  abstract LocalDate startOf(long index);
+}
@@ -0,0 +1,110 @@
+package edu.ntnu.idi.idatt.model.search;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A BK-tree of terms for finding all terms within an edit distance.
+ *
+ * <p>Each child of a node is keyed by its Levenshtein distance to the node.
+ * By the triangle inequality, terms within {@code k} of a query can only be
+ * below children keyed {@code d - k} to {@code d + k}, where {@code d} is the
+ * distance of the query to the node, so a search with a small {@code k}
+ * visits a small part of the tree. The tree only grows; terms are never
+ * removed. Not thread-safe.
+ * </p>
+ */
+final class BkTree {
+  private Node root;
+  private int size;
+
+  /**
+   * Adds {@code term} unless it is already in the tree.
+   */
+  void add(String term) {
+    if (root == null) {
+      root = new Node(term);
+      size++;
+      return;
+    }
+    Node node = root;
+    while (true) {
+      int distance = distance(term, node.term);
+      if (distance == 0) {
+        return;
+      }
+      Node child = node.children.get(distance);
+      if (child == null) {
+        node.children.put(distance, new Node(term));
+        size++;
+        return;
+      }
+      node = child;
+    }
+  }
+
+  /**
+   * Passes every term within {@code maxDistance} edits of {@code term} to
+   * {@code matches}.
+   */
+  void search(String term, int maxDistance, Consumer<String> matches) {
+    if (root == null) {
+      return;
+    }
+    Deque<Node> pending = new ArrayDeque<>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      Node node = pending.pop();
+      int distance = distance(term, node.term);
+      if (distance <= maxDistance) {
+        matches.accept(node.term);
+      }
+      for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+        if (Math.abs(child.getKey() - distance) <= maxDistance) {
+          pending.push(child.getValue());
+        }
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the Levenshtein distance between {@code a} and {@code b}: the
+   * number of single-character insertions, deletions and substitutions
+   * turning one into the other.
+   */
+  static int distance(String a, String b) {
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      for (int j = 1; j <= b.length(); j++) {
+        int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+        current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[b.length()];
+  }
+
+  private static final class Node {
+    private final String term;
+    private final Map<Integer, Node> children;
+
+    Node(String term) {
+      this.term = term;
+      this.children = new HashMap<>();
+    }
+  }
+}
@@ -0,0 +1,470 @@
+package edu.ntnu.idi.idatt.model.search;
+
+import edu.ntnu.idi.idatt.model.analytics.Terms;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An inverted index over entry titles and descriptions with BM25 ranking.
+ *
+ * <p>Each term maps to a {@link PostingList} of the entries containing it,
+ * sorted by id. Entries are scored with BM25 over a combined field in which
+ * every title occurrence counts {@value #TITLE_WEIGHT} times, so title
+ * matches rank higher. Terms are split as by {@link Terms}.
+ * </p>
+ *
+ * <p>Top-k queries use MaxScore: every query term has an upper bound on the
+ * score it can contribute. Once k results are collected, the terms whose
+ * bounds together cannot beat the k-th score are only probed for entries found
+ * through the other terms, and probing stops as soon as an entry cannot reach
+ * the top k. A query mixing a common term with rarer ones therefore skips most
+ * of the common term's postings.
+ * </p>
+ *
+ * <p>The term dictionary is also kept in a {@link BkTree} for typo-tolerant
+ * lookups. Terms whose entries have all been removed stay in the tree but no
+ * longer match.
+ * </p>
+ *
+ * <p>{@link #similarTo(DiaryEntry, int)} compares entries as TF-IDF vectors
+ * over the same postings. The vectors are not stored: term frequencies are
+ * read from the postings and weighted with the current document frequencies,
+ * so they stay correct as entries come and go.
+ * </p>
+ *
+ * <p>Descriptions are also indexed with term positions (see
+ * {@link PositionalIndex}) for phrase and proximity queries.
+ * </p>
+ *
+ * <p>Not thread-safe; callers must synchronize access.</p>
+ */
+public final class InvertedIndex {
+  /** BM25 term frequency saturation. */
+  static final double K1 = 1.2;
+  /** BM25 length normalization. */
+  static final double B = 0.75;
+  /** How many description occurrences one title occurrence is worth. */
+  static final double TITLE_WEIGHT = 2.0;
+
+  /** The longest edit distance accepted by {@link #searchFuzzy(String, int)}. */
+  public static final int MAX_FUZZY_DISTANCE = 2;
+
+  private final Map<String, PostingList> postings;
+  private final Map<Integer, Double> lengths;
+  private final Map<Integer, String[]> documentTerms;
+  private final BkTree dictionary;
+  private final PositionalIndex descriptionPositions;
+  private double totalLength;
+
+  /**
+   * Creates an empty index.
+   */
+  public InvertedIndex() {
+    this.postings = new HashMap<>();
+    this.lengths = new HashMap<>();
+    this.documentTerms = new HashMap<>();
+    this.dictionary = new BkTree();
+    this.descriptionPositions = new PositionalIndex();
+  }
+
+  /**
+   * Indexes the title and description of {@code entry} under its id.
+   *
+   * @param entry the entry to index; must have an id
+   */
+  public void add(DiaryEntry entry) {
+    int id = entry.getEntryId();
+    Map<String, int[]> frequencies = new HashMap<>();
+    int titleLength = count(entry.getTitle(), frequencies, 0);
+    int descriptionLength = count(entry.getDescription(), frequencies, 1);
+
+    double length = TITLE_WEIGHT * titleLength + descriptionLength;
+    Double previous = lengths.put(id, length);
+    totalLength += length - (previous == null ? 0 : previous);
+    descriptionPositions.add(id, entry.getDescription());
+    documentTerms.put(id, frequencies.keySet().toArray(new String[0]));
+    for (Map.Entry<String, int[]> term : frequencies.entrySet()) {
+      int[] frequency = term.getValue();
+      postings.computeIfAbsent(term.getKey(), this::newPostingList)
+              .put(id, frequency[0], frequency[1], TITLE_WEIGHT * frequency[0] + frequency[1]);
+    }
+  }
+
+  /**
+   * Removes {@code entry} from the index. The entry must have the title and
+   * description it was indexed with.
+   *
+   * @param entry the entry to remove
+   */
+  public void remove(DiaryEntry entry) {
+    int id = entry.getEntryId();
+    Double length = lengths.remove(id);
+    if (length == null) {
+      return;
+    }
+    totalLength -= length;
+    descriptionPositions.remove(id, entry.getDescription());
+    documentTerms.remove(id);
+    Map<String, int[]> frequencies = new HashMap<>();
+    count(entry.getTitle(), frequencies, 0);
+    count(entry.getDescription(), frequencies, 1);
+    for (String term : frequencies.keySet()) {
+      PostingList list = postings.get(term);
+      if (list != null) {
+        list.remove(id);
+        if (list.size() == 0) {
+          postings.remove(term);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of indexed entries.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return lengths.size();
+  }
+
+  /**
+   * Returns the {@code limit} entries that best match the terms of
+   * {@code query}, best first. An entry matches if it contains at least one
+   * query term; entries with equal scores are ordered by id.
+   *
+   * @param query the query text
+   * @param limit the maximum number of results
+   * @return the best matches with their BM25 scores
+   */
+  public List<ScoredDocument> search(String query, int limit) {
+    Set<String> queryTerms = new LinkedHashSet<>();
+    Terms.forEach(query, queryTerms::add);
+    List<TermCursor> cursors = new ArrayList<>();
+    for (String term : queryTerms) {
+      PostingList list = postings.get(term);
+      if (list != null) {
+        cursors.add(new TermCursor(list, idf(list.size())));
+      }
+    }
+    if (cursors.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    cursors.sort(Comparator.comparingDouble(cursor -> cursor.bound));
+    int terms = cursors.size();
+    double[] boundSums = new double[terms];
+    for (int i = 0; i < terms; i++) {
+      boundSums[i] = cursors.get(i).bound + (i == 0 ? 0 : boundSums[i - 1]);
+    }
+
+    double averageLength = totalLength / lengths.size();
+    PriorityQueue<ScoredDocument> top = new PriorityQueue<>(Math.min(limit, 1024) + 1,
+            Comparator.comparingDouble(ScoredDocument::score)
+                    .thenComparing(Comparator.comparingInt(ScoredDocument::entryId).reversed()));
+    double threshold = 0;
+    int firstEssential = 0;
+    while (true) {
+      int id = Integer.MAX_VALUE;
+      for (int i = firstEssential; i < terms; i++) {
+        id = Math.min(id, cursors.get(i).currentId());
+      }
+      if (id == Integer.MAX_VALUE) {
+        break;
+      }
+      double length = lengths.get(id);
+      double score = 0;
+      for (int i = firstEssential; i < terms; i++) {
+        TermCursor cursor = cursors.get(i);
+        if (cursor.currentId() == id) {
+          score += cursor.score(length, averageLength);
+          cursor.position++;
+        }
+      }
+      for (int i = firstEssential - 1; i >= 0; i--) {
+        if (score + boundSums[i] <= threshold) {
+          break;
+        }
+        TermCursor cursor = cursors.get(i);
+        cursor.position = cursor.list.advance(cursor.position, id);
+        if (cursor.currentId() == id) {
+          score += cursor.score(length, averageLength);
+        }
+      }
+      if (top.size() < limit || score > threshold) {
+        top.add(new ScoredDocument(id, score));
+        if (top.size() > limit) {
+          top.poll();
+        }
+        if (top.size() == limit) {
+          threshold = top.peek().score();
+          while (firstEssential < terms && boundSums[firstEssential] <= threshold) {
+            firstEssential++;
+          }
+        }
+      }
+    }
+
+    List<ScoredDocument> results = new ArrayList<>(top);
+    results.sort(Comparator.comparingDouble(ScoredDocument::score).reversed()
+            .thenComparingInt(ScoredDocument::entryId));
+    return results;
+  }
+
+  /**
+   * Returns the {@code limit} indexed entries most similar to {@code entry},
+   * most similar first, leaving out the entry itself.
+   *
+   * <p>Entries are compared by the cosine of their TF-IDF vectors, in which
+   * a term weighs {@code (1 + ln tf) * ln(N / df)} with title occurrences
+   * counted {@value #TITLE_WEIGHT} times. Only the postings of the entry's
+   * own terms are walked, so only entries sharing a term with it are scored,
+   * and terms found in every entry, which weigh nothing, are skipped.
+   * </p>
+   *
+   * @param entry the entry to compare with; need not be indexed
+   * @param limit the maximum number of results
+   * @return the most similar entries with their cosine similarity, between 0 and 1
+   */
+  public List<ScoredDocument> similarTo(DiaryEntry entry, int limit) {
+    Map<String, int[]> frequencies = new HashMap<>();
+    count(entry.getTitle(), frequencies, 0);
+    count(entry.getDescription(), frequencies, 1);
+    int self = entry.getEntryId();
+    Map<Integer, Double> dotProducts = new HashMap<>();
+    double queryNorm = 0;
+    for (Map.Entry<String, int[]> term : frequencies.entrySet()) {
+      PostingList list = postings.get(term.getKey());
+      if (list == null) {
+        continue;
+      }
+      double idf = Math.log((double) lengths.size() / list.size());
+      if (idf <= 0) {
+        continue;
+      }
+      int[] frequency = term.getValue();
+      double queryWeight = tfIdf(frequency[0], frequency[1], idf);
+      queryNorm += queryWeight * queryWeight;
+      for (int i = 0; i < list.size(); i++) {
+        int id = list.idAt(i);
+        if (id != self) {
+          dotProducts.merge(id, queryWeight
+                  * tfIdf(list.titleFrequencyAt(i), list.descriptionFrequencyAt(i), idf),
+                  Double::sum);
+        }
+      }
+    }
+    if (dotProducts.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    queryNorm = Math.sqrt(queryNorm);
+    PriorityQueue<ScoredDocument> top = new PriorityQueue<>(Math.min(limit, 1024) + 1,
+            Comparator.comparingDouble(ScoredDocument::score)
+                    .thenComparing(Comparator.comparingInt(ScoredDocument::entryId).reversed()));
+    for (Map.Entry<Integer, Double> candidate : dotProducts.entrySet()) {
+      int id = candidate.getKey();
+      top.add(new ScoredDocument(id, candidate.getValue() / (queryNorm * norm(id))));
+      if (top.size() > limit) {
+        top.poll();
+      }
+    }
+    List<ScoredDocument> results = new ArrayList<>(top);
+    results.sort(Comparator.comparingDouble(ScoredDocument::score).reversed()
+            .thenComparingInt(ScoredDocument::entryId));
+    return results;
+  }
+
+  private double norm(int id) {
+    double sum = 0;
+    for (String term : documentTerms.get(id)) {
+      PostingList list = postings.get(term);
+      double idf = Math.log((double) lengths.size() / list.size());
+      int index = list.find(id);
+      double weight = tfIdf(list.titleFrequencyAt(index), list.descriptionFrequencyAt(index), idf);
+      sum += weight * weight;
+    }
+    return Math.sqrt(sum);
+  }
+
+  private static double tfIdf(int titleFrequency, int descriptionFrequency, double idf) {
+    return (1 + Math.log(TITLE_WEIGHT * titleFrequency + descriptionFrequency)) * idf;
+  }
+
+  /**
+   * Returns the ids of the entries that contain, for every term of
+   * {@code query}, a term within {@code maxDistance} edits of it, in
+   * increasing order.
+   *
+   * <p>Matching terms are looked up in a BK-tree over the term dictionary,
+   * so the cost of the lookup grows with the number of distinct terms rather
+   * than with the number of entries. The posting lists of the matching terms
+   * are then merged.
+   * </p>
+   *
+   * @param query the query text
+   * @param maxDistance the number of edits allowed per term, from 0 to
+   *                    {@value #MAX_FUZZY_DISTANCE}
+   * @return the ids of the matching entries
+   * @throws IllegalArgumentException if {@code maxDistance} is out of range
+   */
+  public List<Integer> searchFuzzy(String query, int maxDistance) {
+    if (maxDistance < 0 || maxDistance > MAX_FUZZY_DISTANCE) {
+      throw new IllegalArgumentException("Edit distance must be between 0 and "
+              + MAX_FUZZY_DISTANCE);
+    }
+    Set<String> queryTerms = new LinkedHashSet<>();
+    Terms.forEach(query, queryTerms::add);
+    if (queryTerms.isEmpty()) {
+      return List.of();
+    }
+    Set<Integer> matches = null;
+    for (String term : queryTerms) {
+      Set<Integer> termMatches = new TreeSet<>();
+      dictionary.search(term, maxDistance, similar -> {
+        PostingList list = postings.get(similar);
+        if (list != null) {
+          for (int i = 0; i < list.size(); i++) {
+            termMatches.add(list.idAt(i));
+          }
+        }
+      });
+      if (matches == null) {
+        matches = termMatches;
+      } else {
+        matches.retainAll(termMatches);
+      }
+      if (matches.isEmpty()) {
+        break;
+      }
+    }
+    return List.copyOf(matches);
+  }
+
+  /**
+   * Returns the terms in the index within {@code maxDistance} edits of
+   * {@code term}, closest first.
+   *
+   * @param term the term to look up; matched lower-cased
+   * @param maxDistance the number of edits allowed, from 0 to {@value #MAX_FUZZY_DISTANCE}
+   * @return the similar terms
+   * @throws IllegalArgumentException if {@code maxDistance} is out of range
+   */
+  public List<String> similarTerms(String term, int maxDistance) {
+    if (maxDistance < 0 || maxDistance > MAX_FUZZY_DISTANCE) {
+      throw new IllegalArgumentException("Edit distance must be between 0 and "
+              + MAX_FUZZY_DISTANCE);
+    }
+    String lowerCase = term.toLowerCase(Locale.ROOT);
+    List<String> similar = new ArrayList<>();
+    dictionary.search(lowerCase, maxDistance, match -> {
+      if (postings.containsKey(match)) {
+        similar.add(match);
+      }
+    });
+    similar.sort(Comparator.comparingInt((String match) -> BkTree.distance(lowerCase, match))
+            .thenComparing(Comparator.naturalOrder()));
+    return similar;
+  }
+
+  /**
+   * Returns the ids of the entries whose description contains the terms of
+   * {@code phrase} next to each other and in order, in increasing order.
+   *
+   * @param phrase the phrase; split into terms as by {@link Terms}
+   * @return the ids of the matching entries
+   */
+  public List<Integer> searchPhrase(String phrase) {
+    List<String> terms = new ArrayList<>();
+    Terms.forEach(phrase, terms::add);
+    return terms.isEmpty() ? List.of() : descriptionPositions.searchPhrase(terms);
+  }
+
+  /**
+   * Returns the ids of the entries whose description contains {@code first}
+   * and {@code second} at most {@code maxDistance} terms apart, in either
+   * order, in increasing order. Adjacent terms are 1 apart.
+   *
+   * @param first a single term
+   * @param second a single term
+   * @param maxDistance the largest distance in terms; must be positive
+   * @return the ids of the matching entries
+   * @throws IllegalArgumentException if {@code first} or {@code second} is
+   *         not a single term, or {@code maxDistance} is not positive
+   */
+  public List<Integer> searchNear(String first, String second, int maxDistance) {
+    if (maxDistance <= 0) {
+      throw new IllegalArgumentException("Distance must be positive");
+    }
+    return descriptionPositions.searchNear(singleTerm(first), singleTerm(second), maxDistance);
+  }
+
+  private static String singleTerm(String text) {
+    List<String> terms = new ArrayList<>();
+    Terms.forEach(text, terms::add);
+    if (terms.size() != 1) {
+      throw new IllegalArgumentException("Expected a single word but got '" + text + "'");
+    }
+    return terms.get(0);
+  }
+
+  private PostingList newPostingList(String term) {
+    dictionary.add(term);
+    return new PostingList();
+  }
+
+  private double idf(int documentFrequency) {
+    return Math.log(1 + (lengths.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+  }
+
+  /**
+   * Counts the terms of {@code text} into {@code frequencies[field]}.
+   *
+   * @return the number of terms in {@code text}
+   */
+  private static int count(String text, Map<String, int[]> frequencies, int field) {
+    int[] length = {0};
+    Terms.forEach(text, term -> {
+      frequencies.computeIfAbsent(term, key -> new int[2])[field]++;
+      length[0]++;
+    });
+    return length[0];
+  }
+
+  /**
+   * A query term's position in its posting list and the largest score it can
+   * add to any entry.
+   */
+  private static final class TermCursor {
+    private final PostingList list;
+    private final double idf;
+    private final double bound;
+    private int position;
+
+    TermCursor(PostingList list, double idf) {
+      this.list = list;
+      this.idf = idf;
+      double weight = list.maxWeight();
+      this.bound = idf * weight * (K1 + 1) / (weight + K1 * (1 - B));
+    }
+
+    int currentId() {
+      return position < list.size() ? list.idAt(position) : Integer.MAX_VALUE;
+    }
+
+    double score(double length, double averageLength) {
+      double weight = TITLE_WEIGHT * list.titleFrequencyAt(position)
+              + list.descriptionFrequencyAt(position);
+      double norm = K1 * (1 - B + B * length / averageLength);
+      return idf * weight * (K1 + 1) / (weight + norm);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package edu.ntnu.idi.idatt.model.search;
+
+import java.util.Arrays;
+
+/**
+ * The entries containing one term, sorted by entry id, with the positions of
+ * the term in each.
+ *
+ * <p>The positions of an entry are stored as a byte array: the gaps between
+ * consecutive positions, each written as a variable-length integer with seven
+ * bits per byte and the high bit set on all but the last byte. Most gaps are
+ * small, so most positions take a single byte.
+ * </p>
+ */
+final class PositionList {
+  private static final int INITIAL_CAPACITY = 4;
+
+  private int[] ids;
+  private byte[][] positions;
+  private int size;
+
+  PositionList() {
+    this.ids = new int[INITIAL_CAPACITY];
+    this.positions = new byte[INITIAL_CAPACITY][];
+  }
+
+  /**
+   * Adds or replaces the positions of {@code id}, encoded by {@link Encoder}.
+   */
+  void put(int id, byte[] encodedPositions) {
+    int index = find(id);
+    if (index < 0) {
+      index = -index - 1;
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+        positions = Arrays.copyOf(positions, size * 2);
+      }
+      System.arraycopy(ids, index, ids, index + 1, size - index);
+      System.arraycopy(positions, index, positions, index + 1, size - index);
+      size++;
+    }
+    ids[index] = id;
+    positions[index] = encodedPositions;
+  }
+
+  void remove(int id) {
+    int index = find(id);
+    if (index < 0) {
+      return;
+    }
+    System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+    System.arraycopy(positions, index + 1, positions, index, size - index - 1);
+    size--;
+    positions[size] = null;
+  }
+
+  /**
+   * Returns the index of the first entry at or after {@code from} whose id
+   * is at least {@code id}, or {@link #size()} if there is none.
+   */
+  int advance(int from, int id) {
+    if (from >= size || ids[from] >= id) {
+      return from;
+    }
+    int index = Arrays.binarySearch(ids, from, size, id);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  int find(int id) {
+    return Arrays.binarySearch(ids, 0, size, id);
+  }
+
+  int size() {
+    return size;
+  }
+
+  int idAt(int index) {
+    return ids[index];
+  }
+
+  /**
+   * Decodes the positions of the entry at {@code index}, in increasing order.
+   */
+  int[] positionsAt(int index) {
+    byte[] bytes = positions[index];
+    int[] decoded = new int[bytes.length];
+    int count = 0;
+    int position = 0;
+    int i = 0;
+    while (i < bytes.length) {
+      int gap = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = bytes[i++];
+        gap |= (b & 0x7f) << shift;
+        shift += 7;
+      } while (b < 0);
+      position += gap;
+      decoded[count++] = position;
+    }
+    return count == decoded.length ? decoded : Arrays.copyOf(decoded, count);
+  }
+
+  /**
+   * Encodes increasing positions into the format stored by a position list.
+   */
+  static final class Encoder {
+    private byte[] bytes = new byte[4];
+    private int length;
+    private int last;
+
+    /**
+     * Appends {@code position}, which must not be below the previous one.
+     */
+    void append(int position) {
+      int gap = position - last;
+      last = position;
+      if (length + 5 > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+      }
+      while ((gap & ~0x7f) != 0) {
+        bytes[length++] = (byte) ((gap & 0x7f) | 0x80);
+        gap >>>= 7;
+      }
+      bytes[length++] = (byte) gap;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, length);
+    }
+  }
+}
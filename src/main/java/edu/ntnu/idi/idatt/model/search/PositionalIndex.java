@@ -0,0 +1,164 @@
+package edu.ntnu.idi.idatt.model.search;
+
+import edu.ntnu.idi.idatt.model.analytics.Terms;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A positional inverted index over one text field of the entries.
+ *
+ * <p>Each term maps to a {@link PositionList} of the entries containing it
+ * and the term's positions in each, counted in terms from 0. Phrase and
+ * proximity queries first intersect the entry ids of their terms, starting
+ * from the shortest list, and only decode positions for the entries that
+ * contain every term.
+ * </p>
+ *
+ * <p>Not thread-safe; callers must synchronize access.</p>
+ */
+final class PositionalIndex {
+  private final Map<String, PositionList> terms;
+
+  PositionalIndex() {
+    this.terms = new HashMap<>();
+  }
+
+  void add(int id, String text) {
+    Map<String, PositionList.Encoder> encoders = new HashMap<>();
+    int[] position = new int[1];
+    Terms.forEach(text, term -> {
+      encoders.computeIfAbsent(term, key -> new PositionList.Encoder()).append(position[0]++);
+    });
+    for (Map.Entry<String, PositionList.Encoder> term : encoders.entrySet()) {
+      terms.computeIfAbsent(term.getKey(), key -> new PositionList())
+              .put(id, term.getValue().toByteArray());
+    }
+  }
+
+  void remove(int id, String text) {
+    Terms.forEach(text, term -> {
+      PositionList list = terms.get(term);
+      if (list != null) {
+        list.remove(id);
+        if (list.size() == 0) {
+          terms.remove(term);
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns the ids of the entries in which {@code phrase} occurs as
+   * consecutive terms, in increasing order.
+   */
+  List<Integer> searchPhrase(List<String> phrase) {
+    PositionList[] lists = lookUp(phrase);
+    List<Integer> matches = new ArrayList<>();
+    if (lists == null) {
+      return matches;
+    }
+    forEachCandidate(lists, indexes -> {
+      int[][] positions = new int[lists.length][];
+      for (int i = 0; i < lists.length; i++) {
+        positions[i] = lists[i].positionsAt(indexes[i]);
+      }
+      return containsPhrase(positions);
+    }, matches);
+    return matches;
+  }
+
+  /**
+   * Returns the ids of the entries in which {@code first} and {@code second}
+   * occur at most {@code maxDistance} positions apart, in either order, in
+   * increasing order.
+   */
+  List<Integer> searchNear(String first, String second, int maxDistance) {
+    PositionList[] lists = lookUp(List.of(first, second));
+    List<Integer> matches = new ArrayList<>();
+    if (lists == null) {
+      return matches;
+    }
+    forEachCandidate(lists, indexes -> within(lists[0].positionsAt(indexes[0]),
+            lists[1].positionsAt(indexes[1]), maxDistance), matches);
+    return matches;
+  }
+
+  private PositionList[] lookUp(List<String> query) {
+    PositionList[] lists = new PositionList[query.size()];
+    for (int i = 0; i < lists.length; i++) {
+      lists[i] = terms.get(query.get(i));
+      if (lists[i] == null) {
+        return null;
+      }
+    }
+    return lists;
+  }
+
+  /**
+   * Walks the entries contained in every list and adds the ids of those
+   * accepted by {@code check}, which is given each list's index of the entry.
+   */
+  private static void forEachCandidate(PositionList[] lists, Check check, List<Integer> matches) {
+    Integer[] order = new Integer[lists.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingInt(i -> lists[i].size()));
+    PositionList shortest = lists[order[0]];
+    int[] indexes = new int[lists.length];
+    for (int index = 0; index < shortest.size(); index++) {
+      int id = shortest.idAt(index);
+      indexes[order[0]] = index;
+      boolean inAll = true;
+      for (int k = 1; k < order.length && inAll; k++) {
+        PositionList list = lists[order[k]];
+        int found = list.advance(indexes[order[k]], id);
+        indexes[order[k]] = found;
+        inAll = found < list.size() && list.idAt(found) == id;
+      }
+      if (inAll && check.accepts(indexes)) {
+        matches.add(id);
+      }
+    }
+  }
+
+  private static boolean containsPhrase(int[][] positions) {
+    for (int start : positions[0]) {
+      boolean matches = true;
+      for (int i = 1; i < positions.length && matches; i++) {
+        matches = Arrays.binarySearch(positions[i], start + i) >= 0;
+      }
+      if (matches) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean within(int[] first, int[] second, int maxDistance) {
+    int i = 0;
+    int j = 0;
+    while (i < first.length && j < second.length) {
+      int a = first[i];
+      int b = second[j];
+      if (a != b && Math.abs(a - b) <= maxDistance) {
+        return true;
+      }
+      if (a <= b) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return false;
+  }
+
+  @FunctionalInterface
+  private interface Check {
+    boolean accepts(int[] indexes);
+  }
+}
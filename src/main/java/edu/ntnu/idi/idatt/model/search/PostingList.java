@@ -0,0 +1,102 @@
+package edu.ntnu.idi.idatt.model.search;
+
+import java.util.Arrays;
+
+/**
+ * The entries containing one term, sorted by entry id, with the number of
+ * occurrences in the title and in the description of each.
+ *
+ * <p>{@link #maxWeight} is an upper bound on the weighted frequency of any
+ * posting. It is raised by {@link #put} but not lowered by {@link #remove},
+ * so it stays a valid, if looser, bound.
+ * </p>
+ */
+final class PostingList {
+  private static final int INITIAL_CAPACITY = 4;
+
+  private int[] ids;
+  private int[] titleFrequencies;
+  private int[] descriptionFrequencies;
+  private int size;
+  private double maxWeight;
+
+  PostingList() {
+    this.ids = new int[INITIAL_CAPACITY];
+    this.titleFrequencies = new int[INITIAL_CAPACITY];
+    this.descriptionFrequencies = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Adds or replaces the posting of {@code id}. Appending ids in increasing
+   * order, as the register assigns them, never shifts the arrays.
+   */
+  void put(int id, int titleFrequency, int descriptionFrequency, double weight) {
+    int index = find(id);
+    if (index < 0) {
+      index = -index - 1;
+      if (size == ids.length) {
+        int capacity = size * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        titleFrequencies = Arrays.copyOf(titleFrequencies, capacity);
+        descriptionFrequencies = Arrays.copyOf(descriptionFrequencies, capacity);
+      }
+      int moved = size - index;
+      System.arraycopy(ids, index, ids, index + 1, moved);
+      System.arraycopy(titleFrequencies, index, titleFrequencies, index + 1, moved);
+      System.arraycopy(descriptionFrequencies, index, descriptionFrequencies, index + 1, moved);
+      size++;
+    }
+    ids[index] = id;
+    titleFrequencies[index] = titleFrequency;
+    descriptionFrequencies[index] = descriptionFrequency;
+    maxWeight = Math.max(maxWeight, weight);
+  }
+
+  void remove(int id) {
+    int index = find(id);
+    if (index < 0) {
+      return;
+    }
+    int moved = size - index - 1;
+    System.arraycopy(ids, index + 1, ids, index, moved);
+    System.arraycopy(titleFrequencies, index + 1, titleFrequencies, index, moved);
+    System.arraycopy(descriptionFrequencies, index + 1, descriptionFrequencies, index, moved);
+    size--;
+  }
+
+  /**
+   * Returns the index of the first posting at or after {@code from} whose id
+   * is at least {@code id}, or {@link #size()} if there is none.
+   */
+  int advance(int from, int id) {
+    if (from >= size || ids[from] >= id) {
+      return from;
+    }
+    int index = Arrays.binarySearch(ids, from, size, id);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  int find(int id) {
+    return Arrays.binarySearch(ids, 0, size, id);
+  }
+
+  int size() {
+    return size;
+  }
+
+  int idAt(int index) {
+    return ids[index];
+  }
+
+  int titleFrequencyAt(int index) {
+    return titleFrequencies[index];
+  }
+
+  int descriptionFrequencyAt(int index) {
+    return descriptionFrequencies[index];
+  }
+
+  double maxWeight() {
+    return maxWeight;
+  }
+}
@@ -0,0 +1,10 @@
+package edu.ntnu.idi.idatt.model.search;
+
+/**
+ * An entry id with its relevance score for a query.
+ *
+ * @param entryId the id of the matching entry
+ * @param score the relevance score; higher is more relevant
+ */
+public record ScoredDocument(int entryId, double score) {
+}
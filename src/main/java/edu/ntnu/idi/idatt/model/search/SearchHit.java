@@ -0,0 +1,12 @@
+package edu.ntnu.idi.idatt.model.search;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+
+/**
+ * An entry returned by a ranked search, with its relevance score.
+ *
+ * @param entry the matching entry
+ * @param score the relevance score; higher is more relevant
+ */
+public record SearchHit(DiaryEntry entry, double score) {
+}
@@ -0,0 +1,145 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps authors to small ordinals so stored entries only need an {@code int}
+ * to refer to their author.
+ *
+ * <p>Ordinals are assigned in order of first use and never reused. The table is
+ * persisted as a single file that is rewritten whenever new authors appear.
+ * All methods are synchronized, as the table is read by background
+ * compaction while the store keeps accepting new authors.
+ * </p>
+ */
+final class AuthorTable {
+  private final Path file;
+  private final List<Author> authors;
+  private final Map<String, Integer> ordinals;
+  private boolean dirty;
+
+  private AuthorTable(Path file) {
+    this.file = file;
+    this.authors = new ArrayList<>();
+    this.ordinals = new HashMap<>();
+    dirty = false;
+  }
+
+  /**
+   * Loads the author table from {@code file}, or creates an empty table if the
+   * file does not exist yet.
+   *
+   * @param file the table file
+   * @return the loaded table
+   * @throws IOException if the file exists but cannot be read
+   */
+  static AuthorTable open(Path file) throws IOException {
+    AuthorTable table = new AuthorTable(file);
+    if (Files.exists(file)) {
+      try (DataInputStream in = new DataInputStream(
+              new BufferedInputStream(Files.newInputStream(file)))) {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+          table.append(new Author(in.readUTF(), in.readUTF(), in.readUTF()));
+        }
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Returns the ordinal of {@code author}, assigning a new one if the author
+   * has not been seen before. Authors are identified by email.
+   *
+   * @param author the author to look up
+   * @return the author's ordinal
+   */
+  synchronized int ordinalOf(Author author) {
+    Integer ordinal = ordinals.get(author.getEmail());
+    if (ordinal == null) {
+      ordinal = append(author);
+      dirty = true;
+    }
+    return ordinal;
+  }
+
+  /**
+   * Returns the known author with the given email, or creates and registers a
+   * new author from the given names.
+   *
+   * @param firstName the first name used if the author is new
+   * @param lastName the last name used if the author is new
+   * @param email the email identifying the author
+   * @return the existing or newly registered author
+   */
+  synchronized Author resolve(String firstName, String lastName, String email) {
+    Integer ordinal = ordinals.get(email);
+    if (ordinal != null) {
+      return authors.get(ordinal);
+    }
+    Author author = new Author(firstName, lastName, email);
+    ordinalOf(author);
+    return author;
+  }
+
+  /**
+   * Returns the author with the given ordinal.
+   *
+   * @param ordinal an ordinal previously returned by {@link #ordinalOf(Author)}
+   * @return the author
+   */
+  synchronized Author get(int ordinal) {
+    return authors.get(ordinal);
+  }
+
+  /**
+   * Returns all authors in ordinal order.
+   *
+   * @return an unmodifiable snapshot of the authors
+   */
+  synchronized List<Author> getAuthors() {
+    return List.copyOf(authors);
+  }
+
+  /**
+   * Writes the table to disk if authors were added since the last save.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  synchronized void save() throws IOException {
+    if (!dirty) {
+      return;
+    }
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(temp)))) {
+      out.writeInt(authors.size());
+      for (Author author : authors) {
+        out.writeUTF(author.getFirstName());
+        out.writeUTF(author.getLastName());
+        out.writeUTF(author.getEmail());
+      }
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    dirty = false;
+  }
+
+  private int append(Author author) {
+    int ordinal = authors.size();
+    authors.add(author);
+    ordinals.put(author.getEmail(), ordinal);
+    return ordinal;
+  }
+}
@@ -0,0 +1,112 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A size-bounded LRU cache of decompressed text blocks shared by all segments
+ * of a {@link MappedEntryStore}.
+ *
+ * <p>Blocks are keyed by segment sequence and block number. The cache evicts
+ * least recently used blocks once the total number of cached bytes exceeds the
+ * configured capacity, and records hit, miss and decode timings so the store
+ * can report its decode throughput.
+ * </p>
+ */
+final class BlockCache {
+  private final Map<BlockKey, byte[]> blocks;
+  private final long capacityBytes;
+  private long cachedBytes;
+  private long hits;
+  private long misses;
+  private long decodedBytes;
+  private long decodeNanos;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param capacityBytes the maximum number of decompressed bytes to keep
+   */
+  BlockCache(long capacityBytes) {
+    this.blocks = new LinkedHashMap<>(16, 0.75f, true);
+    this.capacityBytes = capacityBytes;
+  }
+
+  /**
+   * Returns the decompressed block, decoding it with {@code decoder} on a miss.
+   *
+   * <p>Decoding runs outside the cache lock, so two readers missing on the same
+   * block may both decode it; the result is identical.
+   * </p>
+   *
+   * @param sequence the sequence number of the owning segment
+   * @param block the block number within the segment
+   * @param decoder decodes the block when it is not cached
+   * @return the decompressed bytes of the block
+   */
+  byte[] get(long sequence, int block, Supplier<byte[]> decoder) {
+    BlockKey key = new BlockKey(sequence, block);
+    synchronized (this) {
+      byte[] cached = blocks.get(key);
+      if (cached != null) {
+        hits++;
+        return cached;
+      }
+      misses++;
+    }
+
+    long start = System.nanoTime();
+    byte[] decoded = decoder.get();
+    long elapsed = System.nanoTime() - start;
+
+    synchronized (this) {
+      decodedBytes += decoded.length;
+      decodeNanos += elapsed;
+      if (blocks.put(key, decoded) == null) {
+        cachedBytes += decoded.length;
+      }
+      var iterator = blocks.entrySet().iterator();
+      while (cachedBytes > capacityBytes && iterator.hasNext()) {
+        cachedBytes -= iterator.next().getValue().length;
+        iterator.remove();
+      }
+    }
+    return decoded;
+  }
+
+  /**
+   * Drops every cached block belonging to the given segment.
+   *
+   * @param sequence the sequence number of the segment
+   */
+  synchronized void evictSegment(long sequence) {
+    var iterator = blocks.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<BlockKey, byte[]> entry = iterator.next();
+      if (entry.getKey().sequence() == sequence) {
+        cachedBytes -= entry.getValue().length;
+        iterator.remove();
+      }
+    }
+  }
+
+  synchronized long getHits() {
+    return hits;
+  }
+
+  synchronized long getMisses() {
+    return misses;
+  }
+
+  synchronized long getDecodedBytes() {
+    return decodedBytes;
+  }
+
+  synchronized long getDecodeNanos() {
+    return decodeNanos;
+  }
+
+  private record BlockKey(long sequence, int block) {
+  }
+}
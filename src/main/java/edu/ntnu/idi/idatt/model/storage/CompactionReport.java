@@ -0,0 +1,32 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+/**
+ * The outcome of one compaction run of a {@link MappedEntryStore}.
+ *
+ * @param segmentsCompacted the number of segment files that were rewritten
+ * @param segmentsWritten the number of segment files that replaced them
+ * @param recordsDropped the number of dead records that were discarded
+ * @param bytesRead the size of the rewritten segment files
+ * @param bytesWritten the size of the new segment files
+ * @param durationNanos the wall-clock duration of the run
+ */
+public record CompactionReport(int segmentsCompacted, int segmentsWritten,
+                               long recordsDropped, long bytesRead, long bytesWritten,
+                               long durationNanos) {
+  /**
+   * Returns the disk space freed by the run.
+   *
+   * @return the reclaimed bytes; never negative
+   */
+  public long reclaimedBytes() {
+    return Math.max(0, bytesRead - bytesWritten);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("compacted %d segments into %d, dropped %d records, "
+                    + "reclaimed %,d bytes (read %,d, wrote %,d) in %d ms",
+            segmentsCompacted, segmentsWritten, recordsDropped, reclaimedBytes(),
+            bytesRead, bytesWritten, durationNanos / 1_000_000);
+  }
+}
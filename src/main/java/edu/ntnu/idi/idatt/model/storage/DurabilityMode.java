@@ -0,0 +1,19 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+/**
+ * How strongly {@link MappedEntryStore} persists each change before the
+ * mutating call returns.
+ *
+ * <p>Changes are always written by a dedicated journal writer thread that
+ * groups queued changes into large sequential writes; the modes differ in when
+ * the data is forced to the storage device and whether the caller waits.
+ * </p>
+ */
+public enum DurabilityMode {
+  /** Changes are written in batches but never forced; the OS decides when they reach disk. */
+  ASYNC,
+  /** Every batch is forced to disk, but callers do not wait for it (group commit). */
+  BATCHED,
+  /** Every batch is forced to disk and callers wait until their change is durable. */
+  SYNC
+}
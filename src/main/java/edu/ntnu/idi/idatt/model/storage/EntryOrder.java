@@ -0,0 +1,28 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * The newest-first order used for paging: by creation time, ties broken by id,
+ * both descending.
+ */
+final class EntryOrder {
+  static final Comparator<DiaryEntry> NEWEST_FIRST = Comparator
+          .comparing(DiaryEntry::getCreationTime)
+          .thenComparingInt(DiaryEntry::getEntryId)
+          .reversed();
+
+  private EntryOrder() {
+  }
+
+  /**
+   * Returns whether {@code entry} comes after the position ({@code time},
+   * {@code entryId}) in newest-first order, that is, whether it is older.
+   */
+  static boolean isOlder(DiaryEntry entry, LocalDateTime time, int entryId) {
+    int byTime = entry.getCreationTime().compareTo(time);
+    return byTime < 0 || (byTime == 0 && entry.getEntryId() < entryId);
+  }
+}
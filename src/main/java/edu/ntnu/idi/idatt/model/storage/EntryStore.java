@@ -0,0 +1,154 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.entity.EntryEditor;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Storage backend for the entries held by a
+ * {@link edu.ntnu.idi.idatt.model.register.DiaryRegister}.
+ *
+ * <p>The register assigns ids and implements all queries on top of
+ * {@link #stream()}, so a store only has to keep entries and hand them back.
+ * Implementations decide whether entries live on the heap or on disk.
+ * </p>
+ */
+public interface EntryStore {
+  /**
+   * Stores an entry that has already been given its id.
+   *
+   * @param entry the entry to store; must be non-null with a positive id
+   */
+  void add(DiaryEntry entry);
+
+  /**
+   * Records that the title or description of a stored entry has changed.
+   *
+   * <p>The default implementation does nothing, which suits stores that hold
+   * the entry instances themselves.
+   * </p>
+   *
+   * @param entry the edited entry; must be non-null
+   */
+  default void update(DiaryEntry entry) {
+  }
+
+  /**
+   * Sets the editor to attach to the entries the store hands out, so that
+   * edits through their setters reach the register.
+   *
+   * <p>The default implementation does nothing, which suits stores that hand
+   * out the instances the register added and attached the editor to. Stores
+   * that create a new instance on every read attach it to each one.
+   * </p>
+   *
+   * @param editor the editor; must be non-null
+   */
+  default void setEntryEditor(EntryEditor editor) {
+  }
+
+  /**
+   * Removes the given entry from the store. Entries that are not stored are ignored.
+   *
+   * @param entry the entry to remove; must be non-null
+   */
+  void remove(DiaryEntry entry);
+
+  /**
+   * Runs {@code mutations} as one group. Stores that persist changes may commit
+   * the whole group at once instead of change by change.
+   *
+   * <p>The default implementation simply runs the mutations.</p>
+   *
+   * @param mutations calls to {@link #add}, {@link #update} and {@link #remove}
+   */
+  default void batch(Runnable mutations) {
+    mutations.run();
+  }
+
+  /**
+   * Returns the entry with the given id.
+   *
+   * @param entryId the id to look up
+   * @return the stored entry, or {@code null} if no entry has the id
+   */
+  DiaryEntry get(int entryId);
+
+  /**
+   * Returns a stream over all stored entries in storage order.
+   *
+   * @return a stream of the stored entries
+   */
+  Stream<DiaryEntry> stream();
+
+  /**
+   * Returns a stream over the entries created between {@code from} and
+   * {@code to}, inclusive, in storage order.
+   *
+   * <p>The default implementation filters {@link #stream()}. Stores that know
+   * the time range of their data override it to skip entries without reading
+   * them.
+   * </p>
+   *
+   * @param from the inclusive lower bound; must be non-null
+   * @param to the inclusive upper bound; must be non-null
+   * @return a stream of the entries in the range
+   */
+  default Stream<DiaryEntry> streamBetween(LocalDateTime from, LocalDateTime to) {
+    return stream().filter(entry -> !entry.getCreationTime().isBefore(from)
+            && !entry.getCreationTime().isAfter(to));
+  }
+
+  /**
+   * Returns up to {@code limit} entries that are older than the position
+   * ({@code time}, {@code entryId}), newest first.
+   *
+   * <p>Entries are ordered by creation time and then by id, both descending.
+   * Passing the time and id of the last entry of a page returns the next page,
+   * which lets callers page through the store without offsets. The default
+   * implementation sorts the matching entries of {@link #stream()}; stores
+   * with an ordered index override it so the cost does not depend on the
+   * number of stored entries.
+   * </p>
+   *
+   * @param time the creation time of the position; must be non-null
+   * @param entryId the id of the position
+   * @param limit the maximum number of entries to return
+   * @return the entries after the position in newest-first order
+   */
+  default List<DiaryEntry> newestBefore(LocalDateTime time, int entryId, int limit) {
+    return stream()
+            .filter(entry -> EntryOrder.isOlder(entry, time, entryId))
+            .sorted(EntryOrder.NEWEST_FIRST)
+            .limit(limit)
+            .toList();
+  }
+
+  /**
+   * Returns the number of stored entries.
+   *
+   * @return the entry count
+   */
+  int size();
+
+  /**
+   * Returns the highest id that has ever been stored, so the register can continue
+   * numbering after a restart.
+   *
+   * @return the highest stored id, or zero if nothing has been stored
+   */
+  int maxEntryId();
+
+  /**
+   * Writes any buffered changes to durable storage.
+   *
+   * <p>The default implementation does nothing, which suits heap-only stores.</p>
+   *
+   * @throws IOException if the changes could not be written
+   */
+  default void flush() throws IOException {
+  }
+}
@@ -0,0 +1,102 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps all entries on the heap in insertion order.
+ *
+ * <p>This is the default store of a
+ * {@link edu.ntnu.idi.idatt.model.register.DiaryRegister} and keeps the
+ * behaviour the register always had: entries are compared by identity and
+ * nothing is persisted.
+ * </p>
+ *
+ * <p>Entries are indexed by id and by creation time, so lookups by id and
+ * {@link #newestBefore(LocalDateTime, int, int) pages} in time order do not
+ * scan the whole store.
+ * </p>
+ */
+public class InMemoryEntryStore implements EntryStore {
+  private final Map<Integer, DiaryEntry> entries;
+  private final NavigableMap<TimeKey, DiaryEntry> byTime;
+  private int maxEntryId;
+
+  /**
+   * Creates an empty in-memory store.
+   */
+  public InMemoryEntryStore() {
+    this.entries = new LinkedHashMap<>();
+    this.byTime = new TreeMap<>();
+    maxEntryId = 0;
+  }
+
+  @Override
+  public void add(DiaryEntry entry) {
+    entries.put(entry.getEntryId(), entry);
+    byTime.put(TimeKey.of(entry), entry);
+    maxEntryId = Math.max(maxEntryId, entry.getEntryId());
+  }
+
+  @Override
+  public void remove(DiaryEntry entry) {
+    if (entries.get(entry.getEntryId()) == entry) {
+      entries.remove(entry.getEntryId());
+      byTime.remove(TimeKey.of(entry));
+    }
+  }
+
+  @Override
+  public DiaryEntry get(int entryId) {
+    return entries.get(entryId);
+  }
+
+  @Override
+  public Stream<DiaryEntry> stream() {
+    return entries.values().stream();
+  }
+
+  @Override
+  public List<DiaryEntry> newestBefore(LocalDateTime time, int entryId, int limit) {
+    List<DiaryEntry> page = new ArrayList<>(Math.min(limit, entries.size()));
+    Iterator<DiaryEntry> older = byTime.headMap(new TimeKey(time, entryId), false)
+            .descendingMap().values().iterator();
+    while (page.size() < limit && older.hasNext()) {
+      page.add(older.next());
+    }
+    return page;
+  }
+
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public int maxEntryId() {
+    return maxEntryId;
+  }
+
+  /**
+   * Position of an entry in the time index.
+   */
+  private record TimeKey(LocalDateTime time, int entryId) implements Comparable<TimeKey> {
+    static TimeKey of(DiaryEntry entry) {
+      return new TimeKey(entry.getCreationTime(), entry.getEntryId());
+    }
+
+    @Override
+    public int compareTo(TimeKey other) {
+      int byTime = time.compareTo(other.time);
+      return byTime != 0 ? byTime : Integer.compare(entryId, other.entryId);
+    }
+  }
+}
@@ -0,0 +1,423 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of store mutations written by a single background thread.
+ *
+ * <p>Mutations are placed on a bounded queue and return immediately (unless
+ * the store runs in {@link DurabilityMode#SYNC}). The writer thread drains
+ * everything queued into one batch, encodes it into a single buffer and
+ * appends it with one write, forcing the file according to the
+ * {@link DurabilityMode}. A full queue blocks producers, which keeps memory
+ * bounded when the disk cannot keep up.
+ * </p>
+ *
+ * <p>Each record is framed as {@code length int, crc32 int, payload}. On
+ * {@link #replay(Path, Replayer)} a torn or corrupt tail, as left by a crash in
+ * the middle of a write, ends the replay and is cut off.
+ * </p>
+ */
+final class Journal implements Closeable {
+  private static final byte OP_ADD = 1;
+  private static final byte OP_REMOVE = 2;
+  private static final byte OP_SYNC = 3;
+  private static final byte OP_STOP = 4;
+  private static final byte OP_UPDATE = 5;
+  private static final int QUEUE_CAPACITY = 8192;
+  private static final int MAX_BATCH = 4096;
+  private static final int FRAME_HEADER_BYTES = 8;
+
+  private final FileChannel channel;
+  private final DurabilityMode mode;
+  private final BlockingQueue<Mutation> queue;
+  private final Thread writer;
+  private long enqueued;
+  private long durable;
+  private int groupDepth;
+  private IOException failure;
+  private boolean closed;
+
+  private Journal(FileChannel channel, DurabilityMode mode) {
+    this.channel = channel;
+    this.mode = mode;
+    this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    this.writer = new Thread(this::run, "diary-journal-writer");
+    this.writer.setDaemon(true);
+    enqueued = 0;
+    durable = 0;
+    closed = false;
+  }
+
+  /**
+   * Opens the journal for appending and starts its writer thread.
+   *
+   * @param file the journal file; created if missing
+   * @param mode when batches are forced and whether callers wait
+   * @return the opened journal
+   * @throws IOException if the file cannot be opened
+   */
+  static Journal open(Path file, DurabilityMode mode) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE);
+    channel.position(channel.size());
+    Journal journal = new Journal(channel, mode);
+    journal.writer.start();
+    return journal;
+  }
+
+  /**
+   * Reads every intact record of {@code file} and passes it to {@code replayer}.
+   * A torn or corrupt tail is truncated.
+   *
+   * @param file the journal file
+   * @param replayer receives the recorded mutations in order
+   * @return the number of records replayed
+   * @throws IOException if the file cannot be read
+   */
+  static int replay(Path file, Replayer replayer) throws IOException {
+    if (!Files.exists(file)) {
+      return 0;
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      CRC32 crc = new CRC32();
+      int records = 0;
+      while (data.remaining() >= FRAME_HEADER_BYTES) {
+        int start = data.position();
+        int length = data.getInt();
+        int checksum = data.getInt();
+        if (length <= 0 || length > data.remaining()) {
+          data.position(start);
+          break;
+        }
+        ByteBuffer payload = data.slice(data.position(), length);
+        crc.reset();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+          data.position(start);
+          break;
+        }
+        data.position(data.position() + length);
+        decode(payload, replayer);
+        records++;
+      }
+      if (data.position() < channel.size()) {
+        channel.truncate(data.position());
+      }
+      return records;
+    }
+  }
+
+  /**
+   * Queues the addition of {@code entry}.
+   *
+   * @param entry the entry that was added
+   */
+  void appendAdd(DiaryEntry entry) {
+    enqueue(OP_ADD, entry, entry.getEntryId());
+  }
+
+  /**
+   * Queues a new version of an edited entry.
+   *
+   * @param entry the entry whose title or description changed
+   */
+  void appendUpdate(DiaryEntry entry) {
+    enqueue(OP_UPDATE, entry, entry.getEntryId());
+  }
+
+  /**
+   * Queues the removal of the entry with the given id.
+   *
+   * @param entryId the id of the removed entry
+   */
+  void appendRemove(int entryId) {
+    enqueue(OP_REMOVE, null, entryId);
+  }
+
+  /**
+   * Starts a group of mutations that are committed together. In
+   * {@link DurabilityMode#SYNC} the appends of a group do not wait for the
+   * disk individually; {@link #endGroup()} waits once for all of them.
+   * Groups may be nested.
+   */
+  synchronized void beginGroup() {
+    groupDepth++;
+  }
+
+  /**
+   * Ends a group started by {@link #beginGroup()}. When the outermost group
+   * ends in {@link DurabilityMode#SYNC}, waits until all its mutations are
+   * durable.
+   *
+   * @throws IllegalStateException if the writer failed
+   */
+  void endGroup() {
+    long sequence;
+    synchronized (this) {
+      groupDepth--;
+      if (groupDepth > 0 || mode != DurabilityMode.SYNC) {
+        return;
+      }
+      sequence = enqueued;
+    }
+    try {
+      awaitDurable(sequence);
+    } catch (IOException e) {
+      throw new IllegalStateException("The journal writer failed: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Waits until every mutation queued so far has been written and forced to
+   * disk, regardless of the durability mode.
+   *
+   * @throws IOException if the writer failed
+   */
+  void sync() throws IOException {
+    long sequence = enqueue(OP_SYNC, null, 0);
+    awaitDurable(sequence);
+  }
+
+  /**
+   * Discards the journal contents. Must only be called after {@link #sync()}
+   * while no other thread appends, typically once the journalled changes have
+   * been written to segments.
+   *
+   * @throws IOException if the file cannot be truncated
+   */
+  void truncate() throws IOException {
+    synchronized (channel) {
+      channel.truncate(0);
+      channel.force(true);
+    }
+  }
+
+  /**
+   * Writes all queued mutations, stops the writer thread and closes the file.
+   *
+   * @throws IOException if the final write fails
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+    }
+    long sequence = enqueue(OP_STOP, null, 0);
+    try {
+      awaitDurable(sequence);
+    } finally {
+      synchronized (this) {
+        closed = true;
+      }
+      channel.close();
+    }
+  }
+
+  private long enqueue(byte op, DiaryEntry entry, int entryId) {
+    long sequence;
+    boolean grouped;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("The journal is closed");
+      }
+      if (failure != null) {
+        throw new IllegalStateException("The journal writer failed: " + failure.getMessage(),
+                failure);
+      }
+      sequence = ++enqueued;
+      grouped = groupDepth > 0;
+    }
+    // Copied now: the entry may be edited before the writer thread gets to it.
+    Mutation mutation = entry == null
+            ? new Mutation(sequence, op, entryId, null, null, null, null, null, null)
+            : new Mutation(sequence, op, entryId, entry.getCreationTime(),
+                    entry.getAuthor().getFirstName(), entry.getAuthor().getLastName(),
+                    entry.getAuthor().getEmail(), entry.getTitle(), entry.getDescription());
+    try {
+      queue.put(mutation);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while queueing a change", e);
+    }
+    if (mode == DurabilityMode.SYNC && isMutation(op) && !grouped) {
+      try {
+        awaitDurable(sequence);
+      } catch (IOException e) {
+        throw new IllegalStateException("The journal writer failed: " + e.getMessage(), e);
+      }
+    }
+    return sequence;
+  }
+
+  private synchronized void awaitDurable(long sequence) throws IOException {
+    boolean interrupted = false;
+    while (durable < sequence && failure == null) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Writer thread: drains the queue in batches, appends each batch with a
+   * single write and publishes the highest durable sequence number.
+   */
+  private void run() {
+    List<Mutation> batch = new ArrayList<>(MAX_BATCH);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+    boolean running = true;
+
+    while (running) {
+      try {
+        batch.add(queue.take());
+        queue.drainTo(batch, MAX_BATCH - 1);
+
+        bytes.reset();
+        boolean force = mode != DurabilityMode.ASYNC;
+        for (Mutation mutation : batch) {
+          if (isMutation(mutation.op)) {
+            encode(mutation, bytes);
+          } else {
+            force = true;
+            running &= mutation.op != OP_STOP;
+          }
+        }
+        synchronized (channel) {
+          ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+          while (buffer.hasRemaining()) {
+            channel.write(buffer);
+          }
+          if (force) {
+            channel.force(false);
+          }
+        }
+        synchronized (this) {
+          durable = batch.get(batch.size() - 1).sequence;
+          notifyAll();
+        }
+        batch.clear();
+      } catch (IOException e) {
+        synchronized (this) {
+          failure = e;
+          notifyAll();
+        }
+        running = false;
+      } catch (InterruptedException e) {
+        running = false;
+      }
+    }
+  }
+
+  private static void encode(Mutation mutation, ByteArrayOutputStream bytes) throws IOException {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream(128);
+    DataOutputStream out = new DataOutputStream(payload);
+    out.writeByte(mutation.op);
+    out.writeInt(mutation.entryId);
+    if (mutation.op == OP_ADD || mutation.op == OP_UPDATE) {
+      out.writeLong(mutation.creationTime.toEpochSecond(ZoneOffset.UTC));
+      out.writeInt(mutation.creationTime.getNano());
+      writeString(out, mutation.firstName);
+      writeString(out, mutation.lastName);
+      writeString(out, mutation.email);
+      writeString(out, mutation.title);
+      writeString(out, mutation.description);
+    }
+
+    byte[] data = payload.toByteArray();
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    DataOutputStream frame = new DataOutputStream(bytes);
+    frame.writeInt(data.length);
+    frame.writeInt((int) crc.getValue());
+    frame.write(data);
+  }
+
+  private static void decode(ByteBuffer payload, Replayer replayer) {
+    byte op = payload.get();
+    int entryId = payload.getInt();
+    if (op == OP_REMOVE) {
+      replayer.remove(entryId);
+      return;
+    }
+    LocalDateTime creationTime = LocalDateTime.ofEpochSecond(
+            payload.getLong(), payload.getInt(), ZoneOffset.UTC);
+    String firstName = readString(payload);
+    String lastName = readString(payload);
+    String email = readString(payload);
+    String title = readString(payload);
+    String description = readString(payload);
+    if (op == OP_UPDATE) {
+      replayer.update(entryId, creationTime, firstName, lastName, email, title, description);
+    } else {
+      replayer.add(entryId, creationTime, firstName, lastName, email, title, description);
+    }
+  }
+
+  private static boolean isMutation(byte op) {
+    return op == OP_ADD || op == OP_UPDATE || op == OP_REMOVE;
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Receives the mutations read back by {@link #replay(Path, Replayer)}.
+   */
+  interface Replayer {
+    void add(int entryId, LocalDateTime creationTime, String firstName, String lastName,
+             String email, String title, String description);
+
+    void update(int entryId, LocalDateTime creationTime, String firstName, String lastName,
+                String email, String title, String description);
+
+    void remove(int entryId);
+  }
+
+  /**
+   * A queued journal record. Entry fields are copied when the change is
+   * queued, so the record holds the entry as it was at that moment.
+   */
+  private record Mutation(long sequence, byte op, int entryId, LocalDateTime creationTime,
+                          String firstName, String lastName, String email,
+                          String title, String description) {
+  }
+}
@@ -0,0 +1,1180 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.entity.EntryEditor;
+import edu.ntnu.idi.idatt.model.entity.EntryFactory;
+import edu.ntnu.idi.idatt.util.Validators;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An {@link EntryStore} that keeps entries in memory-mapped segment files.
+ *
+ * <p>Only the compact index of each {@link Segment} (id, timestamp and author
+ * ordinal) is held on the heap, so opening a large diary costs one sequential
+ * read of the index and no text decoding. Entries handed out by the store load
+ * their title and description from the mapping on first access.
+ * </p>
+ *
+ * <p>Every addition and removal is appended to a journal by a background
+ * writer thread, so callers never wait for disk I/O unless the store runs in
+ * {@link DurabilityMode#SYNC}. The journal is replayed when the store is
+ * opened. New entries are buffered in an in-memory tail until {@link #flush()}
+ * checkpoints them, one segment per {@link SegmentPartitioning time partition}.
+ * Once the tail holds {@link #setFlushThreshold(int) enough entries}, a flush
+ * runs in the background, which bounds both the heap used by the tail and the
+ * length of the journal.
+ * Each segment records the range of creation times it holds, so
+ * {@link #streamBetween(LocalDateTime, LocalDateTime)} skips segments outside
+ * the requested window. Partitions that lie before the current one can be
+ * consolidated into a single sealed segment with {@link #sealOlderPartitions()},
+ * optionally with block-compressed text (see
+ * {@link #setCompressSealedSegments(boolean)}).
+ * Removals of flushed entries are recorded as
+ * tombstones next to the segments, and edits supersede the flushed record
+ * with a new one. The dead records left behind are reclaimed by
+ * {@link #compact()}, which runs in the background whenever the share of dead
+ * records exceeds the {@link #setCompactionThreshold(double) threshold}. Because entries read from a segment are
+ * materialized anew for every query, they are matched by id rather than by
+ * identity when removed.
+ * </p>
+ *
+ * <p>A manifest file lists the live segments together with their
+ * tombstones, and is replaced atomically. Flushing, compaction and sealing
+ * write their new segment files first, then commit the new set of segments
+ * by replacing the manifest, and only then delete the files they replaced.
+ * When the store is opened, segment files missing from the manifest are
+ * left over from an interrupted rewrite and are deleted, so a crash at any
+ * point loads either the old or the new generation, never both.
+ * </p>
+ *
+ * <p>The store is safe for use by multiple threads.</p>
+ */
+public class MappedEntryStore implements EntryStore, Closeable {
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".seg";
+  private static final String AUTHORS_FILE = "authors.dat";
+  private static final String MANIFEST_FILE = "manifest.dat";
+  private static final String TOMBSTONES_FILE = "tombstones.dat";
+  private static final int MANIFEST_VERSION = 1;
+  private static final String JOURNAL_FILE = "journal.log";
+  private static final long MAX_SEGMENT_BYTES = 1L << 30;
+  private static final long BLOCK_CACHE_BYTES = 32L << 20;
+  private static final double DEFAULT_COMPACTION_THRESHOLD = 0.3;
+  private static final int DEFAULT_FLUSH_THRESHOLD = 10_000;
+
+  private final Path directory;
+  private final SegmentPartitioning partitioning;
+  private final AuthorTable authors;
+  private final BlockCache blockCache;
+  private final List<Segment> segments;
+  private final Map<Integer, DiaryEntry> tail;
+  private final NavigableMap<TailKey, DiaryEntry> tailByTime;
+  private final ReadWriteLock lock;
+  private final ReentrantLock maintenanceLock;
+  private final ExecutorService compactor;
+  private final AtomicBoolean compactionScheduled;
+  private final AtomicBoolean flushScheduled;
+  private final AtomicLong nextSequence;
+  private Journal journal;
+  private int maxEntryId;
+  private boolean manifestDirty;
+  private boolean compressSealedSegments;
+  private boolean closed;
+  private double compactionThreshold;
+  private int flushThreshold;
+  private volatile EntryEditor editor;
+  private CompactionReport lastCompaction;
+  private IOException lastCompactionFailure;
+  private IOException lastFlushFailure;
+
+  private MappedEntryStore(Path directory, SegmentPartitioning partitioning,
+                           AuthorTable authors) {
+    this.directory = directory;
+    this.partitioning = partitioning;
+    this.authors = authors;
+    this.blockCache = new BlockCache(BLOCK_CACHE_BYTES);
+    this.segments = new ArrayList<>();
+    this.tail = new LinkedHashMap<>();
+    this.tailByTime = new TreeMap<>();
+    this.lock = new ReentrantReadWriteLock();
+    this.maintenanceLock = new ReentrantLock();
+    this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "diary-compactor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.compactionScheduled = new AtomicBoolean(false);
+    this.flushScheduled = new AtomicBoolean(false);
+    this.nextSequence = new AtomicLong(1);
+    maxEntryId = 0;
+    manifestDirty = false;
+    compressSealedSegments = false;
+    closed = false;
+    compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    flushThreshold = DEFAULT_FLUSH_THRESHOLD;
+  }
+
+  /**
+   * Opens the store in {@code directory} with monthly partitions.
+   *
+   * @param directory the directory holding the segment files
+   * @return the opened store
+   * @throws IOException if the directory or its files cannot be read
+   * @see #open(Path, SegmentPartitioning)
+   */
+  public static MappedEntryStore open(Path directory) throws IOException {
+    return open(directory, SegmentPartitioning.MONTH);
+  }
+
+  /**
+   * Opens the store in {@code directory} with {@link DurabilityMode#BATCHED}
+   * journal writes.
+   *
+   * @param directory the directory holding the segment files
+   * @param partitioning the time partitioning used for new segments; must be non-null
+   * @return the opened store
+   * @throws IOException if the directory or its files cannot be read
+   * @see #open(Path, SegmentPartitioning, DurabilityMode)
+   */
+  public static MappedEntryStore open(Path directory, SegmentPartitioning partitioning)
+          throws IOException {
+    return open(directory, partitioning, DurabilityMode.BATCHED);
+  }
+
+  /**
+   * Opens the store in {@code directory}, creating the directory if needed.
+   *
+   * <p>The segments listed in the manifest are mapped and their indexes
+   * loaded; no entry text is read. Segment files not in the manifest are left
+   * over from an interrupted rewrite and are deleted. Changes recorded in the
+   * journal since the last checkpoint are replayed into the in-memory tail.
+   * The partitioning only affects segments written from now on.
+   * </p>
+   *
+   * @param directory the directory holding the segment files
+   * @param partitioning the time partitioning used for new segments; must be non-null
+   * @param durability how changes are persisted by the journal writer; must be non-null
+   * @return the opened store
+   * @throws IOException if the directory or its files cannot be read
+   * @throws IllegalArgumentException if {@code partitioning} or {@code durability} is null
+   */
+  public static MappedEntryStore open(Path directory, SegmentPartitioning partitioning,
+                                      DurabilityMode durability) throws IOException {
+    Validators.validateNotNull(partitioning, "Partitioning");
+    Validators.validateNotNull(durability, "Durability");
+    Files.createDirectories(directory);
+    MappedEntryStore store = new MappedEntryStore(directory, partitioning,
+            AuthorTable.open(directory.resolve(AUTHORS_FILE)));
+
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream =
+                 Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      stream.forEach(files::add);
+    }
+    files.sort(Comparator.comparingLong(MappedEntryStore::sequenceOf));
+    Map<Long, List<Integer>> manifest = readManifest(directory.resolve(MANIFEST_FILE));
+    for (Path file : files) {
+      long sequence = sequenceOf(file);
+      store.nextSequence.set(Math.max(store.nextSequence.get(), sequence + 1));
+      if (manifest != null && !manifest.containsKey(sequence)) {
+        Files.deleteIfExists(file);
+        continue;
+      }
+      Segment segment = Segment.open(file, sequence, store.authors, store.blockCache);
+      store.segments.add(segment);
+      store.maxEntryId = Math.max(store.maxEntryId, segment.getMaxEntryId());
+    }
+    if (manifest != null) {
+      for (Segment segment : store.segments) {
+        manifest.get(segment.getSequence()).forEach(segment::markRemoved);
+      }
+    } else {
+      // A store from before manifests: every segment file is live.
+      store.loadTombstones();
+      store.saveManifest();
+      Files.deleteIfExists(directory.resolve(TOMBSTONES_FILE));
+    }
+    Journal.replay(directory.resolve(JOURNAL_FILE), store.new JournalReplayer());
+    store.journal = Journal.open(directory.resolve(JOURNAL_FILE), durability);
+    return store;
+  }
+
+  /**
+   * Returns every author referenced by stored entries, so the application can
+   * seed its {@link edu.ntnu.idi.idatt.model.register.AuthorRegister}.
+   *
+   * @return the stored authors
+   */
+  public List<Author> getAuthors() {
+    lock.readLock().lock();
+    try {
+      return authors.getAuthors();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Chooses whether segments written by {@link #sealOlderPartitions()} store
+   * their text in {@link java.util.zip.Deflater}-compressed blocks.
+   *
+   * <p>Compression trades a decode step on the first read of each block for a
+   * smaller file; decoded blocks are cached so repeated reads stay cheap.
+   * Segments that are already sealed are not rewritten.
+   * </p>
+   *
+   * @param compress {@code true} to compress sealed segments
+   */
+  public void setCompressSealedSegments(boolean compress) {
+    lock.writeLock().lock();
+    try {
+      compressSealedSegments = compress;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Sets the share of dead records at which a background compaction starts.
+   *
+   * <p>The share is the number of removed or superseded records divided by
+   * all records in the segment files. The default is
+   * {@value #DEFAULT_COMPACTION_THRESHOLD}.
+   * </p>
+   *
+   * @param threshold the trigger ratio; must be greater than 0 and at most 1
+   * @throws IllegalArgumentException if {@code threshold} is out of range
+   */
+  public void setCompactionThreshold(double threshold) {
+    if (!(threshold > 0 && threshold <= 1)) {
+      throw new IllegalArgumentException("Compaction threshold must be in (0, 1]");
+    }
+    lock.writeLock().lock();
+    try {
+      compactionThreshold = threshold;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Sets the number of buffered entries at which a background flush starts.
+   * The default is {@value #DEFAULT_FLUSH_THRESHOLD}.
+   *
+   * @param entries the number of entries in the tail that triggers a flush; must be positive
+   * @throws IllegalArgumentException if {@code entries} is not positive
+   */
+  public void setFlushThreshold(int entries) {
+    if (entries <= 0) {
+      throw new IllegalArgumentException("Flush threshold must be positive");
+    }
+    lock.writeLock().lock();
+    try {
+      flushThreshold = entries;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the error of the most recent background flush, if it failed.
+   *
+   * @return the failure, or {@code null} if the last background flush succeeded
+   */
+  public synchronized IOException getLastFlushFailure() {
+    return lastFlushFailure;
+  }
+
+  /**
+   * Returns the share of records in the segment files that are dead.
+   *
+   * @return the garbage ratio between 0 and 1
+   */
+  public double getGarbageRatio() {
+    lock.readLock().lock();
+    try {
+      long total = 0;
+      long removed = 0;
+      for (Segment segment : segments) {
+        total += segment.getCount();
+        removed += segment.getRemovedCount();
+      }
+      return total == 0 ? 0.0 : (double) removed / total;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the report of the most recent compaction, manual or automatic.
+   *
+   * @return the last compaction report, or {@code null} if none has completed
+   */
+  public synchronized CompactionReport getLastCompaction() {
+    return lastCompaction;
+  }
+
+  /**
+   * Returns the error of the most recent automatic compaction, if it failed.
+   *
+   * @return the failure, or {@code null} if the last automatic run succeeded
+   */
+  public synchronized IOException getLastCompactionFailure() {
+    return lastCompactionFailure;
+  }
+
+  /**
+   * Returns size and decoding figures for the store, including the achieved
+   * compression ratio and decode throughput, and the outcome of the last compaction.
+   *
+   * @return a snapshot of the store statistics
+   */
+  public StorageStatistics getStatistics() {
+    CompactionReport compaction = getLastCompaction();
+    IOException compactionFailure = getLastCompactionFailure();
+    lock.readLock().lock();
+    try {
+      int compressed = 0;
+      long raw = 0;
+      long stored = 0;
+      for (Segment segment : segments) {
+        compressed += segment.isCompressed() ? 1 : 0;
+        raw += segment.getRawTextBytes();
+        stored += segment.getStoredTextBytes();
+      }
+      return new StorageStatistics(segments.size(), compressed, raw, stored,
+              blockCache.getHits(), blockCache.getMisses(),
+              blockCache.getDecodedBytes(), blockCache.getDecodeNanos(), compaction,
+              compactionFailure == null ? null : compactionFailure.getMessage());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void add(DiaryEntry entry) {
+    lock.writeLock().lock();
+    try {
+      putTail(entry);
+      maxEntryId = Math.max(maxEntryId, entry.getEntryId());
+      journal.appendAdd(entry);
+      scheduleFlushIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(DiaryEntry entry) {
+    int entryId = entry.getEntryId();
+    if (entryId <= 0) {
+      return;
+    }
+
+    lock.writeLock().lock();
+    try {
+      if (removeById(entryId)) {
+        journal.appendRemove(entryId);
+        scheduleCompactionIfNeeded();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Runs {@code mutations} under a single write lock and commits their journal
+   * records together, so in {@link DurabilityMode#SYNC} the caller waits for
+   * the disk once per batch instead of once per change.
+   *
+   * @param mutations calls to {@link #add}, {@link #update} and {@link #remove}
+   */
+  @Override
+  public void batch(Runnable mutations) {
+    lock.writeLock().lock();
+    try {
+      journal.beginGroup();
+      try {
+        mutations.run();
+      } finally {
+        journal.endGroup();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Records an edited entry. If the entry was already flushed, its segment
+   * record becomes dead and the new version is buffered for the next flush.
+   *
+   * @param entry the edited entry
+   */
+  @Override
+  public void update(DiaryEntry entry) {
+    int entryId = entry.getEntryId();
+    if (entryId <= 0) {
+      return;
+    }
+
+    lock.writeLock().lock();
+    try {
+      if (removeById(entryId)) {
+        putTail(entry);
+        journal.appendUpdate(entry);
+        scheduleFlushIfNeeded();
+        scheduleCompactionIfNeeded();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private boolean removeById(int entryId) {
+    DiaryEntry pending = tail.remove(entryId);
+    if (pending != null) {
+      tailByTime.remove(new TailKey(pending.getCreationTime(), entryId));
+      return true;
+    }
+    for (Segment segment : segments) {
+      int position = segment.positionOf(entryId);
+      if (position >= 0) {
+        segment.markRemoved(position);
+        manifestDirty = true;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public DiaryEntry get(int entryId) {
+    lock.readLock().lock();
+    try {
+      DiaryEntry pending = tail.get(entryId);
+      if (pending != null) {
+        return attach(pending);
+      }
+      for (Segment segment : segments) {
+        int position = segment.positionOf(entryId);
+        if (position >= 0) {
+          return attach(segment.entryAt(position));
+        }
+      }
+      return null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Stream<DiaryEntry> stream() {
+    lock.readLock().lock();
+    try {
+      List<Segment> segmentSnapshot = List.copyOf(segments);
+      List<BitSet> removedSnapshot = segmentSnapshot.stream()
+              .map(Segment::snapshotRemoved)
+              .toList();
+      List<DiaryEntry> tailSnapshot = new ArrayList<>(tail.values());
+
+      Stream<DiaryEntry> flushed = IntStream.range(0, segmentSnapshot.size())
+              .boxed()
+              .flatMap(i -> segmentSnapshot.get(i).stream(removedSnapshot.get(i)));
+      return Stream.concat(flushed, tailSnapshot.stream()).map(this::attach);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Stream<DiaryEntry> streamBetween(LocalDateTime from, LocalDateTime to) {
+    long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+    long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+
+    lock.readLock().lock();
+    try {
+      List<Segment> candidates = segments.stream()
+              .filter(segment -> segment.overlaps(fromSecond, toSecond))
+              .toList();
+      List<BitSet> removedSnapshot = candidates.stream()
+              .map(Segment::snapshotRemoved)
+              .toList();
+      List<DiaryEntry> tailMatches = tail.values().stream()
+              .filter(entry -> !entry.getCreationTime().isBefore(from)
+                      && !entry.getCreationTime().isAfter(to))
+              .toList();
+
+      Stream<DiaryEntry> flushed = IntStream.range(0, candidates.size())
+              .boxed()
+              .flatMap(i -> candidates.get(i).stream(removedSnapshot.get(i), from, to));
+      return Stream.concat(flushed, tailMatches.stream()).map(this::attach);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns a page in newest-first order. The tail is kept sorted by creation
+   * time, and each segment finds its newest records before the cursor with a
+   * binary search on its time-ordered index, so every source offers at most
+   * {@code limit} candidates. Segments are visited from the most recent one
+   * backwards, stopping as soon as the remaining ones can only hold older
+   * entries than the page already has. Only the entries that make the page are
+   * materialized, so the cost depends on the page size and the number of
+   * segments, not on the number of entries.
+   */
+  @Override
+  public List<DiaryEntry> newestBefore(LocalDateTime time, int entryId, int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    long cursorSecond = time.toEpochSecond(ZoneOffset.UTC);
+    int cursorNano = time.getNano();
+    PriorityQueue<Candidate> page = new PriorityQueue<>(limit + 1,
+            Candidate.NEWEST_FIRST.reversed());
+    List<DiaryEntry> result = new ArrayList<>(limit);
+
+    lock.readLock().lock();
+    try {
+      for (DiaryEntry entry : tailByTime.headMap(new TailKey(time, entryId), false)
+              .descendingMap().values()) {
+        if (!offer(page, Candidate.of(entry), limit)) {
+          break;
+        }
+      }
+      List<Segment> byRecency = new ArrayList<>(segments);
+      byRecency.sort(Comparator.comparingLong(Segment::getMaxEpochSecond).reversed());
+      for (Segment segment : byRecency) {
+        if (segment.getMinEpochSecond() > cursorSecond) {
+          continue;
+        }
+        if (page.size() == limit && segment.getMaxEpochSecond() < page.peek().epochSecond()) {
+          break;
+        }
+        for (int position : segment.newestBefore(cursorSecond, cursorNano, entryId, limit)) {
+          if (!offer(page, Candidate.of(segment, position), limit)) {
+            break;
+          }
+        }
+      }
+
+      List<Candidate> winners = new ArrayList<>(page);
+      winners.sort(Candidate.NEWEST_FIRST);
+      for (Candidate candidate : winners) {
+        result.add(attach(candidate.entry() != null
+                ? candidate.entry()
+                : candidate.segment().entryAt(candidate.position())));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return result;
+  }
+
+  /**
+   * Adds {@code candidate} to the page unless the page is full of newer
+   * entries.
+   *
+   * @return {@code false} if the candidate was too old, so that a source
+   *         offering its candidates newest first can stop
+   */
+  private static boolean offer(PriorityQueue<Candidate> page, Candidate candidate, int limit) {
+    if (page.size() == limit) {
+      if (Candidate.NEWEST_FIRST.compare(candidate, page.peek()) >= 0) {
+        return false;
+      }
+      page.poll();
+    }
+    page.add(candidate);
+    return true;
+  }
+
+  private void putTail(DiaryEntry entry) {
+    tail.put(entry.getEntryId(), entry);
+    tailByTime.put(new TailKey(entry.getCreationTime(), entry.getEntryId()), entry);
+  }
+
+  /**
+   * Remembers the editor and attaches it to every entry handed out from now
+   * on, since each read creates a new instance.
+   */
+  @Override
+  public void setEntryEditor(EntryEditor editor) {
+    Validators.validateNotNull(editor, "Editor");
+    this.editor = editor;
+  }
+
+  private DiaryEntry attach(DiaryEntry entry) {
+    EntryEditor current = editor;
+    if (current != null) {
+      entry.setEditor(current);
+    }
+    return entry;
+  }
+
+  @Override
+  public int size() {
+    lock.readLock().lock();
+    try {
+      int count = tail.size();
+      for (Segment segment : segments) {
+        count += segment.getLiveCount();
+      }
+      return count;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int maxEntryId() {
+    lock.readLock().lock();
+    try {
+      return maxEntryId;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Consolidates every partition older than the current one into a single
+   * sealed segment.
+   *
+   * <p>A partition is rewritten when it has more than one segment or an
+   * unsealed one. Removed entries are dropped while rewriting, and the replaced
+   * segment files are deleted. Buffered entries are flushed first.
+   * </p>
+   *
+   * @return the number of partitions that were sealed
+   * @throws IOException if a segment cannot be written or deleted
+   */
+  public int sealOlderPartitions() throws IOException {
+    maintenanceLock.lock();
+    lock.writeLock().lock();
+    try {
+      flush();
+      long current = partitioning.partitionOf(LocalDateTime.now());
+      Map<Long, List<Segment>> byPartition = new TreeMap<>();
+      for (Segment segment : segments) {
+        long partition = partitionOf(segment);
+        if (partition < current && partitionOfLatest(segment) == partition) {
+          byPartition.computeIfAbsent(partition, key -> new ArrayList<>()).add(segment);
+        }
+      }
+
+      int sealed = 0;
+      for (List<Segment> group : byPartition.values()) {
+        if (group.size() == 1 && group.get(0).isSealed()) {
+          continue;
+        }
+        int flags = Segment.FLAG_SEALED
+                | (compressSealedSegments ? Segment.FLAG_COMPRESSED : 0);
+        replaceSegments(group, flags);
+        sealed++;
+      }
+      return sealed;
+    } finally {
+      lock.writeLock().unlock();
+      maintenanceLock.unlock();
+    }
+  }
+
+  /**
+   * Rewrites every segment that holds dead records, keeping only live ones.
+   *
+   * <p>Reads and writes continue while the new segments are written: the
+   * store lock is only held while choosing the segments and while swapping
+   * the new ones in. Entries removed or edited in the meantime are carried
+   * over to the new segments during the swap. Segments of the same partition
+   * are merged; the output is sealed if all inputs were.
+   * </p>
+   *
+   * @return a report with the space reclaimed, I/O volume and duration
+   * @throws IOException if a segment cannot be written or deleted
+   * @throws IllegalStateException if the store is closed
+   */
+  public CompactionReport compact() throws IOException {
+    maintenanceLock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("Store is closed");
+      }
+      long start = System.nanoTime();
+      Map<Long, List<Segment>> byPartition = new TreeMap<>();
+      Map<Segment, BitSet> snapshots = new HashMap<>();
+      lock.readLock().lock();
+      try {
+        for (Segment segment : segments) {
+          if (segment.getRemovedCount() > 0) {
+            byPartition.computeIfAbsent(partitionOf(segment), key -> new ArrayList<>())
+                    .add(segment);
+            snapshots.put(segment, segment.snapshotRemoved());
+          }
+        }
+      } finally {
+        lock.readLock().unlock();
+      }
+
+      int written = 0;
+      long dropped = 0;
+      long bytesRead = 0;
+      long bytesWritten = 0;
+      for (List<Segment> group : byPartition.values()) {
+        List<DiaryEntry> live = new ArrayList<>();
+        boolean sealed = true;
+        for (Segment segment : group) {
+          BitSet snapshot = snapshots.get(segment);
+          segment.stream(snapshot).forEach(live::add);
+          dropped += snapshot.cardinality();
+          bytesRead += segment.getFileBytes();
+          sealed &= segment.isSealed();
+        }
+        live.sort(Comparator.comparingInt(DiaryEntry::getEntryId));
+        int flags = sealed
+                ? Segment.FLAG_SEALED | (compressSealedSegments ? Segment.FLAG_COMPRESSED : 0)
+                : 0;
+        List<Segment> replacements = live.isEmpty() ? List.of() : writeSegments(live, flags);
+        for (Segment replacement : replacements) {
+          bytesWritten += replacement.getFileBytes();
+        }
+        written += replacements.size();
+        swapSegments(group, snapshots, replacements);
+      }
+
+      CompactionReport report = new CompactionReport(snapshots.size(), written, dropped,
+              bytesRead, bytesWritten, System.nanoTime() - start);
+      synchronized (this) {
+        lastCompaction = report;
+      }
+      return report;
+    } finally {
+      maintenanceLock.unlock();
+    }
+  }
+
+  /**
+   * Checkpoints the store: writes buffered entries as new segments, persists
+   * tombstones and empties the journal.
+   *
+   * <p>The journal is synced first, the author table is saved before the
+   * segments that refer to it, and the new segments are committed by
+   * replacing the manifest before the journal is emptied, so a crash at any
+   * point leaves either the journal or the segments holding each change.
+   * </p>
+   *
+   * @throws IOException if any file cannot be written
+   */
+  @Override
+  public void flush() throws IOException {
+    lock.writeLock().lock();
+    try {
+      journal.sync();
+      if (!tail.isEmpty()) {
+        List<DiaryEntry> pending = new ArrayList<>(tail.values());
+        pending.sort(Comparator.comparingInt(DiaryEntry::getEntryId));
+        pending.forEach(entry -> authors.ordinalOf(entry.getAuthor()));
+        authors.save();
+
+        Map<Long, List<DiaryEntry>> byPartition = new TreeMap<>();
+        for (DiaryEntry entry : pending) {
+          byPartition.computeIfAbsent(partitioning.partitionOf(entry.getCreationTime()),
+                  key -> new ArrayList<>()).add(entry);
+        }
+        for (List<DiaryEntry> partition : byPartition.values()) {
+          segments.addAll(writeSegments(partition, 0));
+        }
+        tail.clear();
+        tailByTime.clear();
+        manifestDirty = true;
+      }
+      if (manifestDirty) {
+        saveManifest();
+      }
+      journal.truncate();
+      scheduleCompactionIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Checkpoints buffered changes, seals partitions older than the current one
+   * and stops the journal writer. Closing an already closed store does
+   * nothing. Mapped segments are released once the store is no longer
+   * referenced.
+   *
+   * @throws IOException if the final flush or sealing fails
+   */
+  @Override
+  public void close() throws IOException {
+    compactor.shutdown();
+    try {
+      compactor.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    maintenanceLock.lock();
+    lock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      sealOlderPartitions();
+      journal.close();
+      closed = true;
+    } finally {
+      lock.writeLock().unlock();
+      maintenanceLock.unlock();
+    }
+  }
+
+  private void scheduleFlushIfNeeded() {
+    if (closed || compactor.isShutdown() || tail.size() < flushThreshold
+            || !flushScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      compactor.execute(() -> {
+        try {
+          flush();
+          synchronized (this) {
+            lastFlushFailure = null;
+          }
+        } catch (IOException e) {
+          synchronized (this) {
+            lastFlushFailure = e;
+          }
+        } finally {
+          flushScheduled.set(false);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      flushScheduled.set(false);
+    }
+  }
+
+  private void scheduleCompactionIfNeeded() {
+    if (closed || compactor.isShutdown() || compactionScheduled.get()
+            || getGarbageRatio() <= compactionThreshold) {
+      return;
+    }
+    if (!compactionScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      compactor.execute(() -> {
+        try {
+          compact();
+          synchronized (this) {
+            lastCompactionFailure = null;
+          }
+        } catch (IOException e) {
+          synchronized (this) {
+            lastCompactionFailure = e;
+          }
+        } finally {
+          compactionScheduled.set(false);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      compactionScheduled.set(false);
+    }
+  }
+
+  private void swapSegments(List<Segment> group, Map<Segment, BitSet> snapshots,
+                            List<Segment> replacements) throws IOException {
+    lock.writeLock().lock();
+    try {
+      for (Segment segment : group) {
+        BitSet removedSince = segment.snapshotRemoved();
+        removedSince.andNot(snapshots.get(segment));
+        for (int p = removedSince.nextSetBit(0); p >= 0; p = removedSince.nextSetBit(p + 1)) {
+          int entryId = segment.entryIdAt(p);
+          for (Segment replacement : replacements) {
+            int position = replacement.positionOf(entryId);
+            if (position >= 0) {
+              replacement.markRemoved(position);
+            }
+          }
+        }
+      }
+      commitSegments(group, replacements);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    deleteSegments(group);
+  }
+
+  private void replaceSegments(List<Segment> group, int flags) throws IOException {
+    List<DiaryEntry> live = new ArrayList<>();
+    for (Segment segment : group) {
+      segment.stream(segment.snapshotRemoved()).forEach(live::add);
+    }
+    live.sort(Comparator.comparingInt(DiaryEntry::getEntryId));
+
+    List<Segment> replacements = live.isEmpty() ? List.of() : writeSegments(live, flags);
+    commitSegments(group, replacements);
+    deleteSegments(group);
+  }
+
+  /**
+   * Swaps {@code group} for {@code replacements} and commits the swap by
+   * replacing the manifest. Until the manifest is replaced, a reopened store
+   * ignores the replacements; afterwards it ignores the replaced files, so
+   * they may only be deleted once this returns. The caller holds the write
+   * lock.
+   */
+  private void commitSegments(List<Segment> group, List<Segment> replacements)
+          throws IOException {
+    segments.removeAll(group);
+    segments.addAll(replacements);
+    saveManifest();
+  }
+
+  private void deleteSegments(List<Segment> group) throws IOException {
+    for (Segment segment : group) {
+      blockCache.evictSegment(segment.getSequence());
+      Files.deleteIfExists(segment.getFile());
+    }
+  }
+
+  private List<Segment> writeSegments(List<DiaryEntry> pending, int flags) throws IOException {
+    List<Segment> written = new ArrayList<>();
+    int start = 0;
+    long bytes = Segment.HEADER_BYTES;
+    for (int i = 0; i < pending.size(); i++) {
+      long size = Segment.estimateSize(pending.get(i));
+      if (i > start && bytes + size > MAX_SEGMENT_BYTES) {
+        written.add(writeSegment(pending.subList(start, i), flags));
+        start = i;
+        bytes = Segment.HEADER_BYTES;
+      }
+      bytes += size;
+    }
+    written.add(writeSegment(pending.subList(start, pending.size()), flags));
+    return written;
+  }
+
+  private Segment writeSegment(List<DiaryEntry> entries, int flags) throws IOException {
+    long sequence = nextSequence.getAndIncrement();
+    Path file = directory.resolve(String.format("%s%08d%s",
+            SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    return Segment.write(file, sequence, entries, authors, blockCache, flags);
+  }
+
+  private long partitionOf(Segment segment) {
+    return partitioning.partitionOf(
+            LocalDateTime.ofEpochSecond(segment.getMinEpochSecond(), 0, ZoneOffset.UTC));
+  }
+
+  private long partitionOfLatest(Segment segment) {
+    return partitioning.partitionOf(
+            LocalDateTime.ofEpochSecond(segment.getMaxEpochSecond(), 0, ZoneOffset.UTC));
+  }
+
+  /**
+   * Reads the manifest: the sequence numbers of the live segments, each with
+   * the positions of its removed records.
+   *
+   * @return the live segments, or {@code null} if there is no manifest
+   */
+  private static Map<Long, List<Integer>> readManifest(Path file) throws IOException {
+    if (!Files.exists(file)) {
+      return null;
+    }
+    Map<Long, List<Integer>> manifest = new HashMap<>();
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(file)))) {
+      int version = in.readInt();
+      if (version != MANIFEST_VERSION) {
+        throw new IOException("Unsupported manifest version " + version);
+      }
+      int segmentCount = in.readInt();
+      for (int i = 0; i < segmentCount; i++) {
+        manifest.put(in.readLong(), new ArrayList<>());
+      }
+      int tombstoneCount = in.readInt();
+      for (int i = 0; i < tombstoneCount; i++) {
+        List<Integer> removed = manifest.get(in.readLong());
+        int position = in.readInt();
+        if (removed != null) {
+          removed.add(position);
+        }
+      }
+    }
+    return manifest;
+  }
+
+  /**
+   * Atomically replaces the manifest with the current segments and their
+   * tombstones. The file is forced to disk before it is renamed into place.
+   */
+  private void saveManifest() throws IOException {
+    Path file = directory.resolve(MANIFEST_FILE);
+    Path temp = directory.resolve(MANIFEST_FILE + ".tmp");
+    int tombstones = 0;
+    for (Segment segment : segments) {
+      tombstones += segment.getRemoved().cardinality();
+    }
+
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      DataOutputStream out = new DataOutputStream(
+              new BufferedOutputStream(Channels.newOutputStream(channel)));
+      out.writeInt(MANIFEST_VERSION);
+      out.writeInt(segments.size());
+      for (Segment segment : segments) {
+        out.writeLong(segment.getSequence());
+      }
+      out.writeInt(tombstones);
+      for (Segment segment : segments) {
+        BitSet removed = segment.getRemoved();
+        for (int p = removed.nextSetBit(0); p >= 0; p = removed.nextSetBit(p + 1)) {
+          out.writeLong(segment.getSequence());
+          out.writeInt(p);
+        }
+      }
+      out.flush();
+      channel.force(true);
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    manifestDirty = false;
+  }
+
+  /**
+   * Reads the tombstone file of a store written before manifests existed.
+   */
+  private void loadTombstones() throws IOException {
+    Path file = directory.resolve(TOMBSTONES_FILE);
+    if (!Files.exists(file)) {
+      return;
+    }
+    Map<Long, Segment> bySequence = new HashMap<>();
+    segments.forEach(segment -> bySequence.put(segment.getSequence(), segment));
+
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(file)))) {
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        Segment segment = bySequence.get(in.readLong());
+        int position = in.readInt();
+        if (segment != null) {
+          segment.markRemoved(position);
+        }
+      }
+    }
+  }
+
+  /**
+   * Applies journalled changes that were not yet checkpointed when the store
+   * was last closed.
+   */
+  private final class JournalReplayer implements Journal.Replayer {
+    @Override
+    public void add(int entryId, LocalDateTime creationTime, String firstName,
+                    String lastName, String email, String title, String description) {
+      for (Segment segment : segments) {
+        if (segment.containsId(entryId)) {
+          return;
+        }
+      }
+      Author author = authors.resolve(firstName, lastName, email);
+      DiaryEntry entry = EntryFactory.SYSTEM.restore(title, description, author, creationTime);
+      entry.setEntryId(entryId);
+      putTail(entry);
+      maxEntryId = Math.max(maxEntryId, entryId);
+    }
+
+    @Override
+    public void update(int entryId, LocalDateTime creationTime, String firstName,
+                       String lastName, String email, String title, String description) {
+      removeById(entryId);
+      Author author = authors.resolve(firstName, lastName, email);
+      DiaryEntry entry = EntryFactory.SYSTEM.restore(title, description, author, creationTime);
+      entry.setEntryId(entryId);
+      putTail(entry);
+    }
+
+    @Override
+    public void remove(int entryId) {
+      removeById(entryId);
+    }
+  }
+
+  /**
+   * The position of a tail entry in creation time order, ties broken by id.
+   */
+  private record TailKey(LocalDateTime time, int entryId) implements Comparable<TailKey> {
+    @Override
+    public int compareTo(TailKey other) {
+      int byTime = time.compareTo(other.time);
+      return byTime != 0 ? byTime : Integer.compare(entryId, other.entryId);
+    }
+  }
+
+  /**
+   * An entry that may make a page, either buffered in the tail or identified
+   * by its segment and position, so that only the winners are materialized.
+   */
+  private record Candidate(long epochSecond, int nano, int entryId, DiaryEntry entry,
+                           Segment segment, int position) {
+    static final Comparator<Candidate> NEWEST_FIRST = Comparator
+            .comparingLong(Candidate::epochSecond)
+            .thenComparingInt(Candidate::nano)
+            .thenComparingInt(Candidate::entryId)
+            .reversed();
+
+    static Candidate of(DiaryEntry entry) {
+      LocalDateTime time = entry.getCreationTime();
+      return new Candidate(time.toEpochSecond(ZoneOffset.UTC), time.getNano(),
+              entry.getEntryId(), entry, null, -1);
+    }
+
+    static Candidate of(Segment segment, int position) {
+      return new Candidate(segment.epochSecondAt(position), segment.nanoAt(position),
+              segment.entryIdAt(position), null, segment, position);
+    }
+  }
+
+  private static long sequenceOf(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+            name.length() - SEGMENT_SUFFIX.length()));
+  }
+}
@@ -0,0 +1,721 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.entity.EntryContent;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An immutable, memory-mapped file holding a batch of diary entries.
+ *
+ * <p>The file starts with a fixed header, followed by a fixed-width index with
+ * one record per entry and finally the variable-length text section:
+ * <pre>
+ * header: magic int, version int, flags int, count int,
+ *         minEpochSecond long, maxEpochSecond long, blockTableOffset long
+ * index:  id int, epochSecond long, nano int, authorOrdinal int, textOffset long
+ * text:   titleLength int, title UTF-8, descriptionLength int, description UTF-8
+ * </pre>
+ * Opening a segment copies the index into primitive arrays, so only ids,
+ * timestamps and author ordinals occupy the heap. Titles and descriptions stay
+ * in the mapping and are decoded when an entry's text is first read. Index
+ * records are sorted by entry id. A permutation of the positions in creation
+ * time order is built on the first paging query, so a page is found with a
+ * binary search instead of a scan.
+ * </p>
+ *
+ * <p>When {@link #FLAG_COMPRESSED} is set the text records are grouped into
+ * blocks of about {@value #BLOCK_BYTES} bytes, each compressed with
+ * {@link Deflater}. A text offset then holds the block number in its upper 32
+ * bits and the offset inside the decompressed block in the lower 32 bits, and
+ * the block table at {@code blockTableOffset} lists
+ * {@code fileOffset long, compressedLength int, rawLength int} per block.
+ * Decompressed blocks are kept in a shared {@link BlockCache}.
+ * </p>
+ *
+ * <p>Removed entries are tracked in a {@link BitSet} of positions; the file
+ * itself is never modified after it has been written. The header carries the
+ * range of creation times in the segment so range queries can skip it
+ * entirely, and a sealed flag marking segments that were consolidated from a
+ * closed time partition.
+ * </p>
+ */
+final class Segment {
+  static final int MAGIC = 0x44494152;
+  static final int VERSION = 3;
+  static final int HEADER_BYTES = 40;
+  static final int INDEX_RECORD_BYTES = 28;
+  static final int FLAG_SEALED = 1;
+  static final int FLAG_COMPRESSED = 2;
+  static final int BLOCK_BYTES = 64 * 1024;
+  private static final int BLOCK_TABLE_RECORD_BYTES = 16;
+  private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+  private final long sequence;
+  private final Path file;
+  private final AuthorTable authors;
+  private final BlockCache cache;
+  private final MappedByteBuffer buffer;
+  private final int flags;
+  private final long minEpochSecond;
+  private final long maxEpochSecond;
+  private final int[] entryIds;
+  private final long[] epochSeconds;
+  private final int[] nanos;
+  private final int[] authorOrdinals;
+  private final long[] textOffsets;
+  private final BitSet removed;
+  private int removedCount;
+  private long[] blockOffsets;
+  private int[] blockCompressedLengths;
+  private int[] blockRawLengths;
+  private int[] timeOrder;
+
+  private Segment(long sequence, Path file, AuthorTable authors, BlockCache cache,
+                  MappedByteBuffer buffer, int count) {
+    this.sequence = sequence;
+    this.file = file;
+    this.authors = authors;
+    this.cache = cache;
+    this.buffer = buffer;
+    this.flags = buffer.getInt(8);
+    this.minEpochSecond = buffer.getLong(16);
+    this.maxEpochSecond = buffer.getLong(24);
+    this.entryIds = new int[count];
+    this.epochSeconds = new long[count];
+    this.nanos = new int[count];
+    this.authorOrdinals = new int[count];
+    this.textOffsets = new long[count];
+    this.removed = new BitSet(count);
+  }
+
+  /**
+   * Maps an existing segment file and loads its index.
+   *
+   * @param file the segment file
+   * @param sequence the sequence number of the segment
+   * @param authors the table used to resolve author ordinals
+   * @param cache the cache for decompressed text blocks
+   * @return the opened segment
+   * @throws IOException if the file cannot be read or is not a segment file
+   */
+  static Segment open(Path file, long sequence, AuthorTable authors, BlockCache cache)
+          throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a segment file: " + file);
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IOException("Unsupported segment version in " + file);
+    }
+    int count = buffer.getInt(12);
+
+    Segment segment = new Segment(sequence, file, authors, cache, buffer, count);
+    int position = HEADER_BYTES;
+    for (int i = 0; i < count; i++) {
+      segment.entryIds[i] = buffer.getInt(position);
+      segment.epochSeconds[i] = buffer.getLong(position + 4);
+      segment.nanos[i] = buffer.getInt(position + 12);
+      segment.authorOrdinals[i] = buffer.getInt(position + 16);
+      segment.textOffsets[i] = buffer.getLong(position + 20);
+      position += INDEX_RECORD_BYTES;
+    }
+    if (segment.isCompressed()) {
+      segment.loadBlockTable((int) buffer.getLong(32));
+    }
+    return segment;
+  }
+
+  /**
+   * Writes {@code entries} to a new segment file and maps it.
+   *
+   * <p>The entries must be sorted by id. The file is written to a temporary name
+   * first and moved into place once complete, so a crash never leaves a partial
+   * segment behind.
+   * </p>
+   *
+   * @param file the segment file to create
+   * @param sequence the sequence number of the new segment
+   * @param entries the entries to write, sorted by id
+   * @param authors the table used to assign author ordinals
+   * @param cache the cache for decompressed text blocks
+   * @param flags header flags such as {@link #FLAG_SEALED} and {@link #FLAG_COMPRESSED}
+   * @return the newly written segment
+   * @throws IOException if the file cannot be written
+   */
+  static Segment write(Path file, long sequence, List<DiaryEntry> entries,
+                       AuthorTable authors, BlockCache cache, int flags) throws IOException {
+    int count = entries.size();
+    long minEpochSecond = Long.MAX_VALUE;
+    long maxEpochSecond = Long.MIN_VALUE;
+    for (DiaryEntry entry : entries) {
+      long second = entry.getCreationTime().toEpochSecond(ZoneOffset.UTC);
+      minEpochSecond = Math.min(minEpochSecond, second);
+      maxEpochSecond = Math.max(maxEpochSecond, second);
+    }
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      TextWriter writer = new TextWriter(channel,
+              HEADER_BYTES + (long) count * INDEX_RECORD_BYTES);
+      long[] offsets = (flags & FLAG_COMPRESSED) != 0
+              ? writer.writeCompressed(entries)
+              : writer.writePlain(entries);
+      if (writer.position > Integer.MAX_VALUE) {
+        throw new IOException("Segment exceeds the maximum mappable size: " + file);
+      }
+
+      ByteBuffer out = writer.out;
+      channel.position(0);
+      out.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(count)
+              .putLong(minEpochSecond).putLong(maxEpochSecond).putLong(writer.blockTableOffset);
+      for (int i = 0; i < count; i++) {
+        if (out.remaining() < INDEX_RECORD_BYTES) {
+          drain(channel, out);
+        }
+        DiaryEntry entry = entries.get(i);
+        LocalDateTime time = entry.getCreationTime();
+        out.putInt(entry.getEntryId())
+                .putLong(time.toEpochSecond(ZoneOffset.UTC))
+                .putInt(time.getNano())
+                .putInt(authors.ordinalOf(entry.getAuthor()))
+                .putLong(offsets[i]);
+      }
+      drain(channel, out);
+      channel.force(true);
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return open(file, sequence, authors, cache);
+  }
+
+  /**
+   * Estimates the number of bytes {@code entry} occupies in a segment file.
+   *
+   * @param entry the entry to measure
+   * @return an upper bound on the entry's size in bytes
+   */
+  static long estimateSize(DiaryEntry entry) {
+    return INDEX_RECORD_BYTES + 8L
+            + 3L * (entry.getTitle().length() + entry.getDescription().length());
+  }
+
+  long getSequence() {
+    return sequence;
+  }
+
+  Path getFile() {
+    return file;
+  }
+
+  boolean isSealed() {
+    return (flags & FLAG_SEALED) != 0;
+  }
+
+  boolean isCompressed() {
+    return (flags & FLAG_COMPRESSED) != 0;
+  }
+
+  long getMinEpochSecond() {
+    return minEpochSecond;
+  }
+
+  long getMaxEpochSecond() {
+    return maxEpochSecond;
+  }
+
+  /**
+   * Returns the size of this segment's text before compression.
+   *
+   * @return the raw text size in bytes
+   */
+  long getRawTextBytes() {
+    if (!isCompressed()) {
+      return getStoredTextBytes();
+    }
+    return Arrays.stream(blockRawLengths).asLongStream().sum();
+  }
+
+  /**
+   * Returns the size of this segment's text as stored in the file.
+   *
+   * @return the stored text size in bytes
+   */
+  long getStoredTextBytes() {
+    if (!isCompressed()) {
+      return buffer.limit() - HEADER_BYTES - (long) getCount() * INDEX_RECORD_BYTES;
+    }
+    return Arrays.stream(blockCompressedLengths).asLongStream().sum();
+  }
+
+  /**
+   * Tells whether any entry of this segment may have been created between the
+   * given bounds, using only the header.
+   *
+   * @param fromEpochSecond the inclusive lower bound in UTC epoch seconds
+   * @param toEpochSecond the inclusive upper bound in UTC epoch seconds
+   * @return {@code false} if the segment can be skipped
+   */
+  boolean overlaps(long fromEpochSecond, long toEpochSecond) {
+    return getCount() > 0
+            && minEpochSecond <= toEpochSecond && maxEpochSecond >= fromEpochSecond;
+  }
+
+  int getCount() {
+    return entryIds.length;
+  }
+
+  int getLiveCount() {
+    return entryIds.length - removedCount;
+  }
+
+  int getRemovedCount() {
+    return removedCount;
+  }
+
+  /**
+   * Returns the size of the segment file.
+   *
+   * @return the file size in bytes
+   */
+  long getFileBytes() {
+    return buffer.limit();
+  }
+
+  /**
+   * Returns the id of the record at {@code position}, whether removed or not.
+   *
+   * @param position the record position
+   * @return the entry id stored at the position
+   */
+  int entryIdAt(int position) {
+    return entryIds[position];
+  }
+
+  int getMaxEntryId() {
+    return entryIds.length == 0 ? 0 : entryIds[entryIds.length - 1];
+  }
+
+  BitSet getRemoved() {
+    return removed;
+  }
+
+  /**
+   * Tells whether this segment holds a record with the given id, removed or not.
+   *
+   * @param entryId the id to look for
+   * @return {@code true} if the id was written to this segment
+   */
+  boolean containsId(int entryId) {
+    return Arrays.binarySearch(entryIds, entryId) >= 0;
+  }
+
+  /**
+   * Returns the position of the live entry with the given id.
+   *
+   * @param entryId the id to look for
+   * @return the position of the entry, or {@code -1} if it is absent or removed
+   */
+  int positionOf(int entryId) {
+    int position = Arrays.binarySearch(entryIds, entryId);
+    return position >= 0 && !removed.get(position) ? position : -1;
+  }
+
+  /**
+   * Marks the entry at {@code position} as removed.
+   *
+   * @param position the position of the entry
+   */
+  void markRemoved(int position) {
+    if (!removed.get(position)) {
+      removed.set(position);
+      removedCount++;
+    }
+  }
+
+  /**
+   * Materializes the entry at {@code position}. The returned entry loads its
+   * text from the mapping when it is first read.
+   *
+   * @param position the position of the entry
+   * @return a new entry instance backed by this segment
+   */
+  DiaryEntry entryAt(int position) {
+    LocalDateTime creationTime = LocalDateTime.ofEpochSecond(
+            epochSeconds[position], nanos[position], ZoneOffset.UTC);
+    EntryContent content = isCompressed()
+            ? new BlockContent(textOffsets[position])
+            : new MappedContent(textOffsets[position]);
+    return new DiaryEntry(entryIds[position], authors.get(authorOrdinals[position]),
+            creationTime, content);
+  }
+
+  /**
+   * Returns up to {@code limit} live positions whose records come after the
+   * position ({@code epochSecond}, {@code nano}, {@code entryId}) in
+   * newest-first order, newest first. Only the index arrays are read.
+   *
+   * @param epochSecond the creation time of the cursor in UTC epoch seconds
+   * @param nano the nanosecond part of the cursor's creation time
+   * @param entryId the id of the cursor
+   * @param limit the maximum number of positions
+   * @return the positions, newest first
+   */
+  int[] newestBefore(long epochSecond, int nano, int entryId, int limit) {
+    int[] order = timeOrder();
+    int low = 0;
+    int high = order.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (compareTo(order[middle], epochSecond, nano, entryId) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    int[] positions = new int[Math.min(limit, low)];
+    int found = 0;
+    for (int i = low - 1; i >= 0 && found < positions.length; i--) {
+      if (!removed.get(order[i])) {
+        positions[found++] = order[i];
+      }
+    }
+    return found == positions.length ? positions : Arrays.copyOf(positions, found);
+  }
+
+  /**
+   * Returns the creation time of the record at {@code position} in UTC epoch seconds.
+   *
+   * @param position the record position
+   * @return the epoch second
+   */
+  long epochSecondAt(int position) {
+    return epochSeconds[position];
+  }
+
+  /**
+   * Returns the nanosecond part of the creation time of the record at {@code position}.
+   *
+   * @param position the record position
+   * @return the nanoseconds
+   */
+  int nanoAt(int position) {
+    return nanos[position];
+  }
+
+  private int compareTo(int position, long epochSecond, int nano, int entryId) {
+    int byTime = epochSeconds[position] != epochSecond
+            ? Long.compare(epochSeconds[position], epochSecond)
+            : Integer.compare(nanos[position], nano);
+    return byTime != 0 ? byTime : Integer.compare(entryIds[position], entryId);
+  }
+
+  private synchronized int[] timeOrder() {
+    if (timeOrder == null) {
+      timeOrder = IntStream.range(0, entryIds.length)
+              .boxed()
+              .sorted((a, b) -> compareTo(a, epochSeconds[b], nanos[b], entryIds[b]))
+              .mapToInt(Integer::intValue)
+              .toArray();
+    }
+    return timeOrder;
+  }
+
+  /**
+   * Returns a copy of the removed positions, taken while the caller holds the
+   * store lock, for use with {@link #stream(BitSet)}.
+   *
+   * @return a snapshot of the removed positions
+   */
+  BitSet snapshotRemoved() {
+    return (BitSet) removed.clone();
+  }
+
+  /**
+   * Streams the entries of this segment that are not marked in {@code snapshot}.
+   *
+   * @param snapshot the removed positions as returned by {@link #snapshotRemoved()}
+   * @return a stream of the live entries in id order
+   */
+  Stream<DiaryEntry> stream(BitSet snapshot) {
+    return IntStream.range(0, entryIds.length)
+            .filter(position -> !snapshot.get(position))
+            .mapToObj(this::entryAt);
+  }
+
+  /**
+   * Streams the entries not marked in {@code snapshot} whose creation time lies
+   * between {@code from} and {@code to}, inclusive. Timestamps are compared on
+   * the index arrays, so entries outside the range are never materialized.
+   *
+   * @param snapshot the removed positions as returned by {@link #snapshotRemoved()}
+   * @param from the inclusive lower bound
+   * @param to the inclusive upper bound
+   * @return a stream of the matching live entries in id order
+   */
+  Stream<DiaryEntry> stream(BitSet snapshot, LocalDateTime from, LocalDateTime to) {
+    long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+    long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+    int fromNano = from.getNano();
+    int toNano = to.getNano();
+    return IntStream.range(0, entryIds.length)
+            .filter(position -> !snapshot.get(position))
+            .filter(position -> {
+              long second = epochSeconds[position];
+              int nano = nanos[position];
+              boolean afterFrom = second > fromSecond
+                      || (second == fromSecond && nano >= fromNano);
+              boolean beforeTo = second < toSecond
+                      || (second == toSecond && nano <= toNano);
+              return afterFrom && beforeTo;
+            })
+            .mapToObj(this::entryAt);
+  }
+
+  private void loadBlockTable(int offset) {
+    int blockCount = buffer.getInt(offset);
+    blockOffsets = new long[blockCount];
+    blockCompressedLengths = new int[blockCount];
+    blockRawLengths = new int[blockCount];
+    int position = offset + 4;
+    for (int i = 0; i < blockCount; i++) {
+      blockOffsets[i] = buffer.getLong(position);
+      blockCompressedLengths[i] = buffer.getInt(position + 8);
+      blockRawLengths[i] = buffer.getInt(position + 12);
+      position += BLOCK_TABLE_RECORD_BYTES;
+    }
+  }
+
+  private byte[] block(int block) {
+    return cache.get(sequence, block, () -> inflate(block));
+  }
+
+  private byte[] inflate(int block) {
+    byte[] compressed = new byte[blockCompressedLengths[block]];
+    buffer.get((int) blockOffsets[block], compressed);
+    byte[] raw = new byte[blockRawLengths[block]];
+
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      int length = 0;
+      while (length < raw.length && !inflater.finished()) {
+        int inflated = inflater.inflate(raw, length, raw.length - length);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw corruptBlock(block, null);
+        }
+        length += inflated;
+      }
+      if (length != raw.length) {
+        throw corruptBlock(block, null);
+      }
+      return raw;
+    } catch (DataFormatException e) {
+      throw corruptBlock(block, e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private UncheckedIOException corruptBlock(int block, DataFormatException cause) {
+    return new UncheckedIOException(
+            new IOException("Corrupt text block " + block + " in " + file, cause));
+  }
+
+  private static String readString(ByteBuffer source, int offset) {
+    int length = source.getInt(offset);
+    byte[] bytes = new byte[length];
+    source.get(offset + 4, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void drain(FileChannel channel, ByteBuffer out) throws IOException {
+    out.flip();
+    while (out.hasRemaining()) {
+      channel.write(out);
+    }
+    out.clear();
+  }
+
+  /**
+   * Writes the text section of a new segment and, for compressed segments, the
+   * block table that follows it.
+   */
+  private static final class TextWriter {
+    private final FileChannel channel;
+    private final ByteBuffer out;
+    private long position;
+    private long blockTableOffset;
+
+    private TextWriter(FileChannel channel, long position) throws IOException {
+      this.channel = channel;
+      this.out = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+      this.position = position;
+      this.blockTableOffset = 0;
+      channel.position(position);
+    }
+
+    private long[] writePlain(List<DiaryEntry> entries) throws IOException {
+      long[] offsets = new long[entries.size()];
+      for (int i = 0; i < entries.size(); i++) {
+        byte[] title = entries.get(i).getTitle().getBytes(StandardCharsets.UTF_8);
+        byte[] description = entries.get(i).getDescription().getBytes(StandardCharsets.UTF_8);
+        offsets[i] = position;
+        putInt(title.length);
+        putBytes(title);
+        putInt(description.length);
+        putBytes(description);
+      }
+      drain(channel, out);
+      return offsets;
+    }
+
+    private long[] writeCompressed(List<DiaryEntry> entries) throws IOException {
+      long[] offsets = new long[entries.size()];
+      ByteBuffer raw = ByteBuffer.allocate(BLOCK_BYTES);
+      ByteArrayOutputStream table = new ByteArrayOutputStream();
+      Deflater deflater = new Deflater();
+      int block = 0;
+
+      try {
+        for (int i = 0; i < entries.size(); i++) {
+          byte[] title = entries.get(i).getTitle().getBytes(StandardCharsets.UTF_8);
+          byte[] description = entries.get(i).getDescription().getBytes(StandardCharsets.UTF_8);
+          int size = 8 + title.length + description.length;
+          if (raw.position() > 0 && raw.remaining() < size) {
+            writeBlock(raw, deflater, table);
+            raw = raw.capacity() == BLOCK_BYTES ? raw.clear() : ByteBuffer.allocate(BLOCK_BYTES);
+            block++;
+          }
+          if (raw.remaining() < size) {
+            raw = ByteBuffer.allocate(size);
+          }
+          offsets[i] = ((long) block << 32) | raw.position();
+          raw.putInt(title.length).put(title).putInt(description.length).put(description);
+        }
+        if (raw.position() > 0) {
+          writeBlock(raw, deflater, table);
+          block++;
+        }
+      } finally {
+        deflater.end();
+      }
+
+      blockTableOffset = position;
+      putInt(block);
+      putBytes(table.toByteArray());
+      drain(channel, out);
+      return offsets;
+    }
+
+    private void writeBlock(ByteBuffer raw, Deflater deflater, ByteArrayOutputStream table)
+            throws IOException {
+      int rawLength = raw.position();
+      deflater.reset();
+      deflater.setInput(raw.array(), 0, rawLength);
+      deflater.finish();
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(rawLength / 2 + 64);
+      byte[] chunk = new byte[8192];
+      while (!deflater.finished()) {
+        int length = deflater.deflate(chunk);
+        compressed.write(chunk, 0, length);
+      }
+
+      ByteBuffer record = ByteBuffer.allocate(BLOCK_TABLE_RECORD_BYTES)
+              .putLong(position).putInt(compressed.size()).putInt(rawLength);
+      table.write(record.array(), 0, BLOCK_TABLE_RECORD_BYTES);
+      putBytes(compressed.toByteArray());
+    }
+
+    private void putInt(int value) throws IOException {
+      if (out.remaining() < 4) {
+        drain(channel, out);
+      }
+      out.putInt(value);
+      position += 4;
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+      if (out.remaining() < bytes.length) {
+        drain(channel, out);
+      }
+      if (out.remaining() < bytes.length) {
+        ByteBuffer large = ByteBuffer.wrap(bytes);
+        while (large.hasRemaining()) {
+          channel.write(large);
+        }
+      } else {
+        out.put(bytes);
+      }
+      position += bytes.length;
+    }
+  }
+
+  /**
+   * Reads the title and description of one record directly from the mapping.
+   */
+  private final class MappedContent implements EntryContent {
+    private final int offset;
+
+    private MappedContent(long offset) {
+      this.offset = (int) offset;
+    }
+
+    @Override
+    public String loadTitle() {
+      return readString(buffer, offset);
+    }
+
+    @Override
+    public String loadDescription() {
+      return readString(buffer, offset + 4 + buffer.getInt(offset));
+    }
+  }
+
+  /**
+   * Reads the title and description of one record from its decompressed block.
+   */
+  private final class BlockContent implements EntryContent {
+    private final int block;
+    private final int offset;
+
+    private BlockContent(long offset) {
+      this.block = (int) (offset >>> 32);
+      this.offset = (int) offset;
+    }
+
+    @Override
+    public String loadTitle() {
+      return readString(ByteBuffer.wrap(block(block)), offset);
+    }
+
+    @Override
+    public String loadDescription() {
+      ByteBuffer source = ByteBuffer.wrap(block(block));
+      return readString(source, offset + 4 + source.getInt(offset));
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+
+/**
+ * Granularity used by {@link MappedEntryStore} to split entries into
+ * time-partitioned segments.
+ *
+ * <p>Every segment holds entries from a single partition, so range queries can
+ * skip whole segments and partitions that lie in the past can be sealed.
+ * </p>
+ */
+public enum SegmentPartitioning {
+  DAY,
+  WEEK,
+  MONTH,
+  YEAR;
+
+  /**
+   * Returns a key identifying the partition that {@code time} belongs to. Keys
+   * increase with time.
+   *
+   * @param time the timestamp to classify
+   * @return the partition key
+   */
+  public long partitionOf(LocalDateTime time) {
+    return switch (this) {
+      case DAY -> time.toLocalDate().toEpochDay();
+      case WEEK -> time.get(IsoFields.WEEK_BASED_YEAR) * 53L
+              + time.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+      case MONTH -> time.getYear() * 12L + time.getMonthValue() - 1;
+      case YEAR -> time.getYear();
+    };
+  }
+}
@@ -0,0 +1,41 @@
+package edu.ntnu.idi.idatt.model.storage;
+
+/**
+ * A snapshot of size and decoding figures for a {@link MappedEntryStore}.
+ *
+ * @param segments the number of segment files
+ * @param compressedSegments the number of segments whose text is block compressed
+ * @param rawTextBytes the size of all entry text before compression
+ * @param storedTextBytes the size of all entry text as stored on disk
+ * @param cacheHits the number of text block reads served from the block cache
+ * @param cacheMisses the number of text blocks that had to be decompressed
+ * @param decodedBytes the number of bytes produced by decompression
+ * @param decodeNanos the time spent decompressing, in nanoseconds
+ * @param lastCompaction the report of the most recent compaction, or {@code null}
+ * @param lastCompactionFailure the error of the most recent automatic
+ *                              compaction, or {@code null} if it succeeded
+ */
+public record StorageStatistics(int segments, int compressedSegments,
+                                long rawTextBytes, long storedTextBytes,
+                                long cacheHits, long cacheMisses,
+                                long decodedBytes, long decodeNanos,
+                                CompactionReport lastCompaction,
+                                String lastCompactionFailure) {
+  /**
+   * Returns the ratio of raw to stored text size; {@code 1.0} means no saving.
+   *
+   * @return the compression ratio, or {@code 1.0} if nothing is stored
+   */
+  public double compressionRatio() {
+    return storedTextBytes == 0 ? 1.0 : (double) rawTextBytes / storedTextBytes;
+  }
+
+  /**
+   * Returns the decompression throughput in megabytes of output per second.
+   *
+   * @return the decode throughput, or {@code 0.0} if nothing has been decoded
+   */
+  public double decodeThroughputMbPerSecond() {
+    return decodeNanos == 0 ? 0.0 : decodedBytes / 1e6 / (decodeNanos / 1e9);
+  }
+}
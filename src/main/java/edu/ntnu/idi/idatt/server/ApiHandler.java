@@ -0,0 +1,43 @@
+package edu.ntnu.idi.idatt.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.IOException;
+import java.time.DateTimeException;
+
+/**
+ * Base class for the API handlers that maps exceptions to HTTP status codes.
+ *
+ * <p>Invalid input reported as {@link IllegalArgumentException} or
+ * {@link DateTimeException} becomes {@code 400 Bad Request}; a store that can
+ * no longer accept writes ({@link IllegalStateException}) becomes
+ * {@code 503 Service Unavailable}; anything else becomes
+ * {@code 500 Internal Server Error}.
+ * </p>
+ */
+abstract class ApiHandler implements HttpHandler {
+  @Override
+  public final void handle(HttpExchange exchange) throws IOException {
+    try {
+      route(exchange, exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+    } catch (IllegalArgumentException | DateTimeException e) {
+      HttpExchanges.sendError(exchange, 400, e.getMessage());
+    } catch (IllegalStateException e) {
+      HttpExchanges.sendError(exchange, 503, e.getMessage());
+    } catch (RuntimeException e) {
+      HttpExchanges.sendError(exchange, 500, e.toString());
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Handles one request.
+   *
+   * @param exchange the exchange to respond to
+   * @param method the request method
+   * @param path the decoded request path
+   * @throws IOException if the response cannot be written
+   */
+  abstract void route(HttpExchange exchange, String method, String path) throws IOException;
+}
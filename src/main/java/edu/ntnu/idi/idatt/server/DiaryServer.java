@@ -0,0 +1,108 @@
+package edu.ntnu.idi.idatt.server;
+
+import com.sun.net.httpserver.HttpServer;
+import edu.ntnu.idi.idatt.model.register.AuthorRegister;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.util.Validators;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded HTTP server exposing a {@link DiaryRegister} and
+ * {@link AuthorRegister} as a JSON API.
+ *
+ * <p>The server uses the JDK's {@code com.sun.net.httpserver} and runs every
+ * request on its own virtual thread, so thousands of concurrent requests only
+ * cost a few carrier threads. The registers are safe for concurrent use, so
+ * handlers call them directly.
+ * </p>
+ *
+ * <p>Resources:
+ * <ul>
+ *   <li>{@code /entries}: list, create, read, delete and search entries
+ *   (see {@link EntriesHandler}).</li>
+ *   <li>{@code /statistics}: entry counts per author.</li>
+ * </ul>
+ * </p>
+ */
+public final class DiaryServer implements Closeable {
+  private static final int BACKLOG = 4096;
+  private static final int STOP_DELAY_SECONDS = 1;
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final CountDownLatch stopped;
+
+  private DiaryServer(HttpServer server, ExecutorService executor) {
+    this.server = server;
+    this.executor = executor;
+    this.stopped = new CountDownLatch(1);
+  }
+
+  /**
+   * Starts a server on {@code address}.
+   *
+   * @param address the address to bind; port 0 picks a free port
+   * @param diaryRegister the register holding the entries
+   * @param authorRegister the register holding the authors
+   * @return the running server
+   * @throws IOException if the address cannot be bound
+   * @throws IllegalArgumentException if any argument is null
+   */
+  public static DiaryServer start(InetSocketAddress address, DiaryRegister diaryRegister,
+                                  AuthorRegister authorRegister) throws IOException {
+    Validators.validateNotNull(address, "Address");
+    Validators.validateNotNull(diaryRegister, "Diary register");
+    Validators.validateNotNull(authorRegister, "Author register");
+
+    HttpServer server = HttpServer.create(address, BACKLOG);
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    server.setExecutor(executor);
+    server.createContext(EntriesHandler.PATH, new EntriesHandler(diaryRegister, authorRegister));
+    server.createContext(StatisticsHandler.PATH, new StatisticsHandler(diaryRegister));
+    server.start();
+    return new DiaryServer(server, executor);
+  }
+
+  /**
+   * Returns the port the server listens on.
+   *
+   * @return the bound port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Blocks until the server has been closed.
+   *
+   * @throws InterruptedException if the waiting thread is interrupted
+   */
+  public void awaitTermination() throws InterruptedException {
+    stopped.await();
+  }
+
+  /**
+   * Stops accepting requests, gives running requests a moment to finish and
+   * releases the request threads. Calling this more than once has no effect.
+   */
+  @Override
+  public void close() {
+    if (stopped.getCount() == 0) {
+      return;
+    }
+    server.stop(STOP_DELAY_SECONDS);
+    executor.shutdown();
+    try {
+      executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    stopped.countDown();
+  }
+}
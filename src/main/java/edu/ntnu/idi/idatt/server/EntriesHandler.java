@@ -0,0 +1,361 @@
+package edu.ntnu.idi.idatt.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.io.DiaryJson;
+import edu.ntnu.idi.idatt.model.register.AuthorRegister;
+import edu.ntnu.idi.idatt.model.register.BatchOperation;
+import edu.ntnu.idi.idatt.model.register.BatchResult;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.model.register.PageCursor;
+import edu.ntnu.idi.idatt.util.Json;
+import edu.ntnu.idi.idatt.util.Validators;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Handles the {@code /entries} resource.
+ *
+ * <ul>
+ *   <li>{@code GET /entries} lists all entries, newest first.</li>
+ *   <li>{@code POST /entries} creates an entry from a JSON object with
+ *   {@code title}, {@code description}, {@code email} and, for authors not yet
+ *   registered, {@code firstName} and {@code lastName}. An optional
+ *   {@code creationTime} in ISO-8601 format overrides the current time.</li>
+ *   <li>{@code GET /entries/{id}} returns a single entry.</li>
+ *   <li>{@code DELETE /entries/{id}} removes an entry.</li>
+ *   <li>{@code GET /entries/search} searches by exactly one of {@code keyword},
+ *   {@code author}, {@code date}, or {@code from} together with {@code to}, and
+ *   lists the matches newest first.</li>
+ *   <li>{@code POST /entries/batch} applies many changes in one call. The body
+ *   holds one JSON object per line: a create has {@code "op":"create"} and the
+ *   fields of {@code POST /entries}, a delete has {@code "op":"delete"} and
+ *   {@code id}. The response is an array with one result per line. A batch
+ *   holds at most {@value #MAX_BATCH_OPERATIONS} lines, each no longer than a
+ *   {@code POST /entries} body, and new authors are only registered once the
+ *   whole batch has been read.</li>
+ * </ul>
+ *
+ * <p>Adding {@code stream=true} to a list or search request streams the
+ * result with chunked transfer encoding instead of building it in memory
+ * (see {@link JsonArrayStream}). Streamed results are read from the register
+ * one page at a time, newest first, and the register's lock is released
+ * before each page is written, so a slow client never holds up writers.
+ * Changes made while a response is streamed may be missing from it.
+ * </p>
+ */
+class EntriesHandler extends ApiHandler {
+  static final String PATH = "/entries";
+  static final int MAX_BATCH_OPERATIONS = 100_000;
+  static final long MAX_BATCH_BYTES = 64L << 20;
+  static final int MAX_BATCH_LINE_CHARS = HttpExchanges.MAX_BODY_BYTES;
+  static final int STREAM_PAGE_SIZE = 256;
+  private static final Comparator<DiaryEntry> NEWEST_FIRST =
+          Comparator.comparing(DiaryEntry::getCreationTime)
+                  .thenComparingInt(DiaryEntry::getEntryId)
+                  .reversed();
+
+  private final DiaryRegister diaryRegister;
+  private final AuthorRegister authorRegister;
+
+  EntriesHandler(DiaryRegister diaryRegister, AuthorRegister authorRegister) {
+    this.diaryRegister = diaryRegister;
+    this.authorRegister = authorRegister;
+  }
+
+  @Override
+  void route(HttpExchange exchange, String method, String path) throws IOException {
+    String rest = path.substring(PATH.length());
+    if (rest.isEmpty() || rest.equals("/")) {
+      switch (method) {
+        case "GET" -> {
+          if (isStreaming(exchange)) {
+            stream(exchange, PageCursor.FIRST, null, entry -> true);
+          } else {
+            sendEntries(exchange, diaryRegister.getAllEntries());
+          }
+        }
+        case "POST" -> create(exchange);
+        default -> HttpExchanges.sendError(exchange, 405, "Use GET or POST");
+      }
+    } else if (rest.equals("/batch")) {
+      if ("POST".equals(method)) {
+        batch(exchange);
+      } else {
+        HttpExchanges.sendError(exchange, 405, "Use POST");
+      }
+    } else if (rest.equals("/search")) {
+      if ("GET".equals(method)) {
+        search(exchange);
+      } else {
+        HttpExchanges.sendError(exchange, 405, "Use GET");
+      }
+    } else {
+      int entryId = Integer.parseInt(rest.substring(1));
+      DiaryEntry entry = diaryRegister.getEntryById(entryId);
+      if (entry == null) {
+        HttpExchanges.sendError(exchange, 404, "No entry with id " + entryId);
+        return;
+      }
+      switch (method) {
+        case "GET" -> sendEntry(exchange, 200, entry);
+        case "DELETE" -> {
+          diaryRegister.removeEntry(entry);
+          HttpExchanges.sendEmpty(exchange, 204);
+        }
+        default -> HttpExchanges.sendError(exchange, 405, "Use GET or DELETE");
+      }
+    }
+  }
+
+  private void create(HttpExchange exchange) throws IOException {
+    DiaryEntry entry = toEntry(Json.parseObject(HttpExchanges.readBody(exchange)));
+    diaryRegister.addEntry(entry);
+    sendEntry(exchange, 201, entry);
+  }
+
+  private void batch(HttpExchange exchange) throws IOException {
+    List<Supplier<BatchOperation>> parsed = new ArrayList<>();
+    List<String> lineErrors = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            HttpExchanges.limitedBody(exchange, MAX_BATCH_BYTES), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = readLine(reader)) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        if (lineErrors.size() == MAX_BATCH_OPERATIONS) {
+          throw new IllegalArgumentException(
+                  "A batch holds at most " + MAX_BATCH_OPERATIONS + " operations");
+        }
+        try {
+          parsed.add(toOperation(Json.parseObject(line)));
+          lineErrors.add(null);
+        } catch (IllegalArgumentException | DateTimeException e) {
+          lineErrors.add(e.getMessage() == null ? "Invalid operation" : e.getMessage());
+        }
+      }
+    }
+
+    List<BatchOperation> operations = new ArrayList<>(parsed.size());
+    for (Supplier<BatchOperation> operation : parsed) {
+      operations.add(operation.get());
+    }
+    Iterator<BatchResult> results = diaryRegister.applyBatch(operations).iterator();
+
+    StringBuilder json = new StringBuilder(32 + lineErrors.size() * 32).append('[');
+    for (int i = 0; i < lineErrors.size(); i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      BatchResult result = lineErrors.get(i) == null
+              ? results.next()
+              : BatchResult.rejected(0, lineErrors.get(i));
+      json.append("{\"applied\":").append(result.applied())
+              .append(",\"id\":").append(result.entryId());
+      if (result.error() != null) {
+        json.append(",\"error\":");
+        Json.appendQuoted(json, result.error());
+      }
+      json.append('}');
+    }
+    HttpExchanges.sendJson(exchange, 200, json.append(']'));
+  }
+
+  /**
+   * Reads one line of at most {@link #MAX_BATCH_LINE_CHARS} characters.
+   */
+  private static String readLine(BufferedReader reader) throws IOException {
+    StringBuilder line = new StringBuilder();
+    int next;
+    while ((next = reader.read()) >= 0 && next != '\n') {
+      if (line.length() == MAX_BATCH_LINE_CHARS) {
+        throw new IllegalArgumentException(
+                "A batch line holds at most " + MAX_BATCH_LINE_CHARS + " characters");
+      }
+      line.append((char) next);
+    }
+    if (next < 0 && line.isEmpty()) {
+      return null;
+    }
+    int end = line.length();
+    return end > 0 && line.charAt(end - 1) == '\r' ? line.substring(0, end - 1) : line.toString();
+  }
+
+  /**
+   * Validates one batch line and returns the operation it describes. The
+   * operation is built by the returned supplier, so an author new to the
+   * register is not registered until the whole batch has been validated.
+   */
+  private Supplier<BatchOperation> toOperation(Map<String, String> fields) {
+    String op = fields.get("op");
+    if ("create".equals(op)) {
+      String email = fields.get("email");
+      LocalDateTime creationTime = parseCreationTime(fields);
+      Author known = authorRegister.getAuthorByEmail(email);
+      DiaryEntry checked = toEntry(fields, known != null
+              ? known
+              : new Author(fields.get("firstName"), fields.get("lastName"), email),
+              creationTime);
+      if (known != null) {
+        return () -> BatchOperation.create(checked);
+      }
+      return () -> BatchOperation.create(toEntry(fields, authorRegister.resolveAuthor(
+              fields.get("firstName"), fields.get("lastName"), email), creationTime));
+    }
+    if ("delete".equals(op)) {
+      String id = fields.get("id");
+      if (id == null) {
+        throw new IllegalArgumentException("A delete needs an id");
+      }
+      BatchOperation delete = BatchOperation.delete(Integer.parseInt(id));
+      return () -> delete;
+    }
+    throw new IllegalArgumentException("Unknown op " + op + ", use create or delete");
+  }
+
+  private DiaryEntry toEntry(Map<String, String> fields) {
+    Author author = authorRegister.resolveAuthor(
+            fields.get("firstName"), fields.get("lastName"), fields.get("email"));
+    return toEntry(fields, author, parseCreationTime(fields));
+  }
+
+  private static DiaryEntry toEntry(Map<String, String> fields, Author author,
+                                    LocalDateTime creationTime) {
+    return creationTime == null
+            ? new DiaryEntry(fields.get("title"), fields.get("description"), author)
+            : new DiaryEntry(fields.get("title"), fields.get("description"), author,
+                    creationTime);
+  }
+
+  private static LocalDateTime parseCreationTime(Map<String, String> fields) {
+    String creationTime = fields.get("creationTime");
+    return creationTime == null ? null : LocalDateTime.parse(creationTime);
+  }
+
+  private void search(HttpExchange exchange) throws IOException {
+    Map<String, String> query = HttpExchanges.queryParameters(exchange);
+    if (isStreaming(exchange)) {
+      streamSearch(exchange, query);
+      return;
+    }
+    List<DiaryEntry> results;
+    if (query.containsKey("keyword")) {
+      results = diaryRegister.searchByKeyword(query.get("keyword"));
+    } else if (query.containsKey("author")) {
+      results = diaryRegister.getEntriesByAuthor(query.get("author"));
+    } else if (query.containsKey("date")) {
+      results = diaryRegister.getEntriesByDate(LocalDate.parse(query.get("date")));
+    } else if (query.containsKey("from") && query.containsKey("to")) {
+      results = diaryRegister.searchEntriesBetweenDates(
+              LocalDate.parse(query.get("from")), LocalDate.parse(query.get("to")));
+    } else {
+      throw new IllegalArgumentException("Search needs keyword, author, date or from and to");
+    }
+    sendEntries(exchange, results.stream().sorted(NEWEST_FIRST).toList());
+  }
+
+  private void streamSearch(HttpExchange exchange, Map<String, String> query)
+          throws IOException {
+    if (query.containsKey("keyword")) {
+      String keyword = query.get("keyword").toLowerCase();
+      stream(exchange, PageCursor.FIRST, null,
+              entry -> entry.getDescription().toLowerCase().contains(keyword)
+                      || entry.getTitle().toLowerCase().contains(keyword));
+    } else if (query.containsKey("author")) {
+      String email = query.get("author");
+      Validators.validateString(email, "Email");
+      stream(exchange, PageCursor.FIRST, null,
+              entry -> entry.getAuthor().getEmail().equalsIgnoreCase(email));
+    } else if (query.containsKey("date")) {
+      LocalDate date = LocalDate.parse(query.get("date"));
+      stream(exchange, PageCursor.onOrBefore(date), date.atStartOfDay(), entry -> true);
+    } else if (query.containsKey("from") && query.containsKey("to")) {
+      LocalDate from = LocalDate.parse(query.get("from"));
+      LocalDate to = LocalDate.parse(query.get("to"));
+      if (from.isAfter(to)) {
+        throw new IllegalArgumentException("From must be before to");
+      }
+      stream(exchange, PageCursor.onOrBefore(to), from.atStartOfDay(), entry -> true);
+    } else {
+      throw new IllegalArgumentException("Search needs keyword, author, date or from and to");
+    }
+  }
+
+  private static boolean isStreaming(HttpExchange exchange) {
+    return "true".equals(HttpExchanges.queryParameters(exchange).get("stream"));
+  }
+
+  /**
+   * Streams the entries matching {@code filter}, newest first, from
+   * {@code start} down to {@code oldest}. Each page is fetched under the
+   * register's read lock and written after the lock is released.
+   *
+   * @param oldest the earliest creation time to include, or {@code null} for no limit
+   */
+  private void stream(HttpExchange exchange, PageCursor start, LocalDateTime oldest,
+                      Predicate<DiaryEntry> filter) throws IOException {
+    JsonArrayStream out = JsonArrayStream.open(exchange);
+    try {
+      List<DiaryEntry> page = diaryRegister.getEntriesPage(start, STREAM_PAGE_SIZE);
+      while (!page.isEmpty() && writePage(out, page, oldest, filter)) {
+        page = diaryRegister.getEntriesPage(
+                PageCursor.after(page.get(page.size() - 1)), STREAM_PAGE_SIZE);
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    out.finish();
+  }
+
+  /**
+   * Writes the entries of {@code page} that match {@code filter}.
+   *
+   * @return whether later pages may still hold entries to write
+   */
+  private static boolean writePage(JsonArrayStream out, List<DiaryEntry> page,
+                                   LocalDateTime oldest, Predicate<DiaryEntry> filter) {
+    for (DiaryEntry entry : page) {
+      if (oldest != null && entry.getCreationTime().isBefore(oldest)) {
+        return false;
+      }
+      if (filter.test(entry)) {
+        out.accept(entry);
+      }
+    }
+    return true;
+  }
+
+  private static void sendEntry(HttpExchange exchange, int status, DiaryEntry entry)
+          throws IOException {
+    StringBuilder json = new StringBuilder(256);
+    DiaryJson.appendEntry(json, entry);
+    HttpExchanges.sendJson(exchange, status, json);
+  }
+
+  private static void sendEntries(HttpExchange exchange, List<DiaryEntry> entries)
+          throws IOException {
+    StringBuilder json = new StringBuilder(64 + entries.size() * 256).append('[');
+    for (int i = 0; i < entries.size(); i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      DiaryJson.appendEntry(json, entries.get(i));
+    }
+    HttpExchanges.sendJson(exchange, 200, json.append(']'));
+  }
+}
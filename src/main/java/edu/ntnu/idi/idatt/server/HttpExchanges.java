@@ -0,0 +1,145 @@
+package edu.ntnu.idi.idatt.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.ntnu.idi.idatt.util.Json;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Helpers shared by the HTTP handlers for reading requests and writing JSON
+ * responses.
+ */
+final class HttpExchanges {
+  static final int MAX_BODY_BYTES = 1 << 20;
+
+  private HttpExchanges() {
+  }
+
+  /**
+   * Reads the request body as UTF-8 text.
+   *
+   * @param exchange the exchange to read from
+   * @return the body text
+   * @throws IOException if the body cannot be read
+   * @throws IllegalArgumentException if the body exceeds {@link #MAX_BODY_BYTES}
+   */
+  static String readBody(HttpExchange exchange) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+      if (body.length > MAX_BODY_BYTES) {
+        throw new IllegalArgumentException("Request body is too large");
+      }
+      return new String(body, StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Returns the request body as a stream that fails once more than
+   * {@code maxBytes} bytes have been read from it.
+   *
+   * @param exchange the exchange to read from
+   * @param maxBytes the largest body accepted
+   * @return the limited body stream
+   */
+  static InputStream limitedBody(HttpExchange exchange, long maxBytes) {
+    return new FilterInputStream(exchange.getRequestBody()) {
+      private long remaining = maxBytes;
+
+      @Override
+      public int read() throws IOException {
+        int next = super.read();
+        if (next >= 0) {
+          consume(1);
+        }
+        return next;
+      }
+
+      @Override
+      public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+          consume(read);
+        }
+        return read;
+      }
+
+      private void consume(int count) {
+        remaining -= count;
+        if (remaining < 0) {
+          throw new IllegalArgumentException("Request body is too large");
+        }
+      }
+    };
+  }
+
+  /**
+   * Decodes the query string of the request URI.
+   *
+   * @param exchange the exchange whose query to decode
+   * @return the parameters; the last value wins for repeated names
+   */
+  static Map<String, String> queryParameters(HttpExchange exchange) {
+    Map<String, String> parameters = new HashMap<>();
+    String query = exchange.getRequestURI().getRawQuery();
+    if (query == null || query.isEmpty()) {
+      return parameters;
+    }
+    for (String pair : query.split("&")) {
+      int separator = pair.indexOf('=');
+      String name = separator < 0 ? pair : pair.substring(0, separator);
+      String value = separator < 0 ? "" : pair.substring(separator + 1);
+      parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+              URLDecoder.decode(value, StandardCharsets.UTF_8));
+    }
+    return parameters;
+  }
+
+  /**
+   * Sends a complete JSON response.
+   *
+   * @param exchange the exchange to respond to
+   * @param status the HTTP status code
+   * @param json the response body
+   * @throws IOException if the response cannot be written
+   */
+  static void sendJson(HttpExchange exchange, int status, CharSequence json) throws IOException {
+    byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  /**
+   * Sends a response without a body.
+   *
+   * @param exchange the exchange to respond to
+   * @param status the HTTP status code
+   * @throws IOException if the response cannot be written
+   */
+  static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+    exchange.sendResponseHeaders(status, -1);
+    exchange.close();
+  }
+
+  /**
+   * Sends a JSON object of the form {@code {"error": message}}.
+   *
+   * @param exchange the exchange to respond to
+   * @param status the HTTP status code
+   * @param message the error message
+   * @throws IOException if the response cannot be written
+   */
+  static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+    StringBuilder json = new StringBuilder("{\"error\":");
+    Json.appendQuoted(json, message == null ? "Unknown error" : message);
+    sendJson(exchange, status, json.append('}'));
+  }
+}
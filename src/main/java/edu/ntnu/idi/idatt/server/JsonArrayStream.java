@@ -0,0 +1,86 @@
+package edu.ntnu.idi.idatt.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.io.DiaryJson;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Writes entries to a response as a JSON array using chunked transfer
+ * encoding, one entry at a time.
+ *
+ * <p>The response headers and the opening bracket are sent before the first
+ * entry is produced, and entries are encoded through a single reusable
+ * buffer, so both the time to first byte and the memory used are independent
+ * of the number of entries. Write the entries with {@link #accept(DiaryEntry)}
+ * without holding the register's lock, since a slow client blocks the
+ * writes, and call {@link #finish()} afterwards.
+ * </p>
+ */
+final class JsonArrayStream implements Consumer<DiaryEntry> {
+  private static final int WRITE_BUFFER_CHARS = 16 * 1024;
+
+  private final Writer writer;
+  private final StringBuilder entryJson;
+  private boolean first;
+
+  private JsonArrayStream(Writer writer) {
+    this.writer = writer;
+    this.entryJson = new StringBuilder(512);
+    this.first = true;
+  }
+
+  /**
+   * Sends the response headers and opens the JSON array.
+   *
+   * @param exchange the exchange to respond to
+   * @return the stream to write entries to
+   * @throws IOException if the headers cannot be sent
+   */
+  static JsonArrayStream open(HttpExchange exchange) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(200, 0);
+    Writer writer = new BufferedWriter(new OutputStreamWriter(
+            exchange.getResponseBody(), StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+    writer.write('[');
+    writer.flush();
+    return new JsonArrayStream(writer);
+  }
+
+  /**
+   * Writes one entry.
+   *
+   * @param entry the entry to write
+   * @throws UncheckedIOException if the client can no longer be written to
+   */
+  @Override
+  public void accept(DiaryEntry entry) {
+    entryJson.setLength(0);
+    if (!first) {
+      entryJson.append(',');
+    }
+    first = false;
+    DiaryJson.appendEntry(entryJson, entry);
+    try {
+      writer.append(entryJson);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Closes the JSON array and ends the response.
+   *
+   * @throws IOException if the response cannot be written
+   */
+  void finish() throws IOException {
+    writer.write(']');
+    writer.close();
+  }
+}
@@ -0,0 +1,33 @@
+package edu.ntnu.idi.idatt.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.ntnu.idi.idatt.model.io.DiaryJson;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Handles {@code GET /statistics}, which returns the total number of entries
+ * and the number of entries per author email.
+ */
+class StatisticsHandler extends ApiHandler {
+  static final String PATH = "/statistics";
+
+  private final DiaryRegister diaryRegister;
+
+  StatisticsHandler(DiaryRegister diaryRegister) {
+    this.diaryRegister = diaryRegister;
+  }
+
+  @Override
+  void route(HttpExchange exchange, String method, String path) throws IOException {
+    if (!"GET".equals(method)) {
+      HttpExchanges.sendError(exchange, 405, "Use GET");
+      return;
+    }
+    Map<String, Long> statistics = diaryRegister.getAuthorStatistics();
+    StringBuilder json = new StringBuilder(64 + statistics.size() * 48);
+    DiaryJson.appendStatistics(json, diaryRegister.getEntryCount(), statistics);
+    HttpExchanges.sendJson(exchange, 200, json);
+  }
+}
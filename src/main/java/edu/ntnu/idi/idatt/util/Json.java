@@ -0,0 +1,192 @@
+package edu.ntnu.idi.idatt.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal JSON helpers for the flat objects exchanged by the application.
+ *
+ * <p>Only objects whose values are strings, numbers, booleans or {@code null}
+ * are supported; nested objects and arrays are rejected. Parsing failures are
+ * signaled by throwing {@link IllegalArgumentException} with a short
+ * description of the problem.
+ * </p>
+ */
+public class Json {
+  private Json() {
+  }
+
+  /**
+   * Appends {@code value} to {@code builder} as a quoted JSON string literal.
+   *
+   * @param builder the builder to append to
+   * @param value the string to quote; must be non-null
+   */
+  public static void appendQuoted(StringBuilder builder, String value) {
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> builder.append("\\\"");
+        case '\\' -> builder.append("\\\\");
+        case '\n' -> builder.append("\\n");
+        case '\r' -> builder.append("\\r");
+        case '\t' -> builder.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            builder.append(String.format("\\u%04x", (int) c));
+          } else {
+            builder.append(c);
+          }
+        }
+      }
+    }
+    builder.append('"');
+  }
+
+  /**
+   * Parses a flat JSON object into a map from keys to their values as text.
+   *
+   * <p>Numbers and booleans are returned as their literal text and {@code null}
+   * as a {@code null} value. Key order is preserved.
+   * </p>
+   *
+   * @param json the JSON text; must be non-null
+   * @return the parsed key-value pairs
+   * @throws IllegalArgumentException if {@code json} is not a flat JSON object
+   */
+  public static Map<String, String> parseObject(String json) {
+    Validators.validateNotNull(json, "JSON");
+    Parser parser = new Parser(json);
+    Map<String, String> values = parser.parseObject();
+    parser.skipWhitespace();
+    if (!parser.atEnd()) {
+      throw new IllegalArgumentException("Unexpected text after JSON object");
+    }
+    return values;
+  }
+
+  /**
+   * Recursive-descent parser over a single JSON text.
+   */
+  private static final class Parser {
+    private final String text;
+    private int position;
+
+    private Parser(String text) {
+      this.text = text;
+      this.position = 0;
+    }
+
+    private Map<String, String> parseObject() {
+      Map<String, String> values = new LinkedHashMap<>();
+      expect('{');
+      skipWhitespace();
+      if (peek() == '}') {
+        position++;
+        return values;
+      }
+      while (true) {
+        skipWhitespace();
+        String key = parseString();
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+        values.put(key, parseValue());
+        skipWhitespace();
+        char next = next();
+        if (next == '}') {
+          return values;
+        }
+        if (next != ',') {
+          throw new IllegalArgumentException("Expected ',' or '}' at position " + (position - 1));
+        }
+      }
+    }
+
+    private String parseValue() {
+      char c = peek();
+      if (c == '"') {
+        return parseString();
+      }
+      if (c == '{' || c == '[') {
+        throw new IllegalArgumentException("Nested values are not supported");
+      }
+      int start = position;
+      while (!atEnd() && ",}] \t\r\n".indexOf(text.charAt(position)) < 0) {
+        position++;
+      }
+      String literal = text.substring(start, position);
+      if (literal.isEmpty()) {
+        throw new IllegalArgumentException("Missing value at position " + start);
+      }
+      return "null".equals(literal) ? null : literal;
+    }
+
+    private String parseString() {
+      expect('"');
+      StringBuilder builder = new StringBuilder();
+      while (true) {
+        char c = next();
+        if (c == '"') {
+          return builder.toString();
+        }
+        if (c != '\\') {
+          builder.append(c);
+          continue;
+        }
+        char escaped = next();
+        switch (escaped) {
+          case '"', '\\', '/' -> builder.append(escaped);
+          case 'b' -> builder.append('\b');
+          case 'f' -> builder.append('\f');
+          case 'n' -> builder.append('\n');
+          case 'r' -> builder.append('\r');
+          case 't' -> builder.append('\t');
+          case 'u' -> {
+            if (position + 4 > text.length()) {
+              throw new IllegalArgumentException("Truncated unicode escape");
+            }
+            try {
+              builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+            } catch (NumberFormatException e) {
+              throw new IllegalArgumentException("Invalid unicode escape at position " + position);
+            }
+            position += 4;
+          }
+          default -> throw new IllegalArgumentException("Invalid escape '\\" + escaped + "'");
+        }
+      }
+    }
+
+    private void skipWhitespace() {
+      while (!atEnd() && Character.isWhitespace(text.charAt(position))) {
+        position++;
+      }
+    }
+
+    private void expect(char expected) {
+      if (next() != expected) {
+        throw new IllegalArgumentException(
+                "Expected '" + expected + "' at position " + (position - 1));
+      }
+    }
+
+    private char peek() {
+      if (atEnd()) {
+        throw new IllegalArgumentException("Unexpected end of JSON");
+      }
+      return text.charAt(position);
+    }
+
+    private char next() {
+      char c = peek();
+      position++;
+      return c;
+    }
+
+    private boolean atEnd() {
+      return position >= text.length();
+    }
+  }
+}
@@ -1,7 +1,6 @@
 package edu.ntnu.idi.idatt.util;
 
 import java.time.LocalDateTime;
-import java.util.regex.Pattern;
 
 /**
  * Utility class containing common input validators used across the project.
@@ -12,9 +11,16 @@ import java.util.regex.Pattern;
  * </p>
  */
 public class Validators {
-  private static final String EMAIL_REGEX =
+  /**
+   * The accepted email language. {@link #isValidEmail(String)} implements it by
+   * hand; the expression is kept as the reference it is tested against.
+   */
+  static final String EMAIL_REGEX =
           "(?=^.{4,40}$)[A-Za-z0-9._%-]+@[A-Za-z0-9.-]+\\.[a-zA-Z]{2,4}$";
-  private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
+  private static final int MIN_EMAIL_LENGTH = 4;
+  private static final int MAX_EMAIL_LENGTH = 40;
+  private static final int MIN_TLD_LENGTH = 2;
+  private static final int MAX_TLD_LENGTH = 4;
 
   private Validators() {
   }
@@ -58,7 +64,22 @@ public class Validators {
    * @throws IllegalArgumentException if {@code date} is after the current time
    */
   public static void validateDate(LocalDateTime date) {
-    if (date.isAfter(LocalDateTime.now())) {
+    validateDate(date, LocalDateTime.now());
+  }
+
+  /**
+   * Validates that {@code date} is not after {@code now}.
+   *
+   * <p>Lets callers that already know the current time, or read it from their
+   * own clock, avoid another read of the system clock.
+   * </p>
+   *
+   * @param date the date to validate
+   * @param now the current time
+   * @throws IllegalArgumentException if {@code date} is after {@code now}
+   */
+  public static void validateDate(LocalDateTime date, LocalDateTime now) {
+    if (date.isAfter(now)) {
       throw new IllegalArgumentException("Creation time cannot be in the future");
     }
   }
@@ -78,9 +99,63 @@ public class Validators {
   public static void validateEmail(String email) {
     validateString(email, "Email");
 
-    if (!EMAIL_PATTERN.matcher(email).matches()) {
+    if (!isValidEmail(email)) {
       throw new IllegalArgumentException(
               "Invalid email format. Must be 4-40 chars (e.g. user@domain.com).");
     }
   }
+
+  /**
+   * Returns whether {@code email} is in the project's email format.
+   *
+   * <p>Accepts exactly the strings matched by {@code EMAIL_REGEX}: 4 to 40
+   * characters, a non-empty local part of letters, digits and {@code ._%-},
+   * one {@code @}, and a domain of letters, digits and {@code .-} ending in a
+   * dot followed by a top-level domain of 2 to 4 letters. The check is a single
+   * pass over the characters and allocates nothing.
+   * </p>
+   *
+   * @param email the string to check; must be non-null
+   * @return {@code true} if {@code email} is a valid email address
+   */
+  public static boolean isValidEmail(String email) {
+    int length = email.length();
+    if (length < MIN_EMAIL_LENGTH || length > MAX_EMAIL_LENGTH) {
+      return false;
+    }
+    int at = -1;
+    int lastDot = -1;
+    boolean lettersSinceDot = false;
+    for (int i = 0; i < length; i++) {
+      char c = email.charAt(i);
+      if (isAsciiLetter(c)) {
+        continue;
+      }
+      if (c == '@') {
+        if (at >= 0) {
+          return false;
+        }
+        at = i;
+      } else if (c == '.') {
+        if (at >= 0) {
+          lastDot = i;
+          lettersSinceDot = true;
+        }
+      } else if ((c >= '0' && c <= '9') || c == '-') {
+        lettersSinceDot = false;
+      } else if ((c != '_' && c != '%') || at >= 0) {
+        return false;
+      }
+    }
+    int tldLength = length - lastDot - 1;
+    return at > 0
+            && lastDot > at + 1
+            && lettersSinceDot
+            && tldLength >= MIN_TLD_LENGTH
+            && tldLength <= MAX_TLD_LENGTH;
+  }
+
+  private static boolean isAsciiLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
 }
\ No newline at end of file
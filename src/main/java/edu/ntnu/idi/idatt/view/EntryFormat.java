@@ -0,0 +1,11 @@
+package edu.ntnu.idi.idatt.view;
+
+/**
+ * How {@link UserInterface} renders diary entries in lists.
+ */
+public enum EntryFormat {
+  /** A framed block per entry with author, title and the full description. */
+  DETAILED,
+  /** One line per entry with id, time, author email and title. */
+  COMPACT
+}
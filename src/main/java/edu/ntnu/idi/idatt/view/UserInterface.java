@@ -1,12 +1,24 @@
 package edu.ntnu.idi.idatt.view;
 
+import edu.ntnu.idi.idatt.model.analytics.TermCount;
+import edu.ntnu.idi.idatt.model.analytics.TermStatistics;
 import edu.ntnu.idi.idatt.model.entity.Author;
 import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.io.ImportError;
+import edu.ntnu.idi.idatt.model.io.ImportReport;
+import edu.ntnu.idi.idatt.model.search.SearchHit;
+import edu.ntnu.idi.idatt.util.Validators;
 
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Scanner;
-
+import java.util.SortedMap;
 
 /**
  * Handles all user interface interactions for the Diary Application.
@@ -15,65 +27,160 @@ import java.util.Scanner;
  * as well as reading user input from the console. It provides methods to print various
  * sections of the application, including the main menu, author menu, search menu,
  * diary entries, search results, and author statistics.</p>
+ *
+ * <p>Entry lists are rendered into a reusable buffer and written to the
+ * console in large chunks rather than line by line, so listing many entries
+ * is not dominated by console I/O. When the output is not a terminal, for
+ * example when it is redirected to a file, screen clearing is skipped.</p>
  */
 public class UserInterface {
   private static final String LIST_SEPARATOR = "------------------------------";
   private static final String STATS_SEPARATOR = "--------------------------------------------%n";
   private static final String NO_ENTRIES_MESSAGE = "No entries found.";
   private static final String CANCEL_MESSAGE = "Press Enter to Cancel";
+  private static final int FLUSH_THRESHOLD = 64 * 1024;
+  private static final int CLEAR_LINES = 50;
+  private static final int COMPACT_TITLE_WIDTH = 40;
+  private static final String HEATMAP_SHADES = ".-+*#";
 
   private final Scanner scanner;
+  private final PrintStream out;
+  private final boolean terminal;
+  private final StringBuilder buffer;
+  private EntryFormat entryFormat;
 
   /**
    * Constructs a new UserInterface instance with a Scanner for reading user input.
+   *
+   * <p>Output goes to the standard output, which is treated as a terminal if
+   * the JVM has an interactive console.</p>
    */
   public UserInterface() {
-    this.scanner = new Scanner(System.in);
+    this(System.in, System.out, System.console() != null);
+  }
+
+  /**
+   * Constructs a UserInterface on the given streams.
+   *
+   * @param in the stream user input is read from
+   * @param out the stream output is written to
+   * @param terminal whether {@code out} is an interactive terminal; if not,
+   *                 {@link #clearScreen()} prints nothing
+   */
+  public UserInterface(InputStream in, PrintStream out, boolean terminal) {
+    this.scanner = new Scanner(in);
+    this.out = out;
+    this.terminal = terminal;
+    this.buffer = new StringBuilder(FLUSH_THRESHOLD + 4096);
+    this.entryFormat = EntryFormat.DETAILED;
+  }
+
+  /**
+   * Sets how entries are rendered in lists and search results.
+   *
+   * @param entryFormat the format to use; must be non-null
+   * @throws IllegalArgumentException if {@code entryFormat} is null
+   */
+  public void setEntryFormat(EntryFormat entryFormat) {
+    Validators.validateNotNull(entryFormat, "Entry format");
+    this.entryFormat = entryFormat;
   }
 
   /**
    * Initializes the Diary Application by printing a welcome message.
    */
   public void init() {
-    System.out.println("--- Diary Application Initialized ---");
+    out.println("--- Diary Application Initialized ---");
   }
 
   /**
    * Prints the main menu options to the console.
    */
   public void printMainMenu() {
-    System.out.println("\n--- MAIN MENU ---");
-    System.out.println("1. Write new entry");
-    System.out.println("2. Delete entry");
-    System.out.println("3. Show all entries");
-    System.out.println("4. Search for entries");
-    System.out.println("5. Show author statistics");
-    System.out.println("0. Exit");
-    System.out.print("Choose a number");
+    out.println("\n--- MAIN MENU ---");
+    out.println("1. Write new entry");
+    out.println("2. Delete entry");
+    out.println("3. Show all entries");
+    out.println("4. Search for entries");
+    out.println("5. Show author statistics");
+    out.println("6. Import / export");
+    out.println("7. Activity heatmap");
+    out.println("8. View entry");
+    out.println("0. Exit");
+    out.print("Choose a number");
   }
 
   /**
    * Prints the author menu options to the console.
    */
   public void printAuthorMenu() {
-    System.out.println("\n--- AUTHOR MENU ---");
-    System.out.println("1. select existing author");
-    System.out.println("2. Create new author");
-    System.out.println("0. Press enter to cancel");
-    System.out.print("select an option");
+    out.println("\n--- AUTHOR MENU ---");
+    out.println("1. select existing author");
+    out.println("2. Create new author");
+    out.println("0. Press enter to cancel");
+    out.print("select an option");
   }
 
   /**
    * Prints the search menu options to the console.
    */
   public void printSearchMenu() {
-    System.out.println("\n--- SEARCH MENU ---");
-    System.out.println("1. Search by keyword");
-    System.out.println("2. Search by date");
-    System.out.println("3. Search between dates");
-    System.out.println("4. Search by author");
-    System.out.println("0. Press enter to cancel");
-    System.out.print("Choose a number");
+    out.println("\n--- SEARCH MENU ---");
+    out.println("1. Search by keyword");
+    out.println("2. Search by date");
+    out.println("3. Search between dates");
+    out.println("4. Search by author");
+    out.println("5. Ranked search");
+    out.println("6. Fuzzy search");
+    out.println("7. Phrase search");
+    out.println("8. Near-duplicate entries");
+    out.println("0. Press enter to cancel");
+    out.print("Choose a number");
+  }
+
+  /**
+   * Prints the import/export menu options to the console.
+   */
+  public void printTransferMenu() {
+    out.println("\n--- IMPORT / EXPORT MENU ---");
+    out.println("1. Import from CSV");
+    out.println("2. Import from JSON Lines");
+    out.println("3. Export to CSV");
+    out.println("4. Export to JSON Lines");
+    out.println("0. Press enter to cancel");
+    out.print("Choose a number");
+  }
+
+  /**
+   * Prints the progress of a running import or export on a single, continually
+   * overwritten console line.
+   *
+   * @param records the number of records processed so far
+   * @param elapsedNanos the time since the transfer started
+   */
+  public void printTransferProgress(long records, long elapsedNanos) {
+    double seconds = elapsedNanos / 1e9;
+    double perSecond = seconds == 0 ? 0 : records / seconds;
+    out.printf("\r%,d records  %.1f s  %,.0f records/s", records, seconds, perSecond);
+    out.flush();
+  }
+
+  /**
+   * Prints the summary of an import, including the rejected records.
+   *
+   * @param report the import report to print
+   */
+  public void printImportReport(ImportReport report) {
+    out.println();
+    out.printf("Imported %,d entries, rejected %,d (%,.0f records/s)%n",
+            report.imported(), report.rejected(), report.recordsPerSecond());
+    for (ImportError error : report.errors()) {
+      printError(error.toString());
+    }
+    if (report.rejected() > report.errors().size()) {
+      out.printf("... and %,d more rejected records%n",
+              report.rejected() - report.errors().size());
+    }
   }
 
   /**
@@ -82,15 +189,28 @@ public class UserInterface {
    * @param entry the DiaryEntry to print
    */
   public void printSingleEntry(DiaryEntry entry) {
-    System.out.println(LIST_SEPARATOR);
-    System.out.println("id: " + entry.getEntryId() + " - " + entry.getFormatedCreationTime());
-    System.out.println(entry.getAuthor().getFullName() + " " + entry.getAuthor().getEmail());
-    System.out.println(LIST_SEPARATOR);
-    System.out.println("Title: " + entry.getTitle());
-    System.out.println(LIST_SEPARATOR);
-    System.out.println(entry.getDescription());
-    System.out.println(LIST_SEPARATOR);
-    System.out.println("");
+    appendEntry(entry);
+    flushBuffer();
+  }
+
+  /**
+   * Prints the entries most similar to the entry being viewed, one line each
+   * with the similarity as a percentage.
+   *
+   * @param similar the similar entries, most similar first
+   */
+  public void printSimilarEntries(List<SearchHit> similar) {
+    if (similar.isEmpty()) {
+      return;
+    }
+    String newline = System.lineSeparator();
+    buffer.append(newline).append("Similar entries:").append(newline);
+    for (SearchHit hit : similar) {
+      DiaryEntry entry = hit.entry();
+      buffer.append(String.format("  #%d  %3d%%  %s", entry.getEntryId(),
+              Math.round(hit.score() * 100), entry.getTitle())).append(newline);
+    }
+    flushBuffer();
   }
 
   /**
@@ -99,29 +219,29 @@ public class UserInterface {
    * @param authors the list of existing authors to display
    */
   public void printSelectExistingAuthor(List<Author> authors) {
-    System.out.println("\n--- EXISTING AUTHOR MENU ---");
+    out.println("\n--- EXISTING AUTHOR MENU ---");
 
     for (int i = 0; i < authors.size(); i++) {
-      System.out.println((i + 1) + ". " + authors.get(i));
+      out.println((i + 1) + ". " + authors.get(i));
     }
 
-    System.out.print("select an author number");
+    out.print("select an author number");
   }
 
   /**
    * Prints the title for creating a new author.
    */
   public void printCreateAuthorTitle() {
-    System.out.println("\n--- CREATE NEW AUTHOR ---");
-    System.out.println(CANCEL_MESSAGE);
+    out.println("\n--- CREATE NEW AUTHOR ---");
+    out.println(CANCEL_MESSAGE);
   }
 
   /**
    * Prints the title for deleting a diary entry.
    */
   public void printDeleteEntryTitle() {
-    System.out.println("\n--- DELETE ENTRY ---");
-    System.out.println(CANCEL_MESSAGE);
+    out.println("\n--- DELETE ENTRY ---");
+    out.println(CANCEL_MESSAGE);
   }
 
   /**
@@ -132,12 +252,9 @@ public class UserInterface {
   public void printDiaryEntryList(List<DiaryEntry> entries) {
     clearScreen();
     if (entries.isEmpty()) {
-      System.out.println("No diary entries found");
+      out.println("No diary entries found");
     } else {
-      System.out.println("\n--- ENTRIES LIST ---");
-      for (DiaryEntry entry : entries) {
-        printSingleEntry(entry);
-      }
+      printEntries("\n--- ENTRIES LIST ---", entries);
     }
   }
 
@@ -148,15 +265,78 @@ public class UserInterface {
    */
   public void printSearchResults(List<DiaryEntry> searchResults) {
     if (searchResults.isEmpty()) {
-      System.out.println(NO_ENTRIES_MESSAGE);
+      out.println(NO_ENTRIES_MESSAGE);
     } else  {
-      System.out.println("\n--- SEARCH RESULTS ---");
-      for (DiaryEntry entry : searchResults) {
-        printSingleEntry(entry);
-      }
+      printEntries("\n--- SEARCH RESULTS ---", searchResults);
+    }
+  }
+
+  /**
+   * Prints the stored entries that look like duplicates of an entry about to
+   * be created.
+   *
+   * @param duplicates the similar entries
+   */
+  public void printDuplicateWarning(List<DiaryEntry> duplicates) {
+    printEntries("\n--- POSSIBLE DUPLICATES ---", duplicates);
+  }
+
+  /**
+   * Prints groups of near-duplicate entries, one numbered group at a time.
+   *
+   * @param clusters the groups of similar entries
+   */
+  public void printDuplicateClusters(List<List<DiaryEntry>> clusters) {
+    if (clusters.isEmpty()) {
+      out.println("No near-duplicate entries found");
+      return;
+    }
+    for (int i = 0; i < clusters.size(); i++) {
+      printEntries("\n--- DUPLICATE GROUP " + (i + 1) + " OF " + clusters.size() + " ---",
+              clusters.get(i));
     }
   }
 
+  /**
+   * Prints one page of entries below a heading with the page number.
+   *
+   * @param heading the name of the list, such as {@code ENTRIES}
+   * @param page the entries of the page
+   * @param pageNumber the one-based number of the page
+   */
+  public void printEntryPage(String heading, List<DiaryEntry> page, int pageNumber) {
+    clearScreen();
+    if (page.isEmpty()) {
+      out.println(NO_ENTRIES_MESSAGE);
+      return;
+    }
+    printEntries("\n--- " + heading + " (page " + pageNumber + ") ---", page);
+  }
+
+  /**
+   * Shows the pager's options and reads the user's choice.
+   *
+   * @param hasPrevious whether there is a page before the current one
+   * @param hasNext whether there is a page after the current one
+   * @param canJump whether jumping to a date is supported
+   * @return the choice in lower case: {@code n}, {@code p}, {@code d},
+   *         {@code q} or an empty string for Enter
+   */
+  public String readPagerCommand(boolean hasPrevious, boolean hasNext, boolean canJump) {
+    StringBuilder options = new StringBuilder();
+    if (hasNext) {
+      options.append("[n]ext (Enter)  ");
+    }
+    if (hasPrevious) {
+      options.append("[p]revious  ");
+    }
+    if (canJump) {
+      options.append("[d]ate  ");
+    }
+    options.append(hasNext ? "[q]uit" : "[q]uit (Enter)");
+    return readInput(options.toString()).trim().toLowerCase();
+  }
+
   /**
    * Prints the author statistics to the console.
    *
@@ -166,25 +346,149 @@ public class UserInterface {
   public void printAuthorStatistics(Map<String, Long> authorsStats) {
     clearScreen();
     if (authorsStats.isEmpty()) {
-      System.out.println("No authors found");
+      out.println("No authors found");
     } else {
       clearScreen();
-      System.out.printf(STATS_SEPARATOR);
-      System.out.printf("|          AUTHOR STATISTICS PAGE          |%n");
-      System.out.printf(STATS_SEPARATOR);
-      System.out.printf("| %-30s | %-1s |%n", "AUTHOR", "ENTRIES");
-      System.out.printf(STATS_SEPARATOR);
+      out.printf(STATS_SEPARATOR);
+      out.printf("|          AUTHOR STATISTICS PAGE          |%n");
+      out.printf(STATS_SEPARATOR);
+      out.printf("| %-30s | %-1s |%n", "AUTHOR", "ENTRIES");
+      out.printf(STATS_SEPARATOR);
 
       for (Map.Entry<String, Long> stats : authorsStats.entrySet()) {
-        System.out.printf("| %-30s | %-7d |%n", stats.getKey(), stats.getValue());
-        System.out.printf(STATS_SEPARATOR);
+        out.printf("| %-30s | %-7d |%n", stats.getKey(), stats.getValue());
+        out.printf(STATS_SEPARATOR);
       }
 
-      System.out.print("Press Enter to exit: ");
+      out.print("Press Enter to exit: ");
       scanner.nextLine();
       }
   }
 
+  /**
+   * Prints the author statistics followed by approximate term statistics,
+   * overall and per author.
+   *
+   * @param authorsStats the number of entries per author email
+   * @param overall the term statistics of all entries
+   * @param termsByAuthor the term statistics per author email
+   */
+  public void printAuthorStatistics(Map<String, Long> authorsStats, TermStatistics overall,
+                                    Map<String, TermStatistics> termsByAuthor) {
+    if (authorsStats.isEmpty()) {
+      printAuthorStatistics(authorsStats);
+      return;
+    }
+    clearScreen();
+    out.printf(STATS_SEPARATOR);
+    out.printf("|          AUTHOR STATISTICS PAGE          |%n");
+    out.printf(STATS_SEPARATOR);
+    out.printf("| %-30s | %-1s |%n", "AUTHOR", "ENTRIES");
+    out.printf(STATS_SEPARATOR);
+    for (Map.Entry<String, Long> stats : authorsStats.entrySet()) {
+      out.printf("| %-30s | %-7d |%n", stats.getKey(), stats.getValue());
+      TermStatistics terms = termsByAuthor.get(stats.getKey());
+      if (terms != null) {
+        out.printf("|   ~%,d distinct terms, top: %s%n", terms.distinctTerms(),
+                keywords(terms));
+      }
+      out.printf(STATS_SEPARATOR);
+    }
+    out.printf("All authors: ~%,d distinct terms (+/- %.1f%%)%n", overall.distinctTerms(),
+            overall.distinctError() * 100);
+    out.printf("Top keywords: %s%n", keywords(overall));
+    out.printf("Keyword counts are at most %,d too high.%n", overall.countError());
+
+    out.print("Press Enter to exit: ");
+    scanner.nextLine();
+  }
+
+  private static String keywords(TermStatistics terms) {
+    if (terms.topTerms().isEmpty()) {
+      return "-";
+    }
+    StringBuilder keywords = new StringBuilder();
+    for (TermCount term : terms.topTerms()) {
+      if (!keywords.isEmpty()) {
+        keywords.append(", ");
+      }
+      keywords.append(term.term()).append(" (").append(term.count()).append(')');
+    }
+    return keywords.toString();
+  }
+
+  /**
+   * Prints a calendar heatmap of daily entry counts followed by the total of
+   * each month.
+   *
+   * <p>Each column is a week from Monday to Sunday. A day is shown as
+   * {@code .} without entries and as {@code -}, {@code +}, {@code *} or
+   * {@code #} by its count relative to the busiest day. A week where a month
+   * begins is labelled with the month's three-letter name, unless the label
+   * of the month before is still in the way.
+   * </p>
+   *
+   * @param heading the heading printed above the heatmap
+   * @param days the count of every day in the range, in date order
+   * @param months the count of every month in the range, keyed by its first day
+   */
+  public void printActivityHeatmap(String heading, SortedMap<LocalDate, Long> days,
+                                   SortedMap<LocalDate, Long> months) {
+    String newline = System.lineSeparator();
+    buffer.append(heading).append(newline);
+    if (days.isEmpty()) {
+      buffer.append(NO_ENTRIES_MESSAGE).append(newline);
+      flushBuffer();
+      return;
+    }
+
+    long max = 0;
+    for (long count : days.values()) {
+      max = Math.max(max, count);
+    }
+    LocalDate first = days.firstKey().with(DayOfWeek.MONDAY);
+    LocalDate last = days.lastKey();
+    int weeks = (int) ((last.toEpochDay() - first.toEpochDay()) / 7) + 1;
+
+    StringBuilder labels = new StringBuilder("    ");
+    for (int week = 0; week < weeks; week++) {
+      LocalDate monday = first.plusWeeks(week);
+      int column = 4 + week * 2;
+      boolean monthStarts = week == 0 || monday.getMonth() != monday.minusWeeks(1).getMonth();
+      if (monthStarts && labels.length() <= column) {
+        labels.append(" ".repeat(column - labels.length()))
+                .append(monday.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH));
+      }
+    }
+    labels.append(" ".repeat(Math.max(0, 4 + weeks * 2 - labels.length())));
+    buffer.append(labels).append(newline);
+    for (DayOfWeek day : DayOfWeek.values()) {
+      buffer.append(day.ordinal() % 2 == 0
+              ? day.getDisplayName(TextStyle.SHORT, Locale.ENGLISH) + ' ' : "    ");
+      for (int week = 0; week < weeks; week++) {
+        Long count = days.get(first.plusWeeks(week).plusDays(day.ordinal()));
+        buffer.append(count == null ? ' ' : shade(count, max)).append(' ');
+      }
+      buffer.append(newline);
+    }
+
+    buffer.append(newline);
+    for (Map.Entry<LocalDate, Long> month : months.entrySet()) {
+      buffer.append(month.getKey().getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
+              .append(' ').append(month.getKey().getYear())
+              .append(": ").append(month.getValue()).append(newline);
+    }
+    flushBuffer();
+  }
+
+  private static char shade(long count, long max) {
+    if (count == 0) {
+      return HEATMAP_SHADES.charAt(0);
+    }
+    int levels = HEATMAP_SHADES.length() - 1;
+    return HEATMAP_SHADES.charAt(1 + (int) ((count - 1) * levels / max));
+  }
+
   /**
    * Reads user input from the console with a given prompt.
    *
@@ -192,7 +496,7 @@ public class UserInterface {
    * @return the user's input as a String
    */
   public String readInput(String prompt) {
-    System.out.print(prompt + ": ");
+    out.print(prompt + ": ");
     return scanner.nextLine();
   }
 
@@ -202,7 +506,7 @@ public class UserInterface {
    * @param message the message to print
    */
   public void printMessage(String message) {
-    System.out.println(message);
+    out.println(message);
   }
 
   /**
@@ -211,7 +515,7 @@ public class UserInterface {
    * @param message the error message to print
    */
   public void printError(String message) {
-    System.out.println("ERROR: " + message);
+    out.println("ERROR: " + message);
   }
 
   /**
@@ -220,16 +524,64 @@ public class UserInterface {
    * @param message the success message to print
    */
   public void printSuccess(String message) {
-    System.out.println("SUCCESS: " + message);
+    out.println("SUCCESS: " + message);
   }
 
   /**
    * Clears the console view by printing several blank lines.
    *
    * <p>Clear behavior is implemented by printing multiple newline characters
-   * to approximate a cleared screen in a terminal environment.</p>
+   * to approximate a cleared screen in a terminal environment. Nothing is
+   * printed when the output is not a terminal.</p>
    */
   public void clearScreen() {
-    System.out.println("\n".repeat(50));
+    if (terminal) {
+      out.print(System.lineSeparator().repeat(CLEAR_LINES));
+    }
+  }
+
+  private void printEntries(String heading, List<DiaryEntry> entries) {
+    buffer.append(heading).append(System.lineSeparator());
+    for (DiaryEntry entry : entries) {
+      appendEntry(entry);
+      if (buffer.length() >= FLUSH_THRESHOLD) {
+        flushBuffer();
+      }
+    }
+    flushBuffer();
+  }
+
+  private void appendEntry(DiaryEntry entry) {
+    String newline = System.lineSeparator();
+    if (entryFormat == EntryFormat.COMPACT) {
+      String title = entry.getTitle();
+      buffer.append('#').append(entry.getEntryId()).append("  ")
+              .append(entry.getFormatedCreationTime()).append("  ")
+              .append(entry.getAuthor().getEmail()).append("  ");
+      if (title.length() > COMPACT_TITLE_WIDTH) {
+        buffer.append(title, 0, COMPACT_TITLE_WIDTH - 3).append("...");
+      } else {
+        buffer.append(title);
+      }
+      buffer.append(newline);
+      return;
+    }
+    buffer.append(LIST_SEPARATOR).append(newline)
+            .append("id: ").append(entry.getEntryId()).append(" - ")
+            .append(entry.getFormatedCreationTime()).append(newline)
+            .append(entry.getAuthor().getFullName()).append(' ')
+            .append(entry.getAuthor().getEmail()).append(newline)
+            .append(LIST_SEPARATOR).append(newline)
+            .append("Title: ").append(entry.getTitle()).append(newline)
+            .append(LIST_SEPARATOR).append(newline)
+            .append(entry.getDescription()).append(newline)
+            .append(LIST_SEPARATOR).append(newline)
+            .append(newline);
+  }
+
+  private void flushBuffer() {
+    out.append(buffer);
+    out.flush();
+    buffer.setLength(0);
   }
 }
@@ -0,0 +1,104 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.analytics.CorpusAnalyzer;
+import edu.ntnu.idi.idatt.model.analytics.CorpusStatistics;
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures how {@link CorpusAnalyzer} scales with the number of threads, and
+ * compares it with a single-threaded count into boxed maps.
+ *
+ * <p>Run with {@code java -Xmx8g -cp target/classes:target/test-classes
+ * edu.ntnu.idi.idatt.benchmark.CorpusAnalyticsBenchmark [entries]}; a
+ * 10 000 000 entry corpus needs a large heap.</p>
+ */
+public class CorpusAnalyticsBenchmark {
+  private static final String[] WORDS = {
+    "today", "went", "walk", "family", "dinner", "restaurant", "training", "friends",
+    "movie", "strange", "amazing", "weather", "rain", "sunny", "work", "meeting",
+    "tired", "happy", "coffee", "book", "read", "chapter", "garden", "cooked"
+  };
+
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    List<DiaryEntry> entries = corpus(count);
+    int processors = Runtime.getRuntime().availableProcessors();
+
+    // Warm up before measuring.
+    new CorpusAnalyzer(processors).analyze(entries);
+    boxedCount(entries);
+
+    long begin = System.nanoTime();
+    boxedCount(entries);
+    long boxed = System.nanoTime() - begin;
+    System.out.printf("entries:            %d%n", count);
+    System.out.printf("boxed maps, 1 thread: %6d ms%n", boxed / 1_000_000);
+
+    List<Integer> threadCounts = new ArrayList<>();
+    for (int threads = 1; threads < processors; threads *= 2) {
+      threadCounts.add(threads);
+    }
+    threadCounts.add(processors);
+
+    long single = 0;
+    for (int threads : threadCounts) {
+      long elapsed = time(new CorpusAnalyzer(threads), entries);
+      if (threads == 1) {
+        single = elapsed;
+      }
+      System.out.printf("%2d threads:          %6d ms  speedup %.1fx%n", threads,
+              elapsed / 1_000_000, (double) single / elapsed);
+    }
+  }
+
+  private static long time(CorpusAnalyzer analyzer, List<DiaryEntry> entries) {
+    long begin = System.nanoTime();
+    CorpusStatistics statistics = analyzer.analyze(entries);
+    long elapsed = System.nanoTime() - begin;
+    if (statistics.entryCount() != entries.size()) {
+      throw new IllegalStateException("Wrong entry count " + statistics.entryCount());
+    }
+    return elapsed;
+  }
+
+  /** The approach the analyzer replaces: one thread, one shared boxed map. */
+  private static Map<String, Long> boxedCount(List<DiaryEntry> entries) {
+    Map<String, Long> terms = new HashMap<>();
+    for (DiaryEntry entry : entries) {
+      for (String term : (entry.getTitle() + " " + entry.getDescription())
+              .toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+        terms.put(term, terms.getOrDefault(term, 0L) + 1);
+      }
+    }
+    return terms;
+  }
+
+  private static List<DiaryEntry> corpus(int count) {
+    Random random = new Random(42);
+    Author[] authors = new Author[50];
+    for (int i = 0; i < authors.length; i++) {
+      authors[i] = new Author("Bench", "Mark", "bench" + i + "@ex.com");
+    }
+    LocalDateTime start = LocalDateTime.of(2015, 1, 1, 0, 0);
+    List<DiaryEntry> entries = new ArrayList<>(count);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      text.setLength(0);
+      for (int word = 0; word < 20; word++) {
+        text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+      }
+      text.append("note").append(random.nextInt(100_000));
+      entries.add(new DiaryEntry("Entry " + i, text.toString(),
+              authors[random.nextInt(authors.length)], start.plusSeconds(i * 30L)));
+    }
+    return entries;
+  }
+}
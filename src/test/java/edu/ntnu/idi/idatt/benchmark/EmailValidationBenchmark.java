@@ -0,0 +1,54 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.util.Validators;
+
+import java.util.regex.Pattern;
+
+/**
+ * Compares the throughput of the regular expression email check with
+ * {@link Validators#isValidEmail(String)}.
+ *
+ * <p>Run with {@code java -cp target/classes:target/test-classes
+ * edu.ntnu.idi.idatt.benchmark.EmailValidationBenchmark [rounds]}.</p>
+ */
+public class EmailValidationBenchmark {
+  private static final Pattern EMAIL_PATTERN = Pattern.compile(
+          "(?=^.{4,40}$)[A-Za-z0-9._%-]+@[A-Za-z0-9.-]+\\.[a-zA-Z]{2,4}$");
+  private static final String[] EMAILS = {
+    "per@ex.com", "fredrik.fredrikson@example.org", "a_b%c@mail.sub.domain.no",
+    "not an email", "missing@tld", "x@y.toolong", "someone@host.c0m", "ab@cd.ef"
+  };
+
+  public static void main(String[] args) {
+    int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+    // Warm up both paths before measuring.
+    run(rounds / 10, true);
+    run(rounds / 10, false);
+
+    long regex = run(rounds, true);
+    long manual = run(rounds, false);
+    long checks = (long) rounds * EMAILS.length;
+    System.out.printf("checks:             %d%n", checks);
+    System.out.printf("regex:              %.0f checks/ms%n", checks / (regex / 1e6));
+    System.out.printf("hand-written:       %.0f checks/ms%n", checks / (manual / 1e6));
+    System.out.printf("speedup:            %.1fx%n", (double) regex / manual);
+  }
+
+  private static long run(int rounds, boolean regex) {
+    int valid = 0;
+    long begin = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      for (String email : EMAILS) {
+        if (regex ? EMAIL_PATTERN.matcher(email).matches() : Validators.isValidEmail(email)) {
+          valid++;
+        }
+      }
+    }
+    long elapsed = System.nanoTime() - begin;
+    if (valid != rounds * 4) {
+      throw new IllegalStateException("Unexpected number of valid emails: " + valid);
+    }
+    return elapsed;
+  }
+}
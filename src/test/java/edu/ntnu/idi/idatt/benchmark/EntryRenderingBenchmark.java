@@ -0,0 +1,77 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares rendering entries with {@code String.format} on every call against
+ * the cached rendering in {@link DiaryEntry}.
+ *
+ * <p>Run with {@code java -cp target/classes:target/test-classes
+ * edu.ntnu.idi.idatt.benchmark.EntryRenderingBenchmark [entries] [rounds]}.</p>
+ */
+public class EntryRenderingBenchmark {
+  private static final DateTimeFormatter FORMATTER =
+          DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+    Author author = new Author("Bench", "Mark", "bench@ex.com");
+    LocalDateTime start = LocalDateTime.of(2023, 1, 1, 0, 0);
+    List<DiaryEntry> entries = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      DiaryEntry entry = new DiaryEntry("Entry " + i, "A walk in the garden, then coffee.",
+              author, start.plusMinutes(i));
+      entry.setEntryId(i + 1);
+      entries.add(entry);
+    }
+
+    // Warm up both paths before measuring.
+    render(entries, 5, true);
+    render(entries, 5, false);
+
+    long formatted = render(entries, rounds, true);
+    long cached = render(entries, rounds, false);
+    long renders = (long) count * rounds;
+    System.out.printf("renders:            %d%n", renders);
+    System.out.printf("String.format:      %.0f ns/render%n", (double) formatted / renders);
+    System.out.printf("cached:             %.0f ns/render%n", (double) cached / renders);
+    System.out.printf("speedup:            %.1fx%n", (double) formatted / cached);
+  }
+
+  private static long render(List<DiaryEntry> entries, int rounds, boolean format) {
+    long length = 0;
+    long begin = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      for (DiaryEntry entry : entries) {
+        length += format ? formatted(entry) : cached(entry);
+      }
+    }
+    long elapsed = System.nanoTime() - begin;
+    if (length == 0) {
+      throw new IllegalStateException("Nothing rendered");
+    }
+    return elapsed;
+  }
+
+  /** Renders the summary and timestamp the way they were rendered before caching. */
+  private static int formatted(DiaryEntry entry) {
+    String summary = String.format("ID: %d - [%s] %s (%s): %s",
+            entry.getEntryId(),
+            entry.getCreationTime().format(FORMATTER),
+            entry.getTitle(),
+            entry.getAuthor().getFullName(),
+            entry.getDescription());
+    return summary.length() + entry.getCreationTime().format(FORMATTER).length();
+  }
+
+  private static int cached(DiaryEntry entry) {
+    return entry.toString().length() + entry.getFormatedCreationTime().length();
+  }
+}
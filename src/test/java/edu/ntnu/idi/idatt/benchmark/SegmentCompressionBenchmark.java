@@ -0,0 +1,69 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.model.storage.MappedEntryStore;
+import edu.ntnu.idi.idatt.model.storage.StorageStatistics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Measures the compression ratio and decode throughput of sealed segments.
+ *
+ * <p>Run with {@code java -cp target/classes:target/test-classes
+ * edu.ntnu.idi.idatt.benchmark.SegmentCompressionBenchmark [entries]}.</p>
+ */
+public class SegmentCompressionBenchmark {
+  private static final String[] WORDS = {
+    "today", "went", "walk", "family", "dinner", "restaurant", "training", "friends",
+    "movie", "strange", "amazing", "weather", "rain", "sunny", "work", "meeting",
+    "tired", "happy", "coffee", "book", "read", "chapter", "garden", "cooked"
+  };
+
+  public static void main(String[] args) throws IOException {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+    Path directory = Files.createTempDirectory("diary-bench");
+    Author author = new Author("Bench", "Mark", "bench@ex.com");
+    Random random = new Random(42);
+    LocalDateTime start = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      store.setCompressSealedSegments(true);
+      DiaryRegister register = new DiaryRegister(store);
+      for (int i = 0; i < count; i++) {
+        register.addEntry(new DiaryEntry("Entry " + i, sentence(random, 40), author,
+                start.plusMinutes(i)));
+      }
+      store.sealOlderPartitions();
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+      long begin = System.nanoTime();
+      long hits = register.searchByKeyword("restaurant").size();
+      long elapsed = System.nanoTime() - begin;
+
+      StorageStatistics statistics = store.getStatistics();
+      System.out.printf("entries:            %d%n", count);
+      System.out.printf("raw text:           %.1f MB%n", statistics.rawTextBytes() / 1e6);
+      System.out.printf("stored text:        %.1f MB%n", statistics.storedTextBytes() / 1e6);
+      System.out.printf("compression ratio:  %.2f%n", statistics.compressionRatio());
+      System.out.printf("decode throughput:  %.0f MB/s%n",
+              statistics.decodeThroughputMbPerSecond());
+      System.out.printf("full scan:          %d ms (%d hits)%n", elapsed / 1_000_000, hits);
+    }
+  }
+
+  private static String sentence(Random random, int words) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < words; i++) {
+      builder.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+    }
+    return builder.toString().trim();
+  }
+}
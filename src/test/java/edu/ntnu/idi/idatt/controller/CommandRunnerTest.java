@@ -0,0 +1,129 @@
+package edu.ntnu.idi.idatt.controller;
+
+import edu.ntnu.idi.idatt.model.register.AuthorRegister;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.model.storage.MappedEntryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandRunnerTest {
+  @TempDir
+  Path directory;
+
+  private DiaryRegister diaryRegister;
+  private AuthorRegister authorRegister;
+  private StringWriter out;
+
+  @BeforeEach
+  void setUp() {
+    diaryRegister = new DiaryRegister();
+    authorRegister = new AuthorRegister();
+    out = new StringWriter();
+  }
+
+  @Test
+  void testAddThenSearchWritesJsonLines() throws IOException {
+    CommandRunner runner = runner("");
+    int added = runner.run(List.of("add", "--title", "Hike", "--description", "Went up",
+            "--email", "per@ex.com", "--first-name", "Per", "--last-name", "Petterson",
+            "--time", "2025-03-01T10:00"));
+    int searched = runner.run(List.of("search", "--keyword", "went"));
+
+    String[] lines = out.toString().split("\n");
+    assertEquals(0, added);
+    assertEquals(0, searched);
+    assertEquals(2, lines.length);
+    assertEquals(lines[0], lines[1]);
+    assertTrue(lines[0].startsWith("{\"id\":1,\"creationTime\":\"2025-03-01T10:00\""));
+  }
+
+  @Test
+  void testFailingCommandWritesErrorAndReturnsOne() throws IOException {
+    int status = runner("").run(List.of("delete", "7"));
+
+    assertEquals(1, status);
+    assertEquals("{\"error\":\"No entry with id 7\"}\n", out.toString());
+  }
+
+  @Test
+  void testScriptFromInputContinuesAfterErrors() throws IOException {
+    String script = "# seed\n"
+            + "add --title \"A title\" --description \"Some \\\"quoted\\\" text\""
+            + " --email per@ex.com --first-name Per --last-name Petterson\n"
+            + "\n"
+            + "frobnicate\n"
+            + "stats\n";
+
+    int status = runner(script).run(List.of("run"));
+
+    String[] lines = out.toString().split("\n");
+    assertEquals(1, status);
+    assertEquals(3, lines.length);
+    assertTrue(lines[0].contains("\"title\":\"A title\""));
+    assertTrue(lines[0].contains("\"description\":\"Some \\\"quoted\\\" text\""));
+    assertTrue(lines[1].startsWith("{\"line\":4,\"error\":"));
+    assertEquals("{\"entries\":1,\"authors\":{\"per@ex.com\":1}}", lines[2]);
+  }
+
+  @Test
+  void testExportThenImportRoundTrip() throws IOException {
+    Path file = directory.resolve("entries.jsonl");
+    CommandRunner runner = runner("");
+    runner.run(List.of("add", "--title", "T", "--description", "D", "--email", "per@ex.com",
+            "--first-name", "Per", "--last-name", "Petterson"));
+    runner.run(List.of("export", file.toString()));
+    runner.run(List.of("import", file.toString()));
+
+    String[] lines = out.toString().split("\n");
+    assertEquals("{\"exported\":1}", lines[1]);
+    assertTrue(lines[2].startsWith("{\"imported\":1,\"rejected\":0,"));
+    assertEquals(2, diaryRegister.getEntryCount());
+  }
+
+  @Test
+  void testStatsIncludeStoreFigures() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory.resolve("data"))) {
+      diaryRegister = new DiaryRegister(store);
+      CommandRunner runner = runner("");
+      runner.setStore(store);
+      runner.run(List.of("add", "--title", "T", "--description", "D", "--email", "per@ex.com",
+              "--first-name", "Per", "--last-name", "Petterson"));
+      store.flush();
+      store.compact();
+      runner.run(List.of("stats"));
+
+      String[] lines = out.toString().split("\n");
+      assertTrue(lines[1].startsWith("{\"entries\":1,\"authors\":{\"per@ex.com\":1},"
+              + "\"storage\":{\"segments\":1,\"compressedSegments\":0,"), lines[1]);
+      assertTrue(lines[1].endsWith(",\"lastCompaction\":{\"segmentsCompacted\":"
+              + store.getLastCompaction().segmentsCompacted() + ",\"recordsDropped\":"
+              + store.getLastCompaction().recordsDropped() + ",\"reclaimedBytes\":"
+              + store.getLastCompaction().reclaimedBytes() + "},\"lastCompactionFailure\":null}}"),
+              lines[1]);
+    }
+  }
+
+  @Test
+  void testTokenizeHandlesQuotesAndEmptyArguments() {
+    assertEquals(List.of("add", "--title", "two words", ""),
+            CommandRunner.tokenize("add  --title \"two words\" \"\""));
+    assertThrows(IllegalArgumentException.class, () -> {
+      CommandRunner.tokenize("add \"open");
+    });
+  }
+
+  private CommandRunner runner(String input) {
+    return new CommandRunner(diaryRegister, authorRegister,
+            new BufferedReader(new StringReader(input)), out);
+  }
+}
@@ -0,0 +1,124 @@
+package edu.ntnu.idi.idatt.model;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.event.ChangeEvent;
+import edu.ntnu.idi.idatt.model.event.ChangeFeed;
+import edu.ntnu.idi.idatt.model.event.ChangeType;
+import edu.ntnu.idi.idatt.model.event.Subscription;
+import edu.ntnu.idi.idatt.model.register.AuthorRegister;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+  private final LocalDateTime past = LocalDateTime.of(2024, 6, 1, 18, 30);
+  private Author author;
+  private DiaryRegister register;
+
+  @BeforeEach
+  void setUp() {
+    author = new Author("Per", "Petterson", "per@ex.com");
+    register = new DiaryRegister();
+  }
+
+  @Test
+  void testRegisterPublishesEveryMutation() {
+    DiaryEntry before = new DiaryEntry("Silent", "Added before anyone listened", author, past);
+    register.addEntry(before);
+    List<ChangeEvent> events = new ArrayList<>();
+    Subscription subscription = register.getChangeFeed().subscribe(events::add);
+
+    DiaryEntry entry = new DiaryEntry("Walk", "Walk in the park", author, past);
+    register.addEntry(entry);
+    entry.setTitle("Long walk");
+    register.updateEntry(entry, "Run", "Run in the park");
+    register.removeEntry(entry);
+    entry.setDescription("Edited after removal");
+    register.removeEntry(entry);
+
+    assertEquals(List.of(ChangeType.ENTRY_ADDED, ChangeType.ENTRY_UPDATED,
+            ChangeType.ENTRY_UPDATED, ChangeType.ENTRY_REMOVED),
+            events.stream().map(ChangeEvent::type).toList());
+    assertEquals(List.of(1L, 2L, 3L, 4L), events.stream().map(ChangeEvent::sequence).toList());
+    assertTrue(events.stream().allMatch(event -> event.entry() == entry));
+
+    subscription.close();
+    register.removeEntry(before);
+    assertEquals(4, events.size());
+    assertFalse(register.getChangeFeed().hasSubscribers());
+  }
+
+  @Test
+  void testAsyncSubscriberReceivesEventsInOrder() {
+    AuthorRegister authors = new AuthorRegister();
+    List<Long> sequences = Collections.synchronizedList(new ArrayList<>());
+    Subscription subscription = authors.getChangeFeed().subscribeAsync(event -> {
+      sequences.add(event.sequence());
+    }, 4);
+
+    for (int i = 0; i < 1000; i++) {
+      Author added = authors.resolveAuthor("Per", "Petterson", "per" + i + "@ex.com");
+      authors.resolveAuthor("Per", "Petterson", "per" + i + "@ex.com");
+      authors.removeAuthor(added);
+    }
+    subscription.close();
+
+    assertEquals(2000, sequences.size());
+    for (int i = 0; i < sequences.size(); i++) {
+      assertEquals(i + 1, sequences.get(i));
+    }
+    assertFalse(subscription.isActive());
+  }
+
+  @Test
+  void testListenerReadingRegisterDoesNotBlockOnFullQueue() throws InterruptedException {
+    List<Integer> counts = Collections.synchronizedList(new ArrayList<>());
+    Thread writer = new Thread(() -> {
+      for (int i = 0; i < 50; i++) {
+        register.addEntry(new DiaryEntry("Entry " + i, "Text", author, past));
+      }
+    });
+    Subscription subscription = register.getChangeFeed().subscribeAsync(event -> {
+      // Read only once the writer has filled the queue and waits for room.
+      while (writer.getState() == Thread.State.RUNNABLE) {
+        Thread.onSpinWait();
+      }
+      counts.add(register.getEntryCount());
+    }, 1);
+
+    writer.start();
+    writer.join(10_000);
+
+    assertFalse(writer.isAlive());
+    subscription.close();
+    assertEquals(50, counts.size());
+  }
+
+  @Test
+  void testFailingListenerIsUnsubscribed() {
+    ChangeFeed feed = register.getChangeFeed();
+    List<ChangeEvent> events = new ArrayList<>();
+    feed.subscribe(events::add);
+    Subscription failing = feed.subscribe(event -> {
+      throw new IllegalStateException("broken");
+    });
+
+    register.addEntry(new DiaryEntry("One", "First", author, past));
+    register.addEntry(new DiaryEntry("Two", "Second", author, past));
+
+    assertEquals(2, events.size());
+    assertFalse(failing.isActive());
+    assertEquals("broken", failing.getFailure().getMessage());
+    assertThrows(IllegalArgumentException.class, () -> {
+      feed.subscribeAsync(events::add, 0);
+    });
+  }
+}
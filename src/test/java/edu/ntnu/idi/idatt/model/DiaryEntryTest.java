@@ -2,10 +2,13 @@ package edu.ntnu.idi.idatt.model;
 
 import edu.ntnu.idi.idatt.model.entity.Author;
 import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.entity.EntryFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -122,4 +125,47 @@ class DiaryEntryTest {
     assertTrue(output.contains("Title"));
     assertTrue(output.contains("Navn Navneson"));
   }
-}
\ No newline at end of file
+
+  @Test
+  void testToStringFollowsChanges() {
+    DiaryEntry entry = new DiaryEntry("Title", "Description", testAuthor,
+            LocalDateTime.of(2025, 12, 6, 13, 45));
+    assertEquals("ID: 0 - [2025-12-06 13:45] Title (Navn Navneson): Description",
+            entry.toString());
+
+    entry.setEntryId(3);
+    entry.setTitle("New title");
+    entry.setDescription("New text");
+
+    assertEquals("ID: 3 - [2025-12-06 13:45] New title (Navn Navneson): New text",
+            entry.toString());
+  }
+
+  @Test
+  void testEntryFactoryUsesItsClock() {
+    LocalDateTime fixed = LocalDateTime.of(2020, 5, 1, 12, 0);
+    EntryFactory factory = new EntryFactory(
+            Clock.fixed(fixed.toInstant(ZoneOffset.UTC), ZoneOffset.UTC), 1000);
+
+    assertEquals(fixed, factory.create("Title", "Description", testAuthor).getCreationTime());
+    assertEquals(fixed.minusDays(1), factory.create("Title", "Description", testAuthor,
+            fixed.minusDays(1)).getCreationTime());
+    assertThrows(IllegalArgumentException.class, () -> {
+      factory.create("Title", "Description", testAuthor, fixed.plusMinutes(1));
+    });
+  }
+
+  @Test
+  void testEntryFactoryRestoreSkipsClockCheck() {
+    LocalDateTime fixed = LocalDateTime.of(2020, 5, 1, 12, 0);
+    EntryFactory factory = new EntryFactory(
+            Clock.fixed(fixed.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+    DiaryEntry entry = factory.restore("Title", "Description", testAuthor, fixed.plusYears(1));
+
+    assertEquals(fixed.plusYears(1), entry.getCreationTime());
+    assertThrows(IllegalArgumentException.class, () -> {
+      factory.restore(" ", "Description", testAuthor, fixed);
+    });
+  }
+}
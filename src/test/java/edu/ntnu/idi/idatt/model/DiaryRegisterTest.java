@@ -2,7 +2,13 @@ package edu.ntnu.idi.idatt.model;
 
 import edu.ntnu.idi.idatt.model.entity.Author;
 import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.register.BatchOperation;
+import edu.ntnu.idi.idatt.model.register.BatchResult;
 import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.model.register.PageCursor;
+import edu.ntnu.idi.idatt.model.register.QueryCacheStatistics;
+import edu.ntnu.idi.idatt.model.register.TimeBucket;
+import edu.ntnu.idi.idatt.model.storage.InMemoryEntryStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -10,6 +16,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -317,4 +324,201 @@ class DiaryRegisterTest {
     assertEquals(1, test2.size());
     assertTrue(test2.contains(entry1));
   }
-}
\ No newline at end of file
+
+  @Test
+  void testApplyBatchReturnsResultPerOperation() {
+    diaryRegister.addEntry(entry1);
+    List<BatchResult> results = diaryRegister.applyBatch(List.of(
+            BatchOperation.create(entry2),
+            BatchOperation.delete(1),
+            BatchOperation.delete(99)));
+
+    assertEquals(3, results.size());
+    assertTrue(results.get(0).applied());
+    assertEquals(2, results.get(0).entryId());
+    assertTrue(results.get(1).applied());
+    assertFalse(results.get(2).applied());
+    assertNotNull(results.get(2).error());
+    assertEquals(1, diaryRegister.getEntryCount());
+    assertNull(diaryRegister.getEntryById(1));
+  }
+
+  @Test
+  void testApplyBatchRejectsEntryThatAlreadyHasId() {
+    diaryRegister.addEntry(entry1);
+    List<BatchResult> results = diaryRegister.applyBatch(List.of(
+            BatchOperation.create(entry1),
+            BatchOperation.create(entry2)));
+
+    assertFalse(results.get(0).applied());
+    assertTrue(results.get(1).applied());
+    assertEquals(2, diaryRegister.getEntryCount());
+  }
+
+  @Test
+  void testInconsistentBatchOperationIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+            () -> new BatchOperation(null, entry1, 0));
+    assertThrows(IllegalArgumentException.class,
+            () -> new BatchOperation(BatchOperation.Type.CREATE, null, 0));
+    assertThrows(IllegalArgumentException.class,
+            () -> new BatchOperation(BatchOperation.Type.CREATE, entry1, 3));
+    assertThrows(IllegalArgumentException.class,
+            () -> new BatchOperation(BatchOperation.Type.DELETE, entry1, 3));
+    assertThrows(IllegalArgumentException.class,
+            () -> new BatchOperation(BatchOperation.Type.DELETE, null, 0));
+  }
+
+  @Test
+  void testEntriesPagesFollowNewestFirstOrder() {
+    DiaryEntry oldest = new DiaryEntry("Oldest", "Text", author1, before);
+    DiaryEntry newest = new DiaryEntry("Newest", "Text", author1, end);
+    diaryRegister.addEntry(newest);
+    diaryRegister.addEntry(oldest);
+    diaryRegister.addEntry(entry2);
+
+    List<DiaryEntry> first = diaryRegister.getEntriesPage(PageCursor.FIRST, 2);
+    List<DiaryEntry> second = diaryRegister.getEntriesPage(PageCursor.after(first.get(1)), 2);
+
+    assertEquals(List.of(newest, entry2), first);
+    assertEquals(List.of(oldest), second);
+  }
+
+  @Test
+  void testEntriesPageCanJumpToDate() {
+    DiaryEntry oldest = new DiaryEntry("Oldest", "Text", author1, before);
+    diaryRegister.addEntry(entry1);
+    diaryRegister.addEntry(oldest);
+    diaryRegister.addEntry(entry2);
+
+    List<DiaryEntry> page = diaryRegister.getEntriesPage(
+            PageCursor.onOrBefore(past.toLocalDate()), 10);
+
+    assertEquals(List.of(entry2, oldest), page);
+    assertThrows(IllegalArgumentException.class, () -> {
+      diaryRegister.getEntriesPage(PageCursor.FIRST, 0);
+    });
+  }
+
+  @Test
+  void testRepeatedQueryIsServedFromCache() {
+    diaryRegister.addEntry(entry1);
+
+    List<DiaryEntry> first = diaryRegister.searchByKeyword("did");
+    List<DiaryEntry> second = diaryRegister.searchByKeyword("DID");
+
+    QueryCacheStatistics statistics = diaryRegister.getQueryCacheStatistics();
+    assertSame(first, second);
+    assertEquals(1, statistics.hits());
+    assertEquals(1, statistics.misses());
+  }
+
+  @Test
+  void testChangesInvalidateCachedResults() {
+    diaryRegister.addEntry(entry1);
+    assertEquals(1, diaryRegister.getAllEntries().size());
+
+    diaryRegister.addEntry(entry2);
+    assertEquals(2, diaryRegister.getAllEntries().size());
+    assertEquals(2L, diaryRegister.getAuthorStatistics().values().stream()
+            .mapToLong(Long::longValue).sum());
+
+    diaryRegister.updateEntry(entry1, "Renamed", "Changed");
+    assertEquals(List.of(entry1), diaryRegister.searchByKeyword("renamed"));
+
+    diaryRegister.removeEntry(entry1);
+    assertEquals(List.of(), diaryRegister.searchByKeyword("renamed"));
+    assertEquals(0, diaryRegister.getQueryCacheStatistics().hits());
+  }
+
+  @Test
+  void testSetterEditsInvalidateCachedResultsAndIndexes() {
+    diaryRegister.addEntry(entry1);
+    assertEquals(List.of(entry1), diaryRegister.searchByKeyword("present"));
+    assertEquals(1, diaryRegister.searchRanked("present", 5).size());
+
+    entry1.setTitle("Renamed");
+
+    assertEquals(List.of(), diaryRegister.searchByKeyword("present"));
+    assertEquals(List.of(entry1), diaryRegister.searchByKeyword("renamed"));
+    assertTrue(diaryRegister.searchRanked("present", 5).isEmpty());
+    assertEquals(1, diaryRegister.searchRanked("renamed", 5).size());
+    assertEquals(0, diaryRegister.getQueryCacheStatistics().hits());
+  }
+
+  @Test
+  void testUpdateOfEntryNotInRegisterThrows() {
+    diaryRegister.addEntry(entry1);
+    diaryRegister.removeEntry(entry1);
+
+    assertThrows(IllegalArgumentException.class,
+            () -> {
+              diaryRegister.updateEntry(entry1, "Renamed", "Changed");
+            });
+    assertThrows(IllegalArgumentException.class,
+            () -> {
+              diaryRegister.updateEntry(entry2, "Renamed", "Changed");
+            });
+    assertEquals("Present", entry1.getTitle());
+  }
+
+  @Test
+  void testQueryCacheEvictsLeastRecentlyUsed() {
+    DiaryRegister register = new DiaryRegister(new InMemoryEntryStore(), 2);
+    register.addEntry(entry1);
+
+    register.searchByKeyword("a");
+    register.searchByKeyword("b");
+    register.searchByKeyword("a");
+    register.searchByKeyword("c");
+    register.searchByKeyword("a");
+    register.searchByKeyword("b");
+
+    QueryCacheStatistics statistics = register.getQueryCacheStatistics();
+    assertEquals(2, statistics.hits());
+    assertEquals(4, statistics.misses());
+    assertEquals(2, statistics.size());
+    assertThrows(IllegalArgumentException.class, () -> {
+      new DiaryRegister(new InMemoryEntryStore(), -1);
+    });
+  }
+
+  @Test
+  void testActivityRollupsCountPerMonthAndAuthor() {
+    diaryRegister.addEntry(new DiaryEntry("A", "Text", author1, LocalDateTime.of(2025, 1, 5, 9, 0)));
+    diaryRegister.addEntry(new DiaryEntry("B", "Text", author1, LocalDateTime.of(2025, 1, 20, 9, 0)));
+    diaryRegister.addEntry(new DiaryEntry("C", "Text", author2, LocalDateTime.of(2025, 3, 1, 9, 0)));
+    LocalDate from = LocalDate.of(2025, 1, 1);
+    LocalDate to = LocalDate.of(2025, 3, 31);
+
+    SortedMap<LocalDate, Long> all = diaryRegister.getActivity(TimeBucket.MONTH, from, to);
+    SortedMap<LocalDate, Long> perAuthor = diaryRegister.getActivityByAuthor(
+            "PER@ex.com", TimeBucket.MONTH, from, to);
+
+    assertEquals(List.of(2L, 0L, 1L), List.copyOf(all.values()));
+    assertEquals(List.of(2L, 0L, 0L), List.copyOf(perAuthor.values()));
+    assertEquals(LocalDate.of(2025, 2, 1), all.keySet().toArray()[1]);
+    assertEquals(0L, diaryRegister.getActivityByAuthor("nobody@ex.com", TimeBucket.MONTH,
+            from, to).get(from));
+  }
+
+  @Test
+  void testActivityRollupsFollowAddAndRemove() {
+    DiaryEntry wednesday = new DiaryEntry("A", "Text", author1, LocalDateTime.of(2025, 1, 8, 9, 0));
+    diaryRegister.addEntry(wednesday);
+    LocalDate from = LocalDate.of(2025, 1, 8);
+
+    SortedMap<LocalDate, Long> weeks = diaryRegister.getActivity(TimeBucket.WEEK, from, from);
+    assertEquals(Map.of(LocalDate.of(2025, 1, 6), 1L), weeks);
+
+    diaryRegister.addEntry(new DiaryEntry("B", "Text", author2, LocalDateTime.of(2025, 1, 8, 20, 0)));
+    diaryRegister.removeEntry(wednesday);
+    diaryRegister.removeEntry(wednesday);
+    assertEquals(1L, diaryRegister.getActivity(TimeBucket.DAY, from, from).get(from));
+    assertEquals(0L, diaryRegister.getActivityByAuthor(author1.getEmail(), TimeBucket.DAY,
+            from, from).get(from));
+    assertThrows(IllegalArgumentException.class, () -> {
+      diaryRegister.getActivity(TimeBucket.DAY, from, from.minusDays(1));
+    });
+  }
+}
@@ -0,0 +1,180 @@
+package edu.ntnu.idi.idatt.model;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.entity.EntryFactory;
+import edu.ntnu.idi.idatt.model.io.DiaryExporter;
+import edu.ntnu.idi.idatt.model.io.DiaryImporter;
+import edu.ntnu.idi.idatt.model.io.ImportReport;
+import edu.ntnu.idi.idatt.model.io.TransferFormat;
+import edu.ntnu.idi.idatt.model.register.AuthorRegister;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiaryTransferTest {
+  @TempDir
+  Path directory;
+
+  private DiaryRegister source;
+  private final LocalDateTime past = LocalDateTime.of(2024, 6, 1, 18, 30);
+
+  @BeforeEach
+  void setUp() {
+    source = new DiaryRegister();
+    Author author = new Author("Per", "Petterson", "per@ex.com");
+    source.addEntry(new DiaryEntry("Dinner, again", "Ate \"stake\"\nwith mashed potatoes",
+            author, past));
+    source.addEntry(new DiaryEntry("Training", "Hit chest", author, past.plusDays(1)));
+  }
+
+  @Test
+  void testCsvRoundTripKeepsQuotesCommasAndLineBreaks() throws IOException {
+    assertRoundTrip(TransferFormat.CSV);
+  }
+
+  @Test
+  void testJsonLinesRoundTripKeepsQuotesCommasAndLineBreaks() throws IOException {
+    assertRoundTrip(TransferFormat.JSON_LINES);
+  }
+
+  @Test
+  void testBadRowsAreReportedWithLineNumbers() throws IOException {
+    Path file = directory.resolve("bad.csv");
+    Files.writeString(file, String.join("\n",
+            TransferFormat.CSV.header(),
+            "2024-06-01T18:30,Per,Petterson,per@ex.com,Title,Description",
+            "not a date,Per,Petterson,per@ex.com,Title,Description",
+            "2024-06-01T18:30,Per,Petterson,invalid,Title,Description",
+            "2024-06-01T18:30,Per,Petterson,per@ex.com,Title",
+            "2024-06-02T18:30,Per,Petterson,per@ex.com,Second,Description"));
+
+    DiaryRegister target = new DiaryRegister();
+    ImportReport report = new DiaryImporter(target, new AuthorRegister())
+            .importFile(file, TransferFormat.CSV, null);
+
+    assertEquals(2, report.imported());
+    assertEquals(3, report.rejected());
+    assertEquals(3, report.errors().get(0).lineNumber());
+    assertEquals(4, report.errors().get(1).lineNumber());
+    assertEquals(5, report.errors().get(2).lineNumber());
+    assertEquals(2, target.getEntryCount());
+  }
+
+  @Test
+  void testTrustedImportSkipsClockCheck() throws IOException {
+    Path file = directory.resolve("future.csv");
+    Files.writeString(file, String.join("\n",
+            TransferFormat.CSV.header(),
+            LocalDateTime.now().plusDays(1).withNano(0) + ",Per,Petterson,per@ex.com,Title,Text",
+            "not a date,Per,Petterson,per@ex.com,Title,Description"));
+
+    DiaryImporter checked = new DiaryImporter(new DiaryRegister(), new AuthorRegister());
+    DiaryImporter trusted = new DiaryImporter(new DiaryRegister(), new AuthorRegister());
+    trusted.setTrusted(true);
+
+    assertEquals(0, checked.importFile(file, TransferFormat.CSV, null).imported());
+    ImportReport report = trusted.importFile(file, TransferFormat.CSV, null);
+    assertEquals(1, report.imported());
+    assertEquals(1, report.rejected());
+  }
+
+  @Test
+  void testUnexpectedParserFailureReachesCaller() throws IOException {
+    Path file = directory.resolve("entries.csv");
+    new DiaryExporter(source).exportFile(file, TransferFormat.CSV, null);
+    Clock broken = new Clock() {
+      @Override
+      public ZoneId getZone() {
+        return ZoneOffset.UTC;
+      }
+
+      @Override
+      public Clock withZone(ZoneId zone) {
+        return this;
+      }
+
+      @Override
+      public Instant instant() {
+        throw new IllegalStateException("Clock is broken");
+      }
+    };
+    DiaryImporter importer = new DiaryImporter(new DiaryRegister(), new AuthorRegister(),
+            new EntryFactory(broken));
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+      importer.importFile(file, TransferFormat.CSV, null);
+    });
+    assertEquals("Clock is broken", e.getMessage());
+  }
+
+  @Test
+  void testImportSpanningSeveralChunksKeepsOrderAndLineNumbers() throws IOException {
+    Path file = directory.resolve("many.csv");
+    StringBuilder rows = new StringBuilder(TransferFormat.CSV.header());
+    for (int i = 0; i < 3000; i++) {
+      rows.append('\n').append(i == 1500 ? "not a date" : past.plusMinutes(i).toString())
+              .append(",Per,Petterson,per@ex.com,Entry ").append(i).append(",Description");
+    }
+    Files.writeString(file, rows);
+
+    DiaryRegister target = new DiaryRegister();
+    ImportReport report = new DiaryImporter(target, new AuthorRegister())
+            .importFile(file, TransferFormat.CSV, null);
+
+    assertEquals(2999, report.imported());
+    assertEquals(1, report.rejected());
+    assertEquals(1502, report.errors().get(0).lineNumber());
+    assertEquals("Entry 0", target.getEntryById(1).getTitle());
+    assertEquals("Entry 2999", target.getEntryById(2999).getTitle());
+    assertEquals(past.plusMinutes(2999), target.getEntryById(2999).getCreationTime());
+  }
+
+  @Test
+  void testImportReusesExistingAuthors() throws IOException {
+    Path file = directory.resolve("entries.jsonl");
+    new DiaryExporter(source).exportFile(file, TransferFormat.JSON_LINES, null);
+    AuthorRegister authors = new AuthorRegister();
+    Author existing = new Author("Per", "Petterson", "per@ex.com");
+    authors.addAuthor(existing);
+
+    DiaryRegister target = new DiaryRegister();
+    new DiaryImporter(target, authors).importFile(file, TransferFormat.JSON_LINES, null);
+
+    assertEquals(1, authors.getAllAuthors().size());
+    assertSame(existing, target.getEntryById(1).getAuthor());
+  }
+
+  private void assertRoundTrip(TransferFormat format) throws IOException {
+    Path file = directory.resolve("entries." + format.name().toLowerCase());
+    long[] progressCalls = {0};
+
+    long written = new DiaryExporter(source).exportFile(file, format,
+            (records, elapsed) -> progressCalls[0]++);
+    DiaryRegister target = new DiaryRegister();
+    AuthorRegister authors = new AuthorRegister();
+    ImportReport report = new DiaryImporter(target, authors).importFile(file, format, null);
+
+    assertEquals(2, written);
+    assertTrue(progressCalls[0] > 0);
+    assertEquals(2, report.imported());
+    assertEquals(0, report.rejected());
+    DiaryEntry first = target.getEntryById(1);
+    assertEquals("Dinner, again", first.getTitle());
+    assertEquals("Ate \"stake\"\nwith mashed potatoes", first.getDescription());
+    assertEquals(past, first.getCreationTime());
+    assertEquals("per@ex.com", authors.getAuthorByEmail("per@ex.com").getEmail());
+  }
+}
@@ -0,0 +1,94 @@
+package edu.ntnu.idi.idatt.model;
+
+import edu.ntnu.idi.idatt.model.analytics.DuplicateDetector;
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateDetectionTest {
+  private final LocalDateTime past = LocalDateTime.of(2024, 6, 1, 18, 30);
+  private Author author;
+  private DiaryRegister register;
+
+  @BeforeEach
+  void setUp() {
+    author = new Author("Per", "Petterson", "per@ex.com");
+    register = new DiaryRegister();
+  }
+
+  @Test
+  void testFindsNearDuplicateBeforeItIsAdded() {
+    DiaryEntry original = entry("Went to the new Italian restaurant downtown with Kari, "
+            + "the pasta was great and the dessert even better.");
+    entry("Long run along the river in the morning, legs were heavy after yesterday.");
+
+    DiaryEntry copy = new DiaryEntry("Dinner", "went to the new italian restaurant downtown "
+            + "with Kari -- the pasta was great, and the desert even better!", author, past);
+
+    assertEquals(List.of(original), register.findDuplicates(copy));
+    assertTrue(register.findDuplicates(original).isEmpty());
+    DiaryEntry other = new DiaryEntry("Dinner", "Cooked tacos at home and watched a movie",
+            author, past);
+    assertTrue(register.findDuplicates(other).isEmpty());
+  }
+
+  @Test
+  void testClustersFollowChanges() {
+    String text = "Spent the afternoon in the garden planting tomatoes and chili, "
+            + "then watered everything twice because of the heat.";
+    DiaryEntry first = entry(text);
+    entry("Read two chapters of the new crime novel before bed.");
+    DiaryEntry second = entry(text.toUpperCase());
+    DiaryEntry third = entry(text.replace("twice", "twise"));
+
+    assertEquals(List.of(List.of(first, second, third)), register.findDuplicateClusters());
+
+    register.removeEntry(second);
+    register.updateEntry(third, "Garden", "Cleaned the whole kitchen and fixed the sink.");
+    assertTrue(register.findDuplicateClusters().isEmpty());
+    assertEquals(List.of(), register.findDuplicates(first));
+  }
+
+  @Test
+  void testDetectorFindsEditedCopiesAmongRandomTexts() {
+    String[] words = {"walk", "rain", "coffee", "book", "dinner", "friends", "garden", "movie",
+        "morning", "evening", "work", "train", "city", "park", "music", "sleep"};
+    Random random = new Random(11);
+    DuplicateDetector detector = new DuplicateDetector();
+    List<String> texts = new ArrayList<>();
+    for (int id = 1; id <= 2000; id++) {
+      StringBuilder text = new StringBuilder();
+      for (int word = 0; word < 30; word++) {
+        text.append(words[random.nextInt(words.length)]).append(' ');
+      }
+      texts.add(text.toString());
+      detector.add(id, text.toString());
+    }
+
+    for (int id = 1; id <= 50; id++) {
+      String text = texts.get(id - 1);
+      int typo = random.nextInt(text.length() - 1);
+      String copy = text.substring(0, typo) + 'x' + text.substring(typo + 1);
+      assertEquals(List.of(id), detector.findSimilar(copy, 0), copy);
+    }
+    assertTrue(detector.clusters().isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> {
+      new DuplicateDetector(0);
+    });
+  }
+
+  private DiaryEntry entry(String description) {
+    DiaryEntry entry = new DiaryEntry("Entry", description, author, past);
+    register.addEntry(entry);
+    return entry;
+  }
+}
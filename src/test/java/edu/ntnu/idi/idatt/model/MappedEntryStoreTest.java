@@ -0,0 +1,568 @@
+package edu.ntnu.idi.idatt.model;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.event.ChangeEvent;
+import edu.ntnu.idi.idatt.model.event.ChangeType;
+import edu.ntnu.idi.idatt.model.register.BatchOperation;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.model.register.PageCursor;
+import edu.ntnu.idi.idatt.model.storage.CompactionReport;
+import edu.ntnu.idi.idatt.model.storage.DurabilityMode;
+import edu.ntnu.idi.idatt.model.storage.MappedEntryStore;
+import edu.ntnu.idi.idatt.model.storage.SegmentPartitioning;
+import edu.ntnu.idi.idatt.model.storage.StorageStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedEntryStoreTest {
+  @TempDir
+  Path directory;
+
+  private Author author1;
+  private Author author2;
+  private final LocalDateTime past = LocalDateTime.now().minusDays(7);
+
+  @BeforeEach
+  void setUp() {
+    author1 = new Author("Per", "Petterson", "per@ex.com");
+    author2 = new Author("Fredrik", "Fredrikson", "fredrik@ex.com");
+  }
+
+  @Test
+  void testEntriesSurviveReopen() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+      register.addEntry(new DiaryEntry("Present", "What i did to day", author1));
+      register.addEntry(new DiaryEntry("Past", "What i did last week", author2, past));
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+
+      assertEquals(2, register.getEntryCount());
+      assertEquals("Past", register.getEntryById(2).getTitle());
+      assertEquals("What i did last week", register.getEntryById(2).getDescription());
+      assertEquals(past, register.getEntryById(2).getCreationTime());
+      assertEquals("fredrik@ex.com", register.getEntryById(2).getAuthor().getEmail());
+      assertEquals(2, store.getAuthors().size());
+    }
+  }
+
+  @Test
+  void testQueriesWorkOnFlushedAndBufferedEntries() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+      register.addEntry(new DiaryEntry("Past", "What i did last week", author2, past));
+      register.flush();
+      register.addEntry(new DiaryEntry("Present", "What i did to day", author1));
+
+      List<DiaryEntry> byKeyword = register.searchByKeyword("week");
+      List<DiaryEntry> byDate = register.getEntriesByDate(past.toLocalDate());
+      List<DiaryEntry> between = register.searchEntriesBetweenDates(
+              past.toLocalDate(), LocalDate.now());
+
+      assertEquals(1, byKeyword.size());
+      assertEquals(1, byDate.size());
+      assertEquals(2, between.size());
+      assertEquals("Present", register.getAllEntries().get(0).getTitle());
+      assertEquals(1L, register.getAuthorStatistics().get("per@ex.com"));
+    }
+  }
+
+  @Test
+  void testNewIdsContinueAfterReopen() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      new DiaryRegister(store).addEntry(new DiaryEntry("Title", "Description", author1));
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryEntry entry = new DiaryEntry("Second", "Description", author1);
+      new DiaryRegister(store).addEntry(entry);
+
+      assertEquals(2, entry.getEntryId());
+    }
+  }
+
+  @Test
+  void testRemovedFlushedEntryStaysRemovedAfterReopen() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+      register.addEntry(new DiaryEntry("Keep", "Description", author1));
+      register.addEntry(new DiaryEntry("Drop", "Description", author1));
+      register.flush();
+
+      register.removeEntry(register.getEntryById(2));
+      assertNull(register.getEntryById(2));
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+
+      assertEquals(1, register.getEntryCount());
+      assertNull(register.getEntryById(2));
+      assertEquals("Keep", register.getEntryById(1).getTitle());
+    }
+  }
+
+  @Test
+  void testFlushWritesOneSegmentPerPartition() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+      register.addEntry(new DiaryEntry("March", "Description", author1,
+              LocalDateTime.of(2024, 3, 10, 12, 0)));
+      register.addEntry(new DiaryEntry("May", "Description", author1,
+              LocalDateTime.of(2024, 5, 2, 12, 0)));
+      register.addEntry(new DiaryEntry("March again", "Description", author2,
+              LocalDateTime.of(2024, 3, 20, 12, 0)));
+      register.flush();
+
+      assertEquals(2, countSegmentFiles());
+      assertEquals(2, register.getEntriesByDate(LocalDate.of(2024, 3, 10)).size()
+              + register.getEntriesByDate(LocalDate.of(2024, 3, 20)).size());
+      assertEquals(1, register.searchEntriesBetweenDates(
+              LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 31)).size());
+    }
+  }
+
+  @Test
+  void testSealingMergesOldPartitionAndDropsRemovedEntries() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+      register.addEntry(new DiaryEntry("First", "Description", author1,
+              LocalDateTime.of(2024, 3, 10, 12, 0)));
+      register.flush();
+      register.addEntry(new DiaryEntry("Second", "Description", author1,
+              LocalDateTime.of(2024, 3, 11, 12, 0)));
+      register.addEntry(new DiaryEntry("Third", "Description", author1,
+              LocalDateTime.of(2024, 3, 12, 12, 0)));
+      register.flush();
+      register.removeEntry(register.getEntryById(2));
+
+      assertEquals(1, store.sealOlderPartitions());
+      assertEquals(1, countSegmentFiles());
+      assertEquals(0, store.sealOlderPartitions());
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+
+      assertEquals(2, register.getEntryCount());
+      assertNull(register.getEntryById(2));
+      assertEquals("Third", register.getEntryById(3).getTitle());
+    }
+  }
+
+  @Test
+  void testInterruptedSealingLoadsOneGeneration() throws IOException {
+    Path live = directory.resolve("live");
+    Path before = directory.resolve("before");
+    try (MappedEntryStore store = MappedEntryStore.open(live)) {
+      DiaryRegister register = new DiaryRegister(store);
+      for (int i = 0; i < 3; i++) {
+        register.addEntry(new DiaryEntry("Entry " + i, "Description", author1,
+                LocalDateTime.of(2024, 3, 10 + i, 12, 0)));
+        register.flush();
+      }
+      register.removeEntry(register.getEntryById(2));
+      register.flush();
+      copyFiles(live, before);
+
+      assertEquals(1, store.sealOlderPartitions());
+    }
+    // Crashed before the manifest was replaced: the sealed segment is on disk too.
+    copyFiles(live, before);
+    // Crashed after the manifest was replaced: the unsealed segments are still on disk.
+    copyFiles(before, live);
+
+    for (Path crashed : List.of(before, live)) {
+      try (MappedEntryStore store = MappedEntryStore.open(crashed)) {
+        DiaryRegister register = new DiaryRegister(store);
+        List<Integer> ids = register.getAllEntries().stream()
+                .map(DiaryEntry::getEntryId)
+                .sorted()
+                .toList();
+
+        assertEquals(List.of(1, 3), ids);
+      }
+    }
+    try (MappedEntryStore store = MappedEntryStore.open(live)) {
+      assertEquals(1, countSegmentFiles(live));
+      assertEquals(0, store.sealOlderPartitions());
+    }
+  }
+
+  @Test
+  void testCompressedSealedSegmentReadsBackSameText() throws IOException {
+    LocalDateTime march = LocalDateTime.of(2024, 3, 1, 8, 0);
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      store.setCompressSealedSegments(true);
+      DiaryRegister register = new DiaryRegister(store);
+      for (int i = 0; i < 2000; i++) {
+        register.addEntry(new DiaryEntry("Day " + i,
+                "Went for a walk and wrote about it, entry number " + i, author1,
+                march.plusMinutes(i)));
+      }
+      store.sealOlderPartitions();
+
+      StorageStatistics statistics = store.getStatistics();
+      assertEquals(1, statistics.compressedSegments());
+      assertTrue(statistics.compressionRatio() > 2.0);
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+
+      assertEquals("Day 1500", register.getEntryById(1501).getTitle());
+      assertEquals("Went for a walk and wrote about it, entry number 1500",
+              register.getEntryById(1501).getDescription());
+      assertEquals(1, register.searchByKeyword("number 1999").size());
+      assertTrue(store.getStatistics().cacheHits() > 0);
+    }
+  }
+
+  @Test
+  void testTruncatedCompressedBlockIsReportedAsCorrupt() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      store.setCompressSealedSegments(true);
+      DiaryRegister register = new DiaryRegister(store);
+      for (int i = 0; i < 100; i++) {
+        register.addEntry(new DiaryEntry("Day " + i, "Description " + i, author1,
+                LocalDateTime.of(2024, 3, 1, 8, 0).plusMinutes(i)));
+      }
+      store.sealOlderPartitions();
+    }
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.filter(file -> file.toString().endsWith(".seg")).findFirst().orElseThrow();
+    }
+    // Halve the compressed length of the first block, as if the block was cut short.
+    try (FileChannel channel = FileChannel.open(segment,
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer header = ByteBuffer.allocate(8);
+      channel.read(header, 32);
+      long lengthOffset = header.flip().getLong() + 4 + 8;
+      ByteBuffer length = ByteBuffer.allocate(4);
+      channel.read(length, lengthOffset);
+      channel.write(ByteBuffer.allocate(4).putInt(0, length.flip().getInt() / 2), lengthOffset);
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+
+      UncheckedIOException exception = assertThrows(UncheckedIOException.class,
+              () -> register.getEntryById(1).getTitle());
+      assertTrue(exception.getCause().getMessage().startsWith("Corrupt text block 0"));
+    }
+  }
+
+  @Test
+  void testUnflushedChangesAreReplayedFromJournal() throws IOException {
+    MappedEntryStore crashed = MappedEntryStore.open(
+            directory, SegmentPartitioning.MONTH, DurabilityMode.SYNC);
+    // A crashed process does not compact; keep the abandoned store from
+    // rewriting segments while the reopened one reads them.
+    crashed.setCompactionThreshold(1.0);
+    DiaryRegister register = new DiaryRegister(crashed);
+    register.addEntry(new DiaryEntry("Flushed", "Description", author1, past));
+    register.flush();
+    register.addEntry(new DiaryEntry("Journalled", "Description", author2));
+    register.removeEntry(register.getEntryById(1));
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister reopened = new DiaryRegister(store);
+
+      assertEquals(1, reopened.getEntryCount());
+      assertNull(reopened.getEntryById(1));
+      assertEquals("Journalled", reopened.getEntryById(2).getTitle());
+      assertEquals("fredrik@ex.com", reopened.getEntryById(2).getAuthor().getEmail());
+    }
+  }
+
+  @Test
+  void testTornJournalTailIsIgnored() throws IOException {
+    MappedEntryStore crashed = MappedEntryStore.open(
+            directory, SegmentPartitioning.MONTH, DurabilityMode.SYNC);
+    new DiaryRegister(crashed).addEntry(new DiaryEntry("Title", "Description", author1));
+    Files.write(directory.resolve("journal.log"), new byte[] {0, 0, 1, 0, 42},
+            StandardOpenOption.APPEND);
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister reopened = new DiaryRegister(store);
+      reopened.addEntry(new DiaryEntry("Second", "Description", author1));
+
+      assertEquals(2, reopened.getEntryCount());
+      assertEquals("Title", reopened.getEntryById(1).getTitle());
+    }
+  }
+
+  @Test
+  void testCloseIsIdempotent() throws IOException {
+    MappedEntryStore store = MappedEntryStore.open(directory);
+    new DiaryRegister(store).addEntry(new DiaryEntry("Title", "Description", author1));
+
+    store.close();
+    store.close();
+
+    assertThrows(IllegalStateException.class,
+            () -> {
+              store.add(new DiaryEntry("Late", "Description", author1));
+            });
+  }
+
+  @Test
+  void testCompactionDropsDeadRecordsAndKeepsLiveEntries() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      store.setCompactionThreshold(1.0);
+      DiaryRegister register = new DiaryRegister(store);
+      for (int i = 0; i < 10; i++) {
+        register.addEntry(new DiaryEntry("Entry " + i, "Text " + i, author1));
+      }
+      register.flush();
+      for (int i = 1; i <= 6; i++) {
+        register.removeEntry(register.getEntryById(i));
+      }
+
+      CompactionReport report = store.compact();
+
+      assertEquals(1, report.segmentsCompacted());
+      assertEquals(6, report.recordsDropped());
+      assertTrue(report.reclaimedBytes() > 0);
+      assertEquals(0.0, store.getGarbageRatio());
+      assertEquals(4, register.getEntryCount());
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+
+      assertEquals(4, register.getEntryCount());
+      assertNull(register.getEntryById(1));
+      assertEquals("Text 9", register.getEntryById(10).getDescription());
+      assertEquals(1, countSegmentFiles());
+    }
+  }
+
+  @Test
+  void testInterruptedCompactionLoadsOneGeneration() throws IOException {
+    Path live = directory.resolve("live");
+    Path before = directory.resolve("before");
+    try (MappedEntryStore store = MappedEntryStore.open(live)) {
+      store.setCompactionThreshold(1.0);
+      DiaryRegister register = new DiaryRegister(store);
+      for (int i = 0; i < 10; i++) {
+        register.addEntry(new DiaryEntry("Entry " + i, "Text " + i, author1));
+      }
+      register.flush();
+      for (int i = 1; i <= 6; i++) {
+        register.removeEntry(register.getEntryById(i));
+      }
+      register.flush();
+      copyFiles(live, before);
+
+      store.compact();
+    }
+    // Crashed before the manifest was replaced: the replacement is on disk too.
+    copyFiles(live, before);
+    // Crashed after the manifest was replaced: the old segment is still on disk.
+    copyFiles(before, live);
+
+    for (Path crashed : List.of(before, live)) {
+      try (MappedEntryStore store = MappedEntryStore.open(crashed)) {
+        DiaryRegister register = new DiaryRegister(store);
+        List<Integer> ids = register.getAllEntries().stream()
+                .map(DiaryEntry::getEntryId)
+                .sorted()
+                .toList();
+
+        assertEquals(List.of(7, 8, 9, 10), ids);
+        assertEquals(1, countSegmentFiles(crashed));
+      }
+    }
+  }
+
+  @Test
+  void testEditedEntrySurvivesReopen() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+      register.addEntry(new DiaryEntry("Past", "What i did last week", author2, past));
+      register.flush();
+      register.updateEntry(register.getEntryById(1), "Edited", "Something else");
+
+      assertEquals(1, register.getEntryCount());
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+
+      assertEquals(1, register.getEntryCount());
+      assertEquals("Edited", register.getEntryById(1).getTitle());
+      assertEquals("Something else", register.getEntryById(1).getDescription());
+      assertEquals(past, register.getEntryById(1).getCreationTime());
+    }
+  }
+
+  @Test
+  void testSetterEditOfFlushedEntryIsPublishedAndPersisted() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+      register.addEntry(new DiaryEntry("Past", "What i did last week", author2, past));
+      register.flush();
+      List<ChangeEvent> events = new ArrayList<>();
+      register.getChangeFeed().subscribe(events::add);
+
+      DiaryEntry copy = register.getEntryById(1);
+      copy.setTitle("Edited");
+      copy.setDescription("Something else");
+
+      assertEquals("Edited", copy.getTitle());
+      assertEquals("Edited", register.getEntryById(1).getTitle());
+      assertEquals(List.of(ChangeType.ENTRY_UPDATED, ChangeType.ENTRY_UPDATED),
+              events.stream().map(ChangeEvent::type).toList());
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+
+      assertEquals("Edited", register.getEntryById(1).getTitle());
+      assertEquals("Something else", register.getEntryById(1).getDescription());
+    }
+  }
+
+  @Test
+  void testFullTailIsFlushedWithoutCallingFlush() throws Exception {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      store.setFlushThreshold(10);
+      DiaryRegister register = new DiaryRegister(store);
+      for (int i = 0; i < 25; i++) {
+        register.addEntry(new DiaryEntry("Entry " + i, "Text " + i, author1));
+      }
+
+      long deadline = System.nanoTime() + 10_000_000_000L;
+      while (store.getStatistics().segments() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+
+      assertTrue(store.getStatistics().segments() > 0);
+      assertTrue(countSegmentFiles() > 0);
+      assertNull(store.getLastFlushFailure());
+      assertEquals(25, register.getEntryCount());
+    }
+  }
+
+  @Test
+  void testInvalidFlushThresholdIsRejected() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      assertThrows(IllegalArgumentException.class, () -> {
+        store.setFlushThreshold(0);
+      });
+    }
+  }
+
+  @Test
+  void testInvalidCompactionThresholdIsRejected() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      assertThrows(IllegalArgumentException.class, () -> {
+        store.setCompactionThreshold(0);
+      });
+    }
+  }
+
+  @Test
+  void testSyncBatchSurvivesReopen() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(
+            directory, SegmentPartitioning.MONTH, DurabilityMode.SYNC)) {
+      DiaryRegister register = new DiaryRegister(store);
+      List<BatchOperation> operations = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        operations.add(BatchOperation.create(new DiaryEntry("Entry " + i, "Text", author1)));
+      }
+      operations.add(BatchOperation.delete(1));
+      register.applyBatch(operations);
+    }
+
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+
+      assertEquals(99, register.getEntryCount());
+      assertNull(register.getEntryById(1));
+      assertEquals("Entry 99", register.getEntryById(100).getTitle());
+    }
+  }
+
+  @Test
+  void testPagesAcrossSegmentsAndTailMatchFullSort() throws IOException {
+    try (MappedEntryStore store = MappedEntryStore.open(directory)) {
+      DiaryRegister register = new DiaryRegister(store);
+      for (int i = 0; i < 60; i++) {
+        register.addEntry(new DiaryEntry("Entry " + i, "Text", author1,
+                past.minusDays(i * 11L % 90)));
+      }
+      register.flush();
+      for (int i = 0; i < 15; i++) {
+        register.addEntry(new DiaryEntry("Late " + i, "Text", author2, past.minusDays(i * 7L)));
+      }
+      register.removeEntry(register.getEntryById(3));
+
+      List<Integer> paged = new ArrayList<>();
+      PageCursor cursor = PageCursor.FIRST;
+      List<DiaryEntry> page = register.getEntriesPage(cursor, 7);
+      while (!page.isEmpty()) {
+        page.forEach(entry -> paged.add(entry.getEntryId()));
+        page = register.getEntriesPage(PageCursor.after(page.get(page.size() - 1)), 7);
+      }
+      List<Integer> sorted = register.getAllEntries().stream()
+              .sorted(Comparator.comparing(DiaryEntry::getCreationTime)
+                      .thenComparingInt(DiaryEntry::getEntryId).reversed())
+              .map(DiaryEntry::getEntryId)
+              .toList();
+
+      assertEquals(74, paged.size());
+      assertEquals(sorted, paged);
+    }
+  }
+
+  private long countSegmentFiles() throws IOException {
+    return countSegmentFiles(directory);
+  }
+
+  private long countSegmentFiles(Path storeDirectory) throws IOException {
+    try (Stream<Path> files = Files.list(storeDirectory)) {
+      return files.filter(file -> file.toString().endsWith(".seg")).count();
+    }
+  }
+
+  /**
+   * Copies the files missing from {@code target}, leaving the files it
+   * already has, as a crash in the middle of a rewrite could leave them.
+   */
+  private void copyFiles(Path source, Path target) throws IOException {
+    Files.createDirectories(target);
+    List<Path> files;
+    try (Stream<Path> stream = Files.list(source)) {
+      files = stream.toList();
+    }
+    for (Path file : files) {
+      Path copy = target.resolve(file.getFileName());
+      if (!Files.exists(copy)) {
+        Files.copy(file, copy);
+      }
+    }
+  }
+}
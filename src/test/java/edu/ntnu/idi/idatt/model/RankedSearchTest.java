@@ -0,0 +1,330 @@
+package edu.ntnu.idi.idatt.model;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import edu.ntnu.idi.idatt.model.search.InvertedIndex;
+import edu.ntnu.idi.idatt.model.search.ScoredDocument;
+import edu.ntnu.idi.idatt.model.search.SearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedSearchTest {
+  private final LocalDateTime past = LocalDateTime.of(2024, 6, 1, 18, 30);
+  private Author author;
+  private DiaryRegister register;
+
+  @BeforeEach
+  void setUp() {
+    author = new Author("Per", "Petterson", "per@ex.com");
+    register = new DiaryRegister();
+  }
+
+  @Test
+  void testTitleMatchesRankHigher() {
+    DiaryEntry inDescription = entry("Evening", "Went to a restaurant with friends");
+    DiaryEntry inTitle = entry("Restaurant", "Went out with friends");
+    entry("Training", "Hit chest and back");
+
+    List<SearchHit> hits = register.searchRanked("restaurant", 10);
+
+    assertEquals(List.of(inTitle, inDescription), hits.stream().map(SearchHit::entry).toList());
+    assertTrue(hits.get(0).score() > hits.get(1).score());
+  }
+
+  @Test
+  void testEntriesWithMoreQueryTermsRankHigher() {
+    entry("Walk", "A walk in the rain");
+    DiaryEntry both = entry("Rainy walk", "Long walk with the dog in the rain");
+    entry("Dog", "The dog slept all day");
+
+    List<SearchHit> hits = register.searchRanked("dog rain", 2);
+
+    assertEquals(both, hits.get(0).entry());
+    assertEquals(2, hits.size());
+  }
+
+  @Test
+  void testIndexFollowsChanges() {
+    DiaryEntry entry = entry("Coffee", "Morning coffee");
+    assertEquals(1, register.searchRanked("coffee", 5).size());
+
+    register.updateEntry(entry, "Tea", "Morning tea");
+    assertTrue(register.searchRanked("coffee", 5).isEmpty());
+    assertEquals(entry, register.searchRanked("tea", 5).get(0).entry());
+
+    register.removeEntry(entry);
+    assertTrue(register.searchRanked("tea", 5).isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> {
+      register.searchRanked("tea", 0);
+    });
+  }
+
+  @Test
+  void testTopKMatchesExhaustiveScoring() {
+    String[] words = {"walk", "rain", "coffee", "book", "dinner", "friends", "garden", "movie"};
+    Random random = new Random(17);
+    InvertedIndex index = new InvertedIndex();
+    for (int id = 1; id <= 3000; id++) {
+      StringBuilder text = new StringBuilder();
+      int length = 3 + random.nextInt(15);
+      for (int word = 0; word < length; word++) {
+        // Skewed so that "walk" is very common and "movie" is rare.
+        text.append(words[Math.min(words.length - 1, (int) -Math.log(random.nextDouble()) * 2)])
+                .append(' ');
+      }
+      DiaryEntry entry = new DiaryEntry(words[random.nextInt(words.length)], text.toString(),
+              author, past);
+      entry.setEntryId(id);
+      index.add(entry);
+    }
+
+    for (String query : List.of("walk movie", "walk rain coffee", "garden movie book")) {
+      List<ScoredDocument> all = new ArrayList<>(index.search(query, Integer.MAX_VALUE));
+      all.sort(Comparator.comparingDouble(ScoredDocument::score).reversed()
+              .thenComparingInt(ScoredDocument::entryId));
+      List<ScoredDocument> top = index.search(query, 10);
+      // Scores may differ in the last bits because terms are summed in another order.
+      assertEquals(ids(all.subList(0, 10)), ids(top), query);
+      assertEquals(all.get(9).score(), top.get(9).score(), 1e-9);
+    }
+  }
+
+  @Test
+  void testFuzzySearchFindsMisspelledTerms() {
+    DiaryEntry dinner = entry("Dining out", "Had a steak with friends");
+    DiaryEntry walk = entry("Walk", "Long walk with the dog");
+
+    assertEquals(List.of(dinner), register.searchFuzzy("Dinning", 1));
+    assertEquals(List.of(dinner), register.searchFuzzy("stake", 2));
+    assertTrue(register.searchFuzzy("stake", 1).isEmpty());
+    assertEquals(List.of(dinner, walk), register.searchFuzzy("wiht", 2));
+    assertEquals(List.of(walk), register.searchFuzzy("wiht dgo", 2));
+
+    register.removeEntry(walk);
+    assertTrue(register.searchFuzzy("dgo", 2).isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> {
+      register.searchFuzzy("dog", 3);
+    });
+  }
+
+  @Test
+  void testSimilarTermsMatchBruteForce() {
+    Random random = new Random(5);
+    InvertedIndex index = new InvertedIndex();
+    List<String> terms = new ArrayList<>();
+    for (int id = 1; id <= 500; id++) {
+      StringBuilder term = new StringBuilder();
+      int length = 2 + random.nextInt(6);
+      for (int i = 0; i < length; i++) {
+        term.append((char) ('a' + random.nextInt(6)));
+      }
+      terms.add(term.toString());
+      DiaryEntry entry = new DiaryEntry("Entry", term.toString(), author, past);
+      entry.setEntryId(id);
+      index.add(entry);
+    }
+
+    for (String query : List.of("abc", "fedcba", "aaaa", "b")) {
+      for (int distance = 0; distance <= InvertedIndex.MAX_FUZZY_DISTANCE; distance++) {
+        int maxDistance = distance;
+        List<String> expected = terms.stream()
+                .distinct()
+                .filter(term -> levenshtein(query, term) <= maxDistance)
+                .sorted(Comparator.comparingInt((String term) -> levenshtein(query, term))
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+        assertEquals(expected, index.similarTerms(query, distance), query);
+      }
+    }
+  }
+
+  @Test
+  void testPhraseAndNearSearch() {
+    DiaryEntry great = entry("Dinner", "A great, Restaurant by the sea");
+    DiaryEntry apart = entry("Lunch", "Great food but the restaurant was loud");
+    DiaryEntry reversed = entry("Walk", "Restaurant great? No");
+
+    assertEquals(List.of(great), register.searchPhrase("great restaurant"));
+    assertEquals(List.of(great, reversed), register.searchNear("great", "restaurant", 3));
+    assertEquals(List.of(great, apart, reversed), register.searchNear("restaurant", "great", 4));
+    assertTrue(register.searchNear("food", "sea", 9).isEmpty());
+
+    register.updateEntry(great, "Dinner", "A quiet restaurant");
+    assertTrue(register.searchPhrase("great restaurant").isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> {
+      register.searchNear("great food", "restaurant", 2);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      register.searchNear("great", "restaurant", 0);
+    });
+  }
+
+  @Test
+  void testPositionalSearchMatchesBruteForce() {
+    String[] words = {"a", "b", "c", "d"};
+    Random random = new Random(3);
+    InvertedIndex index = new InvertedIndex();
+    List<String[]> texts = new ArrayList<>();
+    for (int id = 1; id <= 300; id++) {
+      // Long descriptions so that some position gaps need several bytes.
+      String[] text = new String[1 + random.nextInt(id % 10 == 0 ? 600 : 12)];
+      for (int i = 0; i < text.length; i++) {
+        text[i] = random.nextInt(50) == 0 ? words[random.nextInt(words.length)] : "x";
+        if (id % 2 == 0) {
+          text[i] = words[random.nextInt(words.length)];
+        }
+      }
+      texts.add(text);
+      DiaryEntry entry = new DiaryEntry("Entry", String.join(" ", text), author, past);
+      entry.setEntryId(id);
+      index.add(entry);
+    }
+
+    for (String phrase : List.of("a b", "c c", "a b c", "d")) {
+      List<Integer> expected = new ArrayList<>();
+      String needle = " " + phrase + " ";
+      for (int id = 1; id <= texts.size(); id++) {
+        if ((" " + String.join(" ", texts.get(id - 1)) + " ").contains(needle)) {
+          expected.add(id);
+        }
+      }
+      assertEquals(expected, index.searchPhrase(phrase), phrase);
+    }
+    for (int distance = 1; distance <= 5; distance++) {
+      List<Integer> expected = new ArrayList<>();
+      for (int id = 1; id <= texts.size(); id++) {
+        String[] text = texts.get(id - 1);
+        boolean near = false;
+        for (int i = 0; i < text.length && !near; i++) {
+          for (int j = 0; j < text.length && !near; j++) {
+            near = text[i].equals("a") && text[j].equals("d") && Math.abs(i - j) <= distance;
+          }
+        }
+        if (near) {
+          expected.add(id);
+        }
+      }
+      assertEquals(expected, index.searchNear("a", "d", distance));
+    }
+  }
+
+  @Test
+  void testSimilarEntriesShareRareWords() {
+    DiaryEntry sushi = entry("Sushi", "Sushi dinner with Kari at the harbour");
+    DiaryEntry moreSushi = entry("Dinner", "Kari made sushi at home");
+    DiaryEntry harbour = entry("Walk", "Walk along the harbour");
+    entry("Gym", "Leg day, heavy squats");
+
+    List<SearchHit> similar = register.findSimilarEntries(sushi, 5);
+
+    assertEquals(List.of(moreSushi, harbour), similar.stream().map(SearchHit::entry).toList());
+    assertTrue(similar.get(0).score() > similar.get(1).score());
+    assertTrue(similar.get(0).score() <= 1.0);
+    assertThrows(IllegalArgumentException.class, () -> {
+      register.findSimilarEntries(sushi, 0);
+    });
+  }
+
+  @Test
+  void testSimilarToMatchesBruteForceCosine() {
+    String[] words = {"walk", "rain", "coffee", "book", "dinner", "friends", "garden", "movie",
+        "sushi", "harbour", "train", "music"};
+    Random random = new Random(23);
+    InvertedIndex index = new InvertedIndex();
+    List<DiaryEntry> all = new ArrayList<>();
+    for (int id = 1; id <= 400; id++) {
+      StringBuilder text = new StringBuilder();
+      for (int word = 1 + random.nextInt(8); word > 0; word--) {
+        text.append(words[random.nextInt(words.length)]).append(' ');
+      }
+      DiaryEntry entry = new DiaryEntry(words[random.nextInt(words.length)], text.toString(),
+              author, past);
+      entry.setEntryId(id);
+      index.add(entry);
+      all.add(entry);
+    }
+
+    for (DiaryEntry query : all.subList(0, 20)) {
+      List<ScoredDocument> expected = new ArrayList<>();
+      for (DiaryEntry other : all) {
+        double cosine = cosine(vector(query, all), vector(other, all));
+        if (other != query && cosine > 0) {
+          expected.add(new ScoredDocument(other.getEntryId(), cosine));
+        }
+      }
+      expected.sort(Comparator.comparingDouble(ScoredDocument::score).reversed()
+              .thenComparingInt(ScoredDocument::entryId));
+      List<ScoredDocument> top = index.similarTo(query, 5);
+      assertEquals(5, top.size());
+      for (int i = 0; i < top.size(); i++) {
+        assertEquals(expected.get(i).score(), top.get(i).score(), 1e-9);
+      }
+    }
+  }
+
+  private static Map<String, Double> vector(DiaryEntry entry, List<DiaryEntry> all) {
+    Map<String, Double> tf = termFrequencies(entry);
+    Map<String, Double> vector = new HashMap<>();
+    for (Map.Entry<String, Double> term : tf.entrySet()) {
+      long df = all.stream().filter(e -> termFrequencies(e).containsKey(term.getKey())).count();
+      vector.put(term.getKey(), (1 + Math.log(term.getValue())) * Math.log(all.size() / (double) df));
+    }
+    return vector;
+  }
+
+  private static Map<String, Double> termFrequencies(DiaryEntry entry) {
+    Map<String, Double> tf = new HashMap<>();
+    tf.merge(entry.getTitle(), 2.0, Double::sum);
+    for (String word : entry.getDescription().trim().split(" ")) {
+      tf.merge(word, 1.0, Double::sum);
+    }
+    return tf;
+  }
+
+  private static double cosine(Map<String, Double> a, Map<String, Double> b) {
+    double dot = 0;
+    for (Map.Entry<String, Double> term : a.entrySet()) {
+      dot += term.getValue() * b.getOrDefault(term.getKey(), 0.0);
+    }
+    double normA = Math.sqrt(a.values().stream().mapToDouble(v -> v * v).sum());
+    double normB = Math.sqrt(b.values().stream().mapToDouble(v -> v * v).sum());
+    return normA == 0 || normB == 0 ? 0 : dot / (normA * normB);
+  }
+
+  private static int levenshtein(String a, String b) {
+    int[][] distances = new int[a.length() + 1][b.length() + 1];
+    for (int i = 0; i <= a.length(); i++) {
+      for (int j = 0; j <= b.length(); j++) {
+        if (i == 0 || j == 0) {
+          distances[i][j] = i + j;
+        } else {
+          int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+          distances[i][j] = Math.min(distances[i - 1][j - 1] + cost,
+                  Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+        }
+      }
+    }
+    return distances[a.length()][b.length()];
+  }
+
+  private static List<Integer> ids(List<ScoredDocument> documents) {
+    return documents.stream().map(ScoredDocument::entryId).toList();
+  }
+
+  private DiaryEntry entry(String title, String description) {
+    DiaryEntry entry = new DiaryEntry(title, description, author, past);
+    register.addEntry(entry);
+    return entry;
+  }
+}
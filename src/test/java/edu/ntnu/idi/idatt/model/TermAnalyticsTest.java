@@ -0,0 +1,136 @@
+package edu.ntnu.idi.idatt.model;
+
+import edu.ntnu.idi.idatt.model.analytics.CorpusAnalyzer;
+import edu.ntnu.idi.idatt.model.analytics.CorpusStatistics;
+import edu.ntnu.idi.idatt.model.analytics.CountMinSketch;
+import edu.ntnu.idi.idatt.model.analytics.HyperLogLog;
+import edu.ntnu.idi.idatt.model.analytics.SketchSettings;
+import edu.ntnu.idi.idatt.model.analytics.TermCount;
+import edu.ntnu.idi.idatt.model.analytics.TermStatistics;
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermAnalyticsTest {
+  private final Author per = new Author("Per", "Petterson", "per@ex.com");
+  private final Author kari = new Author("Kari", "Nordmann", "kari@ex.com");
+  private final LocalDateTime past = LocalDateTime.of(2024, 6, 1, 18, 30);
+
+  @Test
+  void testHyperLogLogStaysWithinErrorBound() {
+    HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+    Random random = new Random(3);
+    int distinct = 100_000;
+    for (int i = 0; i < distinct; i++) {
+      long value = random.nextLong();
+      sketch.add(value);
+      sketch.add(value);
+    }
+
+    double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+    assertTrue(error < 4 * sketch.relativeError(), "error " + error);
+    assertEquals(12, HyperLogLog.precisionFor(0.0163));
+  }
+
+  @Test
+  void testCountMinNeverUnderestimates() {
+    CountMinSketch sketch = new CountMinSketch(0.01, 0.99);
+    Random random = new Random(5);
+    long[] counts = new long[1000];
+    for (int i = 0; i < 50_000; i++) {
+      int value = (int) Math.abs(random.nextGaussian() * 100) % counts.length;
+      counts[value]++;
+      sketch.add(value * 0x9e3779b97f4a7c15L, 1);
+    }
+
+    for (int value = 0; value < counts.length; value++) {
+      long estimate = sketch.estimate(value * 0x9e3779b97f4a7c15L);
+      assertTrue(estimate >= counts[value]);
+      assertTrue(estimate <= counts[value] + sketch.errorBound());
+    }
+  }
+
+  @Test
+  void testRegisterReportsTopKeywordsPerAuthor() {
+    DiaryRegister register = new DiaryRegister();
+    register.addEntry(new DiaryEntry("Running", "Running in the rain, running fast", per, past));
+    register.addEntry(new DiaryEntry("Coffee", "Coffee with Kari", kari, past));
+    register.getTermStatistics();
+    register.addEntry(new DiaryEntry("Coffee again", "More coffee", kari, past));
+
+    TermStatistics all = register.getTermStatistics();
+    TermStatistics perTerms = register.getTermStatisticsByAuthor("PER@ex.com");
+
+    assertEquals(new TermCount("running", 3), perTerms.topTerms().get(0));
+    assertEquals(new TermCount("coffee", 4), all.topTerms().get(0));
+    assertEquals(10, all.distinctTerms());
+    assertTrue(register.getTermStatisticsByAuthor("nobody@ex.com").topTerms().isEmpty());
+  }
+
+  @Test
+  void testRemovedEntriesLeaveKeywordCounts() {
+    DiaryRegister register = new DiaryRegister();
+    DiaryEntry entry = new DiaryEntry("Coffee", "Coffee with Kari", kari, past);
+    register.addEntry(entry);
+    register.getTermStatistics();
+
+    register.removeEntry(entry);
+
+    assertTrue(register.getTermStatistics().topTerms().isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SketchSettings(0.01, 0.001, 0.99, 0);
+    });
+  }
+
+  @Test
+  void testParallelAnalysisMatchesSequential() {
+    List<DiaryEntry> entries = new ArrayList<>();
+    Random random = new Random(11);
+    String[] words = {"Walk", "rain", "coffee", "Rain", "book", "Dinner", "walk"};
+    for (int i = 0; i < 20_000; i++) {
+      StringBuilder text = new StringBuilder();
+      for (int word = 0; word < 8; word++) {
+        text.append(words[random.nextInt(words.length)]).append(word % 3 == 0 ? ", " : " ");
+      }
+      entries.add(new DiaryEntry("Day " + (i % 50), text.toString(), i % 3 == 0 ? per : kari,
+              past));
+    }
+
+    CorpusStatistics sequential = new CorpusAnalyzer(1).analyze(entries);
+    CorpusStatistics parallel = new CorpusAnalyzer(4).analyze(entries);
+
+    assertEquals(sequential, parallel);
+    assertEquals(20_000, parallel.entryCount());
+    assertEquals(20_000 * 10, parallel.termCount());
+    assertEquals(Map.of("per@ex.com", 6667L, "kari@ex.com", 13_333L),
+            parallel.entriesPerAuthor());
+    assertEquals(20_000, parallel.termFrequencies().get("day"));
+    assertNull(parallel.termFrequencies().get("Rain"));
+  }
+
+  @Test
+  void testRegisterAnalyzesAllEntries() {
+    DiaryRegister register = new DiaryRegister();
+    register.addEntry(new DiaryEntry("Running", "Running in the rain", per, past));
+    register.addEntry(new DiaryEntry("Coffee", "Coffee", kari, past));
+
+    CorpusStatistics statistics = register.analyzeEntries(new CorpusAnalyzer(2));
+
+    assertEquals(2, statistics.entryCount());
+    assertEquals(19.0, statistics.averageLength());
+    assertEquals(List.of(new TermCount("coffee", 2), new TermCount("running", 2)),
+            statistics.topTerms(2));
+    assertThrows(IllegalArgumentException.class, () -> {
+      new CorpusAnalyzer(0);
+    });
+  }
+}
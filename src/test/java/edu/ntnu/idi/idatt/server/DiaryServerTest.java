@@ -0,0 +1,201 @@
+package edu.ntnu.idi.idatt.server;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import edu.ntnu.idi.idatt.model.register.AuthorRegister;
+import edu.ntnu.idi.idatt.model.register.DiaryRegister;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiaryServerTest {
+  private DiaryRegister diaryRegister;
+  private AuthorRegister authorRegister;
+  private DiaryServer server;
+  private HttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    diaryRegister = new DiaryRegister();
+    authorRegister = new AuthorRegister();
+    Author author = new Author("Per", "Petterson", "per@ex.com");
+    authorRegister.addAuthor(author);
+    diaryRegister.addEntry(new DiaryEntry("Monday", "Went hiking", author));
+    server = DiaryServer.start(new InetSocketAddress("localhost", 0),
+            diaryRegister, authorRegister);
+    client = HttpClient.newHttpClient();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  @Test
+  void testCreateAddsEntryAndAuthor() throws Exception {
+    HttpResponse<String> response = send(post("/entries",
+            "{\"title\":\"Tuesday\",\"description\":\"Went swimming\","
+                    + "\"firstName\":\"Fredrik\",\"lastName\":\"Fredrikson\","
+                    + "\"email\":\"fredrik@ex.com\"}"));
+
+    assertEquals(201, response.statusCode());
+    assertTrue(response.body().contains("\"id\":2"));
+    assertEquals(2, diaryRegister.getEntryCount());
+    assertNotNull(authorRegister.getAuthorByEmail("fredrik@ex.com"));
+  }
+
+  @Test
+  void testGetAndDeleteEntry() throws Exception {
+    HttpResponse<String> found = send(request("/entries/1").GET().build());
+    HttpResponse<String> deleted = send(request("/entries/1").DELETE().build());
+    HttpResponse<String> missing = send(request("/entries/1").GET().build());
+
+    assertEquals(200, found.statusCode());
+    assertTrue(found.body().contains("\"title\":\"Monday\""));
+    assertEquals(204, deleted.statusCode());
+    assertEquals(404, missing.statusCode());
+  }
+
+  @Test
+  void testSearchAndStatistics() throws Exception {
+    HttpResponse<String> search = send(request("/entries/search?keyword=hik").GET().build());
+    HttpResponse<String> statistics = send(request("/statistics").GET().build());
+
+    assertEquals(200, search.statusCode());
+    assertTrue(search.body().startsWith("[{\"id\":1"));
+    assertEquals("{\"entries\":1,\"authors\":{\"per@ex.com\":1}}", statistics.body());
+  }
+
+  @Test
+  void testStreamedListIsChunkedAndComplete() throws Exception {
+    Author author = authorRegister.getAuthorByEmail("per@ex.com");
+    for (int i = 0; i < 1000; i++) {
+      diaryRegister.addEntry(new DiaryEntry("Entry " + i, "Text", author));
+    }
+
+    HttpResponse<String> response = send(request("/entries?stream=true").GET().build());
+    HttpResponse<String> buffered = send(request("/entries").GET().build());
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.headers().firstValue("content-length").isEmpty());
+    assertTrue(response.body().contains("\"title\":\"Entry 0\",\"description\":\"Text\"}"));
+    assertTrue(response.body().contains("\"title\":\"Entry 999\",\"description\":\"Text\"}"));
+    assertEquals(buffered.body(), response.body());
+  }
+
+  @Test
+  void testStreamedSearchMatchesBufferedSearch() throws Exception {
+    Author author = authorRegister.getAuthorByEmail("per@ex.com");
+    diaryRegister.addEntry(new DiaryEntry("Tuesday", "Went hiking again", author));
+    diaryRegister.addEntry(new DiaryEntry("Wednesday", "Stayed home", author));
+
+    HttpResponse<String> buffered = send(request("/entries/search?keyword=hiking").GET().build());
+    HttpResponse<String> streamed = send(
+            request("/entries/search?keyword=hiking&stream=true").GET().build());
+    HttpResponse<String> empty = send(
+            request("/entries/search?keyword=nothing&stream=true").GET().build());
+
+    assertEquals(buffered.body(), streamed.body());
+    assertEquals("[]", empty.body());
+  }
+
+  @Test
+  void testStreamedDateRangeSpansPagesAndStopsAtStart() throws Exception {
+    Author author = authorRegister.getAuthorByEmail("per@ex.com");
+    LocalDateTime day = LocalDateTime.of(2024, 5, 10, 12, 0);
+    for (int i = 0; i < 600; i++) {
+      diaryRegister.addEntry(new DiaryEntry("Entry " + i, "Text", author, day.minusHours(i)));
+    }
+
+    String range = "/entries/search?from=2024-04-20&to=2024-05-05";
+    HttpResponse<String> buffered = send(request(range).GET().build());
+    HttpResponse<String> streamed = send(request(range + "&stream=true").GET().build());
+
+    assertEquals(buffered.body(), streamed.body());
+    assertEquals(384, streamed.body().split("\\{\"id\"").length - 1);
+  }
+
+  @Test
+  void testBatchAppliesValidLinesAndReportsInvalidOnes() throws Exception {
+    String body = "{\"op\":\"create\",\"title\":\"A\",\"description\":\"B\","
+            + "\"email\":\"per@ex.com\"}\n"
+            + "{\"op\":\"delete\",\"id\":1}\n"
+            + "{\"op\":\"rename\"}\n"
+            + "{\"op\":\"delete\",\"id\":42}\n";
+
+    HttpResponse<String> response = send(post("/entries/batch", body));
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body().startsWith(
+            "[{\"applied\":true,\"id\":2},{\"applied\":true,\"id\":1},{\"applied\":false,"));
+    assertTrue(response.body().contains("{\"applied\":false,\"id\":42,"));
+    assertEquals(1, diaryRegister.getEntryCount());
+  }
+
+  @Test
+  void testRejectedBatchRegistersNoAuthors() throws Exception {
+    String body = "{\"op\":\"create\",\"title\":\"A\",\"description\":\"B\","
+            + "\"firstName\":\"Ny\",\"lastName\":\"Forfatter\",\"email\":\"ny@ex.com\"}\n"
+            + "x".repeat(EntriesHandler.MAX_BATCH_LINE_CHARS + 1) + "\n";
+
+    HttpResponse<String> response = send(post("/entries/batch", body));
+
+    assertEquals(400, response.statusCode());
+    assertNull(authorRegister.getAuthorByEmail("ny@ex.com"));
+    assertEquals(1, diaryRegister.getEntryCount());
+  }
+
+  @Test
+  void testInvalidRequestsAreRejected() throws Exception {
+    assertEquals(400, send(post("/entries", "{\"title\":\"No author\"}")).statusCode());
+    assertEquals(400, send(post("/entries", "not json")).statusCode());
+    assertEquals(400, send(request("/entries/search").GET().build()).statusCode());
+    assertEquals(405, send(request("/statistics").DELETE().build()).statusCode());
+  }
+
+  @Test
+  void testConcurrentCreatesAreAllApplied() throws InterruptedException {
+    // The JDK server closes idle connections beyond its limit of 200, which the
+    // client may already be reusing, so fewer requests are kept in flight.
+    Semaphore inFlight = new Semaphore(100);
+    List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      inFlight.acquire();
+      responses.add(client.sendAsync(post("/entries",
+              "{\"title\":\"Entry " + i + "\",\"description\":\"Text\","
+                      + "\"email\":\"per@ex.com\"}"), HttpResponse.BodyHandlers.ofString())
+              .whenComplete((response, failure) -> inFlight.release()));
+    }
+
+    for (CompletableFuture<HttpResponse<String>> response : responses) {
+      assertEquals(201, response.join().statusCode());
+    }
+    assertEquals(501, diaryRegister.getEntryCount());
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path));
+  }
+
+  private HttpRequest post(String path, String body) {
+    return request(path).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+  }
+
+  private HttpResponse<String> send(HttpRequest request) throws Exception {
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+}
@@ -0,0 +1,79 @@
+package edu.ntnu.idi.idatt.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidatorsTest {
+  private static final Pattern EMAIL_PATTERN = Pattern.compile(Validators.EMAIL_REGEX);
+  private static final String ALPHABET =
+          "abcXYZ019._%-@@..+ \né";
+
+  @Test
+  void testEmailExamples() {
+    assertTrue(Validators.isValidEmail("per@ex.com"));
+    assertTrue(Validators.isValidEmail("a.b_c%d-e@sub.domain.info"));
+    assertTrue(Validators.isValidEmail("a@b.cd"));
+    assertFalse(Validators.isValidEmail("@ex.com"));
+    assertFalse(Validators.isValidEmail("per@.com"));
+    assertFalse(Validators.isValidEmail("per@ex.c0m"));
+    assertFalse(Validators.isValidEmail("per@ex.museum"));
+    assertFalse(Validators.isValidEmail("per@ex@ex.com"));
+    assertFalse(Validators.isValidEmail("per_x@ex_x.com"));
+    assertFalse(Validators.isValidEmail("a@b"));
+    assertFalse(Validators.isValidEmail("a".repeat(34) + "@ex.com"));
+  }
+
+  @Test
+  void testEmailCheckMatchesRegexOnGeneratedInputs() {
+    Random random = new Random(7);
+    for (int i = 0; i < 200_000; i++) {
+      String email = i % 2 == 0 ? randomString(random) : randomEmail(random);
+      assertEquals(EMAIL_PATTERN.matcher(email).matches(), Validators.isValidEmail(email),
+              email);
+    }
+  }
+
+  @Test
+  void testValidateEmailRejectsInvalidFormat() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      Validators.validateEmail("not an email");
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      Validators.validateEmail(" ");
+    });
+  }
+
+  private static String randomString(Random random) {
+    StringBuilder builder = new StringBuilder();
+    int length = random.nextInt(46);
+    for (int i = 0; i < length; i++) {
+      builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+    }
+    return builder.toString();
+  }
+
+  /** Builds mostly well-formed addresses, so both outcomes are well covered. */
+  private static String randomEmail(Random random) {
+    return part(random, 12) + "@" + part(random, 12) + "." + part(random, 5);
+  }
+
+  private static String part(Random random, int maxLength) {
+    StringBuilder builder = new StringBuilder();
+    int length = random.nextInt(maxLength + 1);
+    for (int i = 0; i < length; i++) {
+      int kind = random.nextInt(20);
+      if (kind == 0) {
+        builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+      } else if (kind < 3) {
+        builder.append((char) ('0' + random.nextInt(10)));
+      } else {
+        builder.append((char) ('a' + random.nextInt(26)));
+      }
+    }
+    return builder.toString();
+  }
+}
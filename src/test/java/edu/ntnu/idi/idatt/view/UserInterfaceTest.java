@@ -0,0 +1,117 @@
+package edu.ntnu.idi.idatt.view;
+
+import edu.ntnu.idi.idatt.model.entity.Author;
+import edu.ntnu.idi.idatt.model.entity.DiaryEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserInterfaceTest {
+  private ByteArrayOutputStream output;
+  private DiaryEntry entry;
+
+  @BeforeEach
+  void setUp() {
+    output = new ByteArrayOutputStream();
+    Author author = new Author("Per", "Petterson", "per@ex.com");
+    entry = new DiaryEntry("A walk in the park on a sunny day in early spring",
+            "Saw ducks", author, LocalDateTime.of(2025, 3, 1, 10, 30));
+    entry.setEntryId(7);
+  }
+
+  @Test
+  void testDetailedEntryKeepsFramedLayout() {
+    UserInterface ui = userInterface(false);
+    ui.printSingleEntry(entry);
+
+    String[] lines = text().split(System.lineSeparator());
+    assertEquals(8, lines.length);
+    assertEquals("id: 7 - " + entry.getFormatedCreationTime(), lines[1]);
+    assertEquals("Per Petterson per@ex.com", lines[2]);
+    assertEquals("Title: " + entry.getTitle(), lines[4]);
+    assertEquals("Saw ducks", lines[6]);
+  }
+
+  @Test
+  void testCompactFormatPrintsOneLinePerEntry() {
+    UserInterface ui = userInterface(false);
+    ui.setEntryFormat(EntryFormat.COMPACT);
+    List<DiaryEntry> entries = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      entries.add(entry);
+    }
+
+    ui.printSearchResults(entries);
+
+    String[] lines = text().split(System.lineSeparator());
+    assertEquals(5002, lines.length);
+    assertEquals("#7  " + entry.getFormatedCreationTime()
+            + "  per@ex.com  A walk in the park on a sunny day in ...", lines[2]);
+  }
+
+  @Test
+  void testClearScreenIsSkippedWhenNotATerminal() {
+    userInterface(false).clearScreen();
+    assertEquals("", text());
+
+    userInterface(true).clearScreen();
+    assertFalse(text().isEmpty());
+  }
+
+  @Test
+  void testHeatmapShadesDaysByCount() {
+    SortedMap<LocalDate, Long> days = new TreeMap<>();
+    LocalDate monday = LocalDate.of(2025, 3, 3);
+    for (int i = 0; i < 14; i++) {
+      days.put(monday.plusDays(i), 0L);
+    }
+    days.put(monday, 4L);
+    days.put(monday.plusDays(8), 1L);
+    SortedMap<LocalDate, Long> months = new TreeMap<>();
+    months.put(LocalDate.of(2025, 3, 1), 5L);
+
+    userInterface(false).printActivityHeatmap("Activity", days, months);
+
+    String[] lines = text().split(System.lineSeparator());
+    assertEquals("Activity", lines[0]);
+    assertEquals("    Mar ", lines[1]);
+    assertEquals("Mon # . ", lines[2]);
+    assertEquals("    . - ", lines[3]);
+    assertEquals("Mar 2025: 5", lines[10]);
+  }
+
+  @Test
+  void testHeatmapLabelsEveryMonthThatFits() {
+    SortedMap<LocalDate, Long> days = new TreeMap<>();
+    LocalDate start = LocalDate.of(2025, 3, 24);
+    for (int i = 0; i < 28; i++) {
+      days.put(start.plusDays(i), 1L);
+    }
+
+    userInterface(false).printActivityHeatmap("Activity", days, new TreeMap<>());
+
+    String[] lines = text().split(System.lineSeparator());
+    assertEquals("    Mar Apr ", lines[1]);
+  }
+
+  private UserInterface userInterface(boolean terminal) {
+    return new UserInterface(new ByteArrayInputStream(new byte[0]),
+            new PrintStream(output, false, StandardCharsets.UTF_8), terminal);
+  }
+
+  private String text() {
+    return output.toString(StandardCharsets.UTF_8);
+  }
+}